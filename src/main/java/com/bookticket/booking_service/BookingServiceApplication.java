@@ -1,8 +1,22 @@
 package com.bookticket.booking_service;
 
+import com.bookticket.booking_service.configuration.BookingCreateProperties;
+import com.bookticket.booking_service.configuration.BookingIdProperties;
+import com.bookticket.booking_service.configuration.BookingReadCacheProperties;
+import com.bookticket.booking_service.configuration.BookingReconcilerProperties;
+import com.bookticket.booking_service.configuration.BookingSagaProperties;
+import com.bookticket.booking_service.configuration.IdempotencyProperties;
+import com.bookticket.booking_service.configuration.OutboxProperties;
+import com.bookticket.booking_service.configuration.PaymentEventProperties;
 import com.bookticket.booking_service.configuration.PaymentPollingProperties;
+import com.bookticket.booking_service.configuration.ReadReplicaProperties;
 import com.bookticket.booking_service.configuration.RedisLockProperties;
+import com.bookticket.booking_service.configuration.SeatLockLeaseProperties;
+import com.bookticket.booking_service.configuration.SeatLockNearCacheProperties;
+import com.bookticket.booking_service.configuration.ServiceIdentityProperties;
 import com.bookticket.booking_service.configuration.ServiceUrlProperties;
+import com.bookticket.booking_service.configuration.TheaterBatchingProperties;
+import com.bookticket.booking_service.configuration.WaitingRoomProperties;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
@@ -13,7 +27,21 @@ import org.springframework.scheduling.annotation.EnableScheduling;
 @EnableConfigurationProperties({
         RedisLockProperties.class,
         ServiceUrlProperties.class,
-        PaymentPollingProperties.class}
+        PaymentPollingProperties.class,
+        SeatLockNearCacheProperties.class,
+        SeatLockLeaseProperties.class,
+        WaitingRoomProperties.class,
+        BookingReconcilerProperties.class,
+        BookingCreateProperties.class,
+        OutboxProperties.class,
+        IdempotencyProperties.class,
+        BookingSagaProperties.class,
+        PaymentEventProperties.class,
+        TheaterBatchingProperties.class,
+        BookingIdProperties.class,
+        BookingReadCacheProperties.class,
+        ReadReplicaProperties.class,
+        ServiceIdentityProperties.class}
 )
 @EnableAsync
 @EnableScheduling
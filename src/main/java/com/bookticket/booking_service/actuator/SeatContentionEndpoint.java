@@ -0,0 +1,31 @@
+package com.bookticket.booking_service.actuator;
+
+import com.bookticket.booking_service.dto.SeatContentionReport;
+import com.bookticket.booking_service.service.SeatContentionTracker;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+/**
+ * Actuator endpoint exposing the most contended shows and seats over the last few minutes
+ * Show entries carry their lock attempts and the share of them that conflicted (contentionRate).
+ * Available at /actuator/seatcontention?limit=N once exposed via management.endpoints.web.exposure.include
+ */
+@Component
+@Endpoint(id = "seatcontention")
+public class SeatContentionEndpoint {
+
+    private static final int DEFAULT_LIMIT = 20;
+
+    private final SeatContentionTracker contentionTracker;
+
+    public SeatContentionEndpoint(SeatContentionTracker contentionTracker) {
+        this.contentionTracker = contentionTracker;
+    }
+
+    @ReadOperation
+    public SeatContentionReport topContended(@Nullable Integer limit) {
+        return contentionTracker.getTopContended(limit != null && limit > 0 ? limit : DEFAULT_LIMIT);
+    }
+}
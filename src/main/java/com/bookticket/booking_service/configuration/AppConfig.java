@@ -10,14 +10,17 @@ import org.springframework.web.client.RestClient;
 public class AppConfig {
 
     private final ServiceUrlProperties serviceUrlProperties;
+    private final ServiceIdentityProperties serviceIdentityProperties;
 
-    public AppConfig(ServiceUrlProperties serviceUrlProperties) {
+    public AppConfig(ServiceUrlProperties serviceUrlProperties,
+                     ServiceIdentityProperties serviceIdentityProperties) {
         this.serviceUrlProperties = serviceUrlProperties;
+        this.serviceIdentityProperties = serviceIdentityProperties;
     }
 
     @Bean
     public HeaderPropagationInterceptor headerPropagationInterceptor() {
-        return new HeaderPropagationInterceptor();
+        return new HeaderPropagationInterceptor(serviceIdentityProperties);
     }
 
     /**
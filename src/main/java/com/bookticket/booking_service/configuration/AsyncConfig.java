@@ -1,53 +1,170 @@
 package com.bookticket.booking_service.configuration;
 
 import lombok.extern.slf4j.Slf4j;
+import org.slf4j.MDC;
+import org.springframework.boot.autoconfigure.thread.Threading;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.core.task.TaskDecorator;
 import org.springframework.retry.annotation.EnableRetry;
 import org.springframework.scheduling.annotation.AsyncConfigurer;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
 
+import java.util.Map;
 import java.util.concurrent.Executor;
 
+/**
+ * Executors for asynchronous work
+ * With spring.threads.virtual.enabled=true (Java 21+), Spring Boot runs Tomcat requests and scheduled
+ * jobs on virtual threads, and every executor below switches from a platform thread pool to a
+ * virtual thread per task. Bounded pools keep their bound as a concurrency limit, so downstream
+ * services see the same maximum load in both modes.
+ */
 @Configuration
 @EnableRetry
 @Slf4j
 public class AsyncConfig implements AsyncConfigurer {
 
+    private final boolean virtualThreads;
+
+    public AsyncConfig(Environment environment) {
+        this.virtualThreads = Threading.VIRTUAL.isActive(environment);
+    }
+
     /**
-     * Custom executor for booking event processing (Kafka/REST notifications)
-     * Dedicated thread pool ensures event sending doesn't block main booking flow
+     * Executor for the concurrent stages of createBooking (theater lock, checkout session)
+     * Stages run on behalf of an in-flight request, so the request attributes (used to propagate
+     * the user headers to downstream services) and the logging MDC are carried over to the worker.
      */
-    @Bean(name = "bookingEventExecutor")
-    public Executor bookingEventExecutor() {
+    @Bean(name = "bookingStageExecutor")
+    public Executor bookingStageExecutor() {
+        if (virtualThreads) {
+            // Stages belong to requests, which are no longer bounded by a thread pool - neither are stages
+            return virtualThreadExecutor("booking-stage-", SimpleAsyncTaskExecutor.UNBOUNDED_CONCURRENCY,
+                    requestContextDecorator());
+        }
         ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
-        executor.setCorePoolSize(5); // minimum number of threads to keep alive
-        executor.setMaxPoolSize(10); // maximum number of threads to spawn
-        executor.setQueueCapacity(100); // number of tasks to queue before rejecting
-        executor.setThreadNamePrefix("booking-event-");
-        
-        // Rejection policy - caller runs the task if queue is full
+        executor.setCorePoolSize(20);
+        executor.setMaxPoolSize(50);
+        executor.setQueueCapacity(100);
+        executor.setThreadNamePrefix("booking-stage-");
+        executor.setTaskDecorator(requestContextDecorator());
+
+        // Rejection policy - caller runs the stage if the pool is saturated, falling back to sequential
         executor.setRejectedExecutionHandler((r, exec) -> {
-            log.warn("Booking event executor queue is full. Task will be executed in caller thread.");
+            log.warn("Booking stage executor queue is full. Stage will be executed in caller thread.");
             r.run();
         });
-        
-        // Wait for tasks to complete on shutdown
-        executor.setWaitForTasksToCompleteOnShutdown(true);
-        executor.setAwaitTerminationSeconds(60);
-        
+
         executor.initialize();
-        log.info("Initialized booking event executor with core pool size: {}, max pool size: {}", 
+        log.info("Initialized booking stage executor with core pool size: {}, max pool size: {}",
                 executor.getCorePoolSize(), executor.getMaxPoolSize());
-        
+
         return executor;
     }
 
+    /**
+     * Executor for saga compensations (seat lock and theater seat releases of failed bookings)
+     * The saga worker submits from the scheduler thread and never claims more sagas than fit in the
+     * queue, so submitting never blocks or runs a compensation on the scheduler thread.
+     */
+    @Bean(name = "sagaWorkerExecutor")
+    public Executor sagaWorkerExecutor(BookingSagaProperties sagaProperties) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(sagaProperties.getWorkerThreads());
+        executor.setMaxPoolSize(sagaProperties.getWorkerThreads());
+        executor.setQueueCapacity(sagaProperties.getBatchSize());
+        executor.setThreadNamePrefix("booking-saga-");
+        if (virtualThreads) {
+            // Still a queue in front of a fixed number of workers - a concurrency-limited
+            // SimpleAsyncTaskExecutor would block the submitting scheduler thread instead
+            executor.setThreadFactory(Thread.ofVirtual().name("booking-saga-", 0).factory());
+        }
+
+        // Rejection policy - caller runs the compensation if the queue is full
+        executor.setRejectedExecutionHandler((r, exec) -> {
+            log.warn("Saga worker executor queue is full. Compensation will be executed in caller thread.");
+            r.run();
+        });
+
+        // Let running compensations finish on shutdown; unfinished ones are retried after the claim timeout
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+
+        executor.initialize();
+        log.info("Initialized saga worker executor with pool size: {}{}", executor.getCorePoolSize(),
+                virtualThreads ? " (virtual threads)" : "");
+
+        return executor;
+    }
+
+    /**
+     * Carry the request attributes (used to propagate the user headers to downstream services),
+     * the logging MDC and the connection hold stats of the submitting thread over to the task
+     */
+    private static TaskDecorator requestContextDecorator() {
+        return runnable -> {
+            RequestAttributes requestAttributes = RequestContextHolder.getRequestAttributes();
+            Map<String, String> mdc = MDC.getCopyOfContextMap();
+            ConnectionHoldTrackingDataSource.HoldStats holdStats = ConnectionHoldTrackingDataSource.currentHoldStats();
+            return () -> {
+                // Restore rather than clear afterwards - a rejected stage runs on the request thread itself
+                RequestAttributes previousAttributes = RequestContextHolder.getRequestAttributes();
+                Map<String, String> previousMdc = MDC.getCopyOfContextMap();
+                RequestContextHolder.setRequestAttributes(requestAttributes);
+                setMdc(mdc);
+                try {
+                    ConnectionHoldTrackingDataSource.withHoldStats(holdStats, () -> {
+                        runnable.run();
+                        return null;
+                    });
+                } finally {
+                    RequestContextHolder.setRequestAttributes(previousAttributes);
+                    setMdc(previousMdc);
+                }
+            };
+        };
+    }
+
+    /**
+     * Virtual thread per task, with an optional concurrency limit
+     * Submitters block once the limit is reached, instead of the task being queued or rejected.
+     */
+    private static Executor virtualThreadExecutor(String threadNamePrefix, int concurrencyLimit,
+                                                  TaskDecorator taskDecorator) {
+        SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor(threadNamePrefix);
+        executor.setVirtualThreads(true);
+        executor.setConcurrencyLimit(concurrencyLimit);
+        if (taskDecorator != null) {
+            executor.setTaskDecorator(taskDecorator);
+        }
+        // Wait for running tasks on shutdown, like the platform pools
+        executor.setTaskTerminationTimeout(30000);
+        log.info("Initialized virtual thread executor {} with concurrency limit: {}", threadNamePrefix,
+                concurrencyLimit == SimpleAsyncTaskExecutor.UNBOUNDED_CONCURRENCY ? "unbounded" : concurrencyLimit);
+        return executor;
+    }
+
+    private static void setMdc(Map<String, String> contextMap) {
+        if (contextMap != null) {
+            MDC.setContextMap(contextMap);
+        } else {
+            MDC.clear();
+        }
+    }
+
     /**
      * Default executor for other async operations
      */
     @Override
     public Executor getAsyncExecutor() {
+        if (virtualThreads) {
+            return virtualThreadExecutor("async-", 5, null);
+        }
         ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
         executor.setCorePoolSize(2);
         executor.setMaxPoolSize(5);
@@ -0,0 +1,22 @@
+package com.bookticket.booking_service.configuration;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "booking.create")
+@Data
+public class BookingCreateProperties {
+
+    /**
+     * Once the seats are locked, run the theater seat lock, the booking seat insert and the
+     * checkout session creation concurrently instead of one after another
+     */
+    private boolean parallelStages = false;
+
+    /**
+     * Maximum time to wait for a concurrent stage before the booking is failed and compensated
+     */
+    private Duration stageTimeout = Duration.ofSeconds(15);
+}
@@ -0,0 +1,35 @@
+package com.bookticket.booking_service.configuration;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Instant;
+
+@ConfigurationProperties(prefix = "booking.id")
+@Data
+public class BookingIdProperties {
+
+    /**
+     * Node id embedded in every booking id, 0 to 1023, unique per running instance
+     * (e.g. the StatefulSet pod ordinal). Two instances with the same node id can issue the same
+     * booking id, so startup fails when it is unset, unless allowDerivedNodeId is set.
+     */
+    private Integer nodeId;
+
+    /**
+     * Derive the node id from the host name and process id when nodeId is unset
+     * Only for a single local instance (set in the dev profile): two instances can derive the same node id.
+     */
+    private boolean allowDerivedNodeId = false;
+
+    /**
+     * Start of the id timestamp - ids stay positive for 69 years after it. Never change it once ids were issued.
+     */
+    private Instant epoch = Instant.parse("2024-01-01T00:00:00Z");
+
+    /**
+     * Log a warning when the system clock moves back by more than this many milliseconds
+     * Ids stay unique either way: the generator keeps counting from the last timestamp it used.
+     */
+    private long clockDriftWarnMs = 10;
+}
@@ -0,0 +1,41 @@
+package com.bookticket.booking_service.configuration;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "booking.read-cache")
+@Data
+public class BookingReadCacheProperties {
+
+    /**
+     * Cache booking seat details and the status of terminal (CONFIRMED, FAILED, CANCELLED) bookings
+     */
+    private boolean enabled = true;
+
+    /**
+     * Maximum number of bookings kept in memory, per cached view
+     */
+    private long maxSize = 10_000;
+
+    /**
+     * How long an entry stays in memory after it was written
+     */
+    private Duration ttl = Duration.ofMinutes(10);
+
+    /**
+     * Share entries between instances through Redis, behind the in-memory tier
+     */
+    private boolean redisEnabled = false;
+
+    /**
+     * How long an entry stays in Redis after it was written
+     */
+    private Duration redisTtl = Duration.ofHours(1);
+
+    /**
+     * Prefix of the Redis keys, followed by the view name and the booking ID
+     */
+    private String keyPrefix = "booking:read-cache";
+}
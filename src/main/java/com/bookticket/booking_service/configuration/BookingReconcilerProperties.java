@@ -0,0 +1,42 @@
+package com.bookticket.booking_service.configuration;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "booking.reconciler")
+@Data
+public class BookingReconcilerProperties {
+
+    /**
+     * Periodically fail stale PENDING bookings and release orphaned seat locks
+     */
+    private boolean enabled = true;
+
+    /**
+     * How often the reconciler runs
+     */
+    private long intervalMs = 60000;
+
+    /**
+     * Extra time a PENDING booking is given past its longest possible seat hold
+     * (the lease max hold with leases enabled, otherwise the lock TTL) before it counts as stale
+     */
+    private Duration gracePeriod = Duration.ofMinutes(1);
+
+    /**
+     * Stale bookings loaded and released per batch
+     */
+    private int batchSize = 200;
+
+    /**
+     * Upper bound on batches per run, so one run cannot monopolise the scheduler
+     */
+    private int maxBatchesPerRun = 10;
+
+    /**
+     * Also scan seat locks for owners that are terminal or no longer exist
+     */
+    private boolean orphanedLocksEnabled = true;
+}
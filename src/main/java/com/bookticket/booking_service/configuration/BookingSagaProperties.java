@@ -0,0 +1,49 @@
+package com.bookticket.booking_service.configuration;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "booking.saga")
+@Data
+public class BookingSagaProperties {
+
+    /**
+     * How often the saga worker looks for due compensations
+     */
+    private long pollIntervalMs = 500;
+
+    /**
+     * Sagas claimed per poll
+     */
+    private int batchSize = 50;
+
+    /**
+     * Threads running compensations concurrently
+     */
+    private int workerThreads = 4;
+
+    /**
+     * How long a claimed saga is reserved for the instance that claimed it
+     * If that instance dies mid-compensation, another instance picks the saga up after this time.
+     */
+    private Duration claimTimeout = Duration.ofMinutes(1);
+
+    /**
+     * Delay before a failed compensation is retried, doubled after each further failure up to maxRetryBackoff
+     */
+    private Duration retryBackoff = Duration.ofSeconds(2);
+
+    private Duration maxRetryBackoff = Duration.ofMinutes(5);
+
+    /**
+     * Attempts before a saga is left in COMPENSATION_FAILED for manual action
+     */
+    private int maxAttempts = 20;
+
+    /**
+     * How long finished sagas are kept before they are deleted
+     */
+    private Duration retention = Duration.ofDays(7);
+}
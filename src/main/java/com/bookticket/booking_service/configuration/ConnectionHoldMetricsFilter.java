@@ -0,0 +1,113 @@
+package com.bookticket.booking_service.configuration;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Records how long each request held pooled database connections, in total and per connection count
+ * Meters are tagged with the request method and the matched URI pattern, so cardinality stays bounded:
+ *   booking.db.connection.hold         timer, total connection hold time per request
+ *   booking.db.connections.per.request summary, connections taken per request
+ * Asynchronous requests (e.g. verify-payment) are recorded when they complete, so connections taken
+ * by their stages on other threads are included.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 1)
+public class ConnectionHoldMetricsFilter extends OncePerRequestFilter {
+
+    private final MeterRegistry meterRegistry;
+
+    public ConnectionHoldMetricsFilter(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        ConnectionHoldTrackingDataSource.HoldStats stats = ConnectionHoldTrackingDataSource.startTracking();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            ConnectionHoldTrackingDataSource.stopTracking();
+            if (request.isAsyncStarted()) {
+                request.getAsyncContext().addListener(new RecordOnCompletion(request, stats));
+            } else {
+                record(request, stats);
+            }
+        }
+    }
+
+    private void record(HttpServletRequest request, ConnectionHoldTrackingDataSource.HoldStats stats) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String uri = pattern != null ? pattern.toString() : "UNKNOWN";
+        Timer.builder("booking.db.connection.hold")
+                .description("Total time a request held pooled database connections")
+                .tag("method", request.getMethod())
+                .tag("uri", uri)
+                .register(meterRegistry)
+                .record(stats.getTotalNanos(), TimeUnit.NANOSECONDS);
+        DistributionSummary.builder("booking.db.connections.per.request")
+                .description("Pooled database connections taken per request")
+                .tag("method", request.getMethod())
+                .tag("uri", uri)
+                .register(meterRegistry)
+                .record(stats.getConnections());
+    }
+
+    /**
+     * Records an asynchronous request once, when it completes, times out or fails
+     */
+    private final class RecordOnCompletion implements AsyncListener {
+        private final HttpServletRequest request;
+        private final ConnectionHoldTrackingDataSource.HoldStats stats;
+        private boolean recorded;
+
+        private RecordOnCompletion(HttpServletRequest request, ConnectionHoldTrackingDataSource.HoldStats stats) {
+            this.request = request;
+            this.stats = stats;
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            recordOnce();
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            recordOnce();
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            recordOnce();
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+            // Re-register for the next asynchronous cycle of the same request
+            event.getAsyncContext().addListener(this);
+        }
+
+        private synchronized void recordOnce() {
+            if (!recorded) {
+                recorded = true;
+                record(request, stats);
+            }
+        }
+    }
+}
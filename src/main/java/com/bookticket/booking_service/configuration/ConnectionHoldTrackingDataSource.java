@@ -0,0 +1,130 @@
+package com.bookticket.booking_service.configuration;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+/**
+ * DataSource wrapper that measures how long each pooled connection is held
+ * The time between getConnection and close is added to the hold stats of the thread that took
+ * the connection, if that thread is tracking (see {@link ConnectionHoldMetricsFilter}).
+ * Work a request hands to another thread is counted too when it runs under {@link #withHoldStats}.
+ * Closing the wrapper closes the pool it wraps, so whoever owns the wrapper can shut the pool down.
+ */
+public class ConnectionHoldTrackingDataSource extends DelegatingDataSource implements AutoCloseable {
+
+    private static final ThreadLocal<HoldStats> CURRENT = new ThreadLocal<>();
+
+    public ConnectionHoldTrackingDataSource(DataSource targetDataSource) {
+        super(targetDataSource);
+    }
+
+    /**
+     * Start collecting connection hold time for the current thread
+     */
+    static HoldStats startTracking() {
+        HoldStats stats = new HoldStats();
+        CURRENT.set(stats);
+        return stats;
+    }
+
+    static void stopTracking() {
+        CURRENT.remove();
+    }
+
+    /**
+     * Hold stats of the request running on the current thread, or null if it is not tracking
+     */
+    public static HoldStats currentHoldStats() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Run an action on behalf of a request, adding its connection hold time to that request's stats
+     * The thread's own stats are restored afterwards.
+     */
+    public static <T> T withHoldStats(HoldStats stats, Supplier<T> action) {
+        HoldStats previous = CURRENT.get();
+        if (stats != null) {
+            CURRENT.set(stats);
+        } else {
+            CURRENT.remove();
+        }
+        try {
+            return action.get();
+        } finally {
+            if (previous != null) {
+                CURRENT.set(previous);
+            } else {
+                CURRENT.remove();
+            }
+        }
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return track(super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return track(super.getConnection(username, password));
+    }
+
+    @Override
+    public void close() throws Exception {
+        if (getTargetDataSource() instanceof AutoCloseable pool) {
+            pool.close();
+        }
+    }
+
+    private static Connection track(Connection connection) {
+        HoldStats stats = CURRENT.get();
+        if (stats == null) {
+            return connection;
+        }
+        long acquiredAt = System.nanoTime();
+        AtomicBoolean closed = new AtomicBoolean();
+        return (Connection) Proxy.newProxyInstance(
+                Connection.class.getClassLoader(),
+                new Class<?>[]{Connection.class},
+                (proxy, method, args) -> {
+                    if ("close".equals(method.getName()) && closed.compareAndSet(false, true)) {
+                        stats.record(System.nanoTime() - acquiredAt);
+                    }
+                    try {
+                        return method.invoke(connection, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+                });
+    }
+
+    /**
+     * Connection hold totals of one request
+     */
+    public static final class HoldStats {
+        private long totalNanos;
+        private int connections;
+
+        // Connections are normally closed on the thread that took them, but not always
+        private synchronized void record(long heldNanos) {
+            totalNanos += heldNanos;
+            connections++;
+        }
+
+        synchronized long getTotalNanos() {
+            return totalNanos;
+        }
+
+        synchronized int getConnections() {
+            return connections;
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.bookticket.booking_service.configuration;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+
+@Configuration
+public class DataSourceConfig {
+
+    /**
+     * Wrap the pooled DataSource so connection hold time can be measured per request
+     * Static so the post processor is registered before the DataSource bean is created
+     * Proxies over other DataSource beans (e.g. the read/write routing proxy) are not wrapped,
+     * so each connection is tracked once, at its pool
+     */
+    @Bean
+    public static BeanPostProcessor connectionHoldTrackingPostProcessor() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && !(bean instanceof DelegatingDataSource)) {
+                    return new ConnectionHoldTrackingDataSource(dataSource);
+                }
+                return bean;
+            }
+        };
+    }
+}
@@ -0,0 +1,37 @@
+package com.bookticket.booking_service.configuration;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "booking.idempotency")
+@Data
+public class IdempotencyProperties {
+
+    /**
+     * Honour the Idempotency-Key header on POST /api/v1/bookings
+     */
+    private boolean enabled = true;
+
+    /**
+     * How long the first response is replayed to requests with the same key
+     */
+    private Duration responseTtl = Duration.ofHours(24);
+
+    /**
+     * How long a request in progress blocks duplicates
+     * Must exceed the slowest createBooking, or a duplicate may run while the first is still working
+     */
+    private Duration inFlightTtl = Duration.ofMinutes(1);
+
+    /**
+     * Longest key accepted from clients
+     */
+    private int maxKeyLength = 128;
+
+    /**
+     * Key prefix for idempotency records in Redis
+     */
+    private String keyPrefix = "idempotency:create-booking";
+}
@@ -0,0 +1,60 @@
+package com.bookticket.booking_service.configuration;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "booking.outbox")
+@Data
+public class OutboxProperties {
+
+    /**
+     * Maximum events published per batch
+     */
+    private int batchSize = 200;
+
+    /**
+     * How long a partial batch may wait for more events before it is published anyway
+     */
+    private Duration linger = Duration.ofMillis(50);
+
+    /**
+     * How often the relay checks the outbox
+     */
+    private long pollIntervalMs = 100;
+
+    /**
+     * Upper bound on batches per relay run, so a large backlog cannot monopolise the scheduler
+     */
+    private int maxBatchesPerRun = 20;
+
+    /**
+     * Maximum time to wait for Kafka to acknowledge a batch
+     */
+    private Duration sendTimeout = Duration.ofSeconds(10);
+
+    /**
+     * How long claimed events are reserved for the relay instance publishing them
+     * Must be longer than sendTimeout. If the instance dies before recording the outcome,
+     * another instance publishes the events again after this time.
+     */
+    private Duration claimTimeout = Duration.ofMinutes(1);
+
+    /**
+     * Pause after a batch with failed sends, doubled after each further failing batch up to maxRetryBackoff
+     */
+    private Duration retryBackoff = Duration.ofSeconds(1);
+
+    private Duration maxRetryBackoff = Duration.ofMinutes(1);
+
+    /**
+     * Publish attempts before an event is moved to the Dead Letter Queue
+     */
+    private int maxAttempts = 10;
+
+    /**
+     * How long published events are kept before they are deleted
+     */
+    private Duration retention = Duration.ofDays(7);
+}
@@ -0,0 +1,44 @@
+package com.bookticket.booking_service.configuration;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.kafka.ConcurrentKafkaListenerContainerFactoryConfigurer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.kafka.listener.DefaultErrorHandler;
+import org.springframework.kafka.support.ExponentialBackOffWithMaxRetries;
+
+/**
+ * Listener container for payment result events
+ * A result whose booking cannot be completed is redelivered with exponential backoff, a bounded
+ * number of times, instead of the default ten immediate attempts - long enough to ride out a
+ * theater service restart, short enough not to hold up the partition indefinitely.
+ */
+@Configuration
+@Slf4j
+public class PaymentEventConfig {
+
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<Object, Object> paymentResultContainerFactory(
+            ConcurrentKafkaListenerContainerFactoryConfigurer configurer,
+            ConsumerFactory<Object, Object> kafkaConsumerFactory,
+            PaymentEventProperties paymentEventProperties) {
+        ConcurrentKafkaListenerContainerFactory<Object, Object> factory = new ConcurrentKafkaListenerContainerFactory<>();
+        configurer.configure(factory, kafkaConsumerFactory);
+
+        ExponentialBackOffWithMaxRetries backOff = new ExponentialBackOffWithMaxRetries(
+                paymentEventProperties.getMaxRetries());
+        backOff.setInitialInterval(paymentEventProperties.getRetryBackoff().toMillis());
+        backOff.setMultiplier(2.0);
+        backOff.setMaxInterval(paymentEventProperties.getMaxRetryBackoff().toMillis());
+
+        DefaultErrorHandler errorHandler = new DefaultErrorHandler((record, e) ->
+                // The payment went through but the booking is still PENDING - it needs manual attention
+                log.error("Giving up on payment result {} after {} redeliveries, the booking was not completed: {}",
+                        record.value(), paymentEventProperties.getMaxRetries(), e.getMessage(), e),
+                backOff);
+        factory.setCommonErrorHandler(errorHandler);
+        return factory;
+    }
+}
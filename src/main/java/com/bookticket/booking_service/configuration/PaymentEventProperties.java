@@ -0,0 +1,43 @@
+package com.bookticket.booking_service.configuration;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "booking.payment.events")
+@Data
+public class PaymentEventProperties {
+
+    /**
+     * Complete bookings from payment result events instead of polling the payment service
+     * When enabled, verify-payment only reads the booking status.
+     */
+    private boolean enabled = false;
+
+    /**
+     * Topic the payment service publishes checkout results to
+     */
+    private String topic = "payment_result";
+
+    /**
+     * Consumer group shared by all booking service instances
+     */
+    private String groupId = "booking-service-payments";
+
+    /**
+     * Redeliveries of a payment result whose booking could not be completed (e.g. theater service down)
+     * The record is then logged and skipped; the booking stays PENDING.
+     */
+    private int maxRetries = 8;
+
+    /**
+     * Delay before the first redelivery, doubled on every further one
+     */
+    private Duration retryBackoff = Duration.ofSeconds(1);
+
+    /**
+     * Upper bound for the delay between redeliveries
+     */
+    private Duration maxRetryBackoff = Duration.ofSeconds(30);
+}
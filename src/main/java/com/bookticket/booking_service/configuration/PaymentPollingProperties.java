@@ -10,5 +10,19 @@ public class PaymentPollingProperties {
     private int maxAttempts;
     private long intervalMs;
     private long timeoutMs;
-}
 
+    /**
+     * Factor applied to the poll interval after each pending result
+     */
+    private double backoffMultiplier = 1.5;
+
+    /**
+     * Upper bound on the interval between two polls of the same session
+     */
+    private long maxIntervalMs = 5000;
+
+    /**
+     * Threads calling the payment service for all outstanding sessions
+     */
+    private int pollerThreads = 8;
+}
@@ -0,0 +1,47 @@
+package com.bookticket.booking_service.configuration;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "booking.datasource.replica")
+@Data
+public class ReadReplicaProperties {
+
+    /**
+     * Send read-only transactions of GET requests to a replica database
+     * Locally, any second Postgres database with the same schema works: it is not in recovery,
+     * so its lag always reads as 0.
+     */
+    private boolean enabled = false;
+
+    /**
+     * JDBC URL of the replica
+     */
+    private String url;
+
+    private String username;
+
+    private String password;
+
+    /**
+     * Maximum number of connections in the replica pool
+     */
+    private int maximumPoolSize = 10;
+
+    /**
+     * Reads go to the primary while the replica is further behind than this
+     */
+    private Duration maxLag = Duration.ofSeconds(5);
+
+    /**
+     * How often the replication lag is measured
+     */
+    private long lagCheckIntervalMs = 2000;
+
+    /**
+     * A lag measurement older than this counts as unknown, and reads go to the primary
+     */
+    private Duration maxLagCheckAge = Duration.ofSeconds(10);
+}
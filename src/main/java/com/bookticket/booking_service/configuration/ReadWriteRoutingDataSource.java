@@ -0,0 +1,112 @@
+package com.bookticket.booking_service.configuration;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+/**
+ * Routes read-only transactions of GET requests to the replica and everything else to the primary
+ * A connection goes to the replica only if all of these hold:
+ *   - the transaction is read-only
+ *   - it runs for a GET request (request context, also propagated to the stage executor)
+ *   - the request has not written and was not pinned with {@link #usePrimaryForRequest()}
+ *   - the replica is within the configured lag (see {@link ReplicaLagMonitor})
+ * Scheduled jobs and listeners have no request, so they always read from the primary they write to.
+ * Must sit behind a LazyConnectionDataSourceProxy: the transaction manager asks for the connection
+ * before the read-only flag of the transaction is visible here.
+ */
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource {
+
+    static final String PRIMARY = "primary";
+    static final String REPLICA = "replica";
+    private static final String USE_PRIMARY_ATTRIBUTE = ReadWriteRoutingDataSource.class.getName() + ".usePrimary";
+
+    private final ReplicaLagMonitor lagMonitor;
+    private final Counter primaryConnections;
+    private final Counter replicaConnections;
+
+    public ReadWriteRoutingDataSource(DataSource primary, DataSource replica,
+                                      ReplicaLagMonitor lagMonitor, MeterRegistry meterRegistry) {
+        this.lagMonitor = lagMonitor;
+        setTargetDataSources(Map.of(PRIMARY, primary, REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+        this.primaryConnections = counter(meterRegistry, PRIMARY);
+        this.replicaConnections = counter(meterRegistry, REPLICA);
+    }
+
+    /**
+     * Keep the rest of the current request on the primary
+     * For requests whose reads decide what they write, or that must see a write made elsewhere.
+     * No-op outside a request.
+     */
+    public static void usePrimaryForRequest() {
+        HttpServletRequest request = currentRequest();
+        if (request != null) {
+            request.setAttribute(USE_PRIMARY_ATTRIBUTE, Boolean.TRUE);
+        }
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        HttpServletRequest request = currentRequest();
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            if (request != null && TransactionSynchronizationManager.isActualTransactionActive()) {
+                // Later reads of this request must see the write
+                markUsePrimary(request);
+            }
+            primaryConnections.increment();
+            return PRIMARY;
+        }
+        if (request != null && isGet(request) && !usesPrimary(request) && lagMonitor.isReplicaUsable()) {
+            replicaConnections.increment();
+            return REPLICA;
+        }
+        primaryConnections.increment();
+        return PRIMARY;
+    }
+
+    private static HttpServletRequest currentRequest() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        return attributes instanceof ServletRequestAttributes servletAttributes ? servletAttributes.getRequest() : null;
+    }
+
+    // The request object may already be recycled when a late async stage runs - fall back to the primary then
+    private static boolean isGet(HttpServletRequest request) {
+        try {
+            return "GET".equals(request.getMethod());
+        } catch (IllegalStateException e) {
+            return false;
+        }
+    }
+
+    private static boolean usesPrimary(HttpServletRequest request) {
+        try {
+            return request.getAttribute(USE_PRIMARY_ATTRIBUTE) != null;
+        } catch (IllegalStateException e) {
+            return true;
+        }
+    }
+
+    private static void markUsePrimary(HttpServletRequest request) {
+        try {
+            request.setAttribute(USE_PRIMARY_ATTRIBUTE, Boolean.TRUE);
+        } catch (IllegalStateException e) {
+            // Request already finished - nothing left to route
+        }
+    }
+
+    private static Counter counter(MeterRegistry meterRegistry, String target) {
+        return Counter.builder("booking.datasource.connections")
+                .description("Connections handed out by the read/write routing data source")
+                .tag("target", target)
+                .register(meterRegistry);
+    }
+}
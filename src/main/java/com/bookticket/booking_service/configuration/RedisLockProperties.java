@@ -1,5 +1,6 @@
 package com.bookticket.booking_service.configuration;
 
+import com.bookticket.booking_service.enums.SeatLockMode;
 import lombok.Data;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 
@@ -20,6 +21,19 @@ public class RedisLockProperties {
     private int maxRetries;
     private long retryDelayMs;
     
+    /**
+     * How seat locks are represented in Redis
+     * KEY_PER_SEAT: one key per seat (lock:seat:showId:seatId)
+     * SHOW_HASH: one hash per show (lock:seat:show:showId) with a field per locked seat
+     */
+    private SeatLockMode mode = SeatLockMode.KEY_PER_SEAT;
+
+    /**
+     * Serve the admin seat lock status lookup through the reactive Redis client, so the request
+     * thread is released while Redis answers (Redis backend only)
+     */
+    private boolean reactiveAdmin = false;
+    
     /**
      * Generate Redis key for seat lock
      * Format: lock:seat:showId:seatId
@@ -28,6 +42,22 @@ public class RedisLockProperties {
         return String.format("%s:%d:%d", keyPrefix, showId, seatId);
     }
     
+    /**
+     * Generate Redis key pattern matching every seat lock of a show
+     * Format: lock:seat:showId:*
+     */
+    public String generateSeatLockKeyPattern(Long showId) {
+        return String.format("%s:%d:*", keyPrefix, showId);
+    }
+    
+    /**
+     * Generate Redis key for the per-show seat lock hash
+     * Format: lock:seat:show:showId
+     */
+    public String generateShowLockKey(Long showId) {
+        return String.format("%s:show:%d", keyPrefix, showId);
+    }
+    
     /**
      * Generate Redis value for booking lock
      * Format: booking:bookingId
@@ -35,5 +65,20 @@ public class RedisLockProperties {
     public String generateBookingLockValue(Long bookingId) {
         return String.format("%s:%d", bookingPrefix, bookingId);
     }
+    
+    /**
+     * Extract the booking ID from a booking lock value
+     * Returns null if the value was not produced by generateBookingLockValue
+     */
+    public Long parseBookingLockValue(String lockValue) {
+        String prefix = bookingPrefix + ":";
+        if (lockValue == null || !lockValue.startsWith(prefix)) {
+            return null;
+        }
+        try {
+            return Long.valueOf(lockValue.substring(prefix.length()));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
 }
-
@@ -0,0 +1,31 @@
+package com.bookticket.booking_service.configuration;
+
+import com.bookticket.booking_service.service.SeatLockNearCache;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+@Configuration
+@Slf4j
+public class RedisPubSubConfig {
+
+    /**
+     * Listener container for Redis pub/sub channels
+     * Subscribes the seat lock near-cache to lock events published by every instance
+     */
+    @Bean
+    public RedisMessageListenerContainer redisMessageListenerContainer(RedisConnectionFactory connectionFactory,
+                                                                       SeatLockNearCache seatLockNearCache,
+                                                                       SeatLockNearCacheProperties nearCacheProperties) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        if (nearCacheProperties.isEnabled()) {
+            container.addMessageListener(seatLockNearCache, new ChannelTopic(nearCacheProperties.getChannel()));
+            log.info("Seat lock near-cache subscribed to channel {}", nearCacheProperties.getChannel());
+        }
+        return container;
+    }
+}
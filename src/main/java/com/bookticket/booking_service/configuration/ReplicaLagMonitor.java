@@ -0,0 +1,71 @@
+package com.bookticket.booking_service.configuration;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+
+/**
+ * Measures how far the replica is behind the primary
+ * Lag is 0 while the replica has replayed all WAL it received (an idle primary is not lag),
+ * otherwise the age of the last replayed transaction. A database that is not in recovery - a plain
+ * second database when testing locally - always reports 0.
+ * The replica is usable while the last successful measurement is recent and within booking.datasource.replica.max-lag.
+ */
+@Slf4j
+public class ReplicaLagMonitor {
+
+    private static final String LAG_QUERY = """
+            SELECT CASE
+                WHEN NOT pg_is_in_recovery() THEN 0
+                WHEN pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0
+                ELSE COALESCE(EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()) * 1000, 0)
+            END""";
+
+    private final JdbcTemplate replicaJdbcTemplate;
+    private final ReadReplicaProperties properties;
+    private volatile long lagMillis = -1;
+    private volatile long measuredAtMillis;
+    private volatile boolean usable;
+
+    public ReplicaLagMonitor(DataSource replica, ReadReplicaProperties properties, MeterRegistry meterRegistry) {
+        this.replicaJdbcTemplate = new JdbcTemplate(replica);
+        this.replicaJdbcTemplate.setQueryTimeout(
+                (int) Math.max(1, properties.getMaxLagCheckAge().toSeconds()));
+        this.properties = properties;
+        Gauge.builder("booking.datasource.replica.lag", this, monitor -> monitor.lagMillis)
+                .description("Replication lag of the read replica in milliseconds (-1 if unknown)")
+                .baseUnit("milliseconds")
+                .register(meterRegistry);
+    }
+
+    public boolean isReplicaUsable() {
+        return usable && System.currentTimeMillis() - measuredAtMillis <= properties.getMaxLagCheckAge().toMillis();
+    }
+
+    @Scheduled(fixedDelayString = "${booking.datasource.replica.lag-check-interval-ms:2000}")
+    public void measureLag() {
+        boolean wasUsable = usable;
+        try {
+            Double lag = replicaJdbcTemplate.queryForObject(LAG_QUERY, Double.class);
+            lagMillis = lag != null ? lag.longValue() : 0;
+            measuredAtMillis = System.currentTimeMillis();
+            usable = lagMillis <= properties.getMaxLag().toMillis();
+        } catch (Exception e) {
+            lagMillis = -1;
+            usable = false;
+            if (wasUsable) {
+                log.warn("Failed to measure replica lag, reading from the primary: {}", e.getMessage());
+            }
+            return;
+        }
+        if (wasUsable && !usable) {
+            log.warn("Replica is {} ms behind (max {}), reading from the primary", lagMillis, properties.getMaxLag());
+        } else if (!wasUsable && usable) {
+            log.info("Replica is {} ms behind, reading from the replica again", lagMillis);
+        }
+    }
+}
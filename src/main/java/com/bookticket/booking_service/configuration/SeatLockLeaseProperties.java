@@ -0,0 +1,32 @@
+package com.bookticket.booking_service.configuration;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "booking.redis.lock.lease")
+@Data
+public class SeatLockLeaseProperties {
+
+    /**
+     * Lock seats with a short lease that is renewed during checkout, instead of the fixed lock TTL
+     */
+    private boolean enabled = false;
+
+    /**
+     * TTL given to seat locks on acquire and on every renewal
+     */
+    private Duration ttl = Duration.ofMinutes(2);
+
+    /**
+     * How often the watchdog renews all active leases on this node
+     * Must be comfortably shorter than the lease TTL
+     */
+    private long renewIntervalMs = 30000;
+
+    /**
+     * Upper bound on how long a booking may keep its seats, even if the payment session lives longer
+     */
+    private Duration maxHold = Duration.ofMinutes(15);
+}
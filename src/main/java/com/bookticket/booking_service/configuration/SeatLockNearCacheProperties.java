@@ -0,0 +1,32 @@
+package com.bookticket.booking_service.configuration;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "booking.redis.lock.near-cache")
+@Data
+public class SeatLockNearCacheProperties {
+
+    /**
+     * Reject requests for seats known to be held before any remote call
+     */
+    private boolean enabled = false;
+
+    /**
+     * Maximum number of held seats kept in memory
+     */
+    private long maxSize = 100_000;
+
+    /**
+     * Upper bound on how long a held seat is trusted locally, regardless of its lock TTL.
+     * Limits false rejections if a release event is missed.
+     */
+    private Duration maxStaleness = Duration.ofSeconds(30);
+
+    /**
+     * Redis pub/sub channel used to share lock acquire/release events between instances
+     */
+    private String channel = "booking:seat-lock-events";
+}
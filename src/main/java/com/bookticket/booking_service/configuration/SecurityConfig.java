@@ -29,6 +29,8 @@ public class SecurityConfig {
                         .sessionCreationPolicy(SessionCreationPolicy.STATELESS)
                 )
                 .authorizeHttpRequests(requests -> requests
+                        // Per-show hot-seat data is admin-only, like the seat lock admin API
+                        .requestMatchers("/actuator/seatcontention/**").hasRole("ADMIN")
                         .requestMatchers("/actuator/**").permitAll()
                         .requestMatchers("v3/api-docs/**").permitAll()
                         .anyRequest().authenticated()
@@ -0,0 +1,28 @@
+package com.bookticket.booking_service.configuration;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Identity sent to downstream services by calls made outside of a user request
+ * (saga compensations, the reconciler, the payment result listener, batched theater calls)
+ */
+@ConfigurationProperties(prefix = "booking.service-identity")
+@Data
+public class ServiceIdentityProperties {
+
+    /**
+     * Sent as X-User-Id; must parse as a Long on the receiving side
+     */
+    private Long userId = 0L;
+
+    /**
+     * Sent as X-User-Name
+     */
+    private String username = "booking-service";
+
+    /**
+     * Sent as X-User-Roles (comma separated)
+     */
+    private String roles = "SERVICE_ACCOUNT";
+}
@@ -0,0 +1,28 @@
+package com.bookticket.booking_service.configuration;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "booking.theater.batching")
+@Data
+public class TheaterBatchingProperties {
+
+    /**
+     * Coalesce concurrent seat calls for the same show and operation into one theater service request
+     */
+    private boolean enabled = false;
+
+    /**
+     * Maximum callers merged into one request; a full batch is sent without waiting for the linger time
+     */
+    private int maxBatchSize = 32;
+
+    /**
+     * How long the first caller of a batch waits for others to join before the request is sent
+     * Only spent when another call for the same show arrived within this time; a call on a quiet
+     * show is sent at once. Added to the latency of those calls, so keep it to a few milliseconds.
+     */
+    private Duration linger = Duration.ofMillis(5);
+}
@@ -0,0 +1,47 @@
+package com.bookticket.booking_service.configuration;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.Set;
+
+@ConfigurationProperties(prefix = "booking.waiting-room")
+@Data
+public class WaitingRoomProperties {
+
+    /**
+     * Require an admission token from the waiting room before a booking can be created
+     */
+    private boolean enabled = false;
+
+    /**
+     * Shows that go through the waiting room; empty means every show
+     */
+    private Set<Long> showIds = new HashSet<>();
+
+    /**
+     * Number of queued users admitted per second, per show
+     */
+    private double admitRatePerSecond = 20;
+
+    /**
+     * How long an admission token stays valid once issued
+     */
+    private Duration admissionTtl = Duration.ofMinutes(2);
+
+    /**
+     * How long a queue ticket and the show's queue state are kept without activity
+     */
+    private Duration queueTtl = Duration.ofMinutes(30);
+
+    /**
+     * Key prefix for waiting room state in Redis
+     */
+    private String keyPrefix = "waiting-room";
+
+    public boolean appliesTo(Long showId) {
+        return enabled && (showIds.isEmpty() || showIds.contains(showId));
+    }
+}
@@ -6,6 +6,7 @@ import com.bookticket.booking_service.dto.CreateBookingRequest;
 import com.bookticket.booking_service.dto.SeatDetailsResponse;
 import com.bookticket.booking_service.security.UserPrincipal;
 import com.bookticket.booking_service.service.BookingService;
+import com.bookticket.booking_service.service.IdempotencyService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -22,6 +23,7 @@ import org.springframework.web.bind.annotation.*;
 import lombok.extern.slf4j.Slf4j;
 
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 @RestController
 @RequestMapping("/api/v1/bookings")
@@ -30,22 +32,26 @@ import java.util.List;
 @SecurityRequirement(name = "bearerAuth")
 public class BookingController {
     private final BookingService bookingService;
+    private final IdempotencyService idempotencyService;
 
-    public BookingController(BookingService bookingService) {
+    public BookingController(BookingService bookingService, IdempotencyService idempotencyService) {
         this.bookingService = bookingService;
+        this.idempotencyService = idempotencyService;
     }
 
     @Operation(
             summary = "Create a new booking",
-            description = "Creates a new booking, locks the selected seats, and generates a payment session. The user should be redirected to the `paymentUrl` to complete the transaction.",
+            description = "Creates a new booking, locks the selected seats, and generates a payment session. The user should be redirected to the `paymentUrl` to complete the transaction. Retries sent with the same `Idempotency-Key` receive the original response (marked with `Idempotent-Replayed: true`) instead of creating another booking.",
             responses = {
                     @ApiResponse(responseCode = "201", description = "Booking created successfully, pending payment",
                             content = @Content(mediaType = "application/json", schema = @Schema(implementation = CreateBookingResponse.class))),
-                    @ApiResponse(responseCode = "400", description = "Invalid booking data or seats not available",
+                    @ApiResponse(responseCode = "400", description = "Invalid booking data, seats not available, or invalid Idempotency-Key",
                             content = @Content(mediaType = "application/json")),
                     @ApiResponse(responseCode = "401", description = "Unauthorized - Missing or invalid JWT token",
                             content = @Content(mediaType = "application/json")),
-                    @ApiResponse(responseCode = "409", description = "Seats already locked by another booking",
+                    @ApiResponse(responseCode = "409", description = "Seats already locked by another booking, or a request with the same Idempotency-Key is still in progress",
+                            content = @Content(mediaType = "application/json")),
+                    @ApiResponse(responseCode = "422", description = "Idempotency-Key already used for a different booking request",
                             content = @Content(mediaType = "application/json")),
                     @ApiResponse(responseCode = "500", description = "Internal server error",
                             content = @Content(mediaType = "application/json")),
@@ -53,7 +59,7 @@ public class BookingController {
                             content = @Content(mediaType = "application/json")),
                     @ApiResponse(responseCode = "504", description = "Gateway timeout",
                             content = @Content(mediaType = "application/json")),
-                    @ApiResponse(responseCode = "429", description = "Too many requests",
+                    @ApiResponse(responseCode = "429", description = "Too many requests, or admission token required for a show behind the waiting room",
                             content = @Content(mediaType = "application/json")),
                     @ApiResponse(responseCode = "404", description = "Not found",
                             content = @Content(mediaType = "application/json"))
@@ -62,15 +68,23 @@ public class BookingController {
     @PostMapping
     public ResponseEntity<CreateBookingResponse> createBooking(
             @Parameter(hidden = true) @AuthenticationPrincipal UserPrincipal userPrincipal,
+            @Parameter(description = "Admission token from the waiting room, required for shows behind the waiting room")
+            @RequestHeader(value = "X-Admission-Token", required = false) String admissionToken,
+            @Parameter(description = "Client-generated key that makes retries of this request safe")
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey,
             @Valid @RequestBody CreateBookingRequest createBookingRequest) {
         log.info("Creating booking for user {} with request: {}", userPrincipal.getUserId(), createBookingRequest);
-        CreateBookingResponse response = bookingService.createBooking(userPrincipal.getUserId(), createBookingRequest);
-        return new ResponseEntity<>(response, HttpStatus.CREATED);
+        IdempotencyService.IdempotentResponse result = idempotencyService.createBookingOnce(
+                userPrincipal.getUserId(), idempotencyKey, createBookingRequest,
+                () -> bookingService.createBooking(userPrincipal.getUserId(), createBookingRequest, admissionToken));
+        return ResponseEntity.status(HttpStatus.CREATED)
+                .header("Idempotent-Replayed", String.valueOf(result.replayed()))
+                .body(result.response());
     }
 
     @Operation(
             summary = "Verify payment and complete booking",
-            description = "Verifies the Stripe payment session and updates the booking status to CONFIRMED or FAILED. This endpoint should be called as the callback/success URL after payment.",
+            description = "Verifies the Stripe payment session and updates the booking status to CONFIRMED or FAILED. This endpoint should be called as the callback/success URL after payment. The request is handled asynchronously and is answered once the payment reaches a final status.",
             responses = {
                     @ApiResponse(responseCode = "200", description = "Payment verified and booking status updated",
                             content = @Content(mediaType = "application/json", schema = @Schema(implementation = BookingStatusResponse.class))),
@@ -91,14 +105,14 @@ public class BookingController {
             }
     )
     @GetMapping("/{bookingId}/verify-payment")
-    public ResponseEntity<BookingStatusResponse> verifyPayment(
+    public CompletableFuture<ResponseEntity<BookingStatusResponse>> verifyPayment(
             @Parameter(description = "ID of the booking to verify", required = true)
             @PathVariable Long bookingId,
             @Parameter(description = "Stripe checkout session ID", required = true)
             @RequestParam String sessionId) {
         log.info("Verifying payment for booking {} with session {}", bookingId, sessionId);
-        BookingStatusResponse response = bookingService.verifyAndCompleteBooking(bookingId, sessionId);
-        return ResponseEntity.ok(response);
+        return bookingService.verifyAndCompleteBooking(bookingId, sessionId)
+                .thenApply(ResponseEntity::ok);
     }
 
     @Operation(
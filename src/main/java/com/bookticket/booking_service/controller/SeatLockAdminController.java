@@ -0,0 +1,62 @@
+package com.bookticket.booking_service.controller;
+
+import com.bookticket.booking_service.dto.ShowSeatLockStatusResponse;
+import com.bookticket.booking_service.service.SeatLockAdminService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/v1/admin/seat-locks")
+@Slf4j
+@Tag(name = "Admin - Seat Locks", description = "APIs for inspecting seat lock state in Redis")
+@SecurityRequirement(name = "bearerAuth")
+@PreAuthorize("hasRole('ADMIN')")
+public class SeatLockAdminController {
+
+    private final SeatLockAdminService seatLockAdminService;
+
+    public SeatLockAdminController(SeatLockAdminService seatLockAdminService) {
+        this.seatLockAdminService = seatLockAdminService;
+    }
+
+    @Operation(
+            summary = "Get seat lock status for a show",
+            description = "Returns lock state and owner booking ID for the given seats in one batched Redis read. When no seat IDs are given, returns every currently locked seat in the show.",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Successfully retrieved seat lock status",
+                            content = @Content(mediaType = "application/json", schema = @Schema(implementation = ShowSeatLockStatusResponse.class))),
+                    @ApiResponse(responseCode = "401", description = "Unauthorized - Missing or invalid JWT token"),
+                    @ApiResponse(responseCode = "403", description = "Forbidden - User does not have ADMIN role"),
+                    @ApiResponse(responseCode = "500", description = "Internal server error"),
+                    @ApiResponse(responseCode = "503", description = "Service unavailable"),
+                    @ApiResponse(responseCode = "504", description = "Gateway timeout"),
+                    @ApiResponse(responseCode = "429", description = "Too many requests")
+            }
+    )
+    @GetMapping("/shows/{showId}")
+    public Mono<ResponseEntity<ShowSeatLockStatusResponse>> getSeatLockStatus(
+            @Parameter(description = "ID of the show to inspect", required = true)
+            @PathVariable Long showId,
+            @Parameter(description = "Seat IDs to check; omit to list every locked seat in the show")
+            @RequestParam(required = false) List<Long> seatIds) {
+        log.info("Admin request: Get seat lock status for show {} ({} seats requested)",
+                showId, seatIds != null ? seatIds.size() : "all");
+        if (seatIds == null || seatIds.isEmpty()) {
+            return Mono.just(ResponseEntity.ok(seatLockAdminService.getLockedSeats(showId)));
+        }
+        return seatLockAdminService.getSeatLockStatuses(showId, seatIds)
+                .map(ResponseEntity::ok);
+    }
+}
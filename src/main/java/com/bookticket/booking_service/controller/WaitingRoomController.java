@@ -0,0 +1,76 @@
+package com.bookticket.booking_service.controller;
+
+import com.bookticket.booking_service.dto.WaitingRoomTicketResponse;
+import com.bookticket.booking_service.security.UserPrincipal;
+import com.bookticket.booking_service.service.WaitingRoomService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/v1/bookings/waiting-room")
+@Slf4j
+@Tag(name = "Waiting Room Controller", description = "APIs for queueing for admission to high-demand shows")
+@SecurityRequirement(name = "bearerAuth")
+public class WaitingRoomController {
+    private final WaitingRoomService waitingRoomService;
+
+    public WaitingRoomController(WaitingRoomService waitingRoomService) {
+        this.waitingRoomService = waitingRoomService;
+    }
+
+    @Operation(
+            summary = "Join the waiting room for a show",
+            description = "Places the user in the show's admission queue and returns a ticket with the queue position. A user holds at most one ticket per show: joining again returns the existing ticket. Poll the ticket until it is ADMITTED, then pass the `admissionToken` as the `X-Admission-Token` header when creating the booking.",
+            responses = {
+                    @ApiResponse(responseCode = "201", description = "Joined the waiting room",
+                            content = @Content(mediaType = "application/json", schema = @Schema(implementation = WaitingRoomTicketResponse.class))),
+                    @ApiResponse(responseCode = "401", description = "Unauthorized - Missing or invalid JWT token",
+                            content = @Content(mediaType = "application/json")),
+                    @ApiResponse(responseCode = "500", description = "Internal server error",
+                            content = @Content(mediaType = "application/json"))
+            }
+    )
+    @PostMapping("/shows/{showId}")
+    public ResponseEntity<WaitingRoomTicketResponse> joinWaitingRoom(
+            @Parameter(hidden = true) @AuthenticationPrincipal UserPrincipal userPrincipal,
+            @Parameter(description = "ID of the show to queue for", required = true)
+            @PathVariable Long showId) {
+        log.info("User {} joining waiting room for show {}", userPrincipal.getUserId(), showId);
+        WaitingRoomTicketResponse response = waitingRoomService.join(showId, userPrincipal.getUserId());
+        return new ResponseEntity<>(response, HttpStatus.CREATED);
+    }
+
+    @Operation(
+            summary = "Get waiting room ticket status",
+            description = "Returns the ticket's queue position and, once admitted, a single-use admission token.",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Ticket status retrieved",
+                            content = @Content(mediaType = "application/json", schema = @Schema(implementation = WaitingRoomTicketResponse.class))),
+                    @ApiResponse(responseCode = "401", description = "Unauthorized - Missing or invalid JWT token",
+                            content = @Content(mediaType = "application/json")),
+                    @ApiResponse(responseCode = "404", description = "Ticket not found or expired",
+                            content = @Content(mediaType = "application/json")),
+                    @ApiResponse(responseCode = "500", description = "Internal server error",
+                            content = @Content(mediaType = "application/json"))
+            }
+    )
+    @GetMapping("/tickets/{ticketId}")
+    public ResponseEntity<WaitingRoomTicketResponse> getTicketStatus(
+            @Parameter(hidden = true) @AuthenticationPrincipal UserPrincipal userPrincipal,
+            @Parameter(description = "ID of the waiting room ticket", required = true)
+            @PathVariable String ticketId) {
+        log.debug("User {} polling waiting room ticket {}", userPrincipal.getUserId(), ticketId);
+        WaitingRoomTicketResponse response = waitingRoomService.getTicketStatus(ticketId, userPrincipal.getUserId());
+        return ResponseEntity.ok(response);
+    }
+}
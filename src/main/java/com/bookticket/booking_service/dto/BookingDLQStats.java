@@ -1,10 +1,13 @@
 package com.bookticket.booking_service.dto;
 
 import com.bookticket.booking_service.entity.FailedEvent;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.ser.std.ToStringSerializer;
 
 import java.util.List;
 
 public record BookingDLQStats(
+        @JsonSerialize(using = ToStringSerializer.class)
         Long bookingId,
         int pendingCount,
         int retryingCount,
@@ -1,6 +1,10 @@
 package com.bookticket.booking_service.dto;
 
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.ser.std.ToStringSerializer;
+
 public record BookingFailedEvent(
+        @JsonSerialize(using = ToStringSerializer.class)
         Long bookingId,
         Long userId,
         Long showId,
@@ -1,11 +1,14 @@
 package com.bookticket.booking_service.dto;
 
 import com.bookticket.booking_service.enums.BookingStatus;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.ser.std.ToStringSerializer;
 
 import java.util.List;
 
 
 public record CreateBookingResponse(
+        @JsonSerialize(using = ToStringSerializer.class)
         Long bookingId,
         Long userId,
         Long showId,
@@ -0,0 +1,11 @@
+package com.bookticket.booking_service.dto;
+
+public record PaymentResultEvent(
+        Long bookingId,
+        String sessionId,        // Stripe Checkout Session ID
+        String paymentStatus,    // "COMPLETED" or "FAILED"
+        String transactionId,
+        Double amount,
+        String message
+) {
+}
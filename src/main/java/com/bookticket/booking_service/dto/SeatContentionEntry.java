@@ -0,0 +1,10 @@
+package com.bookticket.booking_service.dto;
+
+public record SeatContentionEntry(
+        Long showId,
+        Long seatId,            // Null for show-level entries
+        long conflicts,         // Seats found locked within the window
+        Long attempts,          // Lock attempts on the show within the window, null for seat-level entries
+        Double contentionRate   // Share of those attempts that hit a locked seat, null for seat-level entries
+) {
+}
@@ -0,0 +1,10 @@
+package com.bookticket.booking_service.dto;
+
+import java.util.List;
+
+public record SeatContentionReport(
+        long windowSeconds,
+        List<SeatContentionEntry> topShows,
+        List<SeatContentionEntry> topSeats
+) {
+}
@@ -0,0 +1,12 @@
+package com.bookticket.booking_service.dto;
+
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.ser.std.ToStringSerializer;
+
+public record SeatLockStatusResponse(
+        Long seatId,
+        boolean locked,
+        @JsonSerialize(using = ToStringSerializer.class)
+        Long bookingId      // Booking holding the lock, null if not locked
+) {
+}
@@ -0,0 +1,10 @@
+package com.bookticket.booking_service.dto;
+
+import java.util.List;
+
+public record ShowSeatLockStatusResponse(
+        Long showId,
+        int lockedCount,
+        List<SeatLockStatusResponse> seats
+) {
+}
@@ -0,0 +1,15 @@
+package com.bookticket.booking_service.dto;
+
+import com.bookticket.booking_service.enums.AdmissionStatus;
+
+public record WaitingRoomTicketResponse(
+        String ticketId,
+        Long showId,
+        long position,              // Position in the show's queue (1-based)
+        long peopleAhead,
+        AdmissionStatus status,
+        Long estimatedWaitSeconds,  // Null once admitted
+        String admissionToken,      // Pass as X-Admission-Token to create the booking (null while waiting)
+        Long admissionExpiresAt     // Unix timestamp when the admission token expires
+) {
+}
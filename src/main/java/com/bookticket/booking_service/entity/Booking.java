@@ -3,13 +3,18 @@ package com.bookticket.booking_service.entity;
 import com.bookticket.booking_service.enums.BookingStatus;
 import jakarta.persistence.*;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+import org.springframework.data.domain.Persistable;
+
+import java.time.Instant;
 
 @Entity
 @Table(name = "bookings")
 @Data
-public class Booking extends Auditable{
+public class Booking extends Auditable implements Persistable<Long> {
+    // Assigned by BookingIdGenerator before the booking is saved, so seats can be locked first
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
     @Column(name = "booking_id")
     private Long id;
     @Column(nullable = false)
@@ -21,4 +26,24 @@ public class Booking extends Auditable{
     private BookingStatus status;
     @Column(nullable = false)
     private double totalAmount;
+    @Column(name = "pending_since")
+    private Instant pendingSince; // When the booking entered PENDING; createdAt only has day precision
+
+    // With an assigned id, save() cannot tell a new booking from a stored one - without this it would merge,
+    // selecting the row before every insert
+    @Transient
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private boolean stored;
+
+    @Override
+    public boolean isNew() {
+        return !stored;
+    }
+
+    @PostPersist
+    @PostLoad
+    void markStored() {
+        stored = true;
+    }
 }
@@ -0,0 +1,99 @@
+package com.bookticket.booking_service.entity;
+
+import com.bookticket.booking_service.enums.LockReleaseReason;
+import com.bookticket.booking_service.enums.SagaState;
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Persisted state of a booking's saga and its pending compensations
+ * Written alongside the booking's status changes, so a failed booking's seat releases
+ * survive a restart and are retried by the saga worker until they succeed.
+ */
+@Entity
+@Table(name = "booking_saga", indexes = @Index(name = "idx_booking_saga_state_next_attempt", columnList = "state, nextAttemptAt"))
+@Data
+@NoArgsConstructor
+public class BookingSaga {
+
+    @Id
+    @Column(name = "booking_id")
+    private Long bookingId;
+
+    @Column(nullable = false)
+    private Long showId;
+
+    @Column(nullable = false, columnDefinition = "TEXT")
+    private String seatIds;  // Comma-separated seat IDs held by the booking
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private SagaState state = SagaState.STARTED;
+
+    // Pending compensations - each one is cleared as soon as it succeeds, so they are retried independently
+    @Column(nullable = false)
+    private boolean releaseSeatLocksPending;
+
+    @Column(nullable = false)
+    private boolean releaseTheaterSeatsPending;
+
+    @Enumerated(EnumType.STRING)
+    @Column
+    private LockReleaseReason releaseReason;
+
+    @Column(nullable = false)
+    private Integer attempts = 0;
+
+    @Column
+    private Instant nextAttemptAt;
+
+    @Column(length = 2000)
+    private String lastError;
+
+    @Column(nullable = false)
+    private Instant createdAt;
+
+    @Column(nullable = false)
+    private Instant updatedAt;
+
+    @Version
+    private Long version;
+
+    public BookingSaga(Long bookingId, Long showId, List<Long> seatIds) {
+        this.bookingId = bookingId;
+        this.showId = showId;
+        setSeatIdList(seatIds);
+    }
+
+    public List<Long> getSeatIdList() {
+        if (seatIds == null || seatIds.isEmpty()) {
+            return List.of();
+        }
+        return Arrays.stream(seatIds.split(",")).map(Long::valueOf).toList();
+    }
+
+    public void setSeatIdList(List<Long> seatIdList) {
+        this.seatIds = seatIdList.stream().map(String::valueOf).collect(Collectors.joining(","));
+    }
+
+    public boolean hasPendingCompensations() {
+        return releaseSeatLocksPending || releaseTheaterSeatsPending;
+    }
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = Instant.now();
+        updatedAt = createdAt;
+    }
+
+    @PreUpdate
+    protected void onUpdate() {
+        updatedAt = Instant.now();
+    }
+}
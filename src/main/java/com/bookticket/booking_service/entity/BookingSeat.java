@@ -12,7 +12,9 @@ import lombok.NoArgsConstructor;
 @AllArgsConstructor
 public class BookingSeat extends Auditable{
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    // Pooled sequence rather than IDENTITY, so inserts can be JDBC-batched (see V1__pooled_booking_ids.sql)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "booking_seats_seq")
+    @SequenceGenerator(name = "booking_seats_seq", sequenceName = "booking_seats_seq", allocationSize = 50)
     @Column(name = "booking_seat_id")
     private Long id;
     @ManyToOne(fetch = FetchType.LAZY)
@@ -2,6 +2,8 @@ package com.bookticket.booking_service.entity;
 
 import com.bookticket.booking_service.enums.EventStatus;
 import com.bookticket.booking_service.enums.EventType;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.ser.std.ToStringSerializer;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
@@ -29,6 +31,7 @@ public class FailedEvent {
     private EventType eventType;
     
     @Column(nullable = false)
+    @JsonSerialize(using = ToStringSerializer.class)
     private Long bookingId;
     
     @Column(nullable = false)
@@ -0,0 +1,62 @@
+package com.bookticket.booking_service.entity;
+
+import com.bookticket.booking_service.enums.EventStatus;
+import com.bookticket.booking_service.enums.EventType;
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * Booking event waiting to be published to Kafka (transactional outbox)
+ * Written in the same transaction as the booking status change it describes,
+ * then drained in batches by the outbox relay.
+ */
+@Entity
+@Table(name = "booking_outbox", indexes = @Index(name = "idx_booking_outbox_status_id", columnList = "status, id"))
+@Data
+@NoArgsConstructor
+public class OutboxEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private EventType eventType;
+
+    @Column(nullable = false)
+    private Long bookingId;  // Kafka message key, keeps a booking's events on one partition
+
+    @Column(nullable = false)
+    private String topic;
+
+    @Column(nullable = false, columnDefinition = "TEXT")
+    private String payload;  // JSON representation of the event
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private EventStatus status = EventStatus.PENDING;  // PENDING -> PROCESSED, or FAILED once moved to the DLQ
+
+    @Column(nullable = false)
+    private Integer attempts = 0;
+
+    @Column(length = 2000)
+    private String lastError;
+
+    @Column
+    private Instant claimedUntil;  // Set while a relay instance is publishing the event
+
+    @Column(nullable = false)
+    private Instant createdAt;
+
+    @Column
+    private Instant publishedAt;
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = Instant.now();
+    }
+}
@@ -0,0 +1,6 @@
+package com.bookticket.booking_service.enums;
+
+public enum AdmissionStatus {
+    WAITING, // Queued, not yet admitted
+    ADMITTED // Admission token issued, booking can be created
+}
@@ -0,0 +1,7 @@
+package com.bookticket.booking_service.enums;
+
+public enum LockReleaseOutcome {
+    RELEASED, // Lock was held by the booking and has been deleted
+    NOT_LOCKED, // Lock had already expired or been released
+    NOT_OWNER // Lock is held by another booking and was left untouched
+}
@@ -0,0 +1,10 @@
+package com.bookticket.booking_service.enums;
+
+public enum LockReleaseReason {
+    CONFIRMED, // Payment completed, seats booked
+    PAYMENT_FAILED, // Payment failed or could not be verified
+    CHECKOUT_FAILED, // Payment session could not be created
+    ERROR, // Unexpected error during booking creation
+    EXPIRED, // Seat hold ended before payment completed
+    RECONCILED // Stale or orphaned lock cleaned up by the booking reconciler
+}
@@ -0,0 +1,10 @@
+package com.bookticket.booking_service.enums;
+
+public enum SagaState {
+    STARTED,             // Booking row written; seats may be locked in the lock backend and the theater service
+    PAYMENT_PENDING,     // Seats locked and checkout session open, waiting for payment
+    CONFIRMED,           // Payment completed and seats booked (final)
+    COMPENSATING,        // Booking failed; seat releases are pending and retried by the saga worker
+    COMPENSATED,         // Every compensation succeeded (final)
+    COMPENSATION_FAILED  // Compensations still pending after the last attempt, needs manual action (final)
+}
@@ -0,0 +1,6 @@
+package com.bookticket.booking_service.enums;
+
+public enum SeatLockMode {
+    KEY_PER_SEAT, // One Redis string key with its own TTL per locked seat
+    SHOW_HASH // One Redis hash per show, field per locked seat holding owner and lease expiry
+}
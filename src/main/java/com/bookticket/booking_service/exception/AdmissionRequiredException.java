@@ -0,0 +1,13 @@
+package com.bookticket.booking_service.exception;
+
+/**
+ * Exception thrown when a booking is attempted for a show behind the waiting room
+ * without a valid admission token
+ * Results in HTTP 429 Too Many Requests response
+ */
+public class AdmissionRequiredException extends RuntimeException {
+
+    public AdmissionRequiredException(String message) {
+        super(message);
+    }
+}
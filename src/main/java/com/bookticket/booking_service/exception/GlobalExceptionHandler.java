@@ -34,6 +34,71 @@ public class GlobalExceptionHandler {
         return problemDetail;
     }
 
+    /**
+     * Handle AdmissionRequiredException - returns 429 Too Many Requests
+     * Thrown when a show is behind the waiting room and no valid admission token was presented
+     */
+    @ExceptionHandler(AdmissionRequiredException.class)
+    public ProblemDetail handleAdmissionRequiredException(AdmissionRequiredException ex) {
+        log.warn("Admission required: {}", ex.getMessage());
+
+        ProblemDetail problemDetail = ProblemDetail.forStatusAndDetail(
+                HttpStatus.TOO_MANY_REQUESTS,
+                ex.getMessage()
+        );
+
+        problemDetail.setTitle("Admission Required");
+        problemDetail.setType(URI.create("https://bookticket.com/errors/admission-required"));
+        problemDetail.setProperty("timestamp", Instant.now());
+        problemDetail.setProperty("errorCode", "ADMISSION_REQUIRED");
+
+        return problemDetail;
+    }
+
+    /**
+     * Handle WaitingRoomTicketNotFoundException - returns 404 Not Found
+     * Thrown when a polled waiting room ticket is unknown, expired or owned by another user
+     */
+    @ExceptionHandler(WaitingRoomTicketNotFoundException.class)
+    public ProblemDetail handleWaitingRoomTicketNotFoundException(WaitingRoomTicketNotFoundException ex) {
+        log.warn("Waiting room ticket not found: {}", ex.getMessage());
+
+        ProblemDetail problemDetail = ProblemDetail.forStatusAndDetail(
+                HttpStatus.NOT_FOUND,
+                ex.getMessage()
+        );
+
+        problemDetail.setTitle("Waiting Room Ticket Not Found");
+        problemDetail.setType(URI.create("https://bookticket.com/errors/waiting-room-ticket-not-found"));
+        problemDetail.setProperty("timestamp", Instant.now());
+        problemDetail.setProperty("errorCode", "WAITING_ROOM_TICKET_NOT_FOUND");
+
+        return problemDetail;
+    }
+
+    /**
+     * Handle IdempotencyKeyException - returns 400, 409 or 422
+     * Thrown when a createBooking retry carries an Idempotency-Key that cannot be replayed
+     */
+    @ExceptionHandler(IdempotencyKeyException.class)
+    public ProblemDetail handleIdempotencyKeyException(IdempotencyKeyException ex) {
+        log.warn("Idempotency key rejected: {}", ex.getMessage());
+
+        HttpStatus status = switch (ex.getReason()) {
+            case INVALID_KEY -> HttpStatus.BAD_REQUEST;
+            case IN_PROGRESS -> HttpStatus.CONFLICT;
+            case KEY_REUSED -> HttpStatus.UNPROCESSABLE_ENTITY;
+        };
+        ProblemDetail problemDetail = ProblemDetail.forStatusAndDetail(status, ex.getMessage());
+
+        problemDetail.setTitle("Idempotency Key Rejected");
+        problemDetail.setType(URI.create("https://bookticket.com/errors/idempotency-key"));
+        problemDetail.setProperty("timestamp", Instant.now());
+        problemDetail.setProperty("errorCode", "IDEMPOTENCY_" + ex.getReason().name());
+
+        return problemDetail;
+    }
+
     /**
      * Handle PaymentFailedException - returns 402 Payment Required
      * Thrown when payment processing fails
@@ -0,0 +1,28 @@
+package com.bookticket.booking_service.exception;
+
+/**
+ * Exception thrown when a request cannot be served under its Idempotency-Key
+ * Results in HTTP 400, 409 or 422 depending on the reason
+ */
+public class IdempotencyKeyException extends RuntimeException {
+
+    public enum Reason {
+        /** The key is blank or too long - 400 Bad Request */
+        INVALID_KEY,
+        /** The first request with this key is still being processed - 409 Conflict */
+        IN_PROGRESS,
+        /** The key was already used for a different request - 422 Unprocessable Entity */
+        KEY_REUSED
+    }
+
+    private final Reason reason;
+
+    public IdempotencyKeyException(String message, Reason reason) {
+        super(message);
+        this.reason = reason;
+    }
+
+    public Reason getReason() {
+        return reason;
+    }
+}
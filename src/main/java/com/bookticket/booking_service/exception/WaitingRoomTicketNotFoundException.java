@@ -0,0 +1,13 @@
+package com.bookticket.booking_service.exception;
+
+/**
+ * Exception thrown when a waiting room ticket does not exist, has expired
+ * or belongs to another user
+ * Results in HTTP 404 Not Found response
+ */
+public class WaitingRoomTicketNotFoundException extends RuntimeException {
+
+    public WaitingRoomTicketNotFoundException(String message) {
+        super(message);
+    }
+}
@@ -1,7 +1,41 @@
 package com.bookticket.booking_service.repository;
 
 import com.bookticket.booking_service.entity.Booking;
+import com.bookticket.booking_service.enums.BookingStatus;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
 
 public interface BookingRepository extends JpaRepository<Booking, Long> {
+
+    /**
+     * Find bookings in a status since before the cutoff, oldest first
+     * Rows written before pendingSince existed fall back to their creation day.
+     */
+    @Query("select b from Booking b where b.status = :status " +
+            "and (b.pendingSince < :cutoff or (b.pendingSince is null and b.createdAt < :cutoffDate)) " +
+            "order by b.id")
+    List<Booking> findStale(@Param("status") BookingStatus status,
+                            @Param("cutoff") Instant cutoff,
+                            @Param("cutoffDate") LocalDate cutoffDate,
+                            Pageable pageable);
+
+    /**
+     * Move a booking to a new status only if it is still in the expected status
+     *
+     * @return 1 if the booking was updated, 0 if its status had already changed
+     */
+    @Transactional
+    @Modifying
+    @Query("update Booking b set b.status = :to where b.id = :id and b.status = :from")
+    int updateStatusIfCurrent(@Param("id") Long id,
+                              @Param("from") BookingStatus from,
+                              @Param("to") BookingStatus to);
 }
@@ -0,0 +1,47 @@
+package com.bookticket.booking_service.repository;
+
+import com.bookticket.booking_service.entity.BookingSaga;
+import com.bookticket.booking_service.enums.SagaState;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+public interface BookingSagaRepository extends JpaRepository<BookingSaga, Long> {
+
+    /**
+     * Lock the compensating sagas that are due, oldest first
+     * Rows locked by another worker are skipped, so instances claim disjoint sagas.
+     * Must be called inside a transaction; the locks are held until it ends.
+     */
+    @Query(value = "select * from booking_saga where state = 'COMPENSATING' and next_attempt_at <= :now " +
+            "order by next_attempt_at limit :limit for update skip locked",
+            nativeQuery = true)
+    List<BookingSaga> lockDue(@Param("now") Instant now, @Param("limit") int limit);
+
+    /**
+     * Move a saga to a new state only if it is still in one of the expected states
+     *
+     * @return 1 if the saga was updated, 0 if it does not exist or its state had already changed
+     */
+    @Transactional
+    @Modifying
+    @Query("update BookingSaga s set s.state = :to, s.updatedAt = :now, s.version = s.version + 1 " +
+            "where s.bookingId = :bookingId and s.state in :from")
+    int updateStateIfCurrent(@Param("bookingId") Long bookingId,
+                             @Param("from") Collection<SagaState> from,
+                             @Param("to") SagaState to,
+                             @Param("now") Instant now);
+
+    long countByState(SagaState state);
+
+    @Modifying
+    @Query("delete from BookingSaga s where s.state in :states and s.updatedAt < :cutoff")
+    int deleteByStateInAndUpdatedAtBefore(@Param("states") Collection<SagaState> states,
+                                          @Param("cutoff") Instant cutoff);
+}
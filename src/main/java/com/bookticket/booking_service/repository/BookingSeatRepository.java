@@ -2,7 +2,9 @@ package com.bookticket.booking_service.repository;
 
 import com.bookticket.booking_service.entity.BookingSeat;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.List;
 
 public interface BookingSeatRepository extends JpaRepository<BookingSeat, Long> {
@@ -13,6 +15,15 @@ public interface BookingSeatRepository extends JpaRepository<BookingSeat, Long>
      * @param bookingId Booking ID
      * @return List of booking seats
      */
+    @Transactional(readOnly = true)
     List<BookingSeat> findByBookingId(Long bookingId);
+
+    /**
+     * Find all booking seats for many bookings in one query
+     *
+     * @param bookingIds Booking IDs
+     * @return List of booking seats
+     */
+    List<BookingSeat> findByBookingIdIn(Collection<Long> bookingIds);
 }
 
@@ -0,0 +1,47 @@
+package com.bookticket.booking_service.repository;
+
+import com.bookticket.booking_service.entity.OutboxEvent;
+import com.bookticket.booking_service.enums.EventStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    /**
+     * Lock the oldest pending events that no relay instance has claimed, or whose claim has expired
+     * Rows locked by another relay instance are skipped, so instances claim disjoint batches.
+     * Must be called inside a transaction; the locks are held until it ends.
+     */
+    @Query(value = "select * from booking_outbox where status = 'PENDING' " +
+            "and (claimed_until is null or claimed_until < :now) order by id limit :limit for update skip locked",
+            nativeQuery = true)
+    List<OutboxEvent> lockNextBatch(@Param("now") Instant now, @Param("limit") int limit);
+
+    /**
+     * Mark events as published and clear their claim
+     */
+    @Modifying
+    @Query("update OutboxEvent e set e.status = :status, e.publishedAt = :publishedAt, e.claimedUntil = null " +
+            "where e.id in :ids")
+    int markPublished(@Param("ids") Collection<Long> ids,
+                      @Param("status") EventStatus status,
+                      @Param("publishedAt") Instant publishedAt);
+
+    long countByStatus(EventStatus status);
+
+    /**
+     * Creation time of the oldest event in a status, or null if there is none
+     */
+    @Query("select min(e.createdAt) from OutboxEvent e where e.status = :status")
+    Instant findOldestCreatedAt(@Param("status") EventStatus status);
+
+    @Modifying
+    @Query("delete from OutboxEvent e where e.status = :status and e.publishedAt < :cutoff")
+    int deleteByStatusAndPublishedAtBefore(@Param("status") EventStatus status, @Param("cutoff") Instant cutoff);
+}
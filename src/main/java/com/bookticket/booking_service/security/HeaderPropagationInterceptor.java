@@ -1,6 +1,6 @@
 package com.bookticket.booking_service.security;
 
-
+import com.bookticket.booking_service.configuration.ServiceIdentityProperties;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpRequest;
 import org.springframework.http.client.ClientHttpRequestExecution;
@@ -11,9 +11,20 @@ import org.springframework.web.context.request.ServletRequestAttributes;
 
 import java.io.IOException;
 
+/**
+ * Forwards the calling user's headers to downstream services, adding the SERVICE_ACCOUNT role
+ * Calls made without a bound request (worker threads, schedulers, Kafka listeners) are sent with
+ * the booking service's own identity instead, so they are not rejected as anonymous.
+ */
 @Slf4j
 public class HeaderPropagationInterceptor implements ClientHttpRequestInterceptor {
 
+    private final ServiceIdentityProperties serviceIdentity;
+
+    public HeaderPropagationInterceptor(ServiceIdentityProperties serviceIdentity) {
+        this.serviceIdentity = serviceIdentity;
+    }
+
     @Override
     public ClientHttpResponse intercept(HttpRequest request, byte[] body, ClientHttpRequestExecution execution) throws IOException {
         ServletRequestAttributes attributes = (ServletRequestAttributes) RequestContextHolder.getRequestAttributes();
@@ -48,7 +59,11 @@ public class HeaderPropagationInterceptor implements ClientHttpRequestIntercepto
                 log.warn("HeaderPropagationInterceptor - X-User-Roles is null, not adding to outgoing request");
             }
         } else {
-            log.warn("HeaderPropagationInterceptor - RequestContextHolder.getRequestAttributes() returned null - no request context available");
+            log.debug("HeaderPropagationInterceptor - No request context available, sending service identity {}",
+                    serviceIdentity.getUsername());
+            request.getHeaders().set("X-User-Id", String.valueOf(serviceIdentity.getUserId()));
+            request.getHeaders().set("X-User-Name", serviceIdentity.getUsername());
+            request.getHeaders().set("X-User-Roles", serviceIdentity.getRoles());
         }
 
         log.info("HeaderPropagationInterceptor - Final outgoing headers: {}", request.getHeaders());
@@ -0,0 +1,99 @@
+package com.bookticket.booking_service.service;
+
+import com.bookticket.booking_service.configuration.BookingIdProperties;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Time-ordered, node-unique 64-bit booking ids generated in process
+ * Layout (snowflake-style), most significant bit first:
+ *   1 bit   always 0, so ids are positive
+ *   41 bits milliseconds since booking.id.epoch
+ *   10 bits node id
+ *   12 bits sequence within the millisecond (4,096 ids per millisecond per node)
+ * The node id must be configured per instance; deriving it is only allowed for a single local instance.
+ * Ids are known before anything is written, so createBooking can lock seats before inserting the booking.
+ * The timestamp never moves backwards: if the clock does, or a millisecond runs out of sequence numbers,
+ * the generator keeps counting from the last timestamp it used and catches up with the clock later.
+ * Lock-free, so virtual threads never pin or queue on it.
+ */
+@Component
+@Slf4j
+public class BookingIdGenerator {
+
+    static final int NODE_BITS = 10;
+    static final int SEQUENCE_BITS = 12;
+    static final long MAX_NODE_ID = (1L << NODE_BITS) - 1;
+    private static final long SEQUENCE_MASK = (1L << SEQUENCE_BITS) - 1;
+
+    private final long epochMillis;
+    private final long nodeId;
+    private final long clockDriftWarnMs;
+    private final LongSupplier clock;
+    // Last issued timestamp and sequence, packed as (timestamp << SEQUENCE_BITS) | sequence
+    private final AtomicLong lastState = new AtomicLong();
+
+    public BookingIdGenerator(BookingIdProperties properties) {
+        this(properties, System::currentTimeMillis);
+    }
+
+    BookingIdGenerator(BookingIdProperties properties, LongSupplier clock) {
+        this.clock = clock;
+        this.epochMillis = properties.getEpoch().toEpochMilli();
+        if (properties.getNodeId() == null && !properties.isAllowDerivedNodeId()) {
+            throw new IllegalStateException("booking.id.node-id is not set - every instance needs its own node id "
+                    + "between 0 and " + MAX_NODE_ID + " so booking ids stay unique");
+        }
+        this.nodeId = properties.getNodeId() != null ? properties.getNodeId() : deriveNodeId();
+        if (nodeId < 0 || nodeId > MAX_NODE_ID) {
+            throw new IllegalArgumentException("booking.id.node-id must be between 0 and " + MAX_NODE_ID
+                    + ", was " + nodeId);
+        }
+        this.clockDriftWarnMs = properties.getClockDriftWarnMs();
+        log.info("Booking id generator initialized with node id {}{}", nodeId,
+                properties.getNodeId() == null ? " (derived from host name and pid, only unique for a single instance)" : "");
+    }
+
+    /**
+     * Next booking id, greater than every id previously issued by this instance
+     */
+    public long nextId() {
+        long now = clock.getAsLong() - epochMillis;
+        while (true) {
+            long last = lastState.get();
+            long lastTimestamp = last >>> SEQUENCE_BITS;
+            long next;
+            if (now > lastTimestamp) {
+                next = now << SEQUENCE_BITS;
+            } else {
+                // Same millisecond, clock moved back or sequence exhausted - count on from the last state,
+                // which rolls over into the next millisecond after 4,096 ids
+                next = last + 1;
+            }
+            if (lastState.compareAndSet(last, next)) {
+                if (lastTimestamp - now > clockDriftWarnMs) {
+                    log.warn("System clock is {} ms behind the last booking id timestamp", lastTimestamp - now);
+                }
+                return ((next >>> SEQUENCE_BITS) << (NODE_BITS + SEQUENCE_BITS))
+                        | (nodeId << SEQUENCE_BITS)
+                        | (next & SEQUENCE_MASK);
+            }
+        }
+    }
+
+    private static long deriveNodeId() {
+        String host;
+        try {
+            host = InetAddress.getLocalHost().getHostName();
+        } catch (UnknownHostException e) {
+            host = "unknown";
+        }
+        String identity = host + "/" + ProcessHandle.current().pid();
+        return Math.floorMod(identity.hashCode(), MAX_NODE_ID + 1);
+    }
+}
@@ -0,0 +1,296 @@
+package com.bookticket.booking_service.service;
+
+import com.bookticket.booking_service.configuration.OutboxProperties;
+import com.bookticket.booking_service.dto.BookingFailedEvent;
+import com.bookticket.booking_service.dto.BookingSuccessEvent;
+import com.bookticket.booking_service.entity.OutboxEvent;
+import com.bookticket.booking_service.enums.EventStatus;
+import com.bookticket.booking_service.enums.EventType;
+import com.bookticket.booking_service.repository.OutboxEventRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Scheduled relay that drains the booking outbox to Kafka in batches
+ * A batch is published once it is full, or once its oldest event has waited for the linger time.
+ * Each batch takes two short transactions and holds no connection while Kafka acknowledges it:
+ * the events are claimed (locked with SKIP LOCKED and reserved for the claim timeout), sent
+ * together, and the outcome of the whole batch is then written with one update.
+ * Delivery is at least once: every record carries its outbox ID in the outbox-event-id header,
+ * so consumers can drop the rare redelivery (e.g. after an acknowledgement timeout, or when an
+ * instance dies before recording a batch and its claim expires).
+ */
+@Service
+@Slf4j
+public class BookingOutboxRelay {
+
+    static final String EVENT_ID_HEADER = "outbox-event-id";
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final KafkaTemplate<String, BookingSuccessEvent> kafkaSuccessTemplate;
+    private final KafkaTemplate<String, BookingFailedEvent> kafkaFailedTemplate;
+    private final DeadLetterQueueService deadLetterQueueService;
+    private final ObjectMapper objectMapper;
+    private final OutboxProperties outboxProperties;
+    private final TransactionTemplate transactionTemplate;
+
+    private final Counter publishedEvents;
+    private final Counter failedSends;
+    private final DistributionSummary batchSizes;
+    private final Timer publishLatency;
+
+    private int consecutiveFailedBatches;
+    private Instant pausedUntil = Instant.EPOCH;
+
+    public BookingOutboxRelay(OutboxEventRepository outboxEventRepository,
+                              KafkaTemplate<String, BookingSuccessEvent> kafkaSuccessTemplate,
+                              KafkaTemplate<String, BookingFailedEvent> kafkaFailedTemplate,
+                              DeadLetterQueueService deadLetterQueueService,
+                              ObjectMapper objectMapper,
+                              OutboxProperties outboxProperties,
+                              PlatformTransactionManager transactionManager,
+                              MeterRegistry meterRegistry) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.kafkaSuccessTemplate = kafkaSuccessTemplate;
+        this.kafkaFailedTemplate = kafkaFailedTemplate;
+        this.deadLetterQueueService = deadLetterQueueService;
+        this.objectMapper = objectMapper;
+        this.outboxProperties = outboxProperties;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+
+        // Queried when the gauges are read, not on every relay run
+        Gauge.builder("booking.outbox.pending", this, BookingOutboxRelay::countPendingEvents)
+                .description("Booking events waiting in the outbox")
+                .register(meterRegistry);
+        TimeGauge.builder("booking.outbox.lag", this, TimeUnit.MILLISECONDS, BookingOutboxRelay::oldestPendingAgeMillis)
+                .description("Age of the oldest booking event waiting in the outbox")
+                .register(meterRegistry);
+        this.publishedEvents = Counter.builder("booking.outbox.published")
+                .description("Booking events published from the outbox")
+                .register(meterRegistry);
+        this.failedSends = Counter.builder("booking.outbox.send.failures")
+                .description("Outbox event sends that failed or timed out")
+                .register(meterRegistry);
+        this.batchSizes = DistributionSummary.builder("booking.outbox.batch.size")
+                .description("Events per published outbox batch")
+                .register(meterRegistry);
+        this.publishLatency = Timer.builder("booking.outbox.publish.latency")
+                .description("Time from outbox write to Kafka acknowledgement")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Scheduled job to publish pending outbox events
+     * Runs every booking.outbox.poll-interval-ms (100 ms by default)
+     */
+    @Scheduled(fixedDelayString = "${booking.outbox.poll-interval-ms:100}")
+    public void relay() {
+        for (int batch = 0; batch < outboxProperties.getMaxBatchesPerRun(); batch++) {
+            if (Instant.now().isBefore(pausedUntil)) {
+                return;
+            }
+            List<OutboxEvent> events = transactionTemplate.execute(status -> claimNextBatch());
+            if (events == null || events.isEmpty()) {
+                return;
+            }
+
+            BatchResult result = publishBatch(events);
+            if (result.failed() > 0) {
+                backOff();
+                return;
+            }
+            consecutiveFailedBatches = 0;
+            if (result.published() < outboxProperties.getBatchSize()) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Scheduled job to delete published events past the retention period
+     * Runs every hour
+     */
+    @Scheduled(fixedDelay = 3600000, initialDelay = 300000)
+    public void purgePublishedEvents() {
+        Instant cutoff = Instant.now().minus(outboxProperties.getRetention());
+        Integer deleted = transactionTemplate.execute(status ->
+                outboxEventRepository.deleteByStatusAndPublishedAtBefore(EventStatus.PROCESSED, cutoff));
+        log.info("Purged {} published outbox events older than {}", deleted, cutoff);
+    }
+
+    /**
+     * Lock the next pending events and reserve them for the claim timeout
+     * A partial batch whose oldest event is younger than the linger time is left unclaimed, so it can
+     * fill up. The events are managed, so the claim is written when the transaction commits.
+     */
+    List<OutboxEvent> claimNextBatch() {
+        Instant now = Instant.now();
+        List<OutboxEvent> events = outboxEventRepository.lockNextBatch(now, outboxProperties.getBatchSize());
+        if (events.isEmpty()) {
+            return events;
+        }
+        if (events.size() < outboxProperties.getBatchSize()
+                && events.get(0).getCreatedAt().isAfter(now.minus(outboxProperties.getLinger()))) {
+            return List.of();
+        }
+        Instant claimedUntil = now.plus(outboxProperties.getClaimTimeout());
+        events.forEach(event -> event.setClaimedUntil(claimedUntil));
+        return events;
+    }
+
+    /**
+     * Send the claimed events and wait for their acknowledgements, then record the outcome
+     * No transaction is open while waiting; the outcome is written in a second short transaction.
+     */
+    BatchResult publishBatch(List<OutboxEvent> events) {
+        List<CompletableFuture<?>> sends = new ArrayList<>(events.size());
+        for (OutboxEvent event : events) {
+            sends.add(send(event));
+        }
+
+        long deadlineNanos = System.nanoTime() + outboxProperties.getSendTimeout().toNanos();
+        List<Long> publishedIds = new ArrayList<>(events.size());
+        List<OutboxEvent> failedEvents = new ArrayList<>();
+        for (int i = 0; i < events.size(); i++) {
+            OutboxEvent event = events.get(i);
+            try {
+                sends.get(i).get(Math.max(deadlineNanos - System.nanoTime(), 0), TimeUnit.NANOSECONDS);
+                publishedIds.add(event.getId());
+                publishLatency.record(Duration.between(event.getCreatedAt(), Instant.now()));
+            } catch (ExecutionException e) {
+                failedEvents.add(recordFailedSend(event, e.getCause()));
+            } catch (TimeoutException e) {
+                failedEvents.add(recordFailedSend(event, new TimeoutException("No acknowledgement within the send timeout")));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                failedEvents.add(recordFailedSend(event, e));
+            }
+        }
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                if (!publishedIds.isEmpty()) {
+                    outboxEventRepository.markPublished(publishedIds, EventStatus.PROCESSED, Instant.now());
+                }
+                if (!failedEvents.isEmpty()) {
+                    outboxEventRepository.saveAll(failedEvents);
+                    failedEvents.stream()
+                            .filter(event -> event.getStatus() == EventStatus.FAILED)
+                            .forEach(this::moveToDeadLetterQueue);
+                }
+            });
+        } catch (Exception e) {
+            // The claims expire and the events are published again - consumers drop the duplicates
+            log.error("Failed to record the outcome of {} outbox events, they are republished after the claim timeout: {}",
+                    events.size(), e.getMessage());
+            return new BatchResult(0, events.size());
+        }
+        publishedEvents.increment(publishedIds.size());
+        batchSizes.record(events.size());
+        log.debug("Published {} of {} outbox events", publishedIds.size(), events.size());
+        return new BatchResult(publishedIds.size(), failedEvents.size());
+    }
+
+    private CompletableFuture<?> send(OutboxEvent event) {
+        try {
+            String key = String.valueOf(event.getBookingId());
+            if (event.getEventType() == EventType.BOOKING_SUCCESS) {
+                return kafkaSuccessTemplate.send(withEventId(new ProducerRecord<>(event.getTopic(), key,
+                        objectMapper.readValue(event.getPayload(), BookingSuccessEvent.class)), event));
+            }
+            return kafkaFailedTemplate.send(withEventId(new ProducerRecord<>(event.getTopic(), key,
+                    objectMapper.readValue(event.getPayload(), BookingFailedEvent.class)), event));
+        } catch (Exception e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    private static <V> ProducerRecord<String, V> withEventId(ProducerRecord<String, V> record, OutboxEvent event) {
+        record.headers().add(EVENT_ID_HEADER, String.valueOf(event.getId()).getBytes(StandardCharsets.UTF_8));
+        return record;
+    }
+
+    /**
+     * Count a failed send and release the event's claim, so it is retried after the relay's backoff
+     * After the last attempt the event is marked FAILED, to be moved to the Dead Letter Queue.
+     */
+    private OutboxEvent recordFailedSend(OutboxEvent event, Throwable error) {
+        failedSends.increment();
+        String message = error != null && error.getMessage() != null ? error.getMessage() : String.valueOf(error);
+        event.setAttempts(event.getAttempts() + 1);
+        event.setLastError(message.length() > 2000 ? message.substring(0, 2000) : message);
+        event.setClaimedUntil(null);
+        log.warn("Failed to publish outbox event {} for booking {} (attempt {}/{}): {}",
+                event.getId(), event.getBookingId(), event.getAttempts(), outboxProperties.getMaxAttempts(), message);
+        if (event.getAttempts() >= outboxProperties.getMaxAttempts()) {
+            event.setStatus(EventStatus.FAILED);
+        }
+        return event;
+    }
+
+    private void moveToDeadLetterQueue(OutboxEvent event) {
+        try {
+            if (event.getEventType() == EventType.BOOKING_SUCCESS) {
+                BookingSuccessEvent successEvent = objectMapper.readValue(event.getPayload(), BookingSuccessEvent.class);
+                deadLetterQueueService.storeFailedSuccessEvent(successEvent.bookingId(), successEvent.userId(),
+                        successEvent.showId(), successEvent.totalAmount(), event.getLastError());
+            } else {
+                BookingFailedEvent failedEvent = objectMapper.readValue(event.getPayload(), BookingFailedEvent.class);
+                deadLetterQueueService.storeFailedFailureEvent(failedEvent.bookingId(), failedEvent.userId(),
+                        failedEvent.showId(), failedEvent.totalAmount(), failedEvent.reason(), event.getLastError());
+            }
+        } catch (Exception e) {
+            log.error("Failed to move outbox event {} to DLQ: {}", event.getId(), e.getMessage(), e);
+        }
+        log.error("Outbox event {} for booking {} moved to DLQ after {} attempts",
+                event.getId(), event.getBookingId(), event.getAttempts());
+    }
+
+    private double countPendingEvents() {
+        try {
+            return outboxEventRepository.countByStatus(EventStatus.PENDING);
+        } catch (Exception e) {
+            return Double.NaN;
+        }
+    }
+
+    private double oldestPendingAgeMillis() {
+        try {
+            Instant oldest = outboxEventRepository.findOldestCreatedAt(EventStatus.PENDING);
+            return oldest != null ? Math.max(Duration.between(oldest, Instant.now()).toMillis(), 0) : 0;
+        } catch (Exception e) {
+            return Double.NaN;
+        }
+    }
+
+    private void backOff() {
+        consecutiveFailedBatches++;
+        long backoffMillis = outboxProperties.getRetryBackoff().toMillis() << Math.min(consecutiveFailedBatches - 1, 16);
+        pausedUntil = Instant.now().plusMillis(Math.min(backoffMillis, outboxProperties.getMaxRetryBackoff().toMillis()));
+    }
+
+    record BatchResult(int published, int failed) {
+    }
+}
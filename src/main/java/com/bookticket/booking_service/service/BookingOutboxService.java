@@ -0,0 +1,96 @@
+package com.bookticket.booking_service.service;
+
+import com.bookticket.booking_service.dto.BookingFailedEvent;
+import com.bookticket.booking_service.dto.BookingSuccessEvent;
+import com.bookticket.booking_service.entity.Booking;
+import com.bookticket.booking_service.entity.OutboxEvent;
+import com.bookticket.booking_service.enums.BookingStatus;
+import com.bookticket.booking_service.enums.EventType;
+import com.bookticket.booking_service.repository.BookingRepository;
+import com.bookticket.booking_service.repository.OutboxEventRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Changes booking status and records the matching booking event in the outbox, in one transaction
+ * The event is published by {@link BookingOutboxRelay} only once the status change has committed,
+ * so consumers never see an event for a change that was rolled back, and no event is lost.
+ */
+@Service
+@Slf4j
+public class BookingOutboxService {
+
+    static final String SUCCESS_TOPIC = "booking_success";
+    static final String FAILED_TOPIC = "booking_failed";
+
+    private final BookingRepository bookingRepository;
+    private final OutboxEventRepository outboxEventRepository;
+    private final ObjectMapper objectMapper;
+
+    public BookingOutboxService(BookingRepository bookingRepository,
+                                OutboxEventRepository outboxEventRepository,
+                                ObjectMapper objectMapper) {
+        this.bookingRepository = bookingRepository;
+        this.outboxEventRepository = outboxEventRepository;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Move a booking to a final status if it is still in the expected status, and record its event
+     *
+     * @param booking The booking (its status is updated in place on success)
+     * @param from Expected current status
+     * @param to New status (CONFIRMED or FAILED)
+     * @param reason Failure reason for the booking failed event (ignored for CONFIRMED)
+     * @return false if the booking was no longer in the expected status; nothing is written then
+     */
+    @Transactional
+    public boolean transition(Booking booking, BookingStatus from, BookingStatus to, String reason) {
+        if (bookingRepository.updateStatusIfCurrent(booking.getId(), from, to) == 0) {
+            return false;
+        }
+        booking.setStatus(to);
+        enqueue(booking, reason);
+        return true;
+    }
+
+    private void enqueue(Booking booking, String reason) {
+        OutboxEvent outboxEvent = new OutboxEvent();
+        outboxEvent.setBookingId(booking.getId());
+        if (booking.getStatus() == BookingStatus.CONFIRMED) {
+            outboxEvent.setEventType(EventType.BOOKING_SUCCESS);
+            outboxEvent.setTopic(SUCCESS_TOPIC);
+            outboxEvent.setPayload(toJson(new BookingSuccessEvent(
+                    booking.getId(),
+                    booking.getUserId(),
+                    booking.getShowId(),
+                    booking.getTotalAmount()
+            )));
+        } else if (booking.getStatus() == BookingStatus.FAILED) {
+            outboxEvent.setEventType(EventType.BOOKING_FAILED);
+            outboxEvent.setTopic(FAILED_TOPIC);
+            outboxEvent.setPayload(toJson(new BookingFailedEvent(
+                    booking.getId(),
+                    booking.getUserId(),
+                    booking.getShowId(),
+                    booking.getTotalAmount(),
+                    reason
+            )));
+        } else {
+            throw new IllegalArgumentException("No booking event for status " + booking.getStatus());
+        }
+        outboxEventRepository.save(outboxEvent);
+        log.info("Recorded {} event in outbox for booking {}", outboxEvent.getEventType(), booking.getId());
+    }
+
+    private String toJson(Object event) {
+        try {
+            return objectMapper.writeValueAsString(event);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize booking event", e);
+        }
+    }
+}
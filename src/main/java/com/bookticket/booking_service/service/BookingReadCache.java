@@ -0,0 +1,184 @@
+package com.bookticket.booking_service.service;
+
+import com.bookticket.booking_service.configuration.BookingReadCacheProperties;
+import com.bookticket.booking_service.dto.BookingStatusResponse;
+import com.bookticket.booking_service.dto.SeatDetailsResponse;
+import com.bookticket.booking_service.enums.BookingStatus;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+/**
+ * Read-through cache of booking data that can no longer change
+ *   seat-details    the seats of a booking, written once by createBooking
+ *   booking-status  the status response of a CONFIRMED, FAILED or CANCELLED booking
+ * Each view has a bounded in-memory tier (size and TTL evicted) and, with booking.read-cache.redis-enabled,
+ * a Redis tier shared by all instances:
+ *   booking:read-cache:{view}:{bookingId} -> JSON
+ * Nothing is ever invalidated, so only immutable data may be cached: empty seat lists (seats not inserted yet)
+ * and PENDING bookings are never stored. A transition out of a terminal status would have to evict.
+ * Redis errors fall through to the database.
+ * Metrics: booking.read.cache.requests{cache, result=local_hit|redis_hit|miss}
+ */
+@Service
+@Slf4j
+public class BookingReadCache {
+
+    private static final String SEAT_DETAILS = "seat-details";
+    private static final String BOOKING_STATUS = "booking-status";
+
+    private final BookingReadCacheProperties properties;
+    private final StringRedisTemplate redisTemplate;
+    private final ObjectMapper objectMapper;
+    private final CachedView<List<SeatDetailsResponse>> seatDetails;
+    private final CachedView<BookingStatusResponse> terminalStatuses;
+
+    public BookingReadCache(BookingReadCacheProperties properties,
+                            StringRedisTemplate redisTemplate,
+                            ObjectMapper objectMapper,
+                            MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.redisTemplate = redisTemplate;
+        this.objectMapper = objectMapper;
+        this.seatDetails = new CachedView<>(SEAT_DETAILS,
+                objectMapper.getTypeFactory().constructCollectionType(List.class, SeatDetailsResponse.class),
+                meterRegistry);
+        this.terminalStatuses = new CachedView<>(BOOKING_STATUS,
+                objectMapper.getTypeFactory().constructType(BookingStatusResponse.class),
+                meterRegistry);
+    }
+
+    /**
+     * Seat details of a booking, loaded from the database on a miss
+     */
+    public List<SeatDetailsResponse> getSeatDetails(Long bookingId, Supplier<List<SeatDetailsResponse>> loader) {
+        if (!properties.isEnabled()) {
+            return loader.get();
+        }
+        List<SeatDetailsResponse> cached = seatDetails.get(bookingId);
+        if (cached != null) {
+            return cached;
+        }
+        List<SeatDetailsResponse> loaded = loader.get();
+        // An empty list may just mean createBooking has not inserted the seats yet
+        if (!loaded.isEmpty()) {
+            seatDetails.put(bookingId, List.copyOf(loaded));
+        }
+        return loaded;
+    }
+
+    /**
+     * Cached status response of a booking known to be terminal
+     */
+    public Optional<BookingStatusResponse> getTerminalStatus(Long bookingId) {
+        if (!properties.isEnabled()) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(terminalStatuses.get(bookingId));
+    }
+
+    /**
+     * Cache the status response of a booking if it is terminal; PENDING responses are ignored
+     */
+    public void putTerminalStatus(BookingStatusResponse response) {
+        if (!properties.isEnabled() || response.status() == BookingStatus.PENDING) {
+            return;
+        }
+        terminalStatuses.put(response.bookingId(), response);
+    }
+
+    /**
+     * One cached view: in-memory tier, optional Redis tier and its hit/miss counters
+     */
+    private final class CachedView<V> {
+        private final String name;
+        private final JavaType type;
+        private final Cache<Long, V> local;
+        private final Counter localHits;
+        private final Counter redisHits;
+        private final Counter misses;
+
+        private CachedView(String name, JavaType type, MeterRegistry meterRegistry) {
+            this.name = name;
+            this.type = type;
+            this.local = Caffeine.newBuilder()
+                    .maximumSize(properties.getMaxSize())
+                    .expireAfterWrite(properties.getTtl())
+                    .build();
+            this.localHits = counter(meterRegistry, "local_hit");
+            this.redisHits = counter(meterRegistry, "redis_hit");
+            this.misses = counter(meterRegistry, "miss");
+            Gauge.builder("booking.read.cache.size", local, Cache::estimatedSize)
+                    .description("Bookings held in the in-memory tier of the read cache")
+                    .tag("cache", name)
+                    .register(meterRegistry);
+        }
+
+        private Counter counter(MeterRegistry meterRegistry, String result) {
+            return Counter.builder("booking.read.cache.requests")
+                    .description("Booking read cache lookups by outcome")
+                    .tag("cache", name)
+                    .tag("result", result)
+                    .register(meterRegistry);
+        }
+
+        V get(Long bookingId) {
+            V value = local.getIfPresent(bookingId);
+            if (value != null) {
+                localHits.increment();
+                return value;
+            }
+            value = readRedis(bookingId);
+            if (value != null) {
+                redisHits.increment();
+                local.put(bookingId, value);
+                return value;
+            }
+            misses.increment();
+            return null;
+        }
+
+        void put(Long bookingId, V value) {
+            local.put(bookingId, value);
+            if (!properties.isRedisEnabled()) {
+                return;
+            }
+            try {
+                redisTemplate.opsForValue().set(redisKey(bookingId), objectMapper.writeValueAsString(value),
+                        properties.getRedisTtl());
+            } catch (DataAccessException | JsonProcessingException e) {
+                log.warn("Failed to write {} of booking {} to the Redis read cache: {}", name, bookingId, e.getMessage());
+            }
+        }
+
+        private V readRedis(Long bookingId) {
+            if (!properties.isRedisEnabled()) {
+                return null;
+            }
+            try {
+                String json = redisTemplate.opsForValue().get(redisKey(bookingId));
+                return json != null ? objectMapper.readValue(json, type) : null;
+            } catch (DataAccessException | JsonProcessingException e) {
+                log.warn("Failed to read {} of booking {} from the Redis read cache: {}", name, bookingId, e.getMessage());
+                return null;
+            }
+        }
+
+        private String redisKey(Long bookingId) {
+            return properties.getKeyPrefix() + ":" + name + ":" + bookingId;
+        }
+    }
+}
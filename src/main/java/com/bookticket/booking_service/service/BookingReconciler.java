@@ -0,0 +1,201 @@
+package com.bookticket.booking_service.service;
+
+import com.bookticket.booking_service.configuration.BookingReconcilerProperties;
+import com.bookticket.booking_service.configuration.RedisLockProperties;
+import com.bookticket.booking_service.configuration.SeatLockLeaseProperties;
+import com.bookticket.booking_service.entity.Booking;
+import com.bookticket.booking_service.entity.BookingSeat;
+import com.bookticket.booking_service.enums.BookingStatus;
+import com.bookticket.booking_service.enums.LockReleaseReason;
+import com.bookticket.booking_service.repository.BookingRepository;
+import com.bookticket.booking_service.repository.BookingSeatRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Scheduled service that returns stuck inventory to sale
+ * Works in both directions:
+ *   - PENDING bookings older than the longest possible seat hold are failed, and the release of
+ *     their seats in the lock backend and the theater service is handed to the saga worker
+ *   - Seat locks whose owner booking failed, or was never committed, are handed to the saga worker,
+ *     which releases them and their theater seats until both succeed; stale locks of CONFIRMED
+ *     bookings are released directly, since their seats stay booked in the theater service
+ * A booking is claimed with a conditional status update before anything is released, so a booking
+ * confirmed concurrently by verify-payment is never failed.
+ */
+@Service
+@Slf4j
+public class BookingReconciler {
+
+    private final BookingRepository bookingRepository;
+    private final BookingSeatRepository bookingSeatRepository;
+    private final SeatLockBackend seatLockBackend;
+    private final BookingSagaService bookingSagaService;
+    private final SeatLeaseRegistry seatLeaseRegistry;
+    private final BookingReconcilerProperties reconcilerProperties;
+    private final RedisLockProperties lockProperties;
+    private final SeatLockLeaseProperties leaseProperties;
+    private final Counter staleBookings;
+    private final Counter orphanedSeats;
+
+    // Owners of locks whose booking row did not exist on the previous run.
+    // createBooking locks seats before it inserts its row, so a missing owner
+    // is only treated as orphaned once it has been missing for two consecutive runs.
+    private Set<Long> suspectedOrphanOwners = Set.of();
+
+    public BookingReconciler(BookingRepository bookingRepository,
+                             BookingSeatRepository bookingSeatRepository,
+                             SeatLockBackend seatLockBackend,
+                             BookingSagaService bookingSagaService,
+                             SeatLeaseRegistry seatLeaseRegistry,
+                             BookingReconcilerProperties reconcilerProperties,
+                             RedisLockProperties lockProperties,
+                             SeatLockLeaseProperties leaseProperties,
+                             MeterRegistry meterRegistry) {
+        this.bookingRepository = bookingRepository;
+        this.bookingSeatRepository = bookingSeatRepository;
+        this.seatLockBackend = seatLockBackend;
+        this.bookingSagaService = bookingSagaService;
+        this.seatLeaseRegistry = seatLeaseRegistry;
+        this.reconcilerProperties = reconcilerProperties;
+        this.lockProperties = lockProperties;
+        this.leaseProperties = leaseProperties;
+        this.staleBookings = Counter.builder("booking.reconciler.stale.bookings")
+                .description("Stale PENDING bookings failed by the reconciler")
+                .register(meterRegistry);
+        this.orphanedSeats = Counter.builder("booking.reconciler.orphaned.seats")
+                .description("Seat locks of terminal or missing owner bookings, released or handed to the saga worker")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Scheduled job to reconcile bookings and seat locks
+     * Runs every booking.reconciler.interval-ms (1 minute by default)
+     */
+    @Scheduled(fixedDelayString = "${booking.reconciler.interval-ms:60000}",
+            initialDelayString = "${booking.reconciler.interval-ms:60000}")
+    public void reconcile() {
+        if (!reconcilerProperties.isEnabled()) {
+            return;
+        }
+        try {
+            failStalePendingBookings();
+        } catch (Exception e) {
+            log.error("Failed to reconcile stale PENDING bookings: {}", e.getMessage(), e);
+        }
+        if (reconcilerProperties.isOrphanedLocksEnabled()) {
+            try {
+                releaseOrphanedLocks();
+            } catch (Exception e) {
+                log.error("Failed to reconcile orphaned seat locks: {}", e.getMessage(), e);
+            }
+        }
+    }
+
+    /**
+     * Fail PENDING bookings whose seat hold must have ended, oldest first, in batches
+     */
+    void failStalePendingBookings() {
+        Duration maxHold = leaseProperties.isEnabled() ? leaseProperties.getMaxHold() : lockProperties.getTtl();
+        Instant cutoff = Instant.now().minus(maxHold).minus(reconcilerProperties.getGracePeriod());
+        LocalDate cutoffDate = LocalDate.ofInstant(cutoff, ZoneId.systemDefault());
+
+        int failedCount = 0;
+        for (int batch = 0; batch < reconcilerProperties.getMaxBatchesPerRun(); batch++) {
+            // Claimed bookings leave PENDING, so the first page always holds the next batch
+            List<Booking> stale = bookingRepository.findStale(BookingStatus.PENDING, cutoff, cutoffDate,
+                    PageRequest.of(0, reconcilerProperties.getBatchSize()));
+            if (stale.isEmpty()) {
+                break;
+            }
+            Map<Long, List<Long>> seatIdsByBooking = bookingSeatRepository.findByBookingIdIn(
+                            stale.stream().map(Booking::getId).toList())
+                    .stream()
+                    .collect(Collectors.groupingBy(seat -> seat.getBooking().getId(),
+                            Collectors.mapping(BookingSeat::getSeatId, Collectors.toList())));
+            // Each claim records the booking failed event and the pending seat releases in one transaction
+            for (Booking booking : stale) {
+                if (bookingSagaService.fail(booking, seatIdsByBooking.getOrDefault(booking.getId(), List.of()),
+                        "Booking expired before payment was completed", LockReleaseReason.RECONCILED, true, true)) {
+                    seatLeaseRegistry.remove(booking.getId());
+                    failedCount++;
+                }
+            }
+            if (stale.size() < reconcilerProperties.getBatchSize()) {
+                break;
+            }
+        }
+
+        if (failedCount > 0) {
+            staleBookings.increment(failedCount);
+            log.warn("Reconciler failed {} stale PENDING bookings created before {}", failedCount, cutoff);
+        }
+    }
+
+    /**
+     * Release seat locks whose owner booking is terminal, or has been missing for two runs
+     * A lock whose release fails is still in the backend, so the next run finds it again.
+     */
+    void releaseOrphanedLocks() {
+        Set<Long> missingOwners = new HashSet<>();
+        int releasedCount = 0;
+
+        for (Long showId : seatLockBackend.getLockedShowIds()) {
+            Map<Long, List<Long>> seatIdsByOwner = new HashMap<>();
+            seatLockBackend.getLockedSeats(showId).forEach((seatId, owner) -> {
+                Long bookingId = lockProperties.parseBookingLockValue(owner);
+                if (bookingId != null) {
+                    seatIdsByOwner.computeIfAbsent(bookingId, id -> new ArrayList<>()).add(seatId);
+                }
+            });
+            if (seatIdsByOwner.isEmpty()) {
+                continue;
+            }
+
+            Map<Long, BookingStatus> statuses = bookingRepository.findAllById(seatIdsByOwner.keySet())
+                    .stream()
+                    .collect(Collectors.toMap(Booking::getId, Booking::getStatus));
+
+            for (Map.Entry<Long, List<Long>> entry : seatIdsByOwner.entrySet()) {
+                Long bookingId = entry.getKey();
+                BookingStatus status = statuses.get(bookingId);
+                if (status == BookingStatus.PENDING) {
+                    continue;
+                }
+                if (status == null && !suspectedOrphanOwners.contains(bookingId)) {
+                    missingOwners.add(bookingId);
+                    continue;
+                }
+                // Seats of a CONFIRMED booking are booked in the theater service - only the lock is stale
+                if (status == BookingStatus.CONFIRMED) {
+                    seatLockBackend.releaseSeatsLock(showId, entry.getValue(), bookingId, LockReleaseReason.RECONCILED);
+                    releasedCount += entry.getValue().size();
+                } else if (bookingSagaService.compensateOrphanedSeats(bookingId, showId, entry.getValue())) {
+                    releasedCount += entry.getValue().size();
+                }
+            }
+        }
+
+        suspectedOrphanOwners = missingOwners;
+        if (releasedCount > 0) {
+            orphanedSeats.increment(releasedCount);
+            log.warn("Reconciler released or scheduled the release of {} orphaned seat locks", releasedCount);
+        }
+    }
+}
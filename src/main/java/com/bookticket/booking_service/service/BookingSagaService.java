@@ -0,0 +1,146 @@
+package com.bookticket.booking_service.service;
+
+import com.bookticket.booking_service.entity.Booking;
+import com.bookticket.booking_service.entity.BookingSaga;
+import com.bookticket.booking_service.enums.BookingStatus;
+import com.bookticket.booking_service.enums.LockReleaseReason;
+import com.bookticket.booking_service.enums.SagaState;
+import com.bookticket.booking_service.repository.BookingRepository;
+import com.bookticket.booking_service.repository.BookingSagaRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Drives the persisted booking saga
+ *   STARTED -> PAYMENT_PENDING -> CONFIRMED (or STARTED -> CONFIRMED when the payment result comes first)
+ *   STARTED | PAYMENT_PENDING -> COMPENSATING -> COMPENSATED | COMPENSATION_FAILED
+ * Every transition that changes the booking status is written in the same transaction as that
+ * status change and its outbox event. A failed booking only records which compensations are
+ * pending; {@link BookingSagaWorker} runs them off the request thread and retries each one
+ * until it succeeds, including after a restart.
+ */
+@Service
+@Slf4j
+public class BookingSagaService {
+
+    private final BookingRepository bookingRepository;
+    private final BookingSagaRepository bookingSagaRepository;
+    private final BookingOutboxService bookingOutboxService;
+
+    public BookingSagaService(BookingRepository bookingRepository,
+                              BookingSagaRepository bookingSagaRepository,
+                              BookingOutboxService bookingOutboxService) {
+        this.bookingRepository = bookingRepository;
+        this.bookingSagaRepository = bookingSagaRepository;
+        this.bookingOutboxService = bookingOutboxService;
+    }
+
+    /**
+     * Insert a PENDING booking together with its saga
+     *
+     * @param booking The new booking
+     * @param seatIds Seats the booking is about to lock
+     * @return The saved booking with its ID
+     */
+    @Transactional
+    public Booking start(Booking booking, List<Long> seatIds) {
+        Booking savedBooking = bookingRepository.save(booking);
+        bookingSagaRepository.save(new BookingSaga(savedBooking.getId(), savedBooking.getShowId(), seatIds));
+        return savedBooking;
+    }
+
+    /**
+     * Record that the seats are locked and the checkout session is open
+     */
+    public void paymentPending(Long bookingId) {
+        bookingSagaRepository.updateStateIfCurrent(bookingId, List.of(SagaState.STARTED), SagaState.PAYMENT_PENDING,
+                Instant.now());
+    }
+
+    /**
+     * Confirm a PENDING booking and complete its saga
+     *
+     * @return false if the booking had already left PENDING; nothing is written then
+     */
+    @Transactional
+    public boolean confirm(Booking booking) {
+        if (!bookingOutboxService.transition(booking, BookingStatus.PENDING, BookingStatus.CONFIRMED, null)) {
+            return false;
+        }
+        // The payment result can arrive before paymentPending is recorded, so a STARTED saga completes too.
+        // Bookings created before the saga table existed have no saga to complete
+        bookingSagaRepository.updateStateIfCurrent(booking.getId(),
+                List.of(SagaState.STARTED, SagaState.PAYMENT_PENDING), SagaState.CONFIRMED, Instant.now());
+        return true;
+    }
+
+    /**
+     * Fail a PENDING booking and schedule the compensations for the steps it completed
+     * The compensations run asynchronously on the saga worker; the caller does not wait for them.
+     *
+     * @param booking The booking (its status is updated in place on success)
+     * @param seatIds Seats of the booking
+     * @param reason Failure reason for the booking failed event
+     * @param releaseReason Why the seat locks are released (recorded in the lock metrics)
+     * @param releaseSeatLocks Whether the booking may hold seat locks in the lock backend
+     * @param releaseTheaterSeats Whether the seats may be locked in the theater service
+     * @return false if the booking had already left PENDING; nothing is written then
+     */
+    @Transactional
+    public boolean fail(Booking booking, List<Long> seatIds, String reason, LockReleaseReason releaseReason,
+                        boolean releaseSeatLocks, boolean releaseTheaterSeats) {
+        if (!bookingOutboxService.transition(booking, BookingStatus.PENDING, BookingStatus.FAILED, reason)) {
+            return false;
+        }
+        BookingSaga saga = bookingSagaRepository.findById(booking.getId())
+                .orElseGet(() -> new BookingSaga(booking.getId(), booking.getShowId(), seatIds));
+        saga.setReleaseSeatLocksPending(releaseSeatLocks && !seatIds.isEmpty());
+        saga.setReleaseTheaterSeatsPending(releaseTheaterSeats && !seatIds.isEmpty());
+        saga.setReleaseReason(releaseReason);
+        saga.setAttempts(0);
+        if (saga.hasPendingCompensations()) {
+            saga.setState(SagaState.COMPENSATING);
+            saga.setNextAttemptAt(Instant.now());
+        } else {
+            saga.setState(SagaState.COMPENSATED);
+            saga.setNextAttemptAt(null);
+        }
+        bookingSagaRepository.save(saga);
+        log.info("Booking {} failed, saga {} (release seat locks: {}, release theater seats: {})",
+                booking.getId(), saga.getState(), saga.isReleaseSeatLocksPending(), saga.isReleaseTheaterSeatsPending());
+        return true;
+    }
+
+    /**
+     * Schedule the release of seats still locked by a booking that failed or was never committed
+     * Used by the reconciler, so an orphaned seat is released by the saga worker and retried until
+     * both its lock and its theater seat are free. A saga that is already compensating covers the
+     * same seats and is left alone.
+     *
+     * @param bookingId Owner booking of the locks (it may have no row)
+     * @param showId Show of the seats
+     * @param seatIds Seats locked by the booking
+     * @return false if a compensation of the booking was already in progress; nothing is written then
+     */
+    @Transactional
+    public boolean compensateOrphanedSeats(Long bookingId, Long showId, List<Long> seatIds) {
+        BookingSaga saga = bookingSagaRepository.findById(bookingId)
+                .orElseGet(() -> new BookingSaga(bookingId, showId, seatIds));
+        if (saga.getState() == SagaState.COMPENSATING) {
+            return false;
+        }
+        saga.setReleaseSeatLocksPending(true);
+        saga.setReleaseTheaterSeatsPending(true);
+        saga.setReleaseReason(LockReleaseReason.RECONCILED);
+        saga.setAttempts(0);
+        saga.setState(SagaState.COMPENSATING);
+        saga.setNextAttemptAt(Instant.now());
+        bookingSagaRepository.save(saga);
+        log.info("Scheduled the release of orphaned seats {} of booking {} in show {}", seatIds, bookingId, showId);
+        return true;
+    }
+}
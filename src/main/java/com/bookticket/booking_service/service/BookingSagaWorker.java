@@ -0,0 +1,196 @@
+package com.bookticket.booking_service.service;
+
+import com.bookticket.booking_service.configuration.BookingSagaProperties;
+import com.bookticket.booking_service.entity.BookingSaga;
+import com.bookticket.booking_service.enums.SagaState;
+import com.bookticket.booking_service.repository.BookingSagaRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Scheduled worker that runs the pending compensations of failed bookings
+ * Due sagas are claimed with SKIP LOCKED and reserved for the claim timeout, then handed to the saga
+ * worker pool and compensated there concurrently, outside any transaction. The scheduler thread never
+ * waits for them; a poll only claims as many sagas as the pool has room for. Each compensation is cleared as soon
+ * as it succeeds, so a saga whose theater release keeps failing does not release its seat locks again.
+ * A saga claimed by an instance that dies is picked up again once its claim times out.
+ * A compensation may run more than once: lock releases are owner-checked, and a repeated theater
+ * release only marks the same seats available again.
+ */
+@Service
+@Slf4j
+public class BookingSagaWorker {
+
+    private final BookingSagaRepository bookingSagaRepository;
+    private final SeatLockBackend seatLockBackend;
+    private final TheaterService theaterService;
+    private final BookingSagaProperties sagaProperties;
+    private final Executor sagaWorkerExecutor;
+    private final TransactionTemplate transactionTemplate;
+
+    private final AtomicLong compensatingSagas = new AtomicLong();
+    private final AtomicInteger inFlightSagas = new AtomicInteger();
+    private final Counter compensatedSagas;
+    private final Counter failedCompensations;
+    private final Counter exhaustedSagas;
+
+    public BookingSagaWorker(BookingSagaRepository bookingSagaRepository,
+                             SeatLockBackend seatLockBackend,
+                             TheaterService theaterService,
+                             BookingSagaProperties sagaProperties,
+                             @Qualifier("sagaWorkerExecutor") Executor sagaWorkerExecutor,
+                             PlatformTransactionManager transactionManager,
+                             MeterRegistry meterRegistry) {
+        this.bookingSagaRepository = bookingSagaRepository;
+        this.seatLockBackend = seatLockBackend;
+        this.theaterService = theaterService;
+        this.sagaProperties = sagaProperties;
+        this.sagaWorkerExecutor = sagaWorkerExecutor;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+
+        Gauge.builder("booking.saga.compensating", compensatingSagas, AtomicLong::get)
+                .description("Failed bookings with compensations still pending")
+                .register(meterRegistry);
+        this.compensatedSagas = Counter.builder("booking.saga.compensated")
+                .description("Failed bookings whose compensations all succeeded")
+                .register(meterRegistry);
+        this.failedCompensations = Counter.builder("booking.saga.compensation.failures")
+                .description("Compensation attempts that failed and will be retried")
+                .register(meterRegistry);
+        this.exhaustedSagas = Counter.builder("booking.saga.compensation.exhausted")
+                .description("Failed bookings left in COMPENSATION_FAILED after the last attempt")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Scheduled job to run due compensations
+     * Runs every booking.saga.poll-interval-ms (500 ms by default)
+     */
+    @Scheduled(fixedDelayString = "${booking.saga.poll-interval-ms:500}")
+    public void runDueCompensations() {
+        compensatingSagas.set(bookingSagaRepository.countByState(SagaState.COMPENSATING));
+        // Sagas of earlier polls still running count against the batch, so claims never outgrow the pool's queue
+        int capacity = sagaProperties.getBatchSize() - inFlightSagas.get();
+        if (capacity <= 0) {
+            return;
+        }
+        List<BookingSaga> claimed = transactionTemplate.execute(status -> claimDueSagas(capacity));
+        if (claimed == null || claimed.isEmpty()) {
+            return;
+        }
+        inFlightSagas.addAndGet(claimed.size());
+        for (BookingSaga saga : claimed) {
+            try {
+                sagaWorkerExecutor.execute(() -> {
+                    try {
+                        compensate(saga);
+                    } finally {
+                        inFlightSagas.decrementAndGet();
+                    }
+                });
+            } catch (RuntimeException e) {
+                // Executor shutting down - the saga is picked up again after its claim timeout
+                inFlightSagas.decrementAndGet();
+                log.warn("Could not hand saga of booking {} to the worker pool: {}", saga.getBookingId(), e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Scheduled job to delete finished sagas past the retention period
+     * Runs every hour
+     */
+    @Scheduled(fixedDelay = 3600000, initialDelay = 300000)
+    public void purgeFinishedSagas() {
+        Instant cutoff = Instant.now().minus(sagaProperties.getRetention());
+        Integer deleted = transactionTemplate.execute(status -> bookingSagaRepository.deleteByStateInAndUpdatedAtBefore(
+                EnumSet.of(SagaState.CONFIRMED, SagaState.COMPENSATED), cutoff));
+        log.info("Purged {} finished booking sagas older than {}", deleted, cutoff);
+    }
+
+    /**
+     * Lock the due sagas and push their next attempt past the claim timeout
+     * The sagas are managed, so the claim is written when the transaction commits.
+     */
+    private List<BookingSaga> claimDueSagas(int limit) {
+        Instant now = Instant.now();
+        List<BookingSaga> due = bookingSagaRepository.lockDue(now, limit);
+        Instant claimedUntil = now.plus(sagaProperties.getClaimTimeout());
+        due.forEach(saga -> saga.setNextAttemptAt(claimedUntil));
+        return due;
+    }
+
+    void compensate(BookingSaga saga) {
+        Long bookingId = saga.getBookingId();
+        List<Long> seatIds = saga.getSeatIdList();
+        String error = null;
+
+        if (saga.isReleaseSeatLocksPending()) {
+            try {
+                // Throws when the release is not confirmed, so the compensation stays pending
+                seatLockBackend.releaseSeatsLockOrThrow(saga.getShowId(), seatIds, bookingId, saga.getReleaseReason());
+                saga.setReleaseSeatLocksPending(false);
+            } catch (Exception e) {
+                error = "Seat lock release failed: " + e.getMessage();
+            }
+        }
+        if (saga.isReleaseTheaterSeatsPending()) {
+            try {
+                //Mark Seats as Available
+                theaterService.releaseSeats(saga.getShowId(), seatIds);
+                saga.setReleaseTheaterSeatsPending(false);
+            } catch (Exception e) {
+                error = "Theater seat release failed: " + e.getMessage();
+            }
+        }
+
+        if (!saga.hasPendingCompensations()) {
+            saga.setState(SagaState.COMPENSATED);
+            saga.setNextAttemptAt(null);
+            compensatedSagas.increment();
+            log.info("Compensated booking {}", bookingId);
+        } else {
+            failedCompensations.increment();
+            saga.setAttempts(saga.getAttempts() + 1);
+            saga.setLastError(error.length() > 2000 ? error.substring(0, 2000) : error);
+            if (saga.getAttempts() >= sagaProperties.getMaxAttempts()) {
+                saga.setState(SagaState.COMPENSATION_FAILED);
+                saga.setNextAttemptAt(null);
+                exhaustedSagas.increment();
+                log.error("Compensation of booking {} failed after {} attempts, manual action required: {}",
+                        bookingId, saga.getAttempts(), error);
+            } else {
+                long backoffMillis = sagaProperties.getRetryBackoff().toMillis() << Math.min(saga.getAttempts() - 1, 16);
+                saga.setNextAttemptAt(Instant.now().plusMillis(
+                        Math.min(backoffMillis, sagaProperties.getMaxRetryBackoff().toMillis())));
+                log.warn("Compensation of booking {} failed (attempt {}/{}), retrying at {}: {}",
+                        bookingId, saga.getAttempts(), sagaProperties.getMaxAttempts(), saga.getNextAttemptAt(), error);
+            }
+        }
+
+        try {
+            bookingSagaRepository.save(saga);
+        } catch (ObjectOptimisticLockingFailureException e) {
+            // Our claim timed out and another instance claimed the saga; it records the outcome
+            log.warn("Saga of booking {} was claimed by another worker, discarding this outcome", bookingId);
+        } catch (Exception e) {
+            log.error("Failed to record compensation outcome of booking {}, it is retried after the claim timeout: {}",
+                    bookingId, e.getMessage());
+        }
+    }
+}
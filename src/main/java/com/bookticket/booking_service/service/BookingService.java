@@ -1,89 +1,152 @@
 package com.bookticket.booking_service.service;
 
+import com.bookticket.booking_service.configuration.BookingCreateProperties;
+import com.bookticket.booking_service.configuration.ConnectionHoldTrackingDataSource;
+import com.bookticket.booking_service.configuration.PaymentEventProperties;
+import com.bookticket.booking_service.configuration.ReadWriteRoutingDataSource;
 import com.bookticket.booking_service.dto.*;
 import com.bookticket.booking_service.entity.Booking;
 import com.bookticket.booking_service.entity.BookingSeat;
 import com.bookticket.booking_service.enums.BookingStatus;
+import com.bookticket.booking_service.enums.LockReleaseReason;
 import com.bookticket.booking_service.exception.PaymentFailedException;
-import com.bookticket.booking_service.exception.SeatLockException;
 import com.bookticket.booking_service.repository.BookingRepository;
 import com.bookticket.booking_service.repository.BookingSeatRepository;
-import jakarta.transaction.Transactional;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.kafka.core.KafkaTemplate;
-import org.springframework.retry.annotation.Backoff;
-import org.springframework.retry.annotation.Recover;
-import org.springframework.retry.annotation.Retryable;
-import org.springframework.scheduling.annotation.Async;
+import org.slf4j.MDC;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Service;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
 
+import java.time.Instant;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
 
 @Service
 @Slf4j
 public class BookingService {
     private final BookingRepository bookingRepository;
     private final BookingSeatRepository bookingSeatRepository;
-    private final RedisLockService redisLockService;
+    private final SeatLockBackend seatLockBackend;
     private final PaymentService paymentService;
+    private final PaymentStatusPoller paymentStatusPoller;
     private final TheaterService theaterService;
-    private final KafkaTemplate<String, BookingSuccessEvent> kafkaSuccessTemplate;
-    private final KafkaTemplate<String, BookingFailedEvent> kafkaFailedTemplate;
-    private final NotificationService notificationService;
-    private final DeadLetterQueueService deadLetterQueueService;
+    private final BookingSagaService bookingSagaService;
+    private final BookingIdGenerator bookingIdGenerator;
+    private final BookingReadCache bookingReadCache;
+    private final SeatLeaseRegistry seatLeaseRegistry;
+    private final WaitingRoomService waitingRoomService;
+    private final BookingCreateProperties createProperties;
+    private final PaymentEventProperties paymentEventProperties;
+    private final Executor bookingStageExecutor;
+    // Verifications running on this instance - concurrent verify-payment calls share one completion
+    private final Map<Long, CompletableFuture<BookingStatusResponse>> inFlightVerifications = new ConcurrentHashMap<>();
 
     public BookingService(BookingRepository bookingRepository,
                           BookingSeatRepository bookingSeatRepository,
-                          RedisLockService redisLockService,
-                          PaymentService paymentService, TheaterService theaterService,
-                          KafkaTemplate<String, BookingSuccessEvent> kafkaSuccessTemplate,
-                          KafkaTemplate<String, BookingFailedEvent> kafkaFailedTemplate,
-                          NotificationService notificationService,
-                          DeadLetterQueueService deadLetterQueueService) {
+                          SeatLockBackend seatLockBackend,
+                          PaymentService paymentService, PaymentStatusPoller paymentStatusPoller,
+                          TheaterService theaterService,
+                          BookingSagaService bookingSagaService,
+                          BookingIdGenerator bookingIdGenerator,
+                          BookingReadCache bookingReadCache,
+                          SeatLeaseRegistry seatLeaseRegistry,
+                          WaitingRoomService waitingRoomService,
+                          BookingCreateProperties createProperties,
+                          PaymentEventProperties paymentEventProperties,
+                          @Qualifier("bookingStageExecutor") Executor bookingStageExecutor) {
         this.bookingRepository = bookingRepository;
         this.bookingSeatRepository = bookingSeatRepository;
-        this.redisLockService = redisLockService;
+        this.seatLockBackend = seatLockBackend;
         this.paymentService = paymentService;
+        this.paymentStatusPoller = paymentStatusPoller;
         this.theaterService = theaterService;
-        this.kafkaSuccessTemplate = kafkaSuccessTemplate;
-        this.kafkaFailedTemplate = kafkaFailedTemplate;
-        this.notificationService = notificationService;
-        this.deadLetterQueueService = deadLetterQueueService;
+        this.bookingSagaService = bookingSagaService;
+        this.bookingIdGenerator = bookingIdGenerator;
+        this.bookingReadCache = bookingReadCache;
+        this.seatLeaseRegistry = seatLeaseRegistry;
+        this.waitingRoomService = waitingRoomService;
+        this.createProperties = createProperties;
+        this.paymentEventProperties = paymentEventProperties;
+        this.bookingStageExecutor = bookingStageExecutor;
     }
 
-    @Transactional
-    public CreateBookingResponse createBooking(Long userId, CreateBookingRequest createBookingRequest) {
+    /**
+     * Lock the seats, create a PENDING booking and open a payment session
+     * The booking id is generated in process, so the seats are locked before anything is written:
+     * a request that loses a seat to another booking never touches the database.
+     * Deliberately not transactional: every remote call runs with no database connection held,
+     * and each database write (booking insert, seat insert, status change) is its own short transaction.
+     */
+    public CreateBookingResponse createBooking(Long userId, CreateBookingRequest createBookingRequest,
+                                               String admissionToken) {
         log.info("Creating booking for user {} with {} seats in show {}",
                 userId, createBookingRequest.seatIds().size(), createBookingRequest.showId());
 
+        // Shows behind the waiting room only accept admitted users
+        WaitingRoomService.Admission admission =
+                waitingRoomService.claimAdmission(createBookingRequest.showId(), userId, admissionToken);
+        CreateBookingResponse response;
+        try {
+            response = createAdmittedBooking(userId, createBookingRequest);
+        } catch (RuntimeException e) {
+            // Seat conflicts and downstream failures are common during an on-sale - keep the user's place
+            waitingRoomService.restoreAdmission(admission);
+            throw e;
+        }
+        waitingRoomService.completeAdmission(admission);
+        return response;
+    }
+
+    private CreateBookingResponse createAdmittedBooking(Long userId, CreateBookingRequest createBookingRequest) {
+        // Reject seats already known to be held before making any remote call
+        seatLockBackend.rejectKnownHeldSeats(createBookingRequest.showId(), createBookingRequest.seatIds());
+
         // Verify seats with theater service
         log.info("Verifying Seats With Theater Service: {}", createBookingRequest.seatIds());
         List<ValidSeatResponse> validSeats = theaterService.verifySeats(createBookingRequest);
 
-        // Create booking entity first (to get booking ID for lock value)
-        log.info("Creating booking entity for user {}", userId);
         Booking booking = new Booking();
+        booking.setId(bookingIdGenerator.nextId());
         booking.setUserId(userId);
         booking.setShowId(createBookingRequest.showId());
         booking.setTotalAmount(calculateTotalAmount(validSeats)); // Source of Truth - Theater Service
         booking.setStatus(BookingStatus.PENDING);
-        Booking createdBooking = bookingRepository.save(booking);
-        log.info("Created Booking with ID: {}", createdBooking.getId());
+        booking.setPendingSince(Instant.now());
         List<Long> seatIds = validSeats.stream()
                 .map(ValidSeatResponse::seatId)
                 .toList();
 
-        // Acquire Redis locks for all seats
-        List<String> acquiredLocks = null;
+        // Acquire locks for all seats before the booking exists - conflicts throw SeatLockException (409)
+        log.info("Acquiring locks for {} seats for booking {}", seatIds.size(), booking.getId());
+        seatLockBackend.acquireSeatsLock(createBookingRequest.showId(), seatIds, booking.getId());
+
+        Booking createdBooking;
         try {
-            log.info("Acquiring locks for {} seats", seatIds.size());
+            createdBooking = bookingSagaService.start(booking, seatIds);
+        } catch (RuntimeException e) {
+            // No booking row, so the saga cannot compensate - release the locks here
+            log.error("Failed to create booking {}: {}", booking.getId(), e.getMessage());
+            releaseSeatLocksQuietly(createBookingRequest.showId(), seatIds, booking.getId());
+            throw new RuntimeException("Failed to create booking due to system error", e);
+        }
+        log.info("Created Booking with ID: {}", createdBooking.getId());
 
-            acquiredLocks = redisLockService.acquireSeatsLock(
-                    createBookingRequest.showId(),
-                    seatIds,
-                    createdBooking.getId()
-            );
-            log.info("Successfully acquired locks for {} seats", acquiredLocks.size());
+        if (createProperties.isParallelStages()) {
+            return completeBookingConcurrently(userId, createBookingRequest, createdBooking, validSeats, seatIds);
+        }
+
+        try {
             // Mark Seats as locked
             theaterService.lockSeats(createBookingRequest.showId(), seatIds);
 
@@ -109,6 +172,11 @@ public class BookingService {
                 log.info("Checkout session created for booking {}. SessionId: {}, PaymentUrl: {}",
                         createdBooking.getId(), checkoutResponse.sessionId(), checkoutResponse.paymentUrl());
 
+                // Keep the seat locks alive while the payment session is open
+                seatLeaseRegistry.register(createdBooking.getId(), createBookingRequest.showId(),
+                        seatIds, checkoutResponse.expiresAt());
+                bookingSagaService.paymentPending(createdBooking.getId());
+
                 // Map to BookingSeatResponse DTOs
                 List<BookingSeatResponse> seatResponses = mapToSeatResponses(savedBookingSeats, validSeats);
 
@@ -128,58 +196,162 @@ public class BookingService {
                 );
 
             } catch (Exception e) {
-                // Checkout session creation failed - release locks and mark booking as FAILED
+                // Checkout session creation failed - mark booking as FAILED, the saga worker releases the seats
                 log.error("Failed to create checkout session for booking {}: {}", createdBooking.getId(), e.getMessage());
 
-                createdBooking.setStatus(BookingStatus.FAILED);
-                bookingRepository.save(createdBooking);
+                bookingSagaService.fail(createdBooking, seatIds, "Failed to create payment session",
+                        LockReleaseReason.CHECKOUT_FAILED, true, true);
                 log.info("Marked booking {} as FAILED due to checkout session creation failure", createdBooking.getId());
 
-                // Release locks after checkout session creation failure
-                log.info("Releasing seat locks for booking {} after checkout session creation failure", createdBooking.getId());
-                redisLockService.releaseSeatsLock(acquiredLocks);
-                //Mark Seats as Available
-                theaterService.releaseSeats(createBookingRequest.showId(), seatIds);
-                sendBookingFailedEvent(createdBooking, "Failed to create payment session");
-
                 // Re-throw exception to return error to user
                 throw new RuntimeException("Failed to create payment session: " + e.getMessage(), e);
             }
 
-        } catch (SeatLockException e) {
-            // Lock acquisition failed - mark booking as FAILED and rollback
-            log.error("Failed to acquire seat locks for booking {}: {}", createdBooking.getId(), e.getMessage());
-
-            // Update booking status to FAILED
-            createdBooking.setStatus(BookingStatus.FAILED);
-            bookingRepository.save(createdBooking);
-            log.info("Marked booking {} as FAILED due to lock acquisition failure", createdBooking.getId());
-            sendBookingFailedEvent(createdBooking, "Seats no longer available");
-
-            // Re-throw exception to return 409 Conflict to user
-            throw e;
-
         } catch (Exception e) {
-            // Unexpected error - release locks and mark booking as FAILED
+            // Unexpected error - mark booking as FAILED and release the seats through the saga
+            // (no-op if the checkout failure above already failed the booking)
             log.error("Unexpected error during booking creation for booking {}: {}",
                     createdBooking.getId(), e.getMessage(), e);
 
-            // Release any acquired locks
-            if (acquiredLocks != null && !acquiredLocks.isEmpty()) {
-                redisLockService.releaseSeatsLock(acquiredLocks);
-                theaterService.releaseSeats(createBookingRequest.showId(), seatIds);
+            if (bookingSagaService.fail(createdBooking, seatIds, e.getMessage(), LockReleaseReason.ERROR,
+                    true, true)) {
+                log.info("Marked booking {} as FAILED due to unexpected error", createdBooking.getId());
             }
 
-            // Update booking status to FAILED
-            createdBooking.setStatus(BookingStatus.FAILED);
-            bookingRepository.save(createdBooking);
-            log.info("Marked booking {} as FAILED due to unexpected error", createdBooking.getId());
-            sendBookingFailedEvent(createdBooking, e.getMessage());
-
             throw new RuntimeException("Failed to create booking due to system error", e);
         }
     }
 
+    /**
+     * With the seat locks held, run the remaining stages concurrently
+     * Once the seat locks are held, the theater seat lock, the booking seat insert and the checkout
+     * session do not depend on each other, so the latency is that of the slowest stage instead of the sum.
+     * The remote stages run on the stage executor; the insert runs on this thread in its own short transaction.
+     * If any stage fails, the stages that succeeded are compensated together and the booking is FAILED.
+     */
+    private CreateBookingResponse completeBookingConcurrently(Long userId, CreateBookingRequest createBookingRequest,
+                                                              Booking createdBooking, List<ValidSeatResponse> validSeats,
+                                                              List<Long> seatIds) {
+        Long showId = createBookingRequest.showId();
+        Long bookingId = createdBooking.getId();
+
+        log.info("Running theater lock, seat insert and checkout session concurrently for booking {}", bookingId);
+        CheckoutSessionRequest checkoutRequest = new CheckoutSessionRequest(
+                bookingId,
+                userId,
+                createdBooking.getTotalAmount(),
+                null,  // Use default success URL
+                null   // Use default cancel URL
+        );
+        CompletableFuture<List<ValidSeatResponse>> theaterLock = CompletableFuture.supplyAsync(
+                () -> theaterService.lockSeats(showId, seatIds), bookingStageExecutor);
+        CompletableFuture<CheckoutSessionResponse> checkout = CompletableFuture.supplyAsync(
+                () -> paymentService.createCheckoutSession(checkoutRequest), bookingStageExecutor);
+
+        List<BookingSeat> savedBookingSeats = null;
+        Exception seatInsertFailure = null;
+        try {
+            savedBookingSeats = bookingSeatRepository.saveAll(validSeats.stream()
+                    .map(validSeat -> createBookingSeat(createdBooking, validSeat))
+                    .toList());
+        } catch (Exception e) {
+            seatInsertFailure = e;
+        }
+
+        // Every deadline is measured from the same start, so the total wait is bounded by one timeout
+        long deadlineNanos = System.nanoTime() + createProperties.getStageTimeout().toNanos();
+        Throwable theaterLockFailure = awaitStage(theaterLock, deadlineNanos);
+        Throwable checkoutFailure = awaitStage(checkout, deadlineNanos);
+
+        if (seatInsertFailure == null && theaterLockFailure == null && checkoutFailure == null) {
+            CheckoutSessionResponse checkoutResponse = checkout.join();
+            log.info("Checkout session created for booking {}. SessionId: {}, PaymentUrl: {}",
+                    bookingId, checkoutResponse.sessionId(), checkoutResponse.paymentUrl());
+
+            // Keep the seat locks alive while the payment session is open
+            seatLeaseRegistry.register(bookingId, showId, seatIds, checkoutResponse.expiresAt());
+            bookingSagaService.paymentPending(bookingId);
+
+            return new CreateBookingResponse(
+                    bookingId,
+                    createdBooking.getUserId(),
+                    createdBooking.getShowId(),
+                    createdBooking.getTotalAmount(),
+                    createdBooking.getStatus(),  // PENDING
+                    mapToSeatResponses(savedBookingSeats, validSeats),
+                    checkoutResponse.sessionId(),
+                    checkoutResponse.paymentUrl(),
+                    checkoutResponse.expiresAt()
+            );
+        }
+
+        // Joint compensation - the saga worker undoes only the stages that succeeded
+        Throwable failure = seatInsertFailure != null ? seatInsertFailure
+                : theaterLockFailure != null ? theaterLockFailure : checkoutFailure;
+        log.error("Booking {} failed during concurrent stages (seat insert: {}, theater lock: {}, checkout: {}): {}",
+                bookingId, stageOutcome(seatInsertFailure), stageOutcome(theaterLockFailure),
+                stageOutcome(checkoutFailure), failure.getMessage());
+
+        bookingSagaService.fail(createdBooking, seatIds,
+                checkoutFailure != null ? "Failed to create payment session" : failure.getMessage(),
+                checkoutFailure != null ? LockReleaseReason.CHECKOUT_FAILED : LockReleaseReason.ERROR,
+                true, theaterLockFailure == null);
+        if (theaterLockFailure instanceof TimeoutException) {
+            // The theater lock may still land after we gave up on it - undo it when it does
+            theaterLock.thenRun(() -> releaseTheaterSeatsQuietly(showId, seatIds, bookingId));
+        }
+        if (checkoutFailure == null) {
+            // There is no cancel call in the payment service - the session expires unpaid,
+            // and verify-payment will find the booking already FAILED
+            log.warn("Checkout session for failed booking {} is left to expire", bookingId);
+        }
+
+        log.info("Marked booking {} as FAILED, compensation of its concurrent stages is scheduled", bookingId);
+
+        throw new RuntimeException("Failed to create booking: " + failure.getMessage(), failure);
+    }
+
+    /**
+     * Wait for a concurrent stage until the shared deadline
+     *
+     * @return null if the stage succeeded, otherwise its failure (TimeoutException if it did not finish in time)
+     */
+    private static Throwable awaitStage(CompletableFuture<?> stage, long deadlineNanos) {
+        try {
+            stage.get(Math.max(deadlineNanos - System.nanoTime(), 0), TimeUnit.NANOSECONDS);
+            return null;
+        } catch (ExecutionException e) {
+            return e.getCause();
+        } catch (TimeoutException e) {
+            return new TimeoutException("Stage did not complete within the stage timeout");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return e;
+        }
+    }
+
+    private static String stageOutcome(Throwable failure) {
+        return failure == null ? "ok" : failure.getClass().getSimpleName();
+    }
+
+    private void releaseSeatLocksQuietly(Long showId, List<Long> seatIds, Long bookingId) {
+        try {
+            seatLockBackend.releaseSeatsLock(showId, seatIds, bookingId, LockReleaseReason.ERROR);
+        } catch (Exception e) {
+            // The reconciler releases locks whose owner booking stays missing
+            log.error("Failed to release seat locks for booking {}: {}", bookingId, e.getMessage());
+        }
+    }
+
+    private void releaseTheaterSeatsQuietly(Long showId, List<Long> seatIds, Long bookingId) {
+        try {
+            //Mark Seats as Available
+            theaterService.releaseSeats(showId, seatIds);
+        } catch (Exception e) {
+            log.error("Failed to release seats in theater service for booking {}: {}", bookingId, e.getMessage());
+        }
+    }
+
     private BookingSeat createBookingSeat(Booking booking, ValidSeatResponse validSeat) {
         BookingSeat bookingSeat = new BookingSeat();
         bookingSeat.setBooking(booking);
@@ -221,15 +393,64 @@ public class BookingService {
     /**
      * Verify payment status and complete/fail booking accordingly
      * This method should be called after user completes payment on Stripe
+     * No transaction spans the payment poll: each status change is its own short conditional update,
+     * so the booking is completed exactly once even if the lease watchdog or the reconciler races us.
+     * No thread waits for the payment either: the shared payment poller completes the returned future,
+     * and the booking is completed on the stage executor under the caller's request context.
+     * Concurrent calls for the same booking join the verification already in flight, so the seats
+     * are booked in the theater service once.
      *
      * @param bookingId Booking ID
      * @param sessionId Stripe Checkout Session ID
-     * @return BookingResponse with updated status
+     * @return Future of the BookingResponse with updated status
      */
-    @Transactional
-    public BookingStatusResponse verifyAndCompleteBooking(Long bookingId, String sessionId) {
+    public CompletableFuture<BookingStatusResponse> verifyAndCompleteBooking(Long bookingId, String sessionId) {
         log.info("Verifying payment and completing booking {} with session {}", bookingId, sessionId);
 
+        // A terminal booking never changes - answer repeated calls without reading it again
+        Optional<BookingStatusResponse> terminalStatus = bookingReadCache.getTerminalStatus(bookingId);
+        if (terminalStatus.isPresent()) {
+            log.info("Booking {} is already in {} status. Skipping verification.",
+                    bookingId, terminalStatus.get().status());
+            return CompletableFuture.completedFuture(terminalStatus.get());
+        }
+
+        CompletableFuture<BookingStatusResponse> verification = new CompletableFuture<>();
+        CompletableFuture<BookingStatusResponse> inFlight = inFlightVerifications.putIfAbsent(bookingId, verification);
+        if (inFlight != null) {
+            log.info("Joining in-flight verification of booking {}", bookingId);
+            // Each caller gets its own view, so one caller cannot complete or cancel the shared verification
+            return inFlight.copy();
+        }
+
+        CompletableFuture<BookingStatusResponse> result;
+        try {
+            result = verifyPendingBooking(bookingId, sessionId);
+        } catch (RuntimeException e) {
+            inFlightVerifications.remove(bookingId, verification);
+            verification.completeExceptionally(e);
+            throw e;
+        }
+        result.whenComplete((response, failure) -> {
+            // Leave the map first - a later call reads the final status, written by now, from the database
+            inFlightVerifications.remove(bookingId, verification);
+            if (failure != null) {
+                verification.completeExceptionally(failure);
+            } else {
+                verification.complete(response);
+            }
+        });
+        return verification.copy();
+    }
+
+    /**
+     * Load a booking and, while it is PENDING, complete it from the final status of its payment
+     * Only one call per booking runs this at a time (see verifyAndCompleteBooking).
+     */
+    private CompletableFuture<BookingStatusResponse> verifyPendingBooking(Long bookingId, String sessionId) {
+        // What is read here decides what is written - never read it from a lagging replica
+        ReadWriteRoutingDataSource.usePrimaryForRequest();
+
         // Fetch booking
         Booking booking = bookingRepository.findById(bookingId)
                 .orElseThrow(() -> new RuntimeException("Booking not found: " + bookingId));
@@ -243,244 +464,243 @@ public class BookingService {
         if (booking.getStatus() != BookingStatus.PENDING) {
             log.warn("Booking {} is already in {} status. Skipping verification.",
                     bookingId, booking.getStatus());
+            BookingStatusResponse response = toStatusResponse(booking, bookingSeats);
+            bookingReadCache.putTerminalStatus(response);
+            return CompletableFuture.completedFuture(response);
+        }
 
-            List<BookingSeatResponse> seatResponses = bookingSeats.stream()
-                    .map(seat -> new BookingSeatResponse(
-                            seat.getId(),
-                            seat.getSeatId(),
-                            seat.getSeatNumber(),
-                            seat.getSeatType(),
-                            seat.getPrice()
-                    ))
-                    .toList();
-
-            return new BookingStatusResponse(
-                    booking.getId(),
-                    booking.getUserId(),
-                    booking.getShowId(),
-                    booking.getTotalAmount(),
-                    booking.getStatus(),
-                    seatResponses
-            );
+        if (paymentEventProperties.isEnabled()) {
+            // The payment result listener completes the booking - report its current status
+            return CompletableFuture.completedFuture(toStatusResponse(booking, bookingSeats));
         }
 
         // Poll payment status until COMPLETED or FAILED
-        try {
-            log.info("Polling payment status for session {}", sessionId);
-            PaymentResponse paymentResponse = paymentService.pollPaymentStatus(sessionId);
-
-            String paymentStatus = paymentResponse.paymentStatus();
-            log.info("Payment status for booking {}: {}", bookingId, paymentStatus);
-
-            if ("COMPLETED".equalsIgnoreCase(paymentStatus)) {
-                // Payment successful - update booking to CONFIRMED and release locks
-                booking.setStatus(BookingStatus.CONFIRMED);
-                Booking confirmedBooking = bookingRepository.save(booking);
-                log.info("Booking {} confirmed successfully", bookingId);
-
-                // Mark Seats as Booked
-                theaterService.bookSeats(confirmedBooking.getShowId(), seatIds);
-
-                // Release locks
-                log.info("Releasing seat locks for booking {} after successful payment", bookingId);
-                redisLockService.releaseSeatsLockByIds(confirmedBooking.getShowId(), seatIds);
-
-                //TODO Push to booking_success topic in Kafka
-                sendBookingSuccessEvent(confirmedBooking);
-
-                // Map to response
-                List<BookingSeatResponse> seatResponses = bookingSeats.stream()
-                        .map(seat -> new BookingSeatResponse(
-                                seat.getId(),
-                                seat.getSeatId(),
-                                seat.getSeatNumber(),
-                                seat.getSeatType(),
-                                seat.getPrice()
-                        ))
-                        .toList();
-
-                return new BookingStatusResponse(
-                        confirmedBooking.getId(),
-                        confirmedBooking.getUserId(),
-                        confirmedBooking.getShowId(),
-                        confirmedBooking.getTotalAmount(),
-                        confirmedBooking.getStatus(),
-                        seatResponses
-                );
+        log.info("Polling payment status for session {}", sessionId);
+        RequestAttributes requestAttributes = RequestContextHolder.getRequestAttributes();
+        Map<String, String> mdc = MDC.getCopyOfContextMap();
+        ConnectionHoldTrackingDataSource.HoldStats holdStats = ConnectionHoldTrackingDataSource.currentHoldStats();
+        return paymentStatusPoller.poll(sessionId).handleAsync((paymentResponse, pollFailure) ->
+                        withRequestContext(requestAttributes, mdc, holdStats, () ->
+                                completeVerifiedBooking(booking, bookingSeats, seatIds, paymentResponse, pollFailure)),
+                bookingStageExecutor);
+    }
 
-            } else {
-                // Payment failed - update booking to FAILED and release locks
-                booking.setStatus(BookingStatus.FAILED);
-                Booking failedBooking = bookingRepository.save(booking);
-                log.warn("Booking {} marked as FAILED due to payment failure", bookingId);
-
-                // Release locks
-                log.info("Releasing seat locks for booking {} after payment failure", bookingId);
-                redisLockService.releaseSeatsLockByIds(failedBooking.getShowId(), seatIds);
-                //Mark Seats as Available
-                theaterService.releaseSeats(failedBooking.getShowId(), seatIds);
-
-                // TODO - Send booking_failed event to kafka
-                sendBookingFailedEvent(failedBooking, paymentResponse.message());
-
-                throw new PaymentFailedException(
-                        paymentResponse.message() != null ?
-                                paymentResponse.message() : "Payment failed",
-                        paymentStatus,
-                        paymentResponse.transactionId()
-                );
+    /**
+     * Complete or fail a booking once its payment poll has finished
+     *
+     * @param paymentResponse Final payment status (null if the poll failed)
+     * @param pollFailure Why the poll failed (null if it succeeded)
+     */
+    private BookingStatusResponse completeVerifiedBooking(Booking booking, List<BookingSeat> bookingSeats,
+                                                          List<Long> seatIds, PaymentResponse paymentResponse,
+                                                          Throwable pollFailure) {
+        Long bookingId = booking.getId();
+        try {
+            if (pollFailure != null) {
+                throw pollFailure instanceof CompletionException && pollFailure.getCause() != null
+                        ? pollFailure.getCause() : pollFailure;
             }
 
-        } catch (PaymentFailedException e) {
-            // Mark booking as FAILED and release locks
-            booking.setStatus(BookingStatus.FAILED);
-            Booking failedBooking = bookingRepository.save(booking);
-
-            log.info("Releasing seat locks for booking {} after verification error", bookingId);
-            redisLockService.releaseSeatsLockByIds(booking.getShowId(), seatIds);
-            //Mark Seats as Available
-            theaterService.releaseSeats(booking.getShowId(), seatIds);
+            return applyFinalPaymentStatus(booking, bookingSeats, seatIds, paymentResponse);
 
-            // TODO - Send booking_failed event to kafka
-            sendBookingFailedEvent(failedBooking, e.getMessage());
+        } catch (PaymentFailedException e) {
+            // Mark booking as FAILED and release locks (no-op if the failure was already handled above)
+            failPendingBooking(booking, seatIds, e.getMessage());
             // Re-throw PaymentFailedException
             throw e;
         }
-        catch (Exception e) {
+        catch (Throwable e) {
             // Unexpected error during payment verification
             log.error("Unexpected error during payment verification for booking {}: {}",
                     bookingId, e.getMessage(), e);
             throw new RuntimeException("Failed to verify payment: " + e.getMessage(), e);
         }
     }
-    
+
     /**
-     * Send booking success event with retry mechanism
-     * Retries 3 times with exponential backoff (1s, 2s, 4s)
-     * If all retries fail, stores in Dead Letter Queue
+     * Confirm or fail a PENDING booking from the final status of its payment
+     * Shared by verify-payment and the payment result listener.
+     *
+     * @throws PaymentFailedException if the payment failed (the booking is FAILED by then)
      */
-    @Async("bookingEventExecutor")
-    @Retryable(
-        retryFor = {Exception.class},
-        maxAttempts = 3,
-        backoff = @Backoff(delay = 1000, multiplier = 2)
-    )
-    public void sendBookingSuccessEvent(Booking confirmedBooking) {
-        BookingSuccessEvent bookingSuccessEvent = new BookingSuccessEvent(
-                confirmedBooking.getId(),
-                confirmedBooking.getUserId(),
-                confirmedBooking.getShowId(),
-                confirmedBooking.getTotalAmount()
-        );
+    private BookingStatusResponse applyFinalPaymentStatus(Booking booking, List<BookingSeat> bookingSeats,
+                                                          List<Long> seatIds, PaymentResponse paymentResponse) {
+        Long bookingId = booking.getId();
+        String paymentStatus = paymentResponse.paymentStatus();
+        log.info("Payment status for booking {}: {}", bookingId, paymentStatus);
+
+        if ("COMPLETED".equalsIgnoreCase(paymentStatus)) {
+            // Mark Seats as Booked - while the seat locks are still held, so a failure here
+            // leaves the booking PENDING and verify-payment can be retried
+            theaterService.bookSeats(booking.getShowId(), seatIds);
+
+            // Payment successful - update booking to CONFIRMED (with its success event) and release locks
+            if (!bookingSagaService.confirm(booking)) {
+                Booking current = bookingRepository.findById(bookingId).orElse(booking);
+                if (current.getStatus() == BookingStatus.CONFIRMED) {
+                    // Confirmed concurrently, e.g. by another instance or the reconciler
+                    log.info("Booking {} was already confirmed", bookingId);
+                } else {
+                    log.error("Payment completed for booking {} but it is already {}. Manual refund may be required.",
+                            bookingId, current.getStatus());
+                }
+                return toStatusResponse(current, bookingSeats);
+            }
+            log.info("Booking {} confirmed successfully", bookingId);
 
-        try {
-            // Try Kafka first
-            kafkaSuccessTemplate.send("booking_success", bookingSuccessEvent);
-            log.info("Sent booking success event to Kafka for booking {}", confirmedBooking.getId());
+            // Release locks
+            log.info("Releasing seat locks for booking {} after successful payment", bookingId);
+            seatLockBackend.releaseSeatsLock(booking.getShowId(), seatIds, bookingId, LockReleaseReason.CONFIRMED);
+            seatLeaseRegistry.remove(bookingId);
 
-        } catch (Exception e) {
-            log.error("Failed to send booking success event to Kafka for booking {}: {}",
-                    confirmedBooking.getId(), e.getMessage());
-
-            // Try REST fallback
-            log.info("[FallBack] : Attempting REST fallback for booking success event, booking {}",
-                    confirmedBooking.getId());
-            notificationService.sendBookingSuccessEvent(bookingSuccessEvent);
-            log.info("Successfully sent booking success event via REST fallback for booking {}",
-                    confirmedBooking.getId());
+            return toStatusResponse(booking, bookingSeats);
+
+        } else {
+            // Payment failed - update booking to FAILED and release locks
+            failPendingBooking(booking, seatIds, paymentResponse.message());
+
+            throw new PaymentFailedException(
+                    paymentResponse.message() != null ?
+                            paymentResponse.message() : "Payment failed",
+                    paymentStatus,
+                    paymentResponse.transactionId()
+            );
         }
     }
 
     /**
-     * Recovery method called when all retry attempts are exhausted
-     * Stores the failed event in Dead Letter Queue for manual processing
+     * Complete a booking from a payment result event
+     * Idempotent: a booking that already left PENDING, e.g. on a redelivery, is left as it is.
+     *
+     * @param event Checkout result published by the payment service
      */
-    @Recover
-    public void recoverBookingSuccessEvent(Exception e, Booking confirmedBooking) {
-        log.error("All retry attempts exhausted for booking success event, booking {}: {}",
-                confirmedBooking.getId(), e.getMessage());
-
-        // Store in DLQ for manual retry
-        deadLetterQueueService.storeFailedSuccessEvent(
-                confirmedBooking.getId(),
-                confirmedBooking.getUserId(),
-                confirmedBooking.getShowId(),
-                confirmedBooking.getTotalAmount(),
-                e.getMessage()
-        );
+    public void applyPaymentResult(PaymentResultEvent event) {
+        Long bookingId = event.bookingId();
+        String paymentStatus = event.paymentStatus();
+        if (!"COMPLETED".equalsIgnoreCase(paymentStatus) && !"FAILED".equalsIgnoreCase(paymentStatus)) {
+            log.debug("Ignoring non-final payment status {} for booking {}", paymentStatus, bookingId);
+            return;
+        }
+        Booking booking = bookingRepository.findById(bookingId).orElse(null);
+        if (booking == null) {
+            log.warn("Received payment result for unknown booking {}", bookingId);
+            return;
+        }
+        if (booking.getStatus() != BookingStatus.PENDING) {
+            log.info("Booking {} is already in {} status. Skipping payment result.", bookingId, booking.getStatus());
+            return;
+        }
 
-        log.warn("Booking success event stored in DLQ for booking {}", confirmedBooking.getId());
+        List<BookingSeat> bookingSeats = bookingSeatRepository.findByBookingId(bookingId);
+        List<Long> seatIds = bookingSeats.stream()
+                .map(BookingSeat::getSeatId)
+                .toList();
+        try {
+            applyFinalPaymentStatus(booking, bookingSeats, seatIds, new PaymentResponse(
+                    null, bookingId, paymentStatus, event.transactionId(), event.amount(), event.message()));
+        } catch (PaymentFailedException e) {
+            log.info("Booking {} failed by payment result: {}", bookingId, e.getMessage());
+        }
     }
-    
+
     /**
-     * Send booking failed event with retry mechanism
-     * Retries 3 times with exponential backoff (1s, 2s, 4s)
-     * If all retries fail, stores in Dead Letter Queue
+     * Run an action with the request attributes (used to propagate the user headers to downstream
+     * services), logging MDC and connection hold stats of the request it belongs to, restoring the
+     * thread's own afterwards
      */
-    @Async("bookingEventExecutor")
-    @Retryable(
-        retryFor = {Exception.class},
-        maxAttempts = 3,
-        backoff = @Backoff(delay = 1000, multiplier = 2)
-    )
-    public void sendBookingFailedEvent(Booking failedBooking, String reason) {
-        BookingFailedEvent bookingFailedEvent = new BookingFailedEvent(
-                failedBooking.getId(),
-                failedBooking.getUserId(),
-                failedBooking.getShowId(),
-                failedBooking.getTotalAmount(),
-                reason
-        );
-
+    private static <T> T withRequestContext(RequestAttributes requestAttributes, Map<String, String> mdc,
+                                            ConnectionHoldTrackingDataSource.HoldStats holdStats,
+                                            Supplier<T> action) {
+        RequestAttributes previousAttributes = RequestContextHolder.getRequestAttributes();
+        Map<String, String> previousMdc = MDC.getCopyOfContextMap();
+        RequestContextHolder.setRequestAttributes(requestAttributes);
+        setMdc(mdc);
         try {
-            // Try Kafka first
-            kafkaFailedTemplate.send("booking_failed", bookingFailedEvent);
-            log.info("Sent booking failed event to Kafka for booking {}", failedBooking.getId());
+            return ConnectionHoldTrackingDataSource.withHoldStats(holdStats, action);
+        } finally {
+            RequestContextHolder.setRequestAttributes(previousAttributes);
+            setMdc(previousMdc);
+        }
+    }
 
-        } catch (Exception e) {
-            log.error("Failed to send booking failed event to Kafka for booking {}: {}",
-                    failedBooking.getId(), e.getMessage());
-
-            // Try REST fallback
-            log.info("[FallBack] : Attempting REST fallback for booking failed event, booking {}",
-                    failedBooking.getId());
-            notificationService.sendBookingFailedEvent(bookingFailedEvent);
-            log.info("Successfully sent booking failed event via REST fallback for booking {}",
-                    failedBooking.getId());
+    private static void setMdc(Map<String, String> contextMap) {
+        if (contextMap != null) {
+            MDC.setContextMap(contextMap);
+        } else {
+            MDC.clear();
         }
     }
 
     /**
-     * Recovery method called when all retry attempts are exhausted
-     * Stores the failed event in Dead Letter Queue for manual processing
+     * Fail a PENDING booking after a payment failure; the saga worker releases its seats
+     * A single conditional update, so the booking is failed at most once.
      */
-    @Recover
-    public void recoverBookingFailedEvent(Exception e, Booking failedBooking, String reason) {
-        log.error("All retry attempts exhausted for booking failed event, booking {}: {}",
-                failedBooking.getId(), e.getMessage());
-
-        // Store in DLQ for manual retry
-        deadLetterQueueService.storeFailedFailureEvent(
-                failedBooking.getId(),
-                failedBooking.getUserId(),
-                failedBooking.getShowId(),
-                failedBooking.getTotalAmount(),
-                reason,
-                e.getMessage()
-        );
+    private void failPendingBooking(Booking booking, List<Long> seatIds, String reason) {
+        Long bookingId = booking.getId();
+        if (!bookingSagaService.fail(booking, seatIds, reason, LockReleaseReason.PAYMENT_FAILED, true, true)) {
+            log.debug("Booking {} is no longer PENDING. Skipping payment failure handling.", bookingId);
+            return;
+        }
+        seatLeaseRegistry.remove(bookingId);
+        log.warn("Booking {} marked as FAILED due to payment failure", bookingId);
+    }
 
-        log.warn("Booking failed event stored in DLQ for booking {}", failedBooking.getId());
+    private BookingStatusResponse toStatusResponse(Booking booking, List<BookingSeat> bookingSeats) {
+        List<BookingSeatResponse> seatResponses = bookingSeats.stream()
+                .map(seat -> new BookingSeatResponse(
+                        seat.getId(),
+                        seat.getSeatId(),
+                        seat.getSeatNumber(),
+                        seat.getSeatType(),
+                        seat.getPrice()
+                ))
+                .toList();
+
+        return new BookingStatusResponse(
+                booking.getId(),
+                booking.getUserId(),
+                booking.getShowId(),
+                booking.getTotalAmount(),
+                booking.getStatus(),
+                seatResponses
+        );
+    }
+    
+    /**
+     * Fail a booking that is still PENDING once its seat hold has ended
+     * Called by the lease watchdog when the payment session expires or the seat locks are lost,
+     * so the seats return to sale without waiting for the user to come back
+     *
+     * @param bookingId Booking ID
+     * @param reason Reason recorded in the booking failed event
+     */
+    public void expirePendingBooking(Long bookingId, String reason) {
+        seatLeaseRegistry.remove(bookingId);
+        Booking booking = bookingRepository.findById(bookingId).orElse(null);
+        if (booking == null || booking.getStatus() != BookingStatus.PENDING) {
+            log.debug("Booking {} is no longer PENDING. Skipping expiry.", bookingId);
+            return;
+        }
+        List<Long> seatIds = bookingSeatRepository.findByBookingId(bookingId).stream()
+                .map(BookingSeat::getSeatId)
+                .toList();
+        if (!bookingSagaService.fail(booking, seatIds, reason, LockReleaseReason.EXPIRED, true, true)) {
+            log.debug("Booking {} is no longer PENDING. Skipping expiry.", bookingId);
+            return;
+        }
+        log.warn("Booking {} marked as FAILED: {}", bookingId, reason);
     }
 
     public List<SeatDetailsResponse> getSeatDetailsByBookingId(Long bookingId) {
-        List<BookingSeat> bookingSeats = bookingSeatRepository.findByBookingId(bookingId);
-        return bookingSeats.stream()
+        // Booking seats are written once and never updated
+        return bookingReadCache.getSeatDetails(bookingId, () -> bookingSeatRepository.findByBookingId(bookingId)
+                .stream()
                 .map(bookingSeat -> new SeatDetailsResponse(
                         bookingSeat.getSeatId(),
                         bookingSeat.getSeatNumber(),
                         bookingSeat.getSeatType(),
                         bookingSeat.getPrice()
                 ))
-                .toList();
+                .toList());
     }
 }
@@ -1,5 +1,6 @@
 package com.bookticket.booking_service.service;
 
+import com.bookticket.booking_service.configuration.OutboxProperties;
 import com.bookticket.booking_service.dto.BookingFailedEvent;
 import com.bookticket.booking_service.dto.BookingSuccessEvent;
 import com.bookticket.booking_service.entity.FailedEvent;
@@ -11,10 +12,13 @@ import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Scheduled service to automatically retry failed events from Dead Letter Queue
  * Runs every 5 minutes to process pending events
+ * Events only reach the DLQ after the outbox relay gave up on Kafka, so a retry that Kafka does not
+ * acknowledge falls back to the notification service REST API - the only path that still does.
  */
 @Service
 @Slf4j
@@ -25,17 +29,20 @@ public class DLQRetryScheduler {
     private final KafkaTemplate<String, BookingFailedEvent> kafkaFailedTemplate;
     private final NotificationService notificationService;
     private final ObjectMapper objectMapper;
+    private final OutboxProperties outboxProperties;
     
     public DLQRetryScheduler(DeadLetterQueueService dlqService,
                             KafkaTemplate<String, BookingSuccessEvent> kafkaSuccessTemplate,
                             KafkaTemplate<String, BookingFailedEvent> kafkaFailedTemplate,
                             NotificationService notificationService,
-                            ObjectMapper objectMapper) {
+                            ObjectMapper objectMapper,
+                            OutboxProperties outboxProperties) {
         this.dlqService = dlqService;
         this.kafkaSuccessTemplate = kafkaSuccessTemplate;
         this.kafkaFailedTemplate = kafkaFailedTemplate;
         this.notificationService = notificationService;
         this.objectMapper = objectMapper;
+        this.outboxProperties = outboxProperties;
     }
     
     /**
@@ -105,8 +112,9 @@ public class DLQRetryScheduler {
         );
         
         try {
-            // Try Kafka first
-            kafkaSuccessTemplate.send("booking_success", successEvent);
+            // Try Kafka first, keyed like the outbox relay and waiting for the acknowledgement
+            kafkaSuccessTemplate.send("booking_success", String.valueOf(event.getBookingId()), successEvent)
+                    .get(outboxProperties.getSendTimeout().toMillis(), TimeUnit.MILLISECONDS);
             log.info("Successfully sent booking success event to Kafka for DLQ event {}", event.getId());
         } catch (Exception e) {
             // Try REST fallback
@@ -129,8 +137,9 @@ public class DLQRetryScheduler {
         );
         
         try {
-            // Try Kafka first
-            kafkaFailedTemplate.send("booking_failed", failedEvent);
+            // Try Kafka first, keyed like the outbox relay and waiting for the acknowledgement
+            kafkaFailedTemplate.send("booking_failed", String.valueOf(event.getBookingId()), failedEvent)
+                    .get(outboxProperties.getSendTimeout().toMillis(), TimeUnit.MILLISECONDS);
             log.info("Successfully sent booking failed event to Kafka for DLQ event {}", event.getId());
         } catch (Exception e) {
             // Try REST fallback
@@ -95,6 +95,7 @@ public class DeadLetterQueueService {
     /**
      * Get all pending events that can be retried
      */
+    @Transactional(readOnly = true)
     public List<FailedEvent> getPendingEvents() {
         return failedEventRepository.findByStatusAndRetryCountLessThan(EventStatus.PENDING, 3);
     }
@@ -102,6 +103,7 @@ public class DeadLetterQueueService {
     /**
      * Get all permanently failed events (exhausted retries)
      */
+    @Transactional(readOnly = true)
     public List<FailedEvent> getFailedEvents() {
         return failedEventRepository.findByStatus(EventStatus.FAILED);
     }
@@ -150,6 +152,7 @@ public class DeadLetterQueueService {
     /**
      * Get failed events by booking ID
      */
+    @Transactional(readOnly = true)
     public List<FailedEvent> getFailedEventsByBookingId(Long bookingId) {
         return failedEventRepository.findByBookingId(bookingId);
     }
@@ -0,0 +1,221 @@
+package com.bookticket.booking_service.service;
+
+import com.bookticket.booking_service.configuration.IdempotencyProperties;
+import com.bookticket.booking_service.dto.CreateBookingRequest;
+import com.bookticket.booking_service.dto.CreateBookingResponse;
+import com.bookticket.booking_service.exception.IdempotencyKeyException;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Replays the first response of createBooking to retries carrying the same Idempotency-Key
+ * One Redis string per user and key holds a JSON record:
+ *   idempotency:create-booking:{userId}:{key}
+ *     IN_FLIGHT  while the first request runs (expires after the in-flight TTL)
+ *     COMPLETED  with the CreateBookingResponse (expires after the response TTL)
+ * The record is claimed with SET NX, so exactly one request per key reaches the booking flow.
+ * The response replaces the claim only while the claim is still there, so a request whose claim
+ * expired never overwrites the record of the request that claimed the key after it.
+ * A failed request drops its claim: the failure already released its seats, so a retry starts over.
+ * If Redis is unavailable the request runs without deduplication rather than failing.
+ */
+@Service
+@Slf4j
+public class IdempotencyService {
+
+    private static final String IN_FLIGHT = "IN_FLIGHT";
+    private static final String COMPLETED = "COMPLETED";
+
+    /**
+     * Release script - deletes the record only while it still holds this request's claim
+     * KEYS[1] = record key, ARGV[1] = claim value
+     */
+    private static final DefaultRedisScript<Long> RELEASE_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('GET', KEYS[1]) == ARGV[1] then " +
+            "  return redis.call('DEL', KEYS[1]) " +
+            "end " +
+            "return 0",
+            Long.class
+    );
+
+    /**
+     * Complete script - replaces this request's claim with the response record
+     * Stores the response as well if the claim expired and nobody claimed the key since.
+     * KEYS[1] = record key, ARGV[1] = claim value, ARGV[2] = response record, ARGV[3] = response TTL in ms
+     * Returns 1 if the claim was replaced, 2 if the claim had expired, 0 if another request holds the key
+     */
+    private static final DefaultRedisScript<Long> COMPLETE_SCRIPT = new DefaultRedisScript<>(
+            "local current = redis.call('GET', KEYS[1]) " +
+            "if current == ARGV[1] then " +
+            "  redis.call('SET', KEYS[1], ARGV[2], 'PX', ARGV[3]) " +
+            "  return 1 " +
+            "end " +
+            "if not current then " +
+            "  redis.call('SET', KEYS[1], ARGV[2], 'PX', ARGV[3]) " +
+            "  return 2 " +
+            "end " +
+            "return 0",
+            Long.class
+    );
+
+    private final StringRedisTemplate redisTemplate;
+    private final IdempotencyProperties properties;
+    private final ObjectMapper objectMapper;
+
+    public IdempotencyService(StringRedisTemplate redisTemplate,
+                              IdempotencyProperties properties,
+                              ObjectMapper objectMapper) {
+        this.redisTemplate = redisTemplate;
+        this.properties = properties;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Run createBooking at most once per user and Idempotency-Key
+     *
+     * @param userId The user creating the booking
+     * @param idempotencyKey Client-supplied key, or null to run without deduplication
+     * @param request The booking request (a key may only be reused for the same show and seats)
+     * @param createBooking The booking flow
+     * @return The response, and whether it was replayed from an earlier request
+     */
+    public IdempotentResponse createBookingOnce(Long userId, String idempotencyKey, CreateBookingRequest request,
+                                                Supplier<CreateBookingResponse> createBooking) {
+        if (!properties.isEnabled() || idempotencyKey == null) {
+            return new IdempotentResponse(createBooking.get(), false);
+        }
+        if (idempotencyKey.isBlank() || idempotencyKey.length() > properties.getMaxKeyLength()) {
+            throw new IdempotencyKeyException(
+                    "Idempotency-Key must be 1 to " + properties.getMaxKeyLength() + " characters",
+                    IdempotencyKeyException.Reason.INVALID_KEY);
+        }
+
+        String key = recordKey(userId, idempotencyKey);
+        String fingerprint = fingerprint(request);
+        String claim = toJson(new IdempotencyRecord(IN_FLIGHT, fingerprint, UUID.randomUUID().toString(), null));
+
+        Boolean claimed;
+        try {
+            claimed = redisTemplate.opsForValue().setIfAbsent(key, claim, properties.getInFlightTtl());
+        } catch (DataAccessException e) {
+            log.warn("Idempotency store unavailable, creating booking without deduplication: {}", e.getMessage());
+            return new IdempotentResponse(createBooking.get(), false);
+        }
+
+        if (!Boolean.TRUE.equals(claimed)) {
+            return new IdempotentResponse(replay(key, fingerprint, idempotencyKey), true);
+        }
+
+        CreateBookingResponse response;
+        try {
+            response = createBooking.get();
+        } catch (RuntimeException e) {
+            releaseQuietly(key, claim);
+            throw e;
+        }
+
+        complete(key, claim, toJson(new IdempotencyRecord(COMPLETED, fingerprint, null, response)),
+                idempotencyKey, response.bookingId());
+        return new IdempotentResponse(response, false);
+    }
+
+    private CreateBookingResponse replay(String key, String fingerprint, String idempotencyKey) {
+        String stored = redisTemplate.opsForValue().get(key);
+        if (stored == null) {
+            // The first request failed or its record expired between SET NX and GET
+            throw new IdempotencyKeyException(
+                    "The request with Idempotency-Key " + idempotencyKey + " did not complete, retry it",
+                    IdempotencyKeyException.Reason.IN_PROGRESS);
+        }
+        IdempotencyRecord record = fromJson(stored);
+        if (!record.fingerprint().equals(fingerprint)) {
+            throw new IdempotencyKeyException(
+                    "Idempotency-Key " + idempotencyKey + " was already used for a different booking request",
+                    IdempotencyKeyException.Reason.KEY_REUSED);
+        }
+        if (!COMPLETED.equals(record.state())) {
+            throw new IdempotencyKeyException(
+                    "A booking request with Idempotency-Key " + idempotencyKey + " is still in progress",
+                    IdempotencyKeyException.Reason.IN_PROGRESS);
+        }
+        log.info("Replaying booking {} for idempotency key {}", record.response().bookingId(), idempotencyKey);
+        return record.response();
+    }
+
+    private void complete(String key, String claim, String completed, String idempotencyKey, Long bookingId) {
+        Long result;
+        try {
+            result = redisTemplate.execute(COMPLETE_SCRIPT, List.of(key), claim, completed,
+                    String.valueOf(properties.getResponseTtl().toMillis()));
+        } catch (DataAccessException e) {
+            // The booking exists; a retry after the in-flight TTL would create another one
+            log.error("Failed to store response for idempotency key {} of booking {}: {}",
+                    idempotencyKey, bookingId, e.getMessage());
+            return;
+        }
+        if (result != null && result == 2) {
+            log.warn("Idempotency claim for key {} expired before booking {} completed, response stored anyway",
+                    idempotencyKey, bookingId);
+        } else if (result == null || result == 0) {
+            // A retry claimed the key after the in-flight TTL and may have created another booking
+            log.error("Idempotency claim for key {} was lost before booking {} completed, " +
+                    "the key now belongs to another request; raise booking.idempotency.in-flight-ttl",
+                    idempotencyKey, bookingId);
+        }
+    }
+
+    private void releaseQuietly(String key, String claim) {
+        try {
+            redisTemplate.execute(RELEASE_SCRIPT, List.of(key), claim);
+        } catch (DataAccessException e) {
+            log.warn("Failed to release idempotency claim {}, it expires after {}: {}",
+                    key, properties.getInFlightTtl(), e.getMessage());
+        }
+    }
+
+    private String recordKey(Long userId, String idempotencyKey) {
+        return properties.getKeyPrefix() + ":" + userId + ":" + idempotencyKey;
+    }
+
+    /**
+     * Identify a request by show and seat set, ignoring seat order
+     */
+    private static String fingerprint(CreateBookingRequest request) {
+        return request.showId() + ":" + request.seatIds().stream()
+                .sorted()
+                .map(String::valueOf)
+                .collect(Collectors.joining(","));
+    }
+
+    private String toJson(IdempotencyRecord record) {
+        try {
+            return objectMapper.writeValueAsString(record);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize idempotency record", e);
+        }
+    }
+
+    private IdempotencyRecord fromJson(String json) {
+        try {
+            return objectMapper.readValue(json, IdempotencyRecord.class);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to deserialize idempotency record", e);
+        }
+    }
+
+    public record IdempotentResponse(CreateBookingResponse response, boolean replayed) {
+    }
+
+    record IdempotencyRecord(String state, String fingerprint, String claimId, CreateBookingResponse response) {
+    }
+}
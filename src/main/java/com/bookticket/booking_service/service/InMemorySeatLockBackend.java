@@ -0,0 +1,259 @@
+package com.bookticket.booking_service.service;
+
+import com.bookticket.booking_service.configuration.RedisLockProperties;
+import com.bookticket.booking_service.configuration.SeatLockLeaseProperties;
+import com.bookticket.booking_service.enums.LockReleaseOutcome;
+import com.bookticket.booking_service.enums.LockReleaseReason;
+import com.bookticket.booking_service.exception.SeatLockException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * In-process seat lock backend for single-node deployments and tests
+ * Seat holds live in a ConcurrentHashMap with a per-hold expiry. Multi-seat operations take
+ * the striped locks covering their seats in ascending stripe order, so a booking's seats are
+ * checked and locked atomically without a global lock and without deadlocks.
+ * Select with booking.seat-lock.backend=in-memory.
+ */
+@Service
+@ConditionalOnProperty(name = "booking.seat-lock.backend", havingValue = "in-memory")
+@Slf4j
+public class InMemorySeatLockBackend implements SeatLockBackend {
+
+    private static final int STRIPE_COUNT = 256;
+
+    private final RedisLockProperties lockProperties;
+    private final SeatLockLeaseProperties leaseProperties;
+    private final SeatLockMetrics seatLockMetrics;
+    private final Map<SeatKey, Hold> holds = new ConcurrentHashMap<>();
+    private final ReentrantLock[] stripes = new ReentrantLock[STRIPE_COUNT];
+
+    public InMemorySeatLockBackend(RedisLockProperties lockProperties,
+                                   SeatLockLeaseProperties leaseProperties,
+                                   SeatLockMetrics seatLockMetrics) {
+        this.lockProperties = lockProperties;
+        this.leaseProperties = leaseProperties;
+        this.seatLockMetrics = seatLockMetrics;
+        for (int i = 0; i < STRIPE_COUNT; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+    }
+
+    @Override
+    public List<String> acquireSeatsLock(Long showId, List<Long> seatIds, Long bookingId) {
+        Duration ttl = leaseProperties.isEnabled() ? leaseProperties.getTtl() : lockProperties.getTtl();
+        long now = System.currentTimeMillis();
+        List<Long> conflictedSeatIds = new ArrayList<>();
+
+        List<ReentrantLock> locked = lockStripes(showId, seatIds);
+        try {
+            for (Long seatId : seatIds) {
+                Hold hold = holds.get(new SeatKey(showId, seatId));
+                if (hold != null && hold.expiresAtMillis() > now) {
+                    conflictedSeatIds.add(seatId);
+                }
+            }
+            if (conflictedSeatIds.isEmpty()) {
+                Hold hold = new Hold(bookingId, now + ttl.toMillis());
+                for (Long seatId : seatIds) {
+                    holds.put(new SeatKey(showId, seatId), hold);
+                }
+            }
+        } finally {
+            unlock(locked);
+        }
+
+        if (!conflictedSeatIds.isEmpty()) {
+            log.warn("Failed to acquire locks for seats {} in show {}. Seats are already locked.",
+                    conflictedSeatIds, showId);
+            seatLockMetrics.recordConflict(showId, conflictedSeatIds, seatIds.size());
+            throw new SeatLockException(
+                    String.format("Seats no longer available. Seats %s in show %d are already locked.",
+                            conflictedSeatIds, showId)
+            );
+        }
+
+        log.info("Successfully acquired locks for all {} seats in show {} for booking {}",
+                seatIds.size(), showId, bookingId);
+        seatLockMetrics.recordAcquired(showId, bookingId, seatIds.size());
+        return seatIds.stream()
+                .map(seatId -> lockProperties.generateSeatLockKey(showId, seatId))
+                .toList();
+    }
+
+    @Override
+    public Map<Long, LockReleaseOutcome> releaseSeatsLock(Long showId, List<Long> seatIds, Long bookingId,
+                                                          LockReleaseReason reason) {
+        Map<Long, LockReleaseOutcome> outcomes = new LinkedHashMap<>();
+        if (seatIds == null || seatIds.isEmpty()) {
+            return outcomes;
+        }
+        long now = System.currentTimeMillis();
+
+        List<ReentrantLock> locked = lockStripes(showId, seatIds);
+        try {
+            for (Long seatId : seatIds) {
+                SeatKey seatKey = new SeatKey(showId, seatId);
+                Hold hold = holds.get(seatKey);
+                if (hold == null || hold.expiresAtMillis() <= now) {
+                    if (hold != null) {
+                        holds.remove(seatKey);
+                    }
+                    outcomes.put(seatId, LockReleaseOutcome.NOT_LOCKED);
+                } else if (hold.bookingId().equals(bookingId)) {
+                    holds.remove(seatKey);
+                    outcomes.put(seatId, LockReleaseOutcome.RELEASED);
+                } else {
+                    outcomes.put(seatId, LockReleaseOutcome.NOT_OWNER);
+                }
+            }
+        } finally {
+            unlock(locked);
+        }
+
+        seatLockMetrics.recordReleased(bookingId, reason);
+        log.info("Released seat locks in show {} for booking {}: {}", showId, bookingId, outcomes);
+        return outcomes;
+    }
+
+    /**
+     * Same as releaseSeatsLock, which cannot fail here
+     */
+    @Override
+    public Map<Long, LockReleaseOutcome> releaseSeatsLockOrThrow(Long showId, List<Long> seatIds, Long bookingId,
+                                                                 LockReleaseReason reason) {
+        return releaseSeatsLock(showId, seatIds, bookingId, reason);
+    }
+
+    @Override
+    public Set<Long> renewSeatLocks(Collection<SeatLeaseRegistry.SeatLease> leases, Duration ttl) {
+        Set<Long> lostBookingIds = new HashSet<>();
+        for (SeatLeaseRegistry.SeatLease lease : leases) {
+            long now = System.currentTimeMillis();
+            Hold renewed = new Hold(lease.bookingId(), now + ttl.toMillis());
+            List<ReentrantLock> locked = lockStripes(lease.showId(), lease.seatIds());
+            try {
+                for (Long seatId : lease.seatIds()) {
+                    SeatKey seatKey = new SeatKey(lease.showId(), seatId);
+                    Hold hold = holds.get(seatKey);
+                    if (hold != null && hold.expiresAtMillis() > now && hold.bookingId().equals(lease.bookingId())) {
+                        holds.put(seatKey, renewed);
+                    } else {
+                        lostBookingIds.add(lease.bookingId());
+                    }
+                }
+            } finally {
+                unlock(locked);
+            }
+        }
+        return lostBookingIds;
+    }
+
+    @Override
+    public boolean isSeatLocked(Long showId, Long seatId) {
+        return getSeatLockOwner(showId, seatId) != null;
+    }
+
+    @Override
+    public String getSeatLockOwner(Long showId, Long seatId) {
+        Hold hold = holds.get(new SeatKey(showId, seatId));
+        if (hold == null || hold.expiresAtMillis() <= System.currentTimeMillis()) {
+            return null;
+        }
+        return lockProperties.generateBookingLockValue(hold.bookingId());
+    }
+
+    @Override
+    public Map<Long, String> getSeatLockOwners(Long showId, List<Long> seatIds) {
+        Map<Long, String> owners = new LinkedHashMap<>();
+        for (Long seatId : seatIds) {
+            owners.put(seatId, getSeatLockOwner(showId, seatId));
+        }
+        return owners;
+    }
+
+    @Override
+    public Map<Long, String> getLockedSeats(Long showId) {
+        long now = System.currentTimeMillis();
+        Map<Long, String> lockedSeats = new LinkedHashMap<>();
+        holds.forEach((seatKey, hold) -> {
+            if (seatKey.showId().equals(showId) && hold.expiresAtMillis() > now) {
+                lockedSeats.put(seatKey.seatId(), lockProperties.generateBookingLockValue(hold.bookingId()));
+            }
+        });
+        return lockedSeats;
+    }
+
+    @Override
+    public Set<Long> getLockedShowIds() {
+        long now = System.currentTimeMillis();
+        Set<Long> showIds = new HashSet<>();
+        holds.forEach((seatKey, hold) -> {
+            if (hold.expiresAtMillis() > now) {
+                showIds.add(seatKey.showId());
+            }
+        });
+        return showIds;
+    }
+
+    /**
+     * Scheduled job to drop expired holds of seats that were never requested again
+     * Runs every minute
+     */
+    @Scheduled(fixedDelay = 60000, initialDelay = 60000)
+    public void purgeExpiredHolds() {
+        long now = System.currentTimeMillis();
+        int before = holds.size();
+        holds.entrySet().removeIf(entry -> entry.getValue().expiresAtMillis() <= now);
+        log.debug("Purged {} expired seat holds", before - holds.size());
+    }
+
+    /**
+     * Holds kept in memory, expired ones included until they are purged
+     */
+    int holdCount() {
+        return holds.size();
+    }
+
+    /**
+     * Lock the stripes covering the given seats in ascending order
+     */
+    private List<ReentrantLock> lockStripes(Long showId, List<Long> seatIds) {
+        TreeSet<Integer> stripeIndexes = new TreeSet<>();
+        for (Long seatId : seatIds) {
+            stripeIndexes.add(Math.floorMod(new SeatKey(showId, seatId).hashCode(), STRIPE_COUNT));
+        }
+        List<ReentrantLock> locked = new ArrayList<>(stripeIndexes.size());
+        for (Integer index : stripeIndexes) {
+            stripes[index].lock();
+            locked.add(stripes[index]);
+        }
+        return locked;
+    }
+
+    private static void unlock(List<ReentrantLock> locked) {
+        for (int i = locked.size() - 1; i >= 0; i--) {
+            locked.get(i).unlock();
+        }
+    }
+
+    private record SeatKey(Long showId, Long seatId) {
+    }
+
+    private record Hold(Long bookingId, long expiresAtMillis) {
+    }
+}
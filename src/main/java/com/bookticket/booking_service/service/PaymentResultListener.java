@@ -0,0 +1,58 @@
+package com.bookticket.booking_service.service;
+
+import com.bookticket.booking_service.dto.PaymentResultEvent;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Service;
+
+/**
+ * Consumes checkout results published by the payment service and completes the bookings they belong to
+ * Bookings complete even when the user never returns to verify-payment. Redeliveries are harmless:
+ * a booking that already left PENDING is skipped, and every transition is a conditional update.
+ * Only started with booking.payment.events.enabled=true.
+ */
+@Service
+@Slf4j
+public class PaymentResultListener {
+
+    private final BookingService bookingService;
+    private final ObjectMapper objectMapper;
+
+    public PaymentResultListener(BookingService bookingService, ObjectMapper objectMapper) {
+        this.bookingService = bookingService;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Read as a string so the listener does not depend on the deserializer configured for other consumers
+     * A failure while completing the booking is rethrown, so the record is redelivered with backoff
+     * (see {@link com.bookticket.booking_service.configuration.PaymentEventConfig}).
+     */
+    @KafkaListener(
+            topics = "${booking.payment.events.topic:payment_result}",
+            containerFactory = "paymentResultContainerFactory",
+            groupId = "${booking.payment.events.group-id:booking-service-payments}",
+            autoStartup = "${booking.payment.events.enabled:false}",
+            properties = {
+                    "key.deserializer=org.apache.kafka.common.serialization.StringDeserializer",
+                    "value.deserializer=org.apache.kafka.common.serialization.StringDeserializer"
+            })
+    public void onPaymentResult(String payload) {
+        PaymentResultEvent event;
+        try {
+            event = objectMapper.readValue(payload, PaymentResultEvent.class);
+        } catch (JsonProcessingException e) {
+            log.error("Discarding unreadable payment result event: {}", e.getMessage());
+            return;
+        }
+        if (event.bookingId() == null || event.paymentStatus() == null) {
+            log.error("Discarding payment result event without booking ID or status: {}", payload);
+            return;
+        }
+        log.info("Received payment result {} for booking {} (session {})",
+                event.paymentStatus(), event.bookingId(), event.sessionId());
+        bookingService.applyPaymentResult(event);
+    }
+}
@@ -0,0 +1,164 @@
+package com.bookticket.booking_service.service;
+
+import com.bookticket.booking_service.configuration.PaymentPollingProperties;
+import com.bookticket.booking_service.dto.PaymentResponse;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Shared poller for the status of outstanding checkout sessions
+ * Replaces a sleeping request thread per verification: one scheduler thread times every poll,
+ * and a small fixed pool makes the payment service calls, so thousands of waiting verifications
+ * cost a handful of threads. Concurrent verifications of the same session share one poll.
+ * Polls back off exponentially with jitter, so sessions started together do not poll in lockstep.
+ */
+@Service
+@Slf4j
+public class PaymentStatusPoller {
+
+    private final PaymentService paymentService;
+    private final PaymentPollingProperties pollingProperties;
+    private final ScheduledExecutorService scheduler;
+    private final ExecutorService pollExecutor;
+    private final Map<String, PendingPoll> pendingPolls = new ConcurrentHashMap<>();
+
+    public PaymentStatusPoller(PaymentService paymentService,
+                               PaymentPollingProperties pollingProperties,
+                               MeterRegistry meterRegistry) {
+        this.paymentService = paymentService;
+        this.pollingProperties = pollingProperties;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(
+                new CustomizableThreadFactory("payment-poll-scheduler-"));
+        this.pollExecutor = Executors.newFixedThreadPool(pollingProperties.getPollerThreads(),
+                new CustomizableThreadFactory("payment-poll-"));
+
+        Gauge.builder("booking.payment.polls.pending", pendingPolls, Map::size)
+                .description("Checkout sessions whose payment status is being polled")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Poll a checkout session until its payment is COMPLETED or FAILED
+     *
+     * @param sessionId Stripe Checkout Session ID
+     * @return Future completed with the final PaymentResponse, or exceptionally if polling
+     *         times out or keeps failing for booking.payment.polling.max-attempts attempts
+     */
+    public CompletableFuture<PaymentResponse> poll(String sessionId) {
+        PendingPoll created = new PendingPoll(sessionId, System.currentTimeMillis());
+        PendingPoll existing = pendingPolls.putIfAbsent(sessionId, created);
+        if (existing != null) {
+            log.debug("Joining outstanding payment status poll for session: {}", sessionId);
+            // Each caller gets its own view, so one caller cannot complete or cancel the shared poll
+            return existing.result.copy();
+        }
+        log.info("Starting payment status polling for session: {}", sessionId);
+        schedule(created, 0);
+        return created.result.copy();
+    }
+
+    private void schedule(PendingPoll pendingPoll, long delayMs) {
+        try {
+            scheduler.schedule(() -> pollExecutor.execute(() -> check(pendingPoll)), delayMs, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            complete(pendingPoll, null, new RuntimeException("Payment polling stopped", e));
+        }
+    }
+
+    private void check(PendingPoll pendingPoll) {
+        String sessionId = pendingPoll.sessionId;
+        int attempt = ++pendingPoll.attempts;
+
+        long elapsedTime = System.currentTimeMillis() - pendingPoll.startedAtMillis;
+        if (elapsedTime > pollingProperties.getTimeoutMs()) {
+            log.error("Payment polling timeout exceeded for session: {}. Elapsed: {}ms", sessionId, elapsedTime);
+            complete(pendingPoll, null, new RuntimeException("Payment verification timeout exceeded"));
+            return;
+        }
+
+        try {
+            log.debug("Polling attempt {}/{} for session: {}", attempt, pollingProperties.getMaxAttempts(), sessionId);
+            PaymentResponse response = paymentService.verifyCheckoutSession(sessionId);
+            String status = response.paymentStatus();
+
+            // Check if payment is in final state
+            if ("COMPLETED".equalsIgnoreCase(status) || "FAILED".equalsIgnoreCase(status)) {
+                log.info("Payment {} for session: {} after {} attempts", status, sessionId, attempt);
+                complete(pendingPoll, response, null);
+                return;
+            }
+            log.debug("Payment still pending for session: {}. Status: {}", sessionId, status);
+
+            if (attempt >= pollingProperties.getMaxAttempts()) {
+                log.error("Payment polling max attempts ({}) reached for session: {}",
+                        pollingProperties.getMaxAttempts(), sessionId);
+                complete(pendingPoll, null,
+                        new RuntimeException("Payment verification timeout: max polling attempts reached"));
+                return;
+            }
+        } catch (Exception e) {
+            log.error("Error during payment polling attempt {} for session: {}", attempt, sessionId, e);
+            if (attempt >= pollingProperties.getMaxAttempts()) {
+                complete(pendingPoll, null,
+                        new RuntimeException("Payment verification failed after " + attempt + " attempts", e));
+                return;
+            }
+        }
+
+        schedule(pendingPoll, nextDelayMs(attempt));
+    }
+
+    /**
+     * Exponential backoff with equal jitter: half the interval is fixed, the other half random
+     */
+    private long nextDelayMs(int attempt) {
+        double interval = pollingProperties.getIntervalMs() * Math.pow(pollingProperties.getBackoffMultiplier(), attempt - 1);
+        long delay = (long) Math.min(interval, pollingProperties.getMaxIntervalMs());
+        long half = delay / 2;
+        return half + ThreadLocalRandom.current().nextLong(half + 1);
+    }
+
+    private void complete(PendingPoll pendingPoll, PaymentResponse response, Throwable error) {
+        pendingPolls.remove(pendingPoll.sessionId, pendingPoll);
+        if (error != null) {
+            pendingPoll.result.completeExceptionally(error);
+        } else {
+            pendingPoll.result.complete(response);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdownNow();
+        pollExecutor.shutdownNow();
+        pendingPolls.values().forEach(pendingPoll ->
+                pendingPoll.result.completeExceptionally(new RuntimeException("Payment polling interrupted")));
+        pendingPolls.clear();
+    }
+
+    private static final class PendingPoll {
+        private final String sessionId;
+        private final long startedAtMillis;
+        private final CompletableFuture<PaymentResponse> result = new CompletableFuture<>();
+        private volatile int attempts; // Only one poll of a session runs at a time
+
+        private PendingPoll(String sessionId, long startedAtMillis) {
+            this.sessionId = sessionId;
+            this.startedAtMillis = startedAtMillis;
+        }
+    }
+}
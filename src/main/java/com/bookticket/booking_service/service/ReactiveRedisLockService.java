@@ -0,0 +1,137 @@
+package com.bookticket.booking_service.service;
+
+import com.bookticket.booking_service.configuration.RedisLockProperties;
+import com.bookticket.booking_service.enums.SeatLockMode;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Non-blocking, read-only view of the seat locks written by {@link RedisLockService}
+ * Reads the same keys (or show hashes) through ReactiveStringRedisTemplate, so lock lookups for many
+ * seats can be fanned out without parking a request thread per call.
+ * Enabled with booking.redis.lock.reactive-admin on the Redis backend, where it serves the admin
+ * seat lock status lookup. Locks are only acquired, renewed and released through {@link SeatLockBackend}:
+ * that path also applies the lease TTL, keeps the near-cache in step and records the lock metrics.
+ */
+@Service
+@ConditionalOnExpression("${booking.redis.lock.reactive-admin:false} and '${booking.seat-lock.backend:redis}' == 'redis'")
+public class ReactiveRedisLockService {
+
+    private final ReactiveStringRedisTemplate reactiveRedisTemplate;
+    private final RedisLockProperties lockProperties;
+
+    public ReactiveRedisLockService(ReactiveStringRedisTemplate reactiveRedisTemplate,
+                                    RedisLockProperties lockProperties) {
+        this.reactiveRedisTemplate = reactiveRedisTemplate;
+        this.lockProperties = lockProperties;
+    }
+
+    /**
+     * Check if a seat is currently locked
+     *
+     * @param showId The show ID
+     * @param seatId The seat ID
+     * @return Mono emitting true if the seat is locked, false otherwise
+     */
+    public Mono<Boolean> isSeatLocked(Long showId, Long seatId) {
+        return getSeatLockOwner(showId, seatId)
+                .map(owner -> true)
+                .defaultIfEmpty(false);
+    }
+
+    /**
+     * Get the booking lock value that currently holds the lock for a seat
+     *
+     * @param showId The show ID
+     * @param seatId The seat ID
+     * @return Mono emitting the lock owner, or empty if the seat is not locked
+     */
+    public Mono<String> getSeatLockOwner(Long showId, Long seatId) {
+        if (isShowHashMode()) {
+            return readShowHeldSeats(showId, List.of(seatId))
+                    .flatMap(heldSeats -> Mono.justOrEmpty(heldSeats.get(seatId)));
+        }
+        return reactiveRedisTemplate.opsForValue().get(lockProperties.generateSeatLockKey(showId, seatId));
+    }
+
+    /**
+     * Look up the lock owner of many seats in one round trip (MGET, or one script in SHOW_HASH mode)
+     *
+     * @param showId The show ID
+     * @param seatIds List of seat IDs to check
+     * @return Flux emitting one seat ID / owner entry per locked seat, in request order
+     */
+    public Flux<Map.Entry<Long, String>> getSeatLockOwners(Long showId, List<Long> seatIds) {
+        if (seatIds.isEmpty()) {
+            return Flux.empty();
+        }
+        if (isShowHashMode()) {
+            return readShowHeldSeats(showId, seatIds)
+                    .flatMapIterable(Map::entrySet);
+        }
+        List<String> lockKeys = seatIds.stream()
+                .map(seatId -> lockProperties.generateSeatLockKey(showId, seatId))
+                .toList();
+        return reactiveRedisTemplate.opsForValue().multiGet(lockKeys)
+                .flatMapIterable(owners -> {
+                    List<Map.Entry<Long, String>> locked = new ArrayList<>();
+                    for (int i = 0; i < seatIds.size() && i < owners.size(); i++) {
+                        if (owners.get(i) != null) {
+                            locked.add(Map.entry(seatIds.get(i), owners.get(i)));
+                        }
+                    }
+                    return locked;
+                });
+    }
+
+    private Mono<Map<Long, String>> readShowHeldSeats(Long showId, List<Long> seatIds) {
+        return collectResults(execute(
+                SeatLockScripts.SHOW_HELD_SEATS_SCRIPT,
+                List.of(lockProperties.generateShowLockKey(showId)),
+                SeatLockScripts.toScriptArgs(List.of(), seatIds)))
+                .map(entries -> {
+                    Map<Long, String> heldSeats = new LinkedHashMap<>();
+                    for (int i = 0; i + 1 < entries.size(); i += 2) {
+                        heldSeats.put(Long.valueOf(String.valueOf(entries.get(i))), String.valueOf(entries.get(i + 1)));
+                    }
+                    return heldSeats;
+                });
+    }
+
+    private Flux<?> execute(RedisScript<List<Object>> script, List<String> keys, Object... args) {
+        return reactiveRedisTemplate.execute(script, keys, Arrays.asList(args));
+    }
+
+    /**
+     * Collect a script's multi-bulk reply into one list
+     * Depending on the driver the reply arrives either as one list element or element by element
+     */
+    private static Mono<List<Object>> collectResults(Flux<?> result) {
+        return result.collectList()
+                .map(items -> {
+                    List<Object> flattened = new ArrayList<>();
+                    for (Object item : items) {
+                        if (item instanceof List<?> list) {
+                            flattened.addAll(list);
+                        } else {
+                            flattened.add(item);
+                        }
+                    }
+                    return flattened;
+                });
+    }
+
+    private boolean isShowHashMode() {
+        return lockProperties.getMode() == SeatLockMode.SHOW_HASH;
+    }
+}
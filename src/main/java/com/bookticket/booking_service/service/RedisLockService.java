@@ -1,93 +1,144 @@
 package com.bookticket.booking_service.service;
 
 import com.bookticket.booking_service.configuration.RedisLockProperties;
+import com.bookticket.booking_service.configuration.SeatLockLeaseProperties;
+import com.bookticket.booking_service.enums.LockReleaseOutcome;
+import com.bookticket.booking_service.enums.LockReleaseReason;
+import com.bookticket.booking_service.enums.SeatLockMode;
 import com.bookticket.booking_service.exception.SeatLockException;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.ScanOptions;
 import org.springframework.data.redis.core.StringRedisTemplate;
 import org.springframework.stereotype.Service;
 
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.concurrent.TimeUnit;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 @Service
+@ConditionalOnProperty(name = "booking.seat-lock.backend", havingValue = "redis", matchIfMissing = true)
 @Slf4j
-public class RedisLockService {
+public class RedisLockService implements SeatLockBackend {
     
     private final StringRedisTemplate redisTemplate;
     private final RedisLockProperties lockProperties;
+    private final SeatLockNearCache seatLockNearCache;
+    private final SeatLockLeaseProperties leaseProperties;
+    private final SeatLockMetrics seatLockMetrics;
+    private final SeatLockKeyCodec keyCodec;
     
-    public RedisLockService(StringRedisTemplate redisTemplate, RedisLockProperties lockProperties) {
+    public RedisLockService(StringRedisTemplate redisTemplate, RedisLockProperties lockProperties,
+                            SeatLockNearCache seatLockNearCache, SeatLockLeaseProperties leaseProperties,
+                            SeatLockMetrics seatLockMetrics) {
         this.redisTemplate = redisTemplate;
         this.lockProperties = lockProperties;
+        this.seatLockNearCache = seatLockNearCache;
+        this.leaseProperties = leaseProperties;
+        this.seatLockMetrics = seatLockMetrics;
+        this.keyCodec = new SeatLockKeyCodec(lockProperties);
+    }
+    
+    /**
+     * Fail fast if any requested seat is known to be held, using only the in-process near-cache
+     * No remote call is made; seats not in the near-cache are left to acquireSeatsLock.
+     * 
+     * @param showId The show ID
+     * @param seatIds List of seat IDs requested
+     * @throws SeatLockException if the near-cache reports any seat as held
+     */
+    @Override
+    public void rejectKnownHeldSeats(Long showId, List<Long> seatIds) {
+        List<Long> heldSeatIds = seatLockNearCache.findHeldSeats(showId, seatIds);
+        if (!heldSeatIds.isEmpty()) {
+            log.warn("Near-cache reports seats {} in show {} as already locked. Rejecting request.", 
+                    heldSeatIds, showId);
+            throw new SeatLockException(
+                    String.format("Seats no longer available. Seats %s in show %d are already locked.", 
+                            heldSeatIds, showId)
+            );
+        }
     }
     
     /**
      * Attempt to acquire locks for all seats in a show
-     * If any lock fails, releases all previously acquired locks and throws SeatLockException
+     * All seat keys are checked and set atomically in a single Lua script round trip,
+     * so either every seat is locked or none is and no partial locks are ever visible.
+     * In SHOW_HASH mode the seats are stored as fields of one hash per show instead of one key each.
      * 
      * @param showId The show ID
      * @param seatIds List of seat IDs to lock
      * @param bookingId The booking ID that will own these locks
-     * @return List of successfully locked seat keys
+     * @return List of successfully locked seat keys (logical seat lock keys in SHOW_HASH mode)
      * @throws SeatLockException if any seat cannot be locked
      */
+    @Override
     public List<String> acquireSeatsLock(Long showId, List<Long> seatIds, Long bookingId) {
         log.info("Attempting to acquire locks for {} seats in show {} for booking {}", 
                 seatIds.size(), showId, bookingId);
         
-        List<String> acquiredLocks = new ArrayList<>();
-        String lockValue = lockProperties.generateBookingLockValue(bookingId);
+        byte[] lockValue = keyCodec.bookingValue(bookingId);
         
+        // With leases enabled, locks start short and are renewed by the lease watchdog during checkout
+        Duration ttl = leaseProperties.isEnabled() ? leaseProperties.getTtl() : lockProperties.getTtl();
+        byte[] ttlMillis = SeatLockKeyCodec.decimal(ttl.toMillis());
+        long expiresAtMillis = System.currentTimeMillis() + ttl.toMillis();
+        
+        List<?> conflicts;
         try {
-            for (Long seatId : seatIds) {
-                String lockKey = lockProperties.generateSeatLockKey(showId, seatId);
-                
-                // Try to acquire lock using SET NX (SET if Not eXists)
-                Boolean lockAcquired = redisTemplate.opsForValue()
-                        .setIfAbsent(
-                                lockKey, 
-                                lockValue, 
-                                lockProperties.getTtl().toMinutes(), 
-                                TimeUnit.MINUTES
-                        );
-                
-                if (Boolean.TRUE.equals(lockAcquired)) {
-                    acquiredLocks.add(lockKey);
-                    log.debug("Successfully acquired lock for seat {} in show {}: {}", 
-                            seatId, showId, lockKey);
-                } else {
-                    // Lock acquisition failed - seat is already locked by another booking
-                    log.warn("Failed to acquire lock for seat {} in show {}. Seat is already locked.", 
-                            seatId, showId);
-                    
-                    // Release all previously acquired locks
-                    releaseSeatsLock(acquiredLocks);
-                    
-                    throw new SeatLockException(
-                            String.format("Seats no longer available. Seat %d in show %d is already locked.", 
-                                    seatId, showId)
-                    );
-                }
+            if (isShowHashMode()) {
+                byte[][] keysAndArgs = showKeyAndSeatArgs(showId, seatIds, lockValue, ttlMillis);
+                conflicts = redisTemplate.execute((RedisCallback<List<Object>>) connection ->
+                        SeatLockScripts.eval(connection, SeatLockScripts.ACQUIRE_SHOW_SEATS_SCRIPT, 1, keysAndArgs));
+            } else {
+                byte[][] keysAndArgs = seatKeysAndArgs(showId, seatIds, lockValue, ttlMillis);
+                conflicts = redisTemplate.execute((RedisCallback<List<Object>>) connection ->
+                        SeatLockScripts.eval(connection, SeatLockScripts.ACQUIRE_SEATS_SCRIPT, seatIds.size(), keysAndArgs));
             }
-            
-            log.info("Successfully acquired locks for all {} seats in show {} for booking {}", 
-                    acquiredLocks.size(), showId, bookingId);
-            return acquiredLocks;
-            
-        } catch (SeatLockException e) {
-            // Re-throw SeatLockException as-is
-            throw e;
         } catch (Exception e) {
-            // Unexpected error - release any acquired locks
+            // Script is atomic - nothing was locked if it failed
+            seatLockMetrics.recordAcquireError();
             log.error("Unexpected error while acquiring seat locks for show {}: {}", showId, e.getMessage(), e);
-            releaseSeatsLock(acquiredLocks);
             throw new SeatLockException("Failed to acquire seat locks due to system error", e);
         }
+        
+        if (conflicts != null && !conflicts.isEmpty()) {
+            // Lock acquisition failed - one or more seats are already locked by another booking
+            List<Long> conflictedSeatIds = conflicts.stream()
+                    .map(index -> seatIds.get(((Number) index).intValue() - 1))
+                    .toList();
+            log.warn("Failed to acquire locks for seats {} in show {}. Seats are already locked.", 
+                    conflictedSeatIds, showId);
+            seatLockNearCache.onSeatsConflicted(showId, conflictedSeatIds, expiresAtMillis);
+            seatLockMetrics.recordConflict(showId, conflictedSeatIds, seatIds.size());
+            
+            throw new SeatLockException(
+                    String.format("Seats no longer available. Seats %s in show %d are already locked.", 
+                            conflictedSeatIds, showId)
+            );
+        }
+        
+        log.info("Successfully acquired locks for all {} seats in show {} for booking {}", 
+                seatIds.size(), showId, bookingId);
+        seatLockNearCache.onSeatsLocked(showId, seatIds, expiresAtMillis);
+        seatLockMetrics.recordAcquired(showId, bookingId, seatIds.size());
+        return keyCodec.seatKeyStrings(showId, seatIds);
     }
     
     /**
      * Release locks for the given seat keys
+     * Deletes the keys unconditionally, without checking which booking owns them.
+     * Prefer {@link #releaseSeatsLock(Long, List, Long, LockReleaseReason)} when the owning booking is known.
+     * Only applies to the KEY_PER_SEAT representation.
      * 
      * @param lockKeys List of Redis keys to delete
      */
@@ -107,17 +158,153 @@ public class RedisLockService {
     }
     
     /**
-     * Release locks for specific seats in a show
+     * Release the locks held by a booking for specific seats in a show
+     * Each key is only deleted if its value still matches the booking lock value, so a lock
+     * that expired and was re-acquired by another booking is left untouched.
+     * All seats are compared and deleted in a single script round trip.
      * 
      * @param showId The show ID
      * @param seatIds List of seat IDs to unlock
+     * @param bookingId The booking ID that owns the locks
+     * @param reason Why the locks are released (recorded in metrics)
+     * @return Release outcome per seat ID, in request order (empty if Redis could not be reached)
      */
-    public void releaseSeatsLockByIds(Long showId, List<Long> seatIds) {
-        List<String> lockKeys = seatIds.stream()
-                .map(seatId -> lockProperties.generateSeatLockKey(showId, seatId))
-                .toList();
+    @Override
+    public Map<Long, LockReleaseOutcome> releaseSeatsLock(Long showId, List<Long> seatIds, Long bookingId,
+                                                          LockReleaseReason reason) {
+        try {
+            return releaseSeatsLockOrThrow(showId, seatIds, bookingId, reason);
+        } catch (Exception e) {
+            log.error("Error releasing seat locks for booking {}: {}", bookingId, e.getMessage(), e);
+            // Don't throw exception here - this is cleanup code
+            return new LinkedHashMap<>();
+        }
+    }
+    
+    /**
+     * Release the locks held by a booking, failing if Redis could not be reached
+     * 
+     * @return Release outcome for every requested seat ID, in request order
+     * @throws IllegalStateException if the script returned no outcome for some seat
+     */
+    @Override
+    public Map<Long, LockReleaseOutcome> releaseSeatsLockOrThrow(Long showId, List<Long> seatIds, Long bookingId,
+                                                                 LockReleaseReason reason) {
+        Map<Long, LockReleaseOutcome> outcomes = new LinkedHashMap<>();
+        if (seatIds == null || seatIds.isEmpty()) {
+            log.debug("No locks to release");
+            return outcomes;
+        }
+        
+        byte[] lockValue = keyCodec.bookingValue(bookingId);
         
-        releaseSeatsLock(lockKeys);
+        List<?> results;
+        if (isShowHashMode()) {
+            byte[][] keysAndArgs = showKeyAndSeatArgs(showId, seatIds, lockValue);
+            results = redisTemplate.execute((RedisCallback<List<Object>>) connection ->
+                    SeatLockScripts.eval(connection, SeatLockScripts.RELEASE_SHOW_SEATS_SCRIPT, 1, keysAndArgs));
+        } else {
+            byte[][] keysAndArgs = seatKeysAndArgs(showId, seatIds, lockValue);
+            results = redisTemplate.execute((RedisCallback<List<Object>>) connection ->
+                    SeatLockScripts.eval(connection, SeatLockScripts.RELEASE_SEATS_SCRIPT, seatIds.size(), keysAndArgs));
+        }
+        if (results == null || results.size() < seatIds.size()) {
+            throw new IllegalStateException("Seat lock release script answered for " +
+                    (results == null ? 0 : results.size()) + " of " + seatIds.size() + " seats");
+        }
+        for (int i = 0; i < seatIds.size(); i++) {
+            outcomes.put(seatIds.get(i), SeatLockScripts.toReleaseOutcome(results.get(i)));
+        }
+        
+        seatLockMetrics.recordReleased(bookingId, reason);
+        long releasedCount = outcomes.values().stream()
+                .filter(outcome -> outcome == LockReleaseOutcome.RELEASED)
+                .count();
+        log.info("Released {} seat locks out of {} requested in show {} for booking {}", 
+                releasedCount, seatIds.size(), showId, bookingId);
+        seatLockNearCache.onSeatsReleased(showId, outcomes.entrySet().stream()
+                .filter(entry -> entry.getValue() != LockReleaseOutcome.NOT_OWNER)
+                .map(Map.Entry::getKey)
+                .toList());
+        if (outcomes.containsValue(LockReleaseOutcome.NOT_OWNER)) {
+            log.warn("Some seat locks in show {} are now held by another booking and were not released: {}", 
+                    showId, outcomes);
+        }
+        return outcomes;
+    }
+    
+    /**
+     * Extend the seat locks of many bookings in one batch
+     * A lock is only extended while it is still held by the booking that owns the lease.
+     * KEY_PER_SEAT renews every seat of every lease in a single script call;
+     * SHOW_HASH renews with one script call per show.
+     * 
+     * @param leases Leases to renew
+     * @param ttl New TTL for every renewed lock
+     * @return IDs of bookings that lost at least one of their seat locks
+     */
+    @Override
+    public Set<Long> renewSeatLocks(Collection<SeatLeaseRegistry.SeatLease> leases, Duration ttl) {
+        Set<Long> lostBookingIds = new HashSet<>();
+        if (leases.isEmpty()) {
+            return lostBookingIds;
+        }
+        byte[] ttlMillis = SeatLockKeyCodec.decimal(ttl.toMillis());
+        
+        if (isShowHashMode()) {
+            Map<Long, List<SeatLeaseRegistry.SeatLease>> leasesByShow = leases.stream()
+                    .collect(Collectors.groupingBy(SeatLeaseRegistry.SeatLease::showId));
+            leasesByShow.forEach((showId, showLeases) -> {
+                List<byte[]> keysAndArgs = new ArrayList<>();
+                List<Long> owners = new ArrayList<>();
+                keysAndArgs.add(keyCodec.showKey(showId));
+                keysAndArgs.add(ttlMillis);
+                for (SeatLeaseRegistry.SeatLease lease : showLeases) {
+                    byte[] lockValue = keyCodec.bookingValue(lease.bookingId());
+                    for (Long seatId : lease.seatIds()) {
+                        keysAndArgs.add(SeatLockKeyCodec.decimal(seatId));
+                        keysAndArgs.add(lockValue);
+                        owners.add(lease.bookingId());
+                    }
+                }
+                byte[][] encoded = keysAndArgs.toArray(new byte[0][]);
+                collectLostLeases(redisTemplate.execute((RedisCallback<List<Object>>) connection ->
+                        SeatLockScripts.eval(connection, SeatLockScripts.RENEW_SHOW_SEATS_SCRIPT, 1, encoded)),
+                        owners, lostBookingIds);
+            });
+        } else {
+            List<byte[]> lockKeys = new ArrayList<>();
+            List<byte[]> args = new ArrayList<>();
+            List<Long> owners = new ArrayList<>();
+            args.add(ttlMillis);
+            for (SeatLeaseRegistry.SeatLease lease : leases) {
+                byte[] lockValue = keyCodec.bookingValue(lease.bookingId());
+                for (Long seatId : lease.seatIds()) {
+                    lockKeys.add(keyCodec.seatKey(lease.showId(), seatId));
+                    args.add(lockValue);
+                    owners.add(lease.bookingId());
+                }
+            }
+            int numKeys = lockKeys.size();
+            lockKeys.addAll(args);
+            byte[][] encoded = lockKeys.toArray(new byte[0][]);
+            collectLostLeases(redisTemplate.execute((RedisCallback<List<Object>>) connection ->
+                    SeatLockScripts.eval(connection, SeatLockScripts.RENEW_SEATS_SCRIPT, numKeys, encoded)),
+                    owners, lostBookingIds);
+        }
+        
+        log.info("Renewed seat locks for {} bookings, {} lost their locks", 
+                leases.size() - lostBookingIds.size(), lostBookingIds.size());
+        return lostBookingIds;
+    }
+    
+    private static void collectLostLeases(List<?> results, List<Long> owners, Set<Long> lostBookingIds) {
+        for (int i = 0; i < owners.size(); i++) {
+            Object result = results != null && i < results.size() ? results.get(i) : null;
+            if (!(result instanceof Number number) || number.longValue() != 1) {
+                lostBookingIds.add(owners.get(i));
+            }
+        }
     }
     
     /**
@@ -127,9 +314,14 @@ public class RedisLockService {
      * @param seatId The seat ID
      * @return true if the seat is locked, false otherwise
      */
+    @Override
     public boolean isSeatLocked(Long showId, Long seatId) {
-        String lockKey = lockProperties.generateSeatLockKey(showId, seatId);
-        Boolean hasKey = redisTemplate.hasKey(lockKey);
+        if (isShowHashMode()) {
+            return getSeatLockOwner(showId, seatId) != null;
+        }
+        byte[] lockKey = keyCodec.seatKey(showId, seatId);
+        Boolean hasKey = redisTemplate.execute((RedisCallback<Boolean>) connection ->
+                connection.keyCommands().exists(lockKey));
         return Boolean.TRUE.equals(hasKey);
     }
     
@@ -140,9 +332,163 @@ public class RedisLockService {
      * @param seatId The seat ID
      * @return The booking ID that holds the lock, or null if not locked
      */
+    @Override
     public String getSeatLockOwner(Long showId, Long seatId) {
-        String lockKey = lockProperties.generateSeatLockKey(showId, seatId);
-        return redisTemplate.opsForValue().get(lockKey);
+        if (isShowHashMode()) {
+            return readShowHeldSeats(showId, List.of(seatId)).get(seatId);
+        }
+        byte[] lockKey = keyCodec.seatKey(showId, seatId);
+        return decode(redisTemplate.execute((RedisCallback<byte[]>) connection ->
+                connection.stringCommands().get(lockKey)));
+    }
+    
+    /**
+     * Get every seat currently held in a show together with its lock owner
+     * In SHOW_HASH mode this is a single read of the show hash.
+     * In KEY_PER_SEAT mode the show's seat keys have to be scanned first.
+     * 
+     * @param showId The show ID
+     * @return Lock owner (booking lock value) per held seat ID
+     */
+    @Override
+    public Map<Long, String> getLockedSeats(Long showId) {
+        if (isShowHashMode()) {
+            return readShowHeldSeats(showId, List.of());
+        }
+        
+        ScanOptions scanOptions = ScanOptions.scanOptions()
+                .match(lockProperties.generateSeatLockKeyPattern(showId))
+                .count(1000)
+                .build();
+        List<String> lockKeys = new ArrayList<>();
+        try (Cursor<String> cursor = redisTemplate.scan(scanOptions)) {
+            cursor.forEachRemaining(lockKeys::add);
+        }
+        
+        Map<Long, String> lockedSeats = new LinkedHashMap<>();
+        if (lockKeys.isEmpty()) {
+            return lockedSeats;
+        }
+        List<String> owners = redisTemplate.opsForValue().multiGet(lockKeys);
+        for (int i = 0; i < lockKeys.size(); i++) {
+            String owner = owners != null ? owners.get(i) : null;
+            if (owner != null) {
+                String lockKey = lockKeys.get(i);
+                lockedSeats.put(Long.valueOf(lockKey.substring(lockKey.lastIndexOf(':') + 1)), owner);
+            }
+        }
+        return lockedSeats;
+    }
+    
+    /**
+     * Get every show that has seat lock keys, by scanning the lock key space
+     * Meant for background reconciliation, not for the request path.
+     * 
+     * @return Show IDs with at least one seat lock key (or show hash in SHOW_HASH mode)
+     */
+    @Override
+    public Set<Long> getLockedShowIds() {
+        String keyPrefix = lockProperties.getKeyPrefix() + ":";
+        ScanOptions scanOptions = ScanOptions.scanOptions()
+                .match(keyPrefix + "*")
+                .count(1000)
+                .build();
+        Set<Long> showIds = new HashSet<>();
+        try (Cursor<String> cursor = redisTemplate.scan(scanOptions)) {
+            cursor.forEachRemaining(lockKey -> {
+                // lock:seat:showId:seatId or lock:seat:show:showId
+                String suffix = lockKey.substring(keyPrefix.length());
+                int separator = suffix.indexOf(':');
+                String showId = suffix.startsWith("show:") ? suffix.substring("show:".length())
+                        : separator > 0 ? suffix.substring(0, separator) : suffix;
+                try {
+                    showIds.add(Long.valueOf(showId));
+                } catch (NumberFormatException e) {
+                    log.debug("Ignoring unexpected key {} under the seat lock prefix", lockKey);
+                }
+            });
+        }
+        return showIds;
+    }
+    
+    /**
+     * Get the lock owner of many seats in a show in one batched command
+     * KEY_PER_SEAT reads every seat key with a single MGET; SHOW_HASH reads the show hash once.
+     * 
+     * @param showId The show ID
+     * @param seatIds List of seat IDs to check
+     * @return Lock owner (booking lock value) per seat ID in request order, null for unlocked seats
+     */
+    @Override
+    public Map<Long, String> getSeatLockOwners(Long showId, List<Long> seatIds) {
+        Map<Long, String> owners = new LinkedHashMap<>();
+        if (seatIds == null || seatIds.isEmpty()) {
+            return owners;
+        }
+        if (isShowHashMode()) {
+            Map<Long, String> heldSeats = readShowHeldSeats(showId, seatIds);
+            seatIds.forEach(seatId -> owners.put(seatId, heldSeats.get(seatId)));
+            return owners;
+        }
+        
+        byte[][] lockKeys = new byte[seatIds.size()][];
+        for (int i = 0; i < lockKeys.length; i++) {
+            lockKeys[i] = keyCodec.seatKey(showId, seatIds.get(i));
+        }
+        List<byte[]> values = redisTemplate.execute((RedisCallback<List<byte[]>>) connection ->
+                connection.stringCommands().mGet(lockKeys));
+        for (int i = 0; i < seatIds.size(); i++) {
+            owners.put(seatIds.get(i), values != null ? decode(values.get(i)) : null);
+        }
+        return owners;
+    }
+    
+    private Map<Long, String> readShowHeldSeats(Long showId, List<Long> seatIds) {
+        byte[][] keysAndArgs = showKeyAndSeatArgs(showId, seatIds);
+        List<Object> entries = redisTemplate.execute((RedisCallback<List<Object>>) connection ->
+                SeatLockScripts.eval(connection, SeatLockScripts.SHOW_HELD_SEATS_SCRIPT, 1, keysAndArgs));
+        Map<Long, String> heldSeats = new LinkedHashMap<>();
+        if (entries != null) {
+            for (int i = 0; i + 1 < entries.size(); i += 2) {
+                heldSeats.put(Long.valueOf(decode(entries.get(i))), decode(entries.get(i + 1)));
+            }
+        }
+        return heldSeats;
+    }
+    
+    /**
+     * Script keys and arguments for KEY_PER_SEAT: one key per seat followed by the given arguments
+     */
+    private byte[][] seatKeysAndArgs(Long showId, List<Long> seatIds, byte[]... args) {
+        byte[][] keysAndArgs = new byte[seatIds.size() + args.length][];
+        for (int i = 0; i < seatIds.size(); i++) {
+            keysAndArgs[i] = keyCodec.seatKey(showId, seatIds.get(i));
+        }
+        System.arraycopy(args, 0, keysAndArgs, seatIds.size(), args.length);
+        return keysAndArgs;
+    }
+    
+    /**
+     * Script keys and arguments for SHOW_HASH: the show hash key, the given arguments, then the seat IDs
+     */
+    private byte[][] showKeyAndSeatArgs(Long showId, List<Long> seatIds, byte[]... args) {
+        byte[][] keysAndArgs = new byte[1 + args.length + seatIds.size()][];
+        keysAndArgs[0] = keyCodec.showKey(showId);
+        System.arraycopy(args, 0, keysAndArgs, 1, args.length);
+        for (int i = 0; i < seatIds.size(); i++) {
+            keysAndArgs[1 + args.length + i] = SeatLockKeyCodec.decimal(seatIds.get(i));
+        }
+        return keysAndArgs;
+    }
+    
+    private static String decode(Object value) {
+        if (value == null) {
+            return null;
+        }
+        return value instanceof byte[] bytes ? new String(bytes, StandardCharsets.UTF_8) : String.valueOf(value);
+    }
+    
+    private boolean isShowHashMode() {
+        return lockProperties.getMode() == SeatLockMode.SHOW_HASH;
     }
 }
-
@@ -0,0 +1,171 @@
+package com.bookticket.booking_service.service;
+
+import com.bookticket.booking_service.dto.SeatContentionEntry;
+import com.bookticket.booking_service.dto.SeatContentionReport;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Sliding-window heat map of seat lock conflicts per show and per seat
+ * Conflicts, and lock attempts per show, are counted in fixed time buckets; reads merge the buckets
+ * still inside the window. Attempts are not tracked per seat, as that would cover every seat booked.
+ * Show and seat IDs are kept here rather than as metric tags, so Prometheus cardinality stays bounded.
+ */
+@Service
+public class SeatContentionTracker {
+
+    private static final Duration BUCKET_SIZE = Duration.ofSeconds(30);
+    private static final int BUCKET_COUNT = 10; // 5 minute window
+    private static final int MAX_KEYS_PER_BUCKET = 10_000;
+
+    private final AtomicReferenceArray<Bucket> buckets = new AtomicReferenceArray<>(BUCKET_COUNT);
+
+    /**
+     * Record a successful lock attempt on a show
+     */
+    public void recordAttempt(Long showId) {
+        ShowCounts counts = currentBucket().showCounts(showId);
+        if (counts != null) {
+            counts.attempts.increment();
+        }
+    }
+
+    /**
+     * Record a lock attempt on a show that conflicted on the given seats
+     */
+    public void recordConflict(Long showId, List<Long> seatIds) {
+        Bucket bucket = currentBucket();
+        ShowCounts counts = bucket.showCounts(showId);
+        if (counts != null) {
+            counts.attempts.increment();
+            counts.conflictedAttempts.increment();
+            counts.conflictedSeats.add(seatIds.size());
+        }
+        for (Long seatId : seatIds) {
+            bucket.increment(bucket.seats, new SeatKey(showId, seatId), 1);
+        }
+    }
+
+    /**
+     * Get the most contended shows and seats within the sliding window
+     *
+     * @param limit Maximum number of shows and of seats to return
+     */
+    public SeatContentionReport getTopContended(int limit) {
+        long currentEpoch = currentEpoch();
+        Map<Long, ShowTotals> showTotals = new HashMap<>();
+        Map<SeatKey, Long> seatTotals = new HashMap<>();
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            Bucket bucket = buckets.get(i);
+            if (bucket == null || bucket.epoch <= currentEpoch - BUCKET_COUNT) {
+                continue;
+            }
+            bucket.shows.forEach((showId, counts) -> {
+                ShowTotals totals = showTotals.computeIfAbsent(showId, id -> new ShowTotals());
+                totals.attempts += counts.attempts.sum();
+                totals.conflictedAttempts += counts.conflictedAttempts.sum();
+                totals.conflictedSeats += counts.conflictedSeats.sum();
+            });
+            bucket.seats.forEach((seatKey, count) -> seatTotals.merge(seatKey, count.sum(), Long::sum));
+        }
+
+        List<SeatContentionEntry> topShows = showTotals.entrySet().stream()
+                .filter(entry -> entry.getValue().conflictedSeats > 0)
+                .sorted(Comparator.comparingLong(
+                        (Map.Entry<Long, ShowTotals> entry) -> entry.getValue().conflictedSeats).reversed())
+                .limit(limit)
+                .map(entry -> entry.getValue().toEntry(entry.getKey()))
+                .toList();
+        List<SeatContentionEntry> topSeats = seatTotals.entrySet().stream()
+                .sorted(Map.Entry.<SeatKey, Long>comparingByValue().reversed())
+                .limit(limit)
+                .map(entry -> new SeatContentionEntry(entry.getKey().showId(), entry.getKey().seatId(),
+                        entry.getValue(), null, null))
+                .toList();
+        return new SeatContentionReport(BUCKET_SIZE.multipliedBy(BUCKET_COUNT).toSeconds(), topShows, topSeats);
+    }
+
+    private Bucket currentBucket() {
+        long epoch = currentEpoch();
+        int index = (int) (epoch % BUCKET_COUNT);
+        while (true) {
+            Bucket bucket = buckets.get(index);
+            if (bucket != null && bucket.epoch == epoch) {
+                return bucket;
+            }
+            Bucket fresh = new Bucket(epoch);
+            if (buckets.compareAndSet(index, bucket, fresh)) {
+                return fresh;
+            }
+        }
+    }
+
+    private static long currentEpoch() {
+        return System.currentTimeMillis() / BUCKET_SIZE.toMillis();
+    }
+
+    private record SeatKey(Long showId, Long seatId) {
+    }
+
+    private static final class ShowCounts {
+        private final LongAdder attempts = new LongAdder();
+        private final LongAdder conflictedAttempts = new LongAdder();
+        private final LongAdder conflictedSeats = new LongAdder();
+    }
+
+    private static final class ShowTotals {
+        private long attempts;
+        private long conflictedAttempts;
+        private long conflictedSeats;
+
+        private SeatContentionEntry toEntry(Long showId) {
+            return new SeatContentionEntry(showId, null, conflictedSeats, attempts,
+                    attempts > 0 ? (double) conflictedAttempts / attempts : 0.0);
+        }
+    }
+
+    private static final class Bucket {
+        private final long epoch;
+        private final Map<Long, ShowCounts> shows = new ConcurrentHashMap<>();
+        private final Map<SeatKey, LongAdder> seats = new ConcurrentHashMap<>();
+
+        private Bucket(long epoch) {
+            this.epoch = epoch;
+        }
+
+        /**
+         * Counters of a show, or null when the bucket is full
+         */
+        private ShowCounts showCounts(Long showId) {
+            ShowCounts counts = shows.get(showId);
+            if (counts == null) {
+                // Bound memory during extreme spikes - new keys beyond the cap are dropped
+                if (shows.size() >= MAX_KEYS_PER_BUCKET) {
+                    return null;
+                }
+                counts = shows.computeIfAbsent(showId, id -> new ShowCounts());
+            }
+            return counts;
+        }
+
+        private <K> void increment(Map<K, LongAdder> counts, K key, long amount) {
+            LongAdder count = counts.get(key);
+            if (count == null) {
+                // Bound memory during extreme spikes - new keys beyond the cap are dropped
+                if (counts.size() >= MAX_KEYS_PER_BUCKET) {
+                    return;
+                }
+                count = counts.computeIfAbsent(key, k -> new LongAdder());
+            }
+            count.add(amount);
+        }
+    }
+}
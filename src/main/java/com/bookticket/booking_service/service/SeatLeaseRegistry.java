@@ -0,0 +1,66 @@
+package com.bookticket.booking_service.service;
+
+import com.bookticket.booking_service.configuration.SeatLockLeaseProperties;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Tracks the seat lock leases of PENDING bookings created on this node
+ * The lease watchdog renews every registered lease in one batch until the booking
+ * leaves PENDING or its payment session expires
+ */
+@Service
+@Slf4j
+public class SeatLeaseRegistry {
+
+    private final SeatLockLeaseProperties leaseProperties;
+    private final Map<Long, SeatLease> leases = new ConcurrentHashMap<>();
+
+    public SeatLeaseRegistry(SeatLockLeaseProperties leaseProperties) {
+        this.leaseProperties = leaseProperties;
+    }
+
+    /**
+     * Start renewing the seat locks of a booking
+     *
+     * @param bookingId The booking ID that owns the locks
+     * @param showId The show ID
+     * @param seatIds Locked seat IDs
+     * @param sessionExpiresAt Unix timestamp (seconds) when the payment session expires, or null if unknown
+     */
+    public void register(Long bookingId, Long showId, List<Long> seatIds, Long sessionExpiresAt) {
+        if (!leaseProperties.isEnabled()) {
+            return;
+        }
+        Instant renewUntil = Instant.now().plus(leaseProperties.getMaxHold());
+        if (sessionExpiresAt != null && Instant.ofEpochSecond(sessionExpiresAt).isBefore(renewUntil)) {
+            renewUntil = Instant.ofEpochSecond(sessionExpiresAt);
+        }
+        leases.put(bookingId, new SeatLease(bookingId, showId, List.copyOf(seatIds), renewUntil));
+        log.debug("Registered seat lease for booking {} until {}", bookingId, renewUntil);
+    }
+
+    /**
+     * Stop renewing the seat locks of a booking
+     */
+    public void remove(Long bookingId) {
+        if (leases.remove(bookingId) != null) {
+            log.debug("Removed seat lease for booking {}", bookingId);
+        }
+    }
+
+    public List<SeatLease> getActiveLeases() {
+        return List.copyOf(leases.values());
+    }
+
+    /**
+     * Seat locks held by one booking, renewed until renewUntil
+     */
+    public record SeatLease(Long bookingId, Long showId, List<Long> seatIds, Instant renewUntil) {
+    }
+}
@@ -0,0 +1,101 @@
+package com.bookticket.booking_service.service;
+
+import com.bookticket.booking_service.configuration.SeatLockLeaseProperties;
+import com.bookticket.booking_service.entity.Booking;
+import com.bookticket.booking_service.enums.BookingStatus;
+import com.bookticket.booking_service.repository.BookingRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Scheduled service that renews the seat lock leases of all PENDING bookings on this node
+ * Renewals are batched into one Redis call per run. Bookings whose payment session has
+ * expired, or whose locks were lost, are failed immediately so their seats return to sale.
+ */
+@Service
+@Slf4j
+public class SeatLeaseWatchdog {
+
+    private final SeatLeaseRegistry seatLeaseRegistry;
+    private final SeatLockLeaseProperties leaseProperties;
+    private final SeatLockBackend seatLockBackend;
+    private final BookingRepository bookingRepository;
+    private final BookingService bookingService;
+
+    public SeatLeaseWatchdog(SeatLeaseRegistry seatLeaseRegistry,
+                             SeatLockLeaseProperties leaseProperties,
+                             SeatLockBackend seatLockBackend,
+                             BookingRepository bookingRepository,
+                             BookingService bookingService) {
+        this.seatLeaseRegistry = seatLeaseRegistry;
+        this.leaseProperties = leaseProperties;
+        this.seatLockBackend = seatLockBackend;
+        this.bookingRepository = bookingRepository;
+        this.bookingService = bookingService;
+    }
+
+    /**
+     * Scheduled job to renew active seat leases
+     * Runs every booking.redis.lock.lease.renew-interval-ms (30 seconds by default)
+     */
+    @Scheduled(fixedDelayString = "${booking.redis.lock.lease.renew-interval-ms:30000}")
+    public void renewLeases() {
+        if (!leaseProperties.isEnabled()) {
+            return;
+        }
+        List<SeatLeaseRegistry.SeatLease> leases = seatLeaseRegistry.getActiveLeases();
+        if (leases.isEmpty()) {
+            return;
+        }
+
+        Map<Long, BookingStatus> statuses = bookingRepository.findAllById(
+                        leases.stream().map(SeatLeaseRegistry.SeatLease::bookingId).toList())
+                .stream()
+                .collect(Collectors.toMap(Booking::getId, Booking::getStatus));
+
+        Instant now = Instant.now();
+        List<SeatLeaseRegistry.SeatLease> renewable = new ArrayList<>();
+        List<Long> expired = new ArrayList<>();
+        for (SeatLeaseRegistry.SeatLease lease : leases) {
+            if (statuses.get(lease.bookingId()) != BookingStatus.PENDING) {
+                // Booking completed or failed elsewhere - its locks are already released
+                seatLeaseRegistry.remove(lease.bookingId());
+            } else if (!now.isBefore(lease.renewUntil())) {
+                expired.add(lease.bookingId());
+            } else {
+                renewable.add(lease);
+            }
+        }
+
+        Set<Long> lost = Set.of();
+        try {
+            lost = seatLockBackend.renewSeatLocks(renewable, leaseProperties.getTtl());
+        } catch (Exception e) {
+            // Leave the leases registered - the next run retries before the locks expire
+            log.error("Failed to renew seat leases: {}", e.getMessage(), e);
+        }
+
+        for (Long bookingId : expired) {
+            expire(bookingId, "Payment session expired");
+        }
+        for (Long bookingId : lost) {
+            expire(bookingId, "Seat lock lease lost");
+        }
+    }
+
+    private void expire(Long bookingId, String reason) {
+        try {
+            bookingService.expirePendingBooking(bookingId, reason);
+        } catch (Exception e) {
+            log.error("Failed to expire booking {}: {}", bookingId, e.getMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.bookticket.booking_service.service;
+
+import com.bookticket.booking_service.configuration.RedisLockProperties;
+import com.bookticket.booking_service.dto.SeatLockStatusResponse;
+import com.bookticket.booking_service.dto.ShowSeatLockStatusResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Service for inspecting seat lock state in bulk
+ * Used by internal admin tooling (seat maps, show audits)
+ */
+@Service
+@Slf4j
+public class SeatLockAdminService {
+
+    private final SeatLockBackend seatLockBackend;
+    private final ReactiveRedisLockService reactiveLockService;
+    private final RedisLockProperties lockProperties;
+
+    public SeatLockAdminService(SeatLockBackend seatLockBackend,
+                                ObjectProvider<ReactiveRedisLockService> reactiveLockService,
+                                RedisLockProperties lockProperties) {
+        this.seatLockBackend = seatLockBackend;
+        this.reactiveLockService = reactiveLockService.getIfAvailable();
+        this.lockProperties = lockProperties;
+    }
+
+    /**
+     * Get lock state and owner booking for specific seats in a show
+     * Non-blocking when booking.redis.lock.reactive-admin is enabled, otherwise read on the calling thread.
+     */
+    public Mono<ShowSeatLockStatusResponse> getSeatLockStatuses(Long showId, List<Long> seatIds) {
+        if (reactiveLockService == null) {
+            return Mono.fromSupplier(() -> toResponse(showId, seatLockBackend.getSeatLockOwners(showId, seatIds)));
+        }
+        return reactiveLockService.getSeatLockOwners(showId, seatIds)
+                .collectMap(Map.Entry::getKey, Map.Entry::getValue)
+                .map(lockedSeats -> {
+                    // Unlocked seats are reported too, in request order
+                    Map<Long, String> owners = new LinkedHashMap<>();
+                    seatIds.forEach(seatId -> owners.put(seatId, lockedSeats.get(seatId)));
+                    return toResponse(showId, owners);
+                });
+    }
+
+    /**
+     * Get lock state and owner booking for every locked seat in a show
+     */
+    public ShowSeatLockStatusResponse getLockedSeats(Long showId) {
+        return toResponse(showId, seatLockBackend.getLockedSeats(showId));
+    }
+
+    private ShowSeatLockStatusResponse toResponse(Long showId, Map<Long, String> owners) {
+        List<SeatLockStatusResponse> seats = owners.entrySet().stream()
+                .map(entry -> new SeatLockStatusResponse(
+                        entry.getKey(),
+                        entry.getValue() != null,
+                        lockProperties.parseBookingLockValue(entry.getValue())
+                ))
+                .toList();
+        int lockedCount = (int) seats.stream()
+                .filter(SeatLockStatusResponse::locked)
+                .count();
+        return new ShowSeatLockStatusResponse(showId, lockedCount, seats);
+    }
+}
@@ -0,0 +1,84 @@
+package com.bookticket.booking_service.service;
+
+import com.bookticket.booking_service.enums.LockReleaseOutcome;
+import com.bookticket.booking_service.enums.LockReleaseReason;
+import com.bookticket.booking_service.exception.SeatLockException;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Seat lock backend used by the booking flow
+ * Implementations: {@link RedisLockService} (distributed, default) and
+ * {@link InMemorySeatLockBackend} (single node and tests), selected with booking.seat-lock.backend
+ */
+public interface SeatLockBackend {
+
+    /**
+     * Lock all seats of a booking, or none of them
+     *
+     * @return Lock keys (or identifiers) of the locked seats
+     * @throws SeatLockException if any seat is already locked by another booking
+     */
+    List<String> acquireSeatsLock(Long showId, List<Long> seatIds, Long bookingId);
+
+    /**
+     * Release the locks a booking holds; locks owned by another booking are left untouched
+     * A backend that cannot be reached logs the failure and returns without releasing.
+     *
+     * @return Release outcome per seat ID, in request order (empty if the backend could not be reached)
+     */
+    Map<Long, LockReleaseOutcome> releaseSeatsLock(Long showId, List<Long> seatIds, Long bookingId,
+                                                   LockReleaseReason reason);
+
+    /**
+     * Release the locks a booking holds, failing instead of returning when the release cannot be confirmed
+     * For callers that retry until the locks are released, such as the saga compensations.
+     *
+     * @return Release outcome for every requested seat ID, in request order
+     * @throws RuntimeException if the backend could not be reached or did not answer for every seat
+     */
+    Map<Long, LockReleaseOutcome> releaseSeatsLockOrThrow(Long showId, List<Long> seatIds, Long bookingId,
+                                                          LockReleaseReason reason);
+
+    /**
+     * Extend the locks of many bookings in one batch
+     *
+     * @return IDs of bookings that lost at least one of their seat locks
+     */
+    Set<Long> renewSeatLocks(Collection<SeatLeaseRegistry.SeatLease> leases, Duration ttl);
+
+    boolean isSeatLocked(Long showId, Long seatId);
+
+    /**
+     * @return Lock owner (booking lock value) of the seat, or null if not locked
+     */
+    String getSeatLockOwner(Long showId, Long seatId);
+
+    /**
+     * @return Lock owner per seat ID in request order, null for unlocked seats
+     */
+    Map<Long, String> getSeatLockOwners(Long showId, List<Long> seatIds);
+
+    /**
+     * @return Lock owner per currently locked seat of the show
+     */
+    Map<Long, String> getLockedSeats(Long showId);
+
+    /**
+     * @return IDs of the shows that currently have at least one seat lock entry
+     */
+    Set<Long> getLockedShowIds();
+
+    /**
+     * Fail fast, without a remote call, if any requested seat is already known to be held
+     * Backends without a local view of remote locks accept every request here.
+     *
+     * @throws SeatLockException if any seat is known to be held
+     */
+    default void rejectKnownHeldSeats(Long showId, List<Long> seatIds) {
+    }
+}
@@ -0,0 +1,131 @@
+package com.bookticket.booking_service.service;
+
+import com.bookticket.booking_service.configuration.RedisLockProperties;
+
+import java.nio.charset.StandardCharsets;
+import java.util.AbstractList;
+import java.util.List;
+
+/**
+ * Byte-level encoder for seat lock keys and values
+ * Produces the same bytes as the RedisLockProperties generators after UTF-8 encoding, but the
+ * prefixes are encoded once and numeric IDs are written straight into an exactly sized array,
+ * so each key costs a single allocation instead of a formatter, a String and its byte copy.
+ * Arrays are never reused: the Redis driver keeps references to command arguments until they are written.
+ */
+final class SeatLockKeyCodec {
+
+    private static final byte[] LONG_MIN_VALUE = String.valueOf(Long.MIN_VALUE).getBytes(StandardCharsets.US_ASCII);
+
+    private final RedisLockProperties lockProperties;
+    private final byte[] seatKeyPrefix;
+    private final byte[] showKeyPrefix;
+    private final byte[] bookingValuePrefix;
+
+    SeatLockKeyCodec(RedisLockProperties lockProperties) {
+        this.lockProperties = lockProperties;
+        this.seatKeyPrefix = (lockProperties.getKeyPrefix() + ":").getBytes(StandardCharsets.UTF_8);
+        this.showKeyPrefix = (lockProperties.getKeyPrefix() + ":show:").getBytes(StandardCharsets.UTF_8);
+        this.bookingValuePrefix = (lockProperties.getBookingPrefix() + ":").getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Encode a seat lock key
+     * Format: lock:seat:showId:seatId
+     */
+    byte[] seatKey(long showId, long seatId) {
+        int showDigits = stringSize(showId);
+        byte[] key = new byte[seatKeyPrefix.length + showDigits + 1 + stringSize(seatId)];
+        System.arraycopy(seatKeyPrefix, 0, key, 0, seatKeyPrefix.length);
+        int end = seatKeyPrefix.length + showDigits;
+        writeDigits(showId, key, end);
+        key[end] = ':';
+        writeDigits(seatId, key, key.length);
+        return key;
+    }
+
+    /**
+     * Encode the per-show seat lock hash key
+     * Format: lock:seat:show:showId
+     */
+    byte[] showKey(long showId) {
+        return withPrefix(showKeyPrefix, showId);
+    }
+
+    /**
+     * Encode a booking lock value
+     * Format: booking:bookingId
+     */
+    byte[] bookingValue(long bookingId) {
+        return withPrefix(bookingValuePrefix, bookingId);
+    }
+
+    /**
+     * Encode a number as a decimal script argument
+     */
+    static byte[] decimal(long value) {
+        byte[] bytes = new byte[stringSize(value)];
+        writeDigits(value, bytes, bytes.length);
+        return bytes;
+    }
+
+    /**
+     * Seat lock keys as strings, formatted only when an element is actually read
+     * Callers of acquireSeatsLock usually just check the size of the returned list.
+     */
+    List<String> seatKeyStrings(Long showId, List<Long> seatIds) {
+        return new AbstractList<>() {
+            @Override
+            public String get(int index) {
+                return lockProperties.generateSeatLockKey(showId, seatIds.get(index));
+            }
+
+            @Override
+            public int size() {
+                return seatIds.size();
+            }
+        };
+    }
+
+    private static byte[] withPrefix(byte[] prefix, long value) {
+        byte[] bytes = new byte[prefix.length + stringSize(value)];
+        System.arraycopy(prefix, 0, bytes, 0, prefix.length);
+        writeDigits(value, bytes, bytes.length);
+        return bytes;
+    }
+
+    /**
+     * Number of characters in the decimal representation of a long
+     */
+    static int stringSize(long value) {
+        if (value == Long.MIN_VALUE) {
+            return LONG_MIN_VALUE.length;
+        }
+        int size = value < 0 ? 2 : 1;
+        long remaining = Math.abs(value);
+        while (remaining >= 10) {
+            remaining /= 10;
+            size++;
+        }
+        return size;
+    }
+
+    /**
+     * Write the decimal digits of a long backwards, ending just before the given index
+     */
+    private static void writeDigits(long value, byte[] target, int end) {
+        if (value == Long.MIN_VALUE) {
+            System.arraycopy(LONG_MIN_VALUE, 0, target, end - LONG_MIN_VALUE.length, LONG_MIN_VALUE.length);
+            return;
+        }
+        long remaining = Math.abs(value);
+        int position = end;
+        do {
+            target[--position] = (byte) ('0' + remaining % 10);
+            remaining /= 10;
+        } while (remaining != 0);
+        if (value < 0) {
+            target[--position] = '-';
+        }
+    }
+}
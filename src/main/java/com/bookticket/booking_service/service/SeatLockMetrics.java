@@ -0,0 +1,89 @@
+package com.bookticket.booking_service.service;
+
+import com.bookticket.booking_service.enums.LockReleaseReason;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Micrometer metrics for seat lock contention
+ * Tags are limited to small fixed sets (outcome, reason) to keep cardinality bounded;
+ * per-show and per-seat contention is tracked by {@link SeatContentionTracker} instead.
+ */
+@Service
+public class SeatLockMetrics {
+
+    private final MeterRegistry meterRegistry;
+    private final SeatContentionTracker contentionTracker;
+    private final DistributionSummary seatsPerAttempt;
+    private final Counter conflictedSeats;
+
+    // Acquire time per booking, for hold duration; bounded so lost releases cannot leak memory
+    private final Cache<Long, Long> acquiredAtNanos = Caffeine.newBuilder()
+            .maximumSize(100_000)
+            .expireAfterWrite(Duration.ofHours(1))
+            .build();
+
+    public SeatLockMetrics(MeterRegistry meterRegistry, SeatContentionTracker contentionTracker) {
+        this.meterRegistry = meterRegistry;
+        this.contentionTracker = contentionTracker;
+        this.seatsPerAttempt = DistributionSummary.builder("booking.seat.lock.seats")
+                .description("Seats requested per lock attempt")
+                .register(meterRegistry);
+        this.conflictedSeats = Counter.builder("booking.seat.lock.conflicted.seats")
+                .description("Seats found already locked by another booking")
+                .register(meterRegistry);
+    }
+
+    public void recordAcquired(Long showId, Long bookingId, int seatCount) {
+        attempts("acquired").increment();
+        contentionTracker.recordAttempt(showId);
+        seatsPerAttempt.record(seatCount);
+        acquiredAtNanos.put(bookingId, System.nanoTime());
+    }
+
+    public void recordConflict(Long showId, List<Long> conflictedSeatIds, int seatCount) {
+        attempts("conflict").increment();
+        seatsPerAttempt.record(seatCount);
+        conflictedSeats.increment(conflictedSeatIds.size());
+        contentionTracker.recordConflict(showId, conflictedSeatIds);
+    }
+
+    public void recordAcquireError() {
+        attempts("error").increment();
+    }
+
+    /**
+     * Record a lock release and, if the acquire happened on this node, how long the seats were held
+     */
+    public void recordReleased(Long bookingId, LockReleaseReason reason) {
+        Counter.builder("booking.seat.lock.releases")
+                .description("Seat lock releases by reason")
+                .tag("reason", reason.name())
+                .register(meterRegistry)
+                .increment();
+        Long acquiredAt = acquiredAtNanos.getIfPresent(bookingId);
+        if (acquiredAt != null) {
+            acquiredAtNanos.invalidate(bookingId);
+            Timer.builder("booking.seat.lock.hold")
+                    .description("Time seats were held from acquire to release")
+                    .tag("reason", reason.name())
+                    .register(meterRegistry)
+                    .record(Duration.ofNanos(System.nanoTime() - acquiredAt));
+        }
+    }
+
+    private Counter attempts(String outcome) {
+        return Counter.builder("booking.seat.lock.attempts")
+                .description("Seat lock acquire attempts by outcome")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,183 @@
+package com.bookticket.booking_service.service;
+
+import com.bookticket.booking_service.configuration.SeatLockNearCacheProperties;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * In-process near-cache of seats currently held by a Redis seat lock
+ * Lets createBooking reject obviously held seats before any remote call.
+ * Kept current across instances by publishing lock acquire/release events over Redis pub/sub.
+ * Entries are only a hint: a miss always falls through to the authoritative Redis lock.
+ *
+ * Event format:
+ *   A|showId|expiresAtMillis|seatId,seatId,...  (seats locked until expiresAtMillis)
+ *   R|showId|seatId,seatId,...                  (seats released)
+ */
+@Service
+@Slf4j
+public class SeatLockNearCache implements MessageListener {
+
+    private static final String ACQUIRED = "A";
+    private static final String RELEASED = "R";
+
+    private final StringRedisTemplate redisTemplate;
+    private final SeatLockNearCacheProperties properties;
+    private final Cache<String, Long> heldSeats;
+
+    public SeatLockNearCache(StringRedisTemplate redisTemplate, SeatLockNearCacheProperties properties) {
+        this.redisTemplate = redisTemplate;
+        this.properties = properties;
+        this.heldSeats = Caffeine.newBuilder()
+                .maximumSize(properties.getMaxSize())
+                .expireAfter(new HeldSeatExpiry(properties.getMaxStaleness().toMillis()))
+                .build();
+    }
+
+    public boolean isEnabled() {
+        return properties.isEnabled();
+    }
+
+    /**
+     * Find the seats of a request that are known to be held by another booking
+     *
+     * @param showId The show ID
+     * @param seatIds List of seat IDs requested
+     * @return Seat IDs currently cached as held (empty when the cache is disabled)
+     */
+    public List<Long> findHeldSeats(Long showId, List<Long> seatIds) {
+        if (!isEnabled()) {
+            return List.of();
+        }
+        long now = System.currentTimeMillis();
+        return seatIds.stream()
+                .filter(seatId -> {
+                    Long expiresAt = heldSeats.getIfPresent(cacheKey(showId, seatId));
+                    return expiresAt != null && expiresAt > now;
+                })
+                .toList();
+    }
+
+    /**
+     * Record seats that were locked and broadcast the event to other instances
+     */
+    public void onSeatsLocked(Long showId, List<Long> seatIds, long expiresAtMillis) {
+        if (!isEnabled() || seatIds.isEmpty()) {
+            return;
+        }
+        markHeld(showId, seatIds, expiresAtMillis);
+        publish(String.join("|", ACQUIRED, String.valueOf(showId), String.valueOf(expiresAtMillis), joinSeatIds(seatIds)));
+    }
+
+    /**
+     * Record seats found held by someone else during a failed lock attempt
+     * Local only: the owning instance has already broadcast the lock
+     */
+    public void onSeatsConflicted(Long showId, List<Long> seatIds, long expiresAtMillis) {
+        if (!isEnabled() || seatIds.isEmpty()) {
+            return;
+        }
+        markHeld(showId, seatIds, expiresAtMillis);
+    }
+
+    /**
+     * Forget seats that are free again and broadcast the event to other instances
+     */
+    public void onSeatsReleased(Long showId, List<Long> seatIds) {
+        if (!isEnabled() || seatIds.isEmpty()) {
+            return;
+        }
+        markReleased(showId, seatIds);
+        publish(String.join("|", RELEASED, String.valueOf(showId), joinSeatIds(seatIds)));
+    }
+
+    /**
+     * Apply a lock event published by any instance (including this one)
+     */
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String body = new String(message.getBody(), StandardCharsets.UTF_8);
+        try {
+            String[] parts = body.split("\\|");
+            Long showId = Long.valueOf(parts[1]);
+            if (ACQUIRED.equals(parts[0])) {
+                markHeld(showId, parseSeatIds(parts[3]), Long.parseLong(parts[2]));
+            } else if (RELEASED.equals(parts[0])) {
+                markReleased(showId, parseSeatIds(parts[2]));
+            }
+        } catch (Exception e) {
+            log.warn("Ignoring malformed seat lock event '{}': {}", body, e.getMessage());
+        }
+    }
+
+    private void markHeld(Long showId, List<Long> seatIds, long expiresAtMillis) {
+        for (Long seatId : seatIds) {
+            heldSeats.put(cacheKey(showId, seatId), expiresAtMillis);
+        }
+    }
+
+    private void markReleased(Long showId, List<Long> seatIds) {
+        heldSeats.invalidateAll(seatIds.stream()
+                .map(seatId -> cacheKey(showId, seatId))
+                .toList());
+    }
+
+    private void publish(String event) {
+        try {
+            redisTemplate.convertAndSend(properties.getChannel(), event);
+        } catch (Exception e) {
+            // The near-cache is only a hint - other instances will fall back to Redis
+            log.warn("Failed to publish seat lock event: {}", e.getMessage());
+        }
+    }
+
+    private static String cacheKey(Long showId, Long seatId) {
+        return showId + ":" + seatId;
+    }
+
+    private static String joinSeatIds(List<Long> seatIds) {
+        return seatIds.stream()
+                .map(String::valueOf)
+                .collect(Collectors.joining(","));
+    }
+
+    private static List<Long> parseSeatIds(String seatIds) {
+        return Arrays.stream(seatIds.split(","))
+                .map(Long::valueOf)
+                .toList();
+    }
+
+    /**
+     * Expire each held seat when its lock expires, but never later than the configured max staleness
+     */
+    private record HeldSeatExpiry(long maxStalenessMillis) implements Expiry<String, Long> {
+
+        @Override
+        public long expireAfterCreate(String key, Long expiresAtMillis, long currentTime) {
+            long remainingMillis = Math.min(expiresAtMillis - System.currentTimeMillis(), maxStalenessMillis);
+            return TimeUnit.MILLISECONDS.toNanos(Math.max(remainingMillis, 0));
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, Long expiresAtMillis, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, expiresAtMillis, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, Long expiresAtMillis, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
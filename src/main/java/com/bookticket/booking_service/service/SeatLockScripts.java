@@ -0,0 +1,226 @@
+package com.bookticket.booking_service.service;
+
+import com.bookticket.booking_service.enums.LockReleaseOutcome;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.ReturnType;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * Lua scripts shared by the blocking and reactive seat lock services
+ * Every script runs atomically on the Redis server in a single round trip
+ */
+final class SeatLockScripts {
+
+    private SeatLockScripts() {
+    }
+
+    /**
+     * All-or-nothing seat lock script
+     * KEYS = seat lock keys, ARGV[1] = booking lock value, ARGV[2] = TTL in milliseconds
+     * Returns the 1-based indexes of the keys that are already locked (empty when all seats were locked)
+     */
+    static final DefaultRedisScript<List<Object>> ACQUIRE_SEATS_SCRIPT = listScript(
+            "local conflicts = {} " +
+            "for i, key in ipairs(KEYS) do " +
+            "  if redis.call('EXISTS', key) == 1 then table.insert(conflicts, i) end " +
+            "end " +
+            "if #conflicts > 0 then return conflicts end " +
+            "for _, key in ipairs(KEYS) do " +
+            "  redis.call('SET', key, ARGV[1], 'PX', ARGV[2]) " +
+            "end " +
+            "return conflicts"
+    );
+
+    /**
+     * Owner-checked seat unlock script
+     * KEYS = seat lock keys, ARGV[1] = booking lock value
+     * Returns one result per key: 1 = released, 0 = not locked, -1 = locked by another booking
+     */
+    static final DefaultRedisScript<List<Object>> RELEASE_SEATS_SCRIPT = listScript(
+            "local results = {} " +
+            "for i, key in ipairs(KEYS) do " +
+            "  local owner = redis.call('GET', key) " +
+            "  if not owner then results[i] = 0 " +
+            "  elseif owner == ARGV[1] then redis.call('DEL', key); results[i] = 1 " +
+            "  else results[i] = -1 end " +
+            "end " +
+            "return results"
+    );
+
+    /**
+     * All-or-nothing seat lock script for the per-show hash representation
+     * KEYS[1] = show lock hash, ARGV[1] = booking lock value, ARGV[2] = TTL in milliseconds, ARGV[3..] = seat IDs
+     * Each field holds "owner|expiresAtMillis"; fields whose lease has passed count as free.
+     * Returns the 1-based indexes of the seats that are already locked (empty when all seats were locked)
+     */
+    static final DefaultRedisScript<List<Object>> ACQUIRE_SHOW_SEATS_SCRIPT = listScript(
+            "local t = redis.call('TIME') " +
+            "local now = tonumber(t[1]) * 1000 + math.floor(tonumber(t[2]) / 1000) " +
+            "local conflicts = {} " +
+            "for i = 3, #ARGV do " +
+            "  local v = redis.call('HGET', KEYS[1], ARGV[i]) " +
+            "  if v and tonumber(string.sub(v, string.find(v, '|', 1, true) + 1)) > now then " +
+            "    table.insert(conflicts, i - 2) " +
+            "  end " +
+            "end " +
+            "if #conflicts > 0 then return conflicts end " +
+            "local lease = ARGV[1] .. '|' .. (now + tonumber(ARGV[2])) " +
+            "for i = 3, #ARGV do redis.call('HSET', KEYS[1], ARGV[i], lease) end " +
+            "if redis.call('PTTL', KEYS[1]) < tonumber(ARGV[2]) then redis.call('PEXPIRE', KEYS[1], ARGV[2]) end " +
+            "return conflicts"
+    );
+
+    /**
+     * Owner-checked seat unlock script for the per-show hash representation
+     * KEYS[1] = show lock hash, ARGV[1] = booking lock value, ARGV[2..] = seat IDs
+     * Returns one result per seat: 1 = released, 0 = not locked, -1 = locked by another booking
+     */
+    static final DefaultRedisScript<List<Object>> RELEASE_SHOW_SEATS_SCRIPT = listScript(
+            "local t = redis.call('TIME') " +
+            "local now = tonumber(t[1]) * 1000 + math.floor(tonumber(t[2]) / 1000) " +
+            "local results = {} " +
+            "for i = 2, #ARGV do " +
+            "  local v = redis.call('HGET', KEYS[1], ARGV[i]) " +
+            "  local result = 0 " +
+            "  if v then " +
+            "    local sep = string.find(v, '|', 1, true) " +
+            "    if tonumber(string.sub(v, sep + 1)) <= now then redis.call('HDEL', KEYS[1], ARGV[i]) " +
+            "    elseif string.sub(v, 1, sep - 1) == ARGV[1] then redis.call('HDEL', KEYS[1], ARGV[i]); result = 1 " +
+            "    else result = -1 end " +
+            "  end " +
+            "  results[i - 1] = result " +
+            "end " +
+            "return results"
+    );
+
+    /**
+     * Held seats script for the per-show hash representation
+     * KEYS[1] = show lock hash, ARGV = seat IDs to look up (all seats in the show when empty)
+     * Returns a flat list of seat ID / owner pairs for seats whose lease has not expired
+     */
+    static final DefaultRedisScript<List<Object>> SHOW_HELD_SEATS_SCRIPT = listScript(
+            "local t = redis.call('TIME') " +
+            "local now = tonumber(t[1]) * 1000 + math.floor(tonumber(t[2]) / 1000) " +
+            "local entries = {} " +
+            "if #ARGV > 0 then " +
+            "  local values = redis.call('HMGET', KEYS[1], unpack(ARGV)) " +
+            "  for i = 1, #ARGV do " +
+            "    if values[i] then table.insert(entries, ARGV[i]); table.insert(entries, values[i]) end " +
+            "  end " +
+            "else " +
+            "  entries = redis.call('HGETALL', KEYS[1]) " +
+            "end " +
+            "local held = {} " +
+            "for i = 1, #entries, 2 do " +
+            "  local v = entries[i + 1] " +
+            "  local sep = string.find(v, '|', 1, true) " +
+            "  if tonumber(string.sub(v, sep + 1)) > now then " +
+            "    table.insert(held, entries[i]); table.insert(held, string.sub(v, 1, sep - 1)) " +
+            "  end " +
+            "end " +
+            "return held"
+    );
+
+    /**
+     * Owner-checked lease renewal script
+     * KEYS = seat lock keys, ARGV[1] = TTL in milliseconds, ARGV[i + 1] = expected lock value of KEYS[i]
+     * Returns one result per key: 1 = renewed, 0 = no longer held by the expected owner
+     */
+    static final DefaultRedisScript<List<Object>> RENEW_SEATS_SCRIPT = listScript(
+            "local results = {} " +
+            "for i, key in ipairs(KEYS) do " +
+            "  if redis.call('GET', key) == ARGV[i + 1] then " +
+            "    redis.call('PEXPIRE', key, ARGV[1]); results[i] = 1 " +
+            "  else results[i] = 0 end " +
+            "end " +
+            "return results"
+    );
+
+    /**
+     * Owner-checked lease renewal script for the per-show hash representation
+     * KEYS[1] = show lock hash, ARGV[1] = TTL in milliseconds, ARGV[2..] = seat ID / expected lock value pairs
+     * Returns one result per seat: 1 = renewed, 0 = no longer held by the expected owner
+     */
+    static final DefaultRedisScript<List<Object>> RENEW_SHOW_SEATS_SCRIPT = listScript(
+            "local t = redis.call('TIME') " +
+            "local now = tonumber(t[1]) * 1000 + math.floor(tonumber(t[2]) / 1000) " +
+            "local lease = now + tonumber(ARGV[1]) " +
+            "local results = {} " +
+            "for i = 2, #ARGV, 2 do " +
+            "  local v = redis.call('HGET', KEYS[1], ARGV[i]) " +
+            "  local result = 0 " +
+            "  if v then " +
+            "    local sep = string.find(v, '|', 1, true) " +
+            "    if string.sub(v, 1, sep - 1) == ARGV[i + 1] and tonumber(string.sub(v, sep + 1)) > now then " +
+            "      redis.call('HSET', KEYS[1], ARGV[i], ARGV[i + 1] .. '|' .. lease); result = 1 " +
+            "    end " +
+            "  end " +
+            "  table.insert(results, result) " +
+            "end " +
+            "if redis.call('PTTL', KEYS[1]) < tonumber(ARGV[1]) then redis.call('PEXPIRE', KEYS[1], ARGV[1]) end " +
+            "return results"
+    );
+
+    /**
+     * Script whose reply is a Lua table: integer replies come back as Long, bulk replies as byte[]
+     */
+    @SuppressWarnings("unchecked")
+    private static DefaultRedisScript<List<Object>> listScript(String script) {
+        return new DefaultRedisScript<>(script, (Class<List<Object>>) (Class<?>) List.class);
+    }
+
+    /**
+     * Build script arguments: leading string arguments followed by the seat IDs
+     */
+    static Object[] toScriptArgs(List<String> leadingArgs, List<Long> seatIds) {
+        Object[] args = new Object[leadingArgs.size() + seatIds.size()];
+        for (int i = 0; i < leadingArgs.size(); i++) {
+            args[i] = leadingArgs.get(i);
+        }
+        for (int i = 0; i < seatIds.size(); i++) {
+            args[leadingArgs.size() + i] = String.valueOf(seatIds.get(i));
+        }
+        return args;
+    }
+
+    /**
+     * Run a script with pre-encoded keys and arguments, bypassing the template serializers
+     * Tries EVALSHA first and falls back to EVAL when the script is not cached on the server yet.
+     * Integer replies come back as Long, bulk replies as byte[].
+     */
+    static List<Object> eval(RedisConnection connection, RedisScript<?> script, int numKeys, byte[]... keysAndArgs) {
+        try {
+            return connection.scriptingCommands().evalSha(script.getSha1(), ReturnType.MULTI, numKeys, keysAndArgs);
+        } catch (Exception e) {
+            if (!isNoScriptError(e)) {
+                throw e;
+            }
+            return connection.scriptingCommands().eval(
+                    script.getScriptAsString().getBytes(StandardCharsets.UTF_8), ReturnType.MULTI, numKeys, keysAndArgs);
+        }
+    }
+
+    private static boolean isNoScriptError(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause.getMessage() != null && cause.getMessage().contains("NOSCRIPT")) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Map a release script result (1, 0, -1) to its outcome
+     */
+    static LockReleaseOutcome toReleaseOutcome(Object result) {
+        long value = result instanceof Number number ? number.longValue() : 0;
+        if (value > 0) {
+            return LockReleaseOutcome.RELEASED;
+        }
+        return value < 0 ? LockReleaseOutcome.NOT_OWNER : LockReleaseOutcome.NOT_LOCKED;
+    }
+}
@@ -0,0 +1,259 @@
+package com.bookticket.booking_service.service;
+
+import com.bookticket.booking_service.configuration.TheaterBatchingProperties;
+import com.bookticket.booking_service.dto.ValidSeatResponse;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Micro-batcher for one theater service seat operation
+ * Concurrent calls for the same show are merged into one request for the union of their seats,
+ * and each caller gets back the entries for its own seats. No extra threads are involved: the first
+ * caller of a batch waits for others to join, sends the request on its own thread, and hands the
+ * split response to the others. It only waits (up to the linger time) while another call for the
+ * same show is in progress; a call with no concurrent call for its show is sent at once, so batching
+ * adds no latency when there is nothing to merge.
+ * A request made for a single caller carries that caller's headers. A merged request belongs to
+ * several users, so it is sent with the booking service's own identity instead.
+ * If a merged request fails, every caller repeats its own request alone, so one bad booking
+ * cannot fail the others.
+ */
+@Slf4j
+final class TheaterSeatBatcher {
+
+    // Calls in progress per show, in striped slots so the array never grows; a collision only makes a call linger
+    private static final int IN_PROGRESS_SLOTS = 1024;
+
+    private final String operation;
+    private final boolean exclusiveSeats;
+    private final BiFunction<Long, List<Long>, List<ValidSeatResponse>> call;
+    private final TheaterBatchingProperties properties;
+    private final Map<Long, Batch> openBatches = new ConcurrentHashMap<>();
+    private final AtomicIntegerArray callsInProgress = new AtomicIntegerArray(IN_PROGRESS_SLOTS);
+    private final DistributionSummary batchCallers;
+    private final DistributionSummary batchFill;
+    private final Counter fallbacks;
+
+    /**
+     * @param operation Operation name, used in logs and as the metrics tag
+     * @param exclusiveSeats Never merge callers that share a seat (lock, book and release change seat state)
+     * @param call The single theater service request for a show and its seats
+     */
+    TheaterSeatBatcher(String operation, boolean exclusiveSeats,
+                       BiFunction<Long, List<Long>, List<ValidSeatResponse>> call,
+                       TheaterBatchingProperties properties, MeterRegistry meterRegistry) {
+        this.operation = operation;
+        this.exclusiveSeats = exclusiveSeats;
+        this.call = call;
+        this.properties = properties;
+        this.batchCallers = DistributionSummary.builder("booking.theater.batch.callers")
+                .description("Calls merged into one theater service request")
+                .tag("operation", operation)
+                .register(meterRegistry);
+        this.batchFill = DistributionSummary.builder("booking.theater.batch.fill")
+                .description("Callers per theater service request as a fraction of the maximum batch size")
+                .tag("operation", operation)
+                .register(meterRegistry);
+        this.fallbacks = Counter.builder("booking.theater.batch.fallbacks")
+                .description("Calls repeated alone after their merged request failed")
+                .tag("operation", operation)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Run the operation for a show and seats, merged with concurrent calls for the same show
+     *
+     * @return The response entries for the given seats (may be empty or partial, as for a single call)
+     */
+    List<ValidSeatResponse> execute(Long showId, List<Long> seatIds) {
+        int slot = Long.hashCode(showId) & (IN_PROGRESS_SLOTS - 1);
+        boolean showIsBusy = callsInProgress.getAndIncrement(slot) > 0;
+        try {
+            return batch(showId, seatIds, showIsBusy);
+        } finally {
+            callsInProgress.decrementAndGet(slot);
+        }
+    }
+
+    private List<ValidSeatResponse> batch(Long showId, List<Long> seatIds, boolean showIsBusy) {
+        Caller caller = new Caller(seatIds);
+        Batch[] led = new Batch[1];
+        openBatches.compute(showId, (id, open) -> {
+            if (open != null && open.tryAdd(caller)) {
+                return open;
+            }
+            led[0] = new Batch(caller);
+            return led[0];
+        });
+        if (led[0] != null) {
+            lead(showId, led[0], showIsBusy ? properties.getLinger().toNanos() : 0);
+        }
+
+        try {
+            return caller.result.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof BatchFailedException) {
+                fallbacks.increment();
+                return call.apply(showId, seatIds);
+            }
+            throw e.getCause() instanceof RuntimeException runtimeException
+                    ? runtimeException : new RuntimeException(e.getCause());
+        }
+    }
+
+    private void lead(Long showId, Batch batch, long lingerNanos) {
+        List<Caller> callers = batch.awaitAndClose(lingerNanos);
+        openBatches.remove(showId, batch);
+        batchCallers.record(callers.size());
+        batchFill.record((double) callers.size() / properties.getMaxBatchSize());
+
+        try {
+            if (callers.size() == 1) {
+                Caller alone = callers.get(0);
+                try {
+                    alone.result.complete(call.apply(showId, alone.seatIds));
+                } catch (RuntimeException e) {
+                    alone.result.completeExceptionally(e);
+                }
+                return;
+            }
+
+            Set<Long> mergedSeatIds = new LinkedHashSet<>();
+            callers.forEach(merged -> mergedSeatIds.addAll(merged.seatIds));
+            List<ValidSeatResponse> response;
+            try {
+                response = callAsService(showId, new ArrayList<>(mergedSeatIds));
+            } catch (RuntimeException e) {
+                log.warn("Batched {} of {} seats for {} callers in show {} failed, retrying each call alone: {}",
+                        operation, mergedSeatIds.size(), callers.size(), showId, e.getMessage());
+                BatchFailedException failure = new BatchFailedException(e);
+                callers.forEach(failed -> failed.result.completeExceptionally(failure));
+                return;
+            }
+            log.debug("Batched {} of {} seats for {} callers in show {}", operation, mergedSeatIds.size(), callers.size(), showId);
+
+            Map<Long, ValidSeatResponse> bySeatId = response == null ? Map.of() : response.stream()
+                    .collect(Collectors.toMap(ValidSeatResponse::seatId, Function.identity(), (first, second) -> first));
+            for (Caller merged : callers) {
+                merged.result.complete(merged.seatIds.stream()
+                        .map(bySeatId::get)
+                        .filter(Objects::nonNull)
+                        .toList());
+            }
+        } finally {
+            // Never leave a caller waiting, whatever happened above
+            BatchFailedException unanswered = new BatchFailedException(null);
+            callers.forEach(caller -> caller.result.completeExceptionally(unanswered));
+        }
+    }
+
+    /**
+     * Send a merged request with the service identity rather than the leader's user headers
+     * The header propagation falls back to the service identity when no request is bound to the thread.
+     */
+    private List<ValidSeatResponse> callAsService(Long showId, List<Long> seatIds) {
+        RequestAttributes leaderRequest = RequestContextHolder.getRequestAttributes();
+        RequestContextHolder.resetRequestAttributes();
+        try {
+            return call.apply(showId, seatIds);
+        } finally {
+            RequestContextHolder.setRequestAttributes(leaderRequest);
+        }
+    }
+
+    private static final class Caller {
+        private final List<Long> seatIds;
+        private final CompletableFuture<List<ValidSeatResponse>> result = new CompletableFuture<>();
+
+        private Caller(List<Long> seatIds) {
+            this.seatIds = seatIds;
+        }
+    }
+
+    /**
+     * Guarded by a ReentrantLock rather than a monitor: a leader lingering in awaitAndClose
+     * must not pin its carrier thread when requests run on virtual threads
+     */
+    private final class Batch {
+        private final ReentrantLock lock = new ReentrantLock();
+        private final Condition full = lock.newCondition();
+        private final List<Caller> callers = new ArrayList<>();
+        private final Set<Long> seatIds = new HashSet<>();
+        private boolean closed;
+
+        private Batch(Caller leader) {
+            callers.add(leader);
+            seatIds.addAll(leader.seatIds);
+        }
+
+        boolean tryAdd(Caller caller) {
+            lock.lock();
+            try {
+                if (closed || callers.size() >= properties.getMaxBatchSize()
+                        || (exclusiveSeats && !Collections.disjoint(seatIds, caller.seatIds))) {
+                    return false;
+                }
+                callers.add(caller);
+                seatIds.addAll(caller.seatIds);
+                if (callers.size() >= properties.getMaxBatchSize()) {
+                    full.signalAll();
+                }
+                return true;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        /**
+         * Wait until the batch is full or the linger time is over, then stop accepting callers
+         */
+        List<Caller> awaitAndClose(long lingerNanos) {
+            lock.lock();
+            try {
+                long remaining = lingerNanos;
+                try {
+                    while (callers.size() < properties.getMaxBatchSize() && remaining > 0) {
+                        remaining = full.awaitNanos(remaining);
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                closed = true;
+                return List.copyOf(callers);
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Marks a caller whose merged request failed, so it repeats its request alone
+     */
+    private static final class BatchFailedException extends RuntimeException {
+        private BatchFailedException(Throwable cause) {
+            super(cause);
+        }
+    }
+}
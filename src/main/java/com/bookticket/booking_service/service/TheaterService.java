@@ -1,6 +1,8 @@
 package com.bookticket.booking_service.service;
 
+import com.bookticket.booking_service.configuration.TheaterBatchingProperties;
 import com.bookticket.booking_service.dto.*;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.core.ParameterizedTypeReference;
@@ -10,21 +12,83 @@ import org.springframework.web.client.RestClient;
 
 import java.util.List;
 
+/**
+ * Client for the theater service seat endpoints
+ * With booking.theater.batching.enabled, concurrent calls for the same show and operation are
+ * coalesced into one request by a {@link TheaterSeatBatcher} per operation.
+ */
 @Service
 @Slf4j
 public class TheaterService {
     private final RestClient theaterRestClient;
+    private final TheaterBatchingProperties batchingProperties;
+    private final TheaterSeatBatcher verifyBatcher;
+    private final TheaterSeatBatcher lockBatcher;
+    private final TheaterSeatBatcher releaseBatcher;
+    private final TheaterSeatBatcher bookBatcher;
 
-    public TheaterService(@Qualifier("theaterRestClient") RestClient theaterRestClient) {
+    public TheaterService(@Qualifier("theaterRestClient") RestClient theaterRestClient,
+                          TheaterBatchingProperties batchingProperties,
+                          MeterRegistry meterRegistry) {
         this.theaterRestClient = theaterRestClient;
+        this.batchingProperties = batchingProperties;
+        this.verifyBatcher = new TheaterSeatBatcher("verify", false, this::postVerifySeats,
+                batchingProperties, meterRegistry);
+        this.lockBatcher = new TheaterSeatBatcher("lock", true, this::postLockSeats,
+                batchingProperties, meterRegistry);
+        this.releaseBatcher = new TheaterSeatBatcher("release", true, this::postReleaseSeats,
+                batchingProperties, meterRegistry);
+        this.bookBatcher = new TheaterSeatBatcher("book", true, this::postBookSeats,
+                batchingProperties, meterRegistry);
     }
 
     public List<ValidSeatResponse> verifySeats(CreateBookingRequest createBookingRequest) {
-        VerifySeatsRequest verifySeatsRequest = new VerifySeatsRequest(
-                createBookingRequest.showId(),
-                createBookingRequest.seatIds()
-        );
-        List<ValidSeatResponse> validSeats = theaterRestClient.post()
+        List<ValidSeatResponse> validSeats = batchingProperties.isEnabled()
+                ? verifyBatcher.execute(createBookingRequest.showId(), createBookingRequest.seatIds())
+                : postVerifySeats(createBookingRequest.showId(), createBookingRequest.seatIds());
+        if(validSeats == null || validSeats.isEmpty()){
+            throw new RuntimeException("No Valid Seats Found");
+        }
+        log.info("Valid Seats Found: {}", validSeats);
+        return validSeats;
+    }
+
+    public List<ValidSeatResponse> lockSeats(Long showId, List<Long> seatIds) {
+        List<ValidSeatResponse> lockedSeats = batchingProperties.isEnabled()
+                ? lockBatcher.execute(showId, seatIds)
+                : postLockSeats(showId, seatIds);
+        if(lockedSeats == null || lockedSeats.isEmpty()){
+            throw new RuntimeException("No Seats Locked");
+        }
+        log.info("Seats Locked: {}", lockedSeats);
+        return lockedSeats;
+    }
+
+    public List<ValidSeatResponse> releaseSeats(Long showId, List<Long> seatIds) {
+        List<ValidSeatResponse> releasedSeats = batchingProperties.isEnabled()
+                ? releaseBatcher.execute(showId, seatIds)
+                : postReleaseSeats(showId, seatIds);
+        if(releasedSeats == null || releasedSeats.isEmpty()){
+            throw new RuntimeException("No Seats Released");
+        }
+        log.info("Seats Released: {}", releasedSeats);
+        return releasedSeats;
+    }
+
+    public List<ValidSeatResponse> bookSeats(Long showId, List<Long> seatIds) {
+        List<ValidSeatResponse> bookedSeats = batchingProperties.isEnabled()
+                ? bookBatcher.execute(showId, seatIds)
+                : postBookSeats(showId, seatIds);
+        if(bookedSeats == null || bookedSeats.isEmpty()){
+            throw new RuntimeException("No Seats Booked");
+        }
+        log.info("Seats Booked: {}", bookedSeats);
+        return bookedSeats;
+    }
+
+    private List<ValidSeatResponse> postVerifySeats(Long showId, List<Long> seatIds) {
+        VerifySeatsRequest verifySeatsRequest = new VerifySeatsRequest(showId, seatIds);
+        return theaterRestClient.post()
                 .uri("/api/v1/shows/internal/seats/verify")
                 .body(verifySeatsRequest)
                 .retrieve()
@@ -34,16 +98,11 @@ public class TheaterService {
                 })
                 .body(new ParameterizedTypeReference<>() {
                 });
-        if(validSeats == null || validSeats.isEmpty()){
-            throw new RuntimeException("No Valid Seats Found");
-        }
-        log.info("Valid Seats Found: {}", validSeats);
-        return validSeats;
     }
 
-    public List<ValidSeatResponse> lockSeats(Long showId, List<Long> seatIds) {
+    private List<ValidSeatResponse> postLockSeats(Long showId, List<Long> seatIds) {
         LockSeatsRequest lockSeatsRequest = new LockSeatsRequest(showId, seatIds);
-        List<ValidSeatResponse> lockedSeats = theaterRestClient.post()
+        return theaterRestClient.post()
                 .uri("/api/v1/shows/internal/seats/lock")
                 .body(lockSeatsRequest)
                 .retrieve()
@@ -53,16 +112,11 @@ public class TheaterService {
                 })
                 .body(new ParameterizedTypeReference<>() {
                 });
-        if(lockedSeats == null || lockedSeats.isEmpty()){
-            throw new RuntimeException("No Seats Locked");
-        }
-        log.info("Seats Locked: {}", lockedSeats);
-        return lockedSeats;
     }
 
-    public List<ValidSeatResponse> releaseSeats(Long showId, List<Long> seatIds) {
+    private List<ValidSeatResponse> postReleaseSeats(Long showId, List<Long> seatIds) {
         ReleaseSeatsRequest releaseSeatsRequest = new ReleaseSeatsRequest(showId, seatIds);
-        List<ValidSeatResponse> releasedSeats = theaterRestClient.post()
+        return theaterRestClient.post()
                 .uri("/api/v1/shows/internal/seats/release")
                 .body(releaseSeatsRequest)
                 .retrieve()
@@ -72,16 +126,11 @@ public class TheaterService {
                 })
                 .body(new ParameterizedTypeReference<>() {
                 });
-        if(releasedSeats == null || releasedSeats.isEmpty()){
-            throw new RuntimeException("No Seats Released");
-        }
-        log.info("Seats Released: {}", releasedSeats);
-        return releasedSeats;
     }
 
-    public List<ValidSeatResponse> bookSeats(Long showId, List<Long> seatIds) {
+    private List<ValidSeatResponse> postBookSeats(Long showId, List<Long> seatIds) {
         BookSeatsRequest bookSeatsRequest = new BookSeatsRequest(showId, seatIds);
-        List<ValidSeatResponse> bookedSeats = theaterRestClient.post()
+        return theaterRestClient.post()
                 .uri("/api/v1/shows/internal/seats/book")
                 .body(bookSeatsRequest)
                 .retrieve()
@@ -91,10 +140,5 @@ public class TheaterService {
                 })
                 .body(new ParameterizedTypeReference<>() {
                 });
-        if(bookedSeats == null || bookedSeats.isEmpty()){
-            throw new RuntimeException("No Seats Booked");
-        }
-        log.info("Seats Booked: {}", bookedSeats);
-        return bookedSeats;
     }
 }
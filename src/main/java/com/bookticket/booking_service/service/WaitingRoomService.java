@@ -0,0 +1,304 @@
+package com.bookticket.booking_service.service;
+
+import com.bookticket.booking_service.configuration.WaitingRoomProperties;
+import com.bookticket.booking_service.dto.WaitingRoomTicketResponse;
+import com.bookticket.booking_service.enums.AdmissionStatus;
+import com.bookticket.booking_service.exception.AdmissionRequiredException;
+import com.bookticket.booking_service.exception.WaitingRoomTicketNotFoundException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Virtual waiting room that admits users to createBooking at a steady per-show rate
+ * Queue state lives in Redis so every instance shares one ordered queue per show:
+ *   waiting-room:show:{showId}                hash: seq (last position handed out), admitted (highest admitted position), refilledAt
+ *   waiting-room:show:{showId}:user:{userId}  hash: ticketId, position, token, tokenExpiresAt - one ticket per user and show
+ *   waiting-room:ticket:{ticketId}            string: showId|userId, points polls at the user's ticket
+ *   waiting-room:token:{token}                string: showId|userId, expires after the admission TTL
+ * Admission is computed lazily on every status check: the admitted position advances by
+ * admitRatePerSecond for the time elapsed since the last check, so no scheduler is needed.
+ * A token is claimed when a booking request starts and given back if the booking fails, so a seat
+ * conflict or a downstream error does not send the user to the back of the queue.
+ */
+@Service
+@Slf4j
+public class WaitingRoomService {
+
+    /**
+     * Join script - a user who already holds a ticket for the show gets that ticket back
+     * KEYS[1] = show queue hash, KEYS[2] = user ticket hash, KEYS[3] = ticket pointer of the new ticket
+     * ARGV[1] = queue TTL in milliseconds, ARGV[2] = new ticket ID, ARGV[3] = showId|userId
+     * Returns the ticket ID (the existing one, or ARGV[2] with a new queue position)
+     */
+    private static final DefaultRedisScript<String> JOIN_SCRIPT = new DefaultRedisScript<>(
+            "local existing = redis.call('HGET', KEYS[2], 'ticketId') " +
+            "if existing then return existing end " +
+            "local t = redis.call('TIME') " +
+            "local now = tonumber(t[1]) * 1000 + math.floor(tonumber(t[2]) / 1000) " +
+            "local position = redis.call('HINCRBY', KEYS[1], 'seq', 1) " +
+            "redis.call('HSETNX', KEYS[1], 'admitted', 0) " +
+            "redis.call('HSETNX', KEYS[1], 'refilledAt', now) " +
+            "redis.call('PEXPIRE', KEYS[1], ARGV[1]) " +
+            "redis.call('HSET', KEYS[2], 'ticketId', ARGV[2], 'position', position) " +
+            "redis.call('PEXPIRE', KEYS[2], ARGV[1]) " +
+            "redis.call('SET', KEYS[3], ARGV[3], 'PX', ARGV[1]) " +
+            "return ARGV[2]",
+            String.class
+    );
+
+    /**
+     * Issue script - gives an admitted ticket its admission token, once
+     * KEYS[1] = user ticket hash, KEYS[2] = token key of the new token
+     * ARGV[1] = ticket ID, ARGV[2] = new token, ARGV[3] = token expiry (epoch seconds),
+     * ARGV[4] = admission TTL in milliseconds, ARGV[5] = showId|userId
+     * Returns {token, expiresAt} (the existing token if one was already issued), or nil if the ticket is gone
+     */
+    private static final DefaultRedisScript<List<String>> ISSUE_TOKEN_SCRIPT = issueTokenScript(
+            "if redis.call('HGET', KEYS[1], 'ticketId') ~= ARGV[1] then return nil end " +
+            "local issued = redis.call('HMGET', KEYS[1], 'token', 'tokenExpiresAt') " +
+            "if issued[1] then return issued end " +
+            "redis.call('HSET', KEYS[1], 'token', ARGV[2], 'tokenExpiresAt', ARGV[3]) " +
+            "redis.call('SET', KEYS[2], ARGV[5], 'PX', ARGV[4]) " +
+            "return {ARGV[2], ARGV[3]}"
+    );
+
+    /**
+     * Claim script - takes an admission token out of circulation while its booking runs
+     * KEYS[1] = token key, ARGV[1] = expected showId|userId
+     * Returns the remaining TTL in milliseconds, or -1 if the token is missing or not the user's
+     */
+    private static final DefaultRedisScript<Long> CLAIM_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('GET', KEYS[1]) ~= ARGV[1] then return -1 end " +
+            "local ttl = redis.call('PTTL', KEYS[1]) " +
+            "redis.call('DEL', KEYS[1]) " +
+            "if ttl <= 0 then return -1 end " +
+            "return ttl",
+            Long.class
+    );
+
+    /**
+     * Admit script - advances the admitted position by the tokens earned since the last refill
+     * KEYS[1] = show queue hash, ARGV[1] = admit rate per second
+     * Returns the highest admitted position. Tokens are not banked while nobody is waiting.
+     */
+    private static final DefaultRedisScript<Long> ADMIT_SCRIPT = new DefaultRedisScript<>(
+            "local t = redis.call('TIME') " +
+            "local now = tonumber(t[1]) * 1000 + math.floor(tonumber(t[2]) / 1000) " +
+            "local rate = tonumber(ARGV[1]) " +
+            "local seq = tonumber(redis.call('HGET', KEYS[1], 'seq') or '0') " +
+            "local admitted = tonumber(redis.call('HGET', KEYS[1], 'admitted') or '0') " +
+            "local refilledAt = tonumber(redis.call('HGET', KEYS[1], 'refilledAt') or tostring(now)) " +
+            "local grant = math.floor((now - refilledAt) * rate / 1000) " +
+            "if grant > 0 then " +
+            "  admitted = math.min(admitted + grant, seq) " +
+            "  refilledAt = refilledAt + math.floor(grant * 1000 / rate) " +
+            "end " +
+            "if admitted >= seq then refilledAt = now end " +
+            "redis.call('HSET', KEYS[1], 'admitted', admitted, 'refilledAt', refilledAt) " +
+            "return admitted",
+            Long.class
+    );
+
+    private final StringRedisTemplate redisTemplate;
+    private final WaitingRoomProperties properties;
+
+    public WaitingRoomService(StringRedisTemplate redisTemplate, WaitingRoomProperties properties) {
+        this.redisTemplate = redisTemplate;
+        this.properties = properties;
+    }
+
+    /**
+     * Join the waiting room of a show
+     * Joining again returns the ticket the user already holds, with its original position.
+     *
+     * @param showId The show ID
+     * @param userId The user joining the queue
+     * @return Ticket with the user's queue position
+     */
+    public WaitingRoomTicketResponse join(Long showId, Long userId) {
+        String newTicketId = UUID.randomUUID().toString();
+        String ticketId = redisTemplate.execute(
+                JOIN_SCRIPT,
+                List.of(showKey(showId), userTicketKey(showId, userId), ticketKey(newTicketId)),
+                String.valueOf(properties.getQueueTtl().toMillis()),
+                newTicketId,
+                showId + "|" + userId
+        );
+        if (newTicketId.equals(ticketId)) {
+            log.info("User {} joined waiting room for show {}", userId, showId);
+        } else {
+            log.info("User {} already holds waiting room ticket {} for show {}", userId, ticketId, showId);
+        }
+
+        return getTicketStatus(ticketId, userId);
+    }
+
+    /**
+     * Get the status of a queue ticket, issuing an admission token once its position is admitted
+     *
+     * @param ticketId The ticket ID returned by join
+     * @param userId The user polling the ticket (must own it)
+     * @return Current ticket status
+     */
+    public WaitingRoomTicketResponse getTicketStatus(String ticketId, Long userId) {
+        String owner = redisTemplate.opsForValue().get(ticketKey(ticketId));
+        String[] ownerParts = owner != null ? owner.split("\\|") : new String[0];
+        if (ownerParts.length != 2 || !String.valueOf(userId).equals(ownerParts[1])) {
+            throw new WaitingRoomTicketNotFoundException("Waiting room ticket not found or expired: " + ticketId);
+        }
+        Long showId = Long.valueOf(ownerParts[0]);
+        String ticketKey = userTicketKey(showId, userId);
+        Map<Object, Object> ticket = redisTemplate.opsForHash().entries(ticketKey);
+        if (ticket.isEmpty() || !ticketId.equals(ticket.get("ticketId"))) {
+            throw new WaitingRoomTicketNotFoundException("Waiting room ticket not found or expired: " + ticketId);
+        }
+        long position = Long.parseLong((String) ticket.get("position"));
+
+        Long admitted = redisTemplate.execute(
+                ADMIT_SCRIPT,
+                List.of(showKey(showId)),
+                String.valueOf(properties.getAdmitRatePerSecond())
+        );
+        long admittedPosition = admitted != null ? admitted : 0;
+
+        if (position > admittedPosition) {
+            long peopleAhead = position - admittedPosition - 1;
+            long estimatedWaitSeconds = (long) Math.ceil((peopleAhead + 1) / properties.getAdmitRatePerSecond());
+            return new WaitingRoomTicketResponse(ticketId, showId, position, peopleAhead,
+                    AdmissionStatus.WAITING, estimatedWaitSeconds, null, null);
+        }
+
+        // Admitted - issue the admission token once per ticket
+        String newToken = UUID.randomUUID().toString();
+        long newTokenExpiresAt = Instant.now().plus(properties.getAdmissionTtl()).getEpochSecond();
+        List<String> issued = redisTemplate.execute(
+                ISSUE_TOKEN_SCRIPT,
+                List.of(ticketKey, tokenKey(newToken)),
+                ticketId,
+                newToken,
+                String.valueOf(newTokenExpiresAt),
+                String.valueOf(properties.getAdmissionTtl().toMillis()),
+                showId + "|" + userId
+        );
+        if (issued == null || issued.isEmpty()) {
+            throw new WaitingRoomTicketNotFoundException("Waiting room ticket not found or expired: " + ticketId);
+        }
+        String token = issued.get(0);
+        long tokenExpiresAt = issued.size() > 1 && issued.get(1) != null
+                ? Long.parseLong(issued.get(1)) : newTokenExpiresAt;
+        if (newToken.equals(token)) {
+            log.info("Admitted user {} to show {} from position {}", userId, showId, position);
+        }
+        return new WaitingRoomTicketResponse(ticketId, showId, position, 0,
+                AdmissionStatus.ADMITTED, null, token, tokenExpiresAt);
+    }
+
+    /**
+     * Claim the admission token of a booking request, if the show is behind the waiting room
+     * The token is taken out of circulation, so it admits one booking request at a time. Call
+     * {@link #completeAdmission} once the booking is created, or {@link #restoreAdmission} if it fails.
+     *
+     * @param showId The show being booked
+     * @param userId The user creating the booking
+     * @param admissionToken Token from the X-Admission-Token header (may be null)
+     * @return The claimed admission, or null if the show is not behind the waiting room
+     * @throws AdmissionRequiredException if the show requires admission and the token is missing or invalid
+     */
+    public Admission claimAdmission(Long showId, Long userId, String admissionToken) {
+        if (!properties.appliesTo(showId)) {
+            return null;
+        }
+        if (admissionToken == null || admissionToken.isBlank()) {
+            throw new AdmissionRequiredException(
+                    String.format("Show %d is in high demand. Join the waiting room to get an admission token.", showId));
+        }
+        Long remainingTtlMillis = redisTemplate.execute(
+                CLAIM_SCRIPT,
+                List.of(tokenKey(admissionToken)),
+                showId + "|" + userId
+        );
+        if (remainingTtlMillis == null || remainingTtlMillis <= 0) {
+            log.warn("Rejected admission token for user {} in show {}: token is invalid, expired or already used",
+                    userId, showId);
+            throw new AdmissionRequiredException("Admission token is invalid, expired or already used");
+        }
+        log.info("Admission token accepted for user {} in show {}", userId, showId);
+        return new Admission(showId, userId, admissionToken, remainingTtlMillis);
+    }
+
+    /**
+     * Use up a claimed admission once its booking exists
+     * The user's ticket is dropped too, so joining again queues for a new admission.
+     */
+    public void completeAdmission(Admission admission) {
+        if (admission == null) {
+            return;
+        }
+        try {
+            String ticketKey = userTicketKey(admission.showId(), admission.userId());
+            Object ticketId = redisTemplate.opsForHash().get(ticketKey, "ticketId");
+            if (ticketId != null) {
+                redisTemplate.delete(List.of(ticketKey, ticketKey((String) ticketId)));
+            }
+        } catch (DataAccessException e) {
+            // The ticket expires with the queue TTL
+            log.warn("Failed to drop waiting room ticket of user {} in show {}: {}",
+                    admission.userId(), admission.showId(), e.getMessage());
+        }
+    }
+
+    /**
+     * Give a claimed admission back after its booking failed, with the TTL it had left
+     * The user can retry with the same token instead of queueing again.
+     */
+    public void restoreAdmission(Admission admission) {
+        if (admission == null) {
+            return;
+        }
+        try {
+            redisTemplate.opsForValue().setIfAbsent(tokenKey(admission.token()),
+                    admission.showId() + "|" + admission.userId(),
+                    Duration.ofMillis(admission.remainingTtlMillis()));
+            log.info("Restored admission token for user {} in show {}", admission.userId(), admission.showId());
+        } catch (DataAccessException e) {
+            log.warn("Failed to restore admission token for user {} in show {}: {}",
+                    admission.userId(), admission.showId(), e.getMessage());
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static DefaultRedisScript<List<String>> issueTokenScript(String script) {
+        return new DefaultRedisScript<>(script, (Class<List<String>>) (Class<?>) List.class);
+    }
+
+    private String showKey(Long showId) {
+        return String.format("%s:show:%d", properties.getKeyPrefix(), showId);
+    }
+
+    private String userTicketKey(Long showId, Long userId) {
+        return String.format("%s:show:%d:user:%d", properties.getKeyPrefix(), showId, userId);
+    }
+
+    private String ticketKey(String ticketId) {
+        return String.format("%s:ticket:%s", properties.getKeyPrefix(), ticketId);
+    }
+
+    private String tokenKey(String token) {
+        return String.format("%s:token:%s", properties.getKeyPrefix(), token);
+    }
+
+    /**
+     * An admission token claimed by a running booking request
+     */
+    public record Admission(Long showId, Long userId, String token, long remainingTtlMillis) {
+    }
+}
@@ -0,0 +1,21 @@
+-- Move bookings and booking_seats from IDENTITY columns to pooled sequences so Hibernate can batch inserts.
+-- Each sequence call hands out a block of 50 ids (pooled-lo: the value returned is the first id of the block),
+-- so the sequences increment by 50 and start right after the highest existing id.
+-- On a fresh database the tables do not exist yet - Hibernate creates them afterwards - so only the
+-- sequences are created.
+
+CREATE SEQUENCE IF NOT EXISTS bookings_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS booking_seats_seq START WITH 1 INCREMENT BY 50;
+
+DO $$
+BEGIN
+    IF to_regclass('bookings') IS NOT NULL THEN
+        EXECUTE 'ALTER TABLE bookings ALTER COLUMN booking_id DROP IDENTITY IF EXISTS';
+        EXECUTE 'SELECT setval(''bookings_seq'', COALESCE(MAX(booking_id), 0) + 1, false) FROM bookings';
+    END IF;
+    IF to_regclass('booking_seats') IS NOT NULL THEN
+        EXECUTE 'ALTER TABLE booking_seats ALTER COLUMN booking_seat_id DROP IDENTITY IF EXISTS';
+        EXECUTE 'SELECT setval(''booking_seats_seq'', COALESCE(MAX(booking_seat_id), 0) + 1, false) FROM booking_seats';
+    END IF;
+END
+$$;
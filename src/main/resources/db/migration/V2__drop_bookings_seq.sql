@@ -0,0 +1,2 @@
+-- Booking ids are generated by the application (BookingIdGenerator); only booking_seats keeps its sequence.
+DROP SEQUENCE IF EXISTS bookings_seq;
@@ -0,0 +1,69 @@
+package com.bookticket.booking_service;
+
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import redis.embedded.RedisServer;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.ServerSocket;
+
+/**
+ * Redis server shared by the tests that need real Redis semantics, such as the Lua scripts
+ * Started on a free port on first use and stopped when the test JVM exits.
+ */
+public final class RedisTestServer {
+
+    private static StringRedisTemplate redisTemplate;
+
+    private RedisTestServer() {
+    }
+
+    /**
+     * Template connected to the shared server, with every key removed
+     */
+    public static synchronized StringRedisTemplate flushedTemplate() {
+        if (redisTemplate == null) {
+            redisTemplate = start();
+        }
+        redisTemplate.execute((RedisCallback<Void>) connection -> {
+            connection.serverCommands().flushAll();
+            return null;
+        });
+        return redisTemplate;
+    }
+
+    private static StringRedisTemplate start() {
+        try {
+            int port = freePort();
+            RedisServer server = RedisServer.newRedisServer()
+                    .bind("127.0.0.1")
+                    .port(port)
+                    .setting("save \"\"")
+                    .setting("appendonly no")
+                    .build();
+            server.start();
+            LettuceConnectionFactory connectionFactory = new LettuceConnectionFactory("127.0.0.1", port);
+            connectionFactory.afterPropertiesSet();
+            connectionFactory.start();
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                connectionFactory.destroy();
+                try {
+                    server.stop();
+                } catch (IOException ignored) {
+                    // The server process dies with the JVM anyway
+                }
+            }));
+            return new StringRedisTemplate(connectionFactory);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to start the test Redis server", e);
+        }
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.bookticket.booking_service.configuration;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ConnectionHoldTrackingDataSourceTest {
+
+    @Test
+    void wrappedPoolIsClosedWithTheContext() {
+        HikariDataSource pool;
+        try (AnnotationConfigApplicationContext context =
+                     new AnnotationConfigApplicationContext(DataSourceConfig.class, PoolConfig.class)) {
+            assertThat(context.getBean("pool")).isInstanceOf(ConnectionHoldTrackingDataSource.class);
+            pool = context.getBean(PoolConfig.class).pool;
+            assertThat(pool.isClosed()).isFalse();
+        }
+
+        assertThat(pool.isClosed()).isTrue();
+    }
+
+    @Test
+    void closingTheWrapperClosesThePool() throws Exception {
+        HikariDataSource pool = new HikariDataSource();
+        pool.setPoolName("test");
+
+        new ConnectionHoldTrackingDataSource(pool).close();
+
+        assertThat(pool.isClosed()).isTrue();
+    }
+
+    @Configuration
+    static class PoolConfig {
+
+        private HikariDataSource pool;
+
+        @Bean
+        public HikariDataSource pool() {
+            pool = new HikariDataSource();
+            pool.setPoolName("test");
+            return pool;
+        }
+    }
+}
@@ -0,0 +1,353 @@
+package com.bookticket.booking_service.configuration;
+
+import ch.qos.logback.classic.Logger;
+import com.bookticket.booking_service.dto.CheckoutSessionRequest;
+import com.bookticket.booking_service.dto.CheckoutSessionResponse;
+import com.bookticket.booking_service.dto.ValidSeatResponse;
+import com.bookticket.booking_service.enums.LockReleaseReason;
+import com.bookticket.booking_service.security.HeaderPropagationInterceptor;
+import com.bookticket.booking_service.service.InMemorySeatLockBackend;
+import com.bookticket.booking_service.service.PaymentService;
+import com.bookticket.booking_service.service.SeatContentionTracker;
+import com.bookticket.booking_service.service.SeatLockMetrics;
+import com.bookticket.booking_service.service.TheaterService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.results.Result;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.mock.http.client.MockClientHttpRequest;
+import org.springframework.mock.http.client.MockClientHttpResponse;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.web.client.RestClient;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-flight createBooking requests per GB of heap with platform threads versus virtual threads
+ * Each request runs the blocking part of createBooking through the executors AsyncConfig builds for the
+ * mode: an in-memory seat lock, the booking insert (5 ms), then the theater lock (20 ms) and checkout
+ * session stages in parallel on bookingStageExecutor, through the real TheaterService and PaymentService
+ * and their header propagation. The checkout session call is held open until every request is in
+ * flight, which is where a booking spends most of its time under load.
+ * With all inFlightBookings requests waiting on checkout, the live heap (after a full GC) and the
+ * process RSS are compared with the idle process, before any request or stage thread exists.
+ * The counters are summed over the measurement iterations; the run ends with a table of:
+ *   heap/booking   live heap held per in-flight booking
+ *   bookings/GB    in-flight bookings that fit in 1 GB of heap at that footprint
+ *   RSS/booking    resident memory per in-flight booking, which includes platform thread stacks
+ *                  (they live outside the heap; virtual thread stacks are heap objects)
+ * Platform mode gets one request thread per booking, as if server.tomcat.threads.max were raised to hold
+ * them all; at the default of 200 it never has more than 200 bookings in flight, whatever the heap.
+ * The fork runs with -Xmx1g. Skipped in normal builds. Run (on Java 21, Linux for the RSS figure) with:
+ *   mvn test -Dtest=ExecutionModeCapacityBenchmark -Dbenchmark=true
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xms1g", "-Xmx1g"})
+public class ExecutionModeCapacityBenchmark {
+
+    private static final long BOOKING_INSERT_MILLIS = 5;
+    private static final long THEATER_LOCK_MILLIS = 20;
+    private static final int SEATS_PER_BOOKING = 4;
+    private static final double GB = 1024.0 * 1024 * 1024;
+
+    @Param({"false", "true"})
+    public boolean virtualThreads;
+
+    @Param({"200", "2000"})
+    public int inFlightBookings;
+
+    private final AtomicLong bookingIds = new AtomicLong();
+    private final AtomicInteger waitingForCheckout = new AtomicInteger();
+    private volatile CountDownLatch checkoutGate;
+    private volatile Executor stageExecutor;
+    private AsyncConfig asyncConfig;
+    private InMemorySeatLockBackend seatLockBackend;
+    private TheaterService theaterService;
+    private PaymentService paymentService;
+
+    /**
+     * Memory held by the bookings in flight, summed by JMH over the measurement iterations
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Footprint {
+        public long bookings;
+        public long heapBytes;
+        public long residentBytes;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            bookings = 0;
+            heapBytes = 0;
+            residentBytes = 0;
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        ((Logger) LoggerFactory.getLogger(org.slf4j.Logger.ROOT_LOGGER_NAME))
+                .setLevel(ch.qos.logback.classic.Level.WARN);
+
+        asyncConfig = new AsyncConfig(new MockEnvironment()
+                .withProperty("spring.threads.virtual.enabled", String.valueOf(virtualThreads)));
+
+        RedisLockProperties lockProperties = new RedisLockProperties();
+        lockProperties.setKeyPrefix("benchmark:lock:seat");
+        lockProperties.setBookingPrefix("booking");
+        lockProperties.setTtl(Duration.ofMinutes(5));
+        seatLockBackend = new InMemorySeatLockBackend(lockProperties, new SeatLockLeaseProperties(),
+                new SeatLockMetrics(new SimpleMeterRegistry(), new SeatContentionTracker()));
+
+        HeaderPropagationInterceptor interceptor = new HeaderPropagationInterceptor(new ServiceIdentityProperties());
+        theaterService = new TheaterService(RestClient.builder()
+                .requestFactory(respondingAfter(() -> sleep(THEATER_LOCK_MILLIS),
+                        "[{\"seatId\":1,\"seatNumber\":\"A1\",\"seatType\":\"REGULAR\",\"seatPrice\":250.0}]"))
+                .requestInterceptor(interceptor)
+                .build(), new TheaterBatchingProperties(), new SimpleMeterRegistry());
+        paymentService = new PaymentService(RestClient.builder()
+                .requestFactory(respondingAfter(() -> await(checkoutGate),
+                        "{\"sessionId\":\"cs_bench\",\"paymentUrl\":\"https://checkout\",\"status\":\"created\"}"))
+                .requestInterceptor(interceptor)
+                .build());
+    }
+
+    @Setup(Level.Iteration)
+    public void openIteration() {
+        checkoutGate = new CountDownLatch(1);
+        waitingForCheckout.set(0);
+    }
+
+    @Benchmark
+    public int holdBookingsInFlight(Footprint footprint) throws Exception {
+        long idleHeap = liveHeapBytes();
+        long idleRss = residentBytes();
+
+        // Fresh executors, so that the threads they start are part of the footprint
+        Executor requestExecutor = virtualThreads ? virtualRequestExecutor() : platformRequestExecutor(inFlightBookings);
+        stageExecutor = asyncConfig.bookingStageExecutor();
+        CountDownLatch done = new CountDownLatch(inFlightBookings);
+        AtomicInteger booked = new AtomicInteger();
+        for (int i = 0; i < inFlightBookings; i++) {
+            requestExecutor.execute(() -> {
+                try {
+                    if (createBooking()) {
+                        booked.incrementAndGet();
+                    }
+                } finally {
+                    done.countDown();
+                }
+            });
+        }
+        while (waitingForCheckout.get() < inFlightBookings) {
+            Thread.sleep(10);
+        }
+        // Let the stage executor pick up the checkout calls it has room for
+        Thread.sleep(200);
+
+        long loadedHeap = liveHeapBytes();
+        long loadedRss = residentBytes();
+        checkoutGate.countDown();
+        done.await();
+        shutdown(requestExecutor);
+        shutdown(stageExecutor);
+        if (booked.get() != inFlightBookings) {
+            throw new IllegalStateException("Only " + booked.get() + " of " + inFlightBookings + " bookings completed");
+        }
+
+        footprint.bookings += inFlightBookings;
+        footprint.heapBytes += loadedHeap - idleHeap;
+        footprint.residentBytes += loadedRss - idleRss;
+        return booked.get();
+    }
+
+    private boolean createBooking() {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader("X-User-Id", "1");
+        request.addHeader("X-User-Name", "benchmark");
+        request.addHeader("X-User-Roles", "USER");
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+        long bookingId = bookingIds.incrementAndGet();
+        long showId = bookingId % 20;
+        List<Long> seatIds = new ArrayList<>(SEATS_PER_BOOKING);
+        for (int s = 0; s < SEATS_PER_BOOKING; s++) {
+            seatIds.add(bookingId * SEATS_PER_BOOKING + s);
+        }
+        try {
+            seatLockBackend.acquireSeatsLock(showId, seatIds, bookingId);
+            sleep(BOOKING_INSERT_MILLIS);
+
+            CompletableFuture<List<ValidSeatResponse>> theaterLock = CompletableFuture.supplyAsync(
+                    () -> theaterService.lockSeats(showId, seatIds), stageExecutor);
+            // Counted before submitting: with a full stage queue the request thread runs the checkout itself
+            waitingForCheckout.incrementAndGet();
+            CompletableFuture<CheckoutSessionResponse> checkout = CompletableFuture.supplyAsync(
+                    () -> paymentService.createCheckoutSession(
+                            new CheckoutSessionRequest(bookingId, 1L, 1000.0, null, null)), stageExecutor);
+            return !theaterLock.join().isEmpty() && checkout.join().sessionId() != null;
+        } finally {
+            seatLockBackend.releaseSeatsLock(showId, seatIds, bookingId, LockReleaseReason.CONFIRMED);
+            RequestContextHolder.resetRequestAttributes();
+        }
+    }
+
+    /**
+     * Heap still reachable after full collections, repeated until one frees nothing more
+     * (the objects of the threads of the previous invocation take a few collections to go)
+     */
+    private static long liveHeapBytes() throws InterruptedException {
+        long used = Long.MAX_VALUE;
+        for (int i = 0; i < 10; i++) {
+            System.gc();
+            Thread.sleep(100);
+            long afterGc = ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+            if (i >= 2 && afterGc >= used) {
+                return afterGc;
+            }
+            used = afterGc;
+        }
+        return used;
+    }
+
+    /**
+     * Resident set size of this process, or -1 where /proc is not available
+     */
+    private static long residentBytes() {
+        try {
+            for (String line : Files.readAllLines(Path.of("/proc/self/status"))) {
+                if (line.startsWith("VmRSS:")) {
+                    return Long.parseLong(line.replaceAll("\\D", "")) * 1024;
+                }
+            }
+        } catch (IOException | NumberFormatException e) {
+            // Not Linux
+        }
+        return -1;
+    }
+
+    private static void shutdown(Executor executor) throws Exception {
+        if (executor instanceof ThreadPoolTaskExecutor pool) {
+            pool.getThreadPoolExecutor().shutdown();
+            pool.getThreadPoolExecutor().awaitTermination(10, TimeUnit.SECONDS);
+        } else if (executor instanceof AutoCloseable closeable) {
+            closeable.close();
+        }
+    }
+
+    private static Executor platformRequestExecutor(int threads) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setThreadNamePrefix("http-nio-");
+        executor.initialize();
+        return executor;
+    }
+
+    private static Executor virtualRequestExecutor() {
+        SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("http-nio-");
+        executor.setVirtualThreads(true);
+        // close() waits for the request threads to end
+        executor.setTaskTerminationTimeout(10_000);
+        return executor;
+    }
+
+    /**
+     * Downstream service stand-in: every call answers with the given JSON once the latency has passed
+     */
+    private static ClientHttpRequestFactory respondingAfter(Runnable latency, String json) {
+        return (uri, method) -> new MockClientHttpRequest(method, uri) {
+            @Override
+            protected ClientHttpResponse executeInternal() {
+                latency.run();
+                MockClientHttpResponse response = new MockClientHttpResponse(
+                        json.getBytes(StandardCharsets.UTF_8), HttpStatus.OK);
+                response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+                return response;
+            }
+        };
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Test
+    @EnabledIfSystemProperty(named = "benchmark", matches = "true")
+    void runBenchmark() throws Exception {
+        Collection<RunResult> results = new Runner(new OptionsBuilder()
+                .include(ExecutionModeCapacityBenchmark.class.getSimpleName())
+                .resultFormat(ResultFormatType.JSON)
+                .result("target/execution-mode-benchmark.json")
+                .build()).run();
+
+        System.out.printf("%n%-9s %9s %14s %12s %13s%n", "threads", "in flight", "heap/booking", "bookings/GB", "RSS/booking");
+        for (RunResult result : results) {
+            Map<String, Result> counters = result.getSecondaryResults();
+            double bookings = counters.get("bookings").getScore();
+            double heapPerBooking = counters.get("heapBytes").getScore() / bookings;
+            double rssPerBooking = counters.get("residentBytes").getScore() / bookings;
+            System.out.printf("%-9s %9s %12.0f B %,12.0f %11.0f B%n",
+                    Boolean.parseBoolean(result.getParams().getParam("virtualThreads")) ? "virtual" : "platform",
+                    result.getParams().getParam("inFlightBookings"), heapPerBooking, GB / heapPerBooking, rssPerBooking);
+        }
+    }
+}
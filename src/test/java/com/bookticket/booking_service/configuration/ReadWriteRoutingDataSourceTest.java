@@ -0,0 +1,163 @@
+package com.bookticket.booking_service.configuration;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Routing decisions through the same LazyConnectionDataSourceProxy and transaction manager setup
+ * as ReadReplicaDataSourceConfig
+ */
+@ExtendWith(MockitoExtension.class)
+class ReadWriteRoutingDataSourceTest {
+
+    @Mock
+    private DataSource primary;
+    @Mock
+    private DataSource replica;
+    @Mock
+    private Connection primaryConnection;
+    @Mock
+    private Connection replicaConnection;
+    @Mock
+    private ReplicaLagMonitor lagMonitor;
+
+    private DataSource dataSource;
+    private TransactionTemplate readWrite;
+    private TransactionTemplate readOnly;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        lenient().when(primary.getConnection()).thenReturn(primaryConnection);
+        lenient().when(replica.getConnection()).thenReturn(replicaConnection);
+        lenient().when(lagMonitor.isReplicaUsable()).thenReturn(true);
+        ReadWriteRoutingDataSource routingDataSource =
+                new ReadWriteRoutingDataSource(primary, replica, lagMonitor, new SimpleMeterRegistry());
+        routingDataSource.afterPropertiesSet();
+        // Defaults given up front, otherwise the proxy reads them from its first target connection
+        LazyConnectionDataSourceProxy proxy = new LazyConnectionDataSourceProxy();
+        proxy.setTargetDataSource(routingDataSource);
+        proxy.setDefaultAutoCommit(false);
+        proxy.setDefaultTransactionIsolation(Connection.TRANSACTION_READ_COMMITTED);
+        proxy.afterPropertiesSet();
+        dataSource = proxy;
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+        readWrite = new TransactionTemplate(transactionManager);
+        readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+    }
+
+    @AfterEach
+    void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    void readOnlyTransactionOfGetRequestUsesTheReplica() throws SQLException {
+        bindRequest("GET");
+
+        runStatement(readOnly);
+
+        verify(replica).getConnection();
+        verify(primary, never()).getConnection();
+    }
+
+    @Test
+    void readWriteTransactionOfGetRequestUsesThePrimary() throws SQLException {
+        bindRequest("GET");
+
+        runStatement(readWrite);
+
+        verify(primary).getConnection();
+        verify(replica, never()).getConnection();
+    }
+
+    @Test
+    void readOnlyTransactionOfPostRequestUsesThePrimary() throws SQLException {
+        bindRequest("POST");
+
+        runStatement(readOnly);
+
+        verify(primary).getConnection();
+        verify(replica, never()).getConnection();
+    }
+
+    @Test
+    void readsAfterAWriteInTheSameRequestStayOnThePrimary() throws SQLException {
+        bindRequest("GET");
+
+        runStatement(readWrite);
+        runStatement(readOnly);
+
+        verify(primary, times(2)).getConnection();
+        verify(replica, never()).getConnection();
+    }
+
+    @Test
+    void requestPinnedToThePrimaryReadsFromThePrimary() throws SQLException {
+        bindRequest("GET");
+        ReadWriteRoutingDataSource.usePrimaryForRequest();
+
+        runStatement(readOnly);
+
+        verify(primary).getConnection();
+        verify(replica, never()).getConnection();
+    }
+
+    @Test
+    void laggingReplicaIsSkipped() throws SQLException {
+        bindRequest("GET");
+        when(lagMonitor.isReplicaUsable()).thenReturn(false);
+
+        runStatement(readOnly);
+
+        verify(primary).getConnection();
+        verify(replica, never()).getConnection();
+    }
+
+    @Test
+    void readOnlyTransactionOutsideARequestUsesThePrimary() throws SQLException {
+        runStatement(readOnly);
+
+        verify(primary).getConnection();
+        verify(replica, never()).getConnection();
+    }
+
+    /**
+     * Run one statement in a transaction, which makes the lazy proxy fetch its target connection
+     */
+    private void runStatement(TransactionTemplate transactionTemplate) {
+        transactionTemplate.executeWithoutResult(status -> {
+            try {
+                DataSourceUtils.getConnection(dataSource).createStatement();
+            } catch (SQLException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+    }
+
+    private static void bindRequest(String method) {
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest(method, "/")));
+    }
+}
@@ -0,0 +1,89 @@
+package com.bookticket.booking_service.security;
+
+import com.bookticket.booking_service.configuration.ServiceIdentityProperties;
+import com.bookticket.booking_service.configuration.TheaterBatchingProperties;
+import com.bookticket.booking_service.service.TheaterService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.test.web.client.MockRestServiceServer;
+import org.springframework.web.client.RestClient;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.header;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.method;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.requestTo;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withSuccess;
+
+class HeaderPropagationInterceptorTest {
+
+    private static final String RELEASED_SEATS =
+            "[{\"seatId\":1,\"seatNumber\":\"A1\",\"seatType\":\"REGULAR\",\"seatPrice\":250.0}]";
+
+    private MockRestServiceServer server;
+    private TheaterService theaterService;
+    private ExecutorService worker;
+
+    @BeforeEach
+    void setUp() {
+        RestClient.Builder builder = RestClient.builder()
+                .baseUrl("http://theater-service")
+                .requestInterceptor(new HeaderPropagationInterceptor(new ServiceIdentityProperties()));
+        server = MockRestServiceServer.bindTo(builder).build();
+        theaterService = new TheaterService(builder.build(), new TheaterBatchingProperties(),
+                new SimpleMeterRegistry());
+        worker = Executors.newSingleThreadExecutor();
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        RequestContextHolder.resetRequestAttributes();
+        worker.shutdownNow();
+        worker.awaitTermination(5, TimeUnit.SECONDS);
+    }
+
+    @Test
+    void releaseOnWorkerThreadCarriesServiceIdentity() throws Exception {
+        expectRelease("0", "booking-service", "SERVICE_ACCOUNT");
+
+        // Like a saga compensation: no request is bound on the worker thread
+        CompletableFuture.runAsync(() -> theaterService.releaseSeats(10L, List.of(1L)), worker)
+                .get(5, TimeUnit.SECONDS);
+
+        server.verify();
+    }
+
+    @Test
+    void releaseWithinRequestForwardsUserHeaders() {
+        MockHttpServletRequest userRequest = new MockHttpServletRequest();
+        userRequest.addHeader("X-User-Id", "42");
+        userRequest.addHeader("X-User-Name", "alice");
+        userRequest.addHeader("X-User-Roles", "USER");
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(userRequest));
+        expectRelease("42", "alice", "USER,SERVICE_ACCOUNT");
+
+        theaterService.releaseSeats(10L, List.of(1L));
+
+        server.verify();
+    }
+
+    private void expectRelease(String userId, String username, String roles) {
+        server.expect(requestTo("http://theater-service/api/v1/shows/internal/seats/release"))
+                .andExpect(method(HttpMethod.POST))
+                .andExpect(header("X-User-Id", userId))
+                .andExpect(header("X-User-Name", username))
+                .andExpect(header("X-User-Roles", roles))
+                .andRespond(withSuccess(RELEASED_SEATS, MediaType.APPLICATION_JSON));
+    }
+}
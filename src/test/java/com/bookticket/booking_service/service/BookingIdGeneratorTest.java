@@ -0,0 +1,154 @@
+package com.bookticket.booking_service.service;
+
+import com.bookticket.booking_service.configuration.BookingIdProperties;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class BookingIdGeneratorTest {
+
+    private static final int NODE_ID = 37;
+    private static final long SEQUENCE_LIMIT = 1L << BookingIdGenerator.SEQUENCE_BITS;
+
+    private final BookingIdProperties properties = properties();
+    private final long epochMillis = properties.getEpoch().toEpochMilli();
+
+    @Test
+    void idsAreUniqueAndIncreasingUnderContention() throws Exception {
+        BookingIdGenerator generator = new BookingIdGenerator(properties);
+        int threads = 8;
+        int idsPerThread = 50_000;
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<long[]>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    long[] ids = new long[idsPerThread];
+                    for (int i = 0; i < idsPerThread; i++) {
+                        ids[i] = generator.nextId();
+                    }
+                    return ids;
+                }));
+            }
+            start.countDown();
+
+            long[] all = new long[threads * idsPerThread];
+            int offset = 0;
+            for (Future<long[]> future : futures) {
+                long[] ids = future.get(30, TimeUnit.SECONDS);
+                for (int i = 1; i < ids.length; i++) {
+                    assertThat(ids[i]).isGreaterThan(ids[i - 1]);
+                }
+                System.arraycopy(ids, 0, all, offset, ids.length);
+                offset += ids.length;
+            }
+            Arrays.sort(all);
+            for (int i = 1; i < all.length; i++) {
+                assertThat(all[i]).as("duplicate id").isNotEqualTo(all[i - 1]);
+            }
+            assertThat(all[0]).isPositive();
+            assertThat(nodeOf(all[0])).isEqualTo(NODE_ID);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void clockMovingBackNeverReusesOrDecreasesIds() {
+        AtomicLong clock = new AtomicLong(epochMillis + 10_000);
+        BookingIdGenerator generator = new BookingIdGenerator(properties, clock::get);
+
+        long beforeJump = generator.nextId();
+        clock.addAndGet(-5_000);
+        long afterJump = generator.nextId();
+
+        assertThat(afterJump).isGreaterThan(beforeJump);
+        // Keeps counting on the last timestamp until the clock catches up
+        assertThat(timestampOf(afterJump)).isEqualTo(10_000);
+        assertThat(sequenceOf(afterJump)).isEqualTo(sequenceOf(beforeJump) + 1);
+
+        clock.set(epochMillis + 10_001);
+        long caughtUp = generator.nextId();
+        assertThat(caughtUp).isGreaterThan(afterJump);
+        assertThat(timestampOf(caughtUp)).isEqualTo(10_001);
+        assertThat(sequenceOf(caughtUp)).isZero();
+    }
+
+    @Test
+    void sequenceRollsOverIntoNextMillisecondAfter4096Ids() {
+        AtomicLong clock = new AtomicLong(epochMillis + 20_000);
+        BookingIdGenerator generator = new BookingIdGenerator(properties, clock::get);
+
+        long previous = -1;
+        for (long i = 0; i < SEQUENCE_LIMIT; i++) {
+            long id = generator.nextId();
+            assertThat(timestampOf(id)).isEqualTo(20_000);
+            assertThat(sequenceOf(id)).isEqualTo(i);
+            assertThat(id).isGreaterThan(previous);
+            previous = id;
+        }
+
+        // The clock has not moved, the 4,097th id borrows the next millisecond
+        long rolledOver = generator.nextId();
+        assertThat(rolledOver).isGreaterThan(previous);
+        assertThat(timestampOf(rolledOver)).isEqualTo(20_001);
+        assertThat(sequenceOf(rolledOver)).isZero();
+
+        // Once the clock reaches the borrowed millisecond, the sequence continues instead of restarting
+        clock.set(epochMillis + 20_001);
+        long next = generator.nextId();
+        assertThat(timestampOf(next)).isEqualTo(20_001);
+        assertThat(sequenceOf(next)).isEqualTo(1);
+    }
+
+    @Test
+    void missingNodeIdFailsStartup() {
+        BookingIdProperties unset = new BookingIdProperties();
+
+        assertThatThrownBy(() -> new BookingIdGenerator(unset))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("booking.id.node-id");
+    }
+
+    @Test
+    void nodeIdIsDerivedOnlyWhenAllowed() {
+        BookingIdProperties derived = new BookingIdProperties();
+        derived.setAllowDerivedNodeId(true);
+
+        long id = new BookingIdGenerator(derived).nextId();
+
+        assertThat(id).isPositive();
+        assertThat(nodeOf(id)).isBetween(0L, BookingIdGenerator.MAX_NODE_ID);
+    }
+
+    private static BookingIdProperties properties() {
+        BookingIdProperties properties = new BookingIdProperties();
+        properties.setNodeId(NODE_ID);
+        return properties;
+    }
+
+    private static long timestampOf(long id) {
+        return id >>> (BookingIdGenerator.NODE_BITS + BookingIdGenerator.SEQUENCE_BITS);
+    }
+
+    private static long nodeOf(long id) {
+        return (id >>> BookingIdGenerator.SEQUENCE_BITS) & BookingIdGenerator.MAX_NODE_ID;
+    }
+
+    private static long sequenceOf(long id) {
+        return id & (SEQUENCE_LIMIT - 1);
+    }
+}
@@ -0,0 +1,169 @@
+package com.bookticket.booking_service.service;
+
+import com.bookticket.booking_service.configuration.OutboxProperties;
+import com.bookticket.booking_service.dto.BookingFailedEvent;
+import com.bookticket.booking_service.dto.BookingSuccessEvent;
+import com.bookticket.booking_service.entity.OutboxEvent;
+import com.bookticket.booking_service.enums.EventStatus;
+import com.bookticket.booking_service.enums.EventType;
+import com.bookticket.booking_service.repository.OutboxEventRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class BookingOutboxRelayTest {
+
+    @Mock
+    private OutboxEventRepository outboxEventRepository;
+    @Mock
+    private KafkaTemplate<String, BookingSuccessEvent> kafkaSuccessTemplate;
+    @Mock
+    private KafkaTemplate<String, BookingFailedEvent> kafkaFailedTemplate;
+    @Mock
+    private DeadLetterQueueService deadLetterQueueService;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private final AtomicBoolean transactionOpen = new AtomicBoolean();
+    private OutboxProperties outboxProperties;
+    private BookingOutboxRelay relay;
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(transactionManager.getTransaction(any())).thenAnswer(invocation -> {
+            transactionOpen.set(true);
+            return new SimpleTransactionStatus();
+        });
+        lenient().doAnswer(invocation -> {
+            transactionOpen.set(false);
+            return null;
+        }).when(transactionManager).commit(any());
+        outboxProperties = new OutboxProperties();
+        outboxProperties.setBatchSize(2);
+        outboxProperties.setMaxAttempts(2);
+        relay = new BookingOutboxRelay(outboxEventRepository, kafkaSuccessTemplate, kafkaFailedTemplate,
+                deadLetterQueueService, new ObjectMapper(), outboxProperties, transactionManager,
+                new SimpleMeterRegistry());
+    }
+
+    @Test
+    void claimReservesTheBatchForTheClaimTimeout() {
+        List<OutboxEvent> events = List.of(successEvent(1L, Instant.now()), successEvent(2L, Instant.now()));
+        when(outboxEventRepository.lockNextBatch(any(), eq(2))).thenReturn(events);
+
+        List<OutboxEvent> claimed = relay.claimNextBatch();
+
+        assertThat(claimed).hasSize(2);
+        assertThat(claimed).allSatisfy(event -> assertThat(event.getClaimedUntil())
+                .isAfter(Instant.now().plus(outboxProperties.getClaimTimeout()).minusSeconds(5)));
+    }
+
+    @Test
+    void partialBatchWithinLingerIsLeftUnclaimed() {
+        OutboxEvent event = successEvent(1L, Instant.now());
+        when(outboxEventRepository.lockNextBatch(any(), eq(2))).thenReturn(List.of(event));
+
+        assertThat(relay.claimNextBatch()).isEmpty();
+        assertThat(event.getClaimedUntil()).isNull();
+    }
+
+    @Test
+    void relayPublishesWithNoTransactionOpenAndMarksTheBatchSent() {
+        OutboxEvent event = successEvent(1L, Instant.now().minusSeconds(1));
+        when(outboxEventRepository.lockNextBatch(any(), anyInt())).thenReturn(List.of(event));
+        when(kafkaSuccessTemplate.send(any(ProducerRecord.class))).thenAnswer(invocation -> {
+            assertThat(transactionOpen).as("transaction open during send").isFalse();
+            return CompletableFuture.completedFuture(null);
+        });
+
+        relay.relay();
+
+        verify(outboxEventRepository).markPublished(eq(List.of(1L)), eq(EventStatus.PROCESSED), any());
+        verify(outboxEventRepository, never()).saveAll(any());
+        // One short transaction to claim, one to record the outcome
+        verify(transactionManager, times(2)).commit(any());
+    }
+
+    @Test
+    void recordsCarryTheOutboxEventId() {
+        OutboxEvent event = successEvent(41L, Instant.now().minusSeconds(1));
+        doAnswer(invocation -> {
+            ProducerRecord<String, BookingSuccessEvent> record = invocation.getArgument(0);
+            assertThat(record.key()).isEqualTo("1041");
+            assertThat(new String(record.headers().lastHeader(BookingOutboxRelay.EVENT_ID_HEADER).value(),
+                    StandardCharsets.UTF_8)).isEqualTo("41");
+            return CompletableFuture.completedFuture(null);
+        }).when(kafkaSuccessTemplate).send(any(ProducerRecord.class));
+
+        assertThat(relay.publishBatch(List.of(event)).published()).isEqualTo(1);
+    }
+
+    @Test
+    void failedSendReleasesTheClaimForRetry() {
+        OutboxEvent event = successEvent(1L, Instant.now().minusSeconds(1));
+        event.setClaimedUntil(Instant.now().plusSeconds(60));
+        when(kafkaSuccessTemplate.send(any(ProducerRecord.class)))
+                .thenReturn(CompletableFuture.failedFuture(new RuntimeException("broker down")));
+
+        BookingOutboxRelay.BatchResult result = relay.publishBatch(List.of(event));
+
+        assertThat(result.failed()).isEqualTo(1);
+        assertThat(event.getAttempts()).isEqualTo(1);
+        assertThat(event.getStatus()).isEqualTo(EventStatus.PENDING);
+        assertThat(event.getClaimedUntil()).isNull();
+        verify(outboxEventRepository).saveAll(List.of(event));
+        verify(outboxEventRepository, never()).markPublished(anyCollection(), any(), any());
+        verify(deadLetterQueueService, never()).storeFailedSuccessEvent(any(), any(), any(), any(), any());
+    }
+
+    @Test
+    void lastFailedAttemptMovesTheEventToTheDeadLetterQueue() {
+        OutboxEvent event = successEvent(1L, Instant.now().minusSeconds(1));
+        event.setAttempts(outboxProperties.getMaxAttempts() - 1);
+        when(kafkaSuccessTemplate.send(any(ProducerRecord.class)))
+                .thenReturn(CompletableFuture.failedFuture(new RuntimeException("broker down")));
+
+        relay.publishBatch(List.of(event));
+
+        assertThat(event.getStatus()).isEqualTo(EventStatus.FAILED);
+        verify(deadLetterQueueService).storeFailedSuccessEvent(1001L, 5L, 7L, 500.0, "broker down");
+    }
+
+    private static OutboxEvent successEvent(long id, Instant createdAt) {
+        OutboxEvent event = new OutboxEvent();
+        event.setId(id);
+        event.setBookingId(1000L + id);
+        event.setEventType(EventType.BOOKING_SUCCESS);
+        event.setTopic(BookingOutboxService.SUCCESS_TOPIC);
+        event.setPayload("{\"bookingId\":\"" + (1000L + id) + "\",\"userId\":5,\"showId\":7,\"totalAmount\":500.0}");
+        event.setCreatedAt(createdAt);
+        return event;
+    }
+}
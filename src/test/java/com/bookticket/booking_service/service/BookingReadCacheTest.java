@@ -0,0 +1,122 @@
+package com.bookticket.booking_service.service;
+
+import com.bookticket.booking_service.RedisTestServer;
+import com.bookticket.booking_service.configuration.BookingReadCacheProperties;
+import com.bookticket.booking_service.dto.BookingSeatResponse;
+import com.bookticket.booking_service.dto.BookingStatusResponse;
+import com.bookticket.booking_service.dto.SeatDetailsResponse;
+import com.bookticket.booking_service.enums.BookingStatus;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BookingReadCacheTest {
+
+    private static final long BOOKING_ID = 42L;
+    private static final List<SeatDetailsResponse> SEATS = List.of(
+            new SeatDetailsResponse(1L, "A1", "REGULAR", 250.0),
+            new SeatDetailsResponse(2L, "A2", "REGULAR", 250.0));
+
+    private final AtomicInteger seatLoads = new AtomicInteger();
+    private StringRedisTemplate redisTemplate;
+    private BookingReadCacheProperties properties;
+    private SimpleMeterRegistry meterRegistry;
+    private BookingReadCache readCache;
+
+    @BeforeEach
+    void setUp() {
+        redisTemplate = RedisTestServer.flushedTemplate();
+        properties = new BookingReadCacheProperties();
+        meterRegistry = new SimpleMeterRegistry();
+        readCache = newCache(meterRegistry);
+    }
+
+    @Test
+    void seatDetailsAreLoadedOnceThenServedFromMemory() {
+        assertThat(readCache.getSeatDetails(BOOKING_ID, loadSeats(SEATS))).isEqualTo(SEATS);
+        assertThat(readCache.getSeatDetails(BOOKING_ID, loadSeats(SEATS))).isEqualTo(SEATS);
+
+        assertThat(seatLoads).hasValue(1);
+        assertThat(requests("seat-details", "miss")).isEqualTo(1);
+        assertThat(requests("seat-details", "local_hit")).isEqualTo(1);
+    }
+
+    @Test
+    void emptySeatListIsNotCached() {
+        readCache.getSeatDetails(BOOKING_ID, loadSeats(List.of()));
+
+        assertThat(readCache.getSeatDetails(BOOKING_ID, loadSeats(SEATS))).isEqualTo(SEATS);
+        assertThat(seatLoads).hasValue(2);
+    }
+
+    @Test
+    void onlyTerminalStatusesAreCached() {
+        readCache.putTerminalStatus(status(BookingStatus.PENDING));
+        assertThat(readCache.getTerminalStatus(BOOKING_ID)).isEmpty();
+
+        readCache.putTerminalStatus(status(BookingStatus.CONFIRMED));
+        assertThat(readCache.getTerminalStatus(BOOKING_ID)).contains(status(BookingStatus.CONFIRMED));
+        assertThat(requests("booking-status", "miss")).isEqualTo(1);
+        assertThat(requests("booking-status", "local_hit")).isEqualTo(1);
+    }
+
+    @Test
+    void redisTierIsSharedWithOtherInstances() {
+        properties.setRedisEnabled(true);
+        readCache.getSeatDetails(BOOKING_ID, loadSeats(SEATS));
+        readCache.putTerminalStatus(status(BookingStatus.CANCELLED));
+        readCache.putTerminalStatus(new BookingStatusResponse(BOOKING_ID + 1, 5L, 7L, 0, BookingStatus.PENDING, List.of()));
+
+        SimpleMeterRegistry otherRegistry = new SimpleMeterRegistry();
+        BookingReadCache otherInstance = newCache(otherRegistry);
+
+        assertThat(otherInstance.getSeatDetails(BOOKING_ID, loadSeats(SEATS))).isEqualTo(SEATS);
+        assertThat(otherInstance.getTerminalStatus(BOOKING_ID)).contains(status(BookingStatus.CANCELLED));
+        assertThat(otherInstance.getTerminalStatus(BOOKING_ID + 1)).isEmpty();
+        assertThat(seatLoads).hasValue(1);
+        assertThat(otherRegistry.get("booking.read.cache.requests").tag("result", "redis_hit").counters())
+                .allSatisfy(counter -> assertThat(counter.count()).isEqualTo(1));
+        assertThat(redisTemplate.keys("booking:read-cache:*")).containsExactlyInAnyOrder(
+                "booking:read-cache:seat-details:" + BOOKING_ID, "booking:read-cache:booking-status:" + BOOKING_ID);
+    }
+
+    @Test
+    void disabledCacheAlwaysLoads() {
+        properties.setEnabled(false);
+        readCache.getSeatDetails(BOOKING_ID, loadSeats(SEATS));
+        readCache.getSeatDetails(BOOKING_ID, loadSeats(SEATS));
+        readCache.putTerminalStatus(status(BookingStatus.CONFIRMED));
+
+        assertThat(seatLoads).hasValue(2);
+        assertThat(readCache.getTerminalStatus(BOOKING_ID)).isEmpty();
+    }
+
+    private BookingReadCache newCache(SimpleMeterRegistry registry) {
+        return new BookingReadCache(properties, redisTemplate, new ObjectMapper(), registry);
+    }
+
+    private Supplier<List<SeatDetailsResponse>> loadSeats(List<SeatDetailsResponse> seats) {
+        return () -> {
+            seatLoads.incrementAndGet();
+            return seats;
+        };
+    }
+
+    private double requests(String cache, String result) {
+        return meterRegistry.get("booking.read.cache.requests").tag("cache", cache).tag("result", result)
+                .counter().count();
+    }
+
+    private static BookingStatusResponse status(BookingStatus status) {
+        return new BookingStatusResponse(BOOKING_ID, 5L, 7L, 500.0, status,
+                List.of(new BookingSeatResponse(9L, 1L, "A1", "REGULAR", 250.0)));
+    }
+}
@@ -0,0 +1,110 @@
+package com.bookticket.booking_service.service;
+
+import com.bookticket.booking_service.configuration.BookingReconcilerProperties;
+import com.bookticket.booking_service.configuration.RedisLockProperties;
+import com.bookticket.booking_service.configuration.SeatLockLeaseProperties;
+import com.bookticket.booking_service.entity.Booking;
+import com.bookticket.booking_service.enums.BookingStatus;
+import com.bookticket.booking_service.enums.LockReleaseReason;
+import com.bookticket.booking_service.repository.BookingRepository;
+import com.bookticket.booking_service.repository.BookingSeatRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class BookingReconcilerTest {
+
+    private static final long SHOW_ID = 7L;
+
+    @Mock
+    private BookingRepository bookingRepository;
+    @Mock
+    private BookingSeatRepository bookingSeatRepository;
+    @Mock
+    private SeatLockBackend seatLockBackend;
+    @Mock
+    private BookingSagaService bookingSagaService;
+
+    private BookingReconciler reconciler;
+
+    @BeforeEach
+    void setUp() {
+        RedisLockProperties lockProperties = new RedisLockProperties();
+        lockProperties.setBookingPrefix("booking");
+        SeatLockLeaseProperties leaseProperties = new SeatLockLeaseProperties();
+        reconciler = new BookingReconciler(bookingRepository, bookingSeatRepository, seatLockBackend,
+                bookingSagaService, new SeatLeaseRegistry(leaseProperties), new BookingReconcilerProperties(),
+                lockProperties, leaseProperties, new SimpleMeterRegistry());
+        when(seatLockBackend.getLockedShowIds()).thenReturn(Set.of(SHOW_ID));
+    }
+
+    @Test
+    void locksOfAFailedBookingAreHandedToTheSagaWorker() {
+        when(seatLockBackend.getLockedSeats(SHOW_ID)).thenReturn(Map.of(1L, "booking:100"));
+        when(bookingRepository.findAllById(Set.of(100L))).thenReturn(List.of(booking(100L, BookingStatus.FAILED)));
+
+        reconciler.releaseOrphanedLocks();
+
+        // The saga releases the lock and the theater seat, and retries until both succeed
+        verify(bookingSagaService).compensateOrphanedSeats(100L, SHOW_ID, List.of(1L));
+        verify(seatLockBackend, never()).releaseSeatsLock(any(), anyList(), any(), any());
+    }
+
+    @Test
+    void staleLockOfAConfirmedBookingIsReleasedDirectly() {
+        when(seatLockBackend.getLockedSeats(SHOW_ID)).thenReturn(Map.of(1L, "booking:100"));
+        when(bookingRepository.findAllById(Set.of(100L))).thenReturn(List.of(booking(100L, BookingStatus.CONFIRMED)));
+
+        reconciler.releaseOrphanedLocks();
+
+        verify(seatLockBackend).releaseSeatsLock(SHOW_ID, List.of(1L), 100L, LockReleaseReason.RECONCILED);
+        verify(bookingSagaService, never()).compensateOrphanedSeats(anyLong(), anyLong(), anyList());
+    }
+
+    @Test
+    void missingOwnerIsOnlyCompensatedWhenStillMissingOnTheNextRun() {
+        when(seatLockBackend.getLockedSeats(SHOW_ID)).thenReturn(Map.of(1L, "booking:100"));
+        when(bookingRepository.findAllById(Set.of(100L))).thenReturn(List.of());
+
+        reconciler.releaseOrphanedLocks();
+        verify(bookingSagaService, never()).compensateOrphanedSeats(anyLong(), anyLong(), anyList());
+
+        reconciler.releaseOrphanedLocks();
+        verify(bookingSagaService, times(1)).compensateOrphanedSeats(100L, SHOW_ID, List.of(1L));
+    }
+
+    @Test
+    void locksOfAPendingBookingAreLeftAlone() {
+        when(seatLockBackend.getLockedSeats(SHOW_ID)).thenReturn(Map.of(1L, "booking:100"));
+        when(bookingRepository.findAllById(Set.of(100L))).thenReturn(List.of(booking(100L, BookingStatus.PENDING)));
+
+        reconciler.releaseOrphanedLocks();
+
+        verify(bookingSagaService, never()).compensateOrphanedSeats(anyLong(), anyLong(), anyList());
+        verify(seatLockBackend, never()).releaseSeatsLock(any(), anyList(), any(), any());
+    }
+
+    private static Booking booking(long id, BookingStatus status) {
+        Booking booking = new Booking();
+        booking.setId(id);
+        booking.setShowId(SHOW_ID);
+        booking.setStatus(status);
+        return booking;
+    }
+}
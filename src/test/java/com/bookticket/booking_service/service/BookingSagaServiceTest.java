@@ -0,0 +1,122 @@
+package com.bookticket.booking_service.service;
+
+import com.bookticket.booking_service.entity.Booking;
+import com.bookticket.booking_service.entity.BookingSaga;
+import com.bookticket.booking_service.enums.BookingStatus;
+import com.bookticket.booking_service.enums.LockReleaseReason;
+import com.bookticket.booking_service.enums.SagaState;
+import com.bookticket.booking_service.repository.BookingRepository;
+import com.bookticket.booking_service.repository.BookingSagaRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class BookingSagaServiceTest {
+
+    @Mock
+    private BookingRepository bookingRepository;
+    @Mock
+    private BookingSagaRepository bookingSagaRepository;
+    @Mock
+    private BookingOutboxService bookingOutboxService;
+    @InjectMocks
+    private BookingSagaService bookingSagaService;
+
+    @Test
+    void confirmCompletesASagaStillInStarted() {
+        Booking booking = booking();
+        when(bookingOutboxService.transition(booking, BookingStatus.PENDING, BookingStatus.CONFIRMED, null))
+                .thenReturn(true);
+
+        assertThat(bookingSagaService.confirm(booking)).isTrue();
+
+        verify(bookingSagaRepository).updateStateIfCurrent(eq(1L),
+                eq(List.of(SagaState.STARTED, SagaState.PAYMENT_PENDING)), eq(SagaState.CONFIRMED), any());
+    }
+
+    @Test
+    void confirmOfABookingNoLongerPendingLeavesTheSaga() {
+        Booking booking = booking();
+        when(bookingOutboxService.transition(booking, BookingStatus.PENDING, BookingStatus.CONFIRMED, null))
+                .thenReturn(false);
+
+        assertThat(bookingSagaService.confirm(booking)).isFalse();
+
+        verify(bookingSagaRepository, never()).updateStateIfCurrent(any(), anyCollection(), any(), any());
+    }
+
+    @Test
+    void paymentPendingOnlyMovesAStartedSaga() {
+        bookingSagaService.paymentPending(1L);
+
+        verify(bookingSagaRepository).updateStateIfCurrent(eq(1L), eq(List.of(SagaState.STARTED)),
+                eq(SagaState.PAYMENT_PENDING), any());
+    }
+
+    @Test
+    void orphanedSeatsWithoutASagaGetACompensatingOne() {
+        when(bookingSagaRepository.findById(100L)).thenReturn(Optional.empty());
+
+        assertThat(bookingSagaService.compensateOrphanedSeats(100L, 7L, List.of(1L, 2L))).isTrue();
+
+        ArgumentCaptor<BookingSaga> saved = ArgumentCaptor.forClass(BookingSaga.class);
+        verify(bookingSagaRepository).save(saved.capture());
+        BookingSaga saga = saved.getValue();
+        assertThat(saga.getState()).isEqualTo(SagaState.COMPENSATING);
+        assertThat(saga.getSeatIdList()).containsExactly(1L, 2L);
+        assertThat(saga.isReleaseSeatLocksPending()).isTrue();
+        assertThat(saga.isReleaseTheaterSeatsPending()).isTrue();
+        assertThat(saga.getReleaseReason()).isEqualTo(LockReleaseReason.RECONCILED);
+        assertThat(saga.getNextAttemptAt()).isNotNull();
+    }
+
+    @Test
+    void orphanedSeatsOfAFinishedSagaAreCompensatedAgain() {
+        BookingSaga saga = new BookingSaga(100L, 7L, List.of(1L, 2L));
+        saga.setState(SagaState.COMPENSATION_FAILED);
+        saga.setAttempts(5);
+        when(bookingSagaRepository.findById(100L)).thenReturn(Optional.of(saga));
+
+        assertThat(bookingSagaService.compensateOrphanedSeats(100L, 7L, List.of(2L))).isTrue();
+
+        assertThat(saga.getState()).isEqualTo(SagaState.COMPENSATING);
+        assertThat(saga.getAttempts()).isZero();
+        // Every seat of the booking is released, not only the orphaned one found
+        assertThat(saga.getSeatIdList()).containsExactly(1L, 2L);
+        verify(bookingSagaRepository).save(saga);
+    }
+
+    @Test
+    void orphanedSeatsOfACompensatingSagaAreLeftToTheWorker() {
+        BookingSaga saga = new BookingSaga(100L, 7L, List.of(1L));
+        saga.setState(SagaState.COMPENSATING);
+        when(bookingSagaRepository.findById(100L)).thenReturn(Optional.of(saga));
+
+        assertThat(bookingSagaService.compensateOrphanedSeats(100L, 7L, List.of(1L))).isFalse();
+
+        verify(bookingSagaRepository, never()).save(any());
+    }
+
+    private static Booking booking() {
+        Booking booking = new Booking();
+        booking.setId(1L);
+        booking.setShowId(7L);
+        booking.setStatus(BookingStatus.PENDING);
+        return booking;
+    }
+}
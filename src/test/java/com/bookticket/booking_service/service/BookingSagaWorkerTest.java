@@ -0,0 +1,176 @@
+package com.bookticket.booking_service.service;
+
+import com.bookticket.booking_service.configuration.BookingSagaProperties;
+import com.bookticket.booking_service.entity.BookingSaga;
+import com.bookticket.booking_service.enums.LockReleaseOutcome;
+import com.bookticket.booking_service.enums.LockReleaseReason;
+import com.bookticket.booking_service.enums.SagaState;
+import com.bookticket.booking_service.repository.BookingSagaRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class BookingSagaWorkerTest {
+
+    private static final long SHOW_ID = 7L;
+    private static final List<Long> SEAT_IDS = List.of(11L, 12L);
+
+    @Mock
+    private BookingSagaRepository bookingSagaRepository;
+    @Mock
+    private SeatLockBackend seatLockBackend;
+    @Mock
+    private TheaterService theaterService;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    // Tasks handed to the saga worker pool, run by the test when it chooses
+    private final List<Runnable> submitted = new ArrayList<>();
+    private BookingSagaProperties sagaProperties;
+    private BookingSagaWorker worker;
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        sagaProperties = new BookingSagaProperties();
+        sagaProperties.setBatchSize(2);
+        sagaProperties.setMaxAttempts(3);
+        worker = new BookingSagaWorker(bookingSagaRepository, seatLockBackend, theaterService, sagaProperties,
+                submitted::add, transactionManager, new SimpleMeterRegistry());
+    }
+
+    @Test
+    void pollHandsClaimedSagasToThePoolWithoutRunningThem() {
+        BookingSaga saga = compensatingSaga(1L);
+        when(bookingSagaRepository.lockDue(any(), eq(2))).thenReturn(List.of(saga));
+
+        worker.runDueCompensations();
+
+        // The scheduler thread returns with the compensation still queued
+        assertThat(submitted).hasSize(1);
+        assertThat(saga.getNextAttemptAt()).isAfter(Instant.now());
+        verifyNoInteractions(seatLockBackend, theaterService);
+
+        submitted.get(0).run();
+
+        verify(seatLockBackend).releaseSeatsLockOrThrow(SHOW_ID, SEAT_IDS, 1L, LockReleaseReason.PAYMENT_FAILED);
+        verify(theaterService).releaseSeats(SHOW_ID, SEAT_IDS);
+        assertThat(saga.getState()).isEqualTo(SagaState.COMPENSATED);
+        assertThat(saga.getNextAttemptAt()).isNull();
+        verify(bookingSagaRepository).save(saga);
+    }
+
+    @Test
+    void sagasStillRunningLimitTheNextClaim() {
+        when(bookingSagaRepository.lockDue(any(), anyInt()))
+                .thenReturn(List.of(compensatingSaga(1L), compensatingSaga(2L)))
+                .thenReturn(List.of(compensatingSaga(3L)));
+
+        worker.runDueCompensations();
+        // Both slots of the batch are still running - nothing is claimed
+        worker.runDueCompensations();
+        verify(bookingSagaRepository, times(1)).lockDue(any(), anyInt());
+
+        submitted.get(0).run();
+        worker.runDueCompensations();
+
+        verify(bookingSagaRepository).lockDue(any(), eq(1));
+        assertThat(submitted).hasSize(3);
+    }
+
+    @Test
+    void failedTheaterReleaseRetriesOnlyThatCompensation() {
+        BookingSaga saga = compensatingSaga(1L);
+        doThrow(new RuntimeException("theater down")).when(theaterService).releaseSeats(SHOW_ID, SEAT_IDS);
+
+        worker.compensate(saga);
+
+        assertThat(saga.isReleaseSeatLocksPending()).isFalse();
+        assertThat(saga.isReleaseTheaterSeatsPending()).isTrue();
+        assertThat(saga.getState()).isEqualTo(SagaState.COMPENSATING);
+        assertThat(saga.getAttempts()).isEqualTo(1);
+        assertThat(saga.getLastError()).contains("theater down");
+        assertThat(saga.getNextAttemptAt()).isAfter(Instant.now());
+
+        worker.compensate(saga);
+
+        // The seat locks were released on the first attempt and are not released again
+        verify(seatLockBackend, times(1)).releaseSeatsLockOrThrow(SHOW_ID, SEAT_IDS, 1L,
+                LockReleaseReason.PAYMENT_FAILED);
+        verify(theaterService, times(2)).releaseSeats(SHOW_ID, SEAT_IDS);
+    }
+
+    @Test
+    void failedSeatLockReleaseRetriesOnlyThatCompensation() {
+        BookingSaga saga = compensatingSaga(1L);
+        when(seatLockBackend.releaseSeatsLockOrThrow(SHOW_ID, SEAT_IDS, 1L, LockReleaseReason.PAYMENT_FAILED))
+                .thenThrow(new RedisConnectionFailureException("redis down"))
+                .thenReturn(Map.of(11L, LockReleaseOutcome.RELEASED, 12L, LockReleaseOutcome.RELEASED));
+
+        worker.compensate(saga);
+
+        assertThat(saga.isReleaseSeatLocksPending()).isTrue();
+        assertThat(saga.isReleaseTheaterSeatsPending()).isFalse();
+        assertThat(saga.getState()).isEqualTo(SagaState.COMPENSATING);
+        assertThat(saga.getAttempts()).isEqualTo(1);
+        assertThat(saga.getLastError()).contains("redis down");
+
+        worker.compensate(saga);
+
+        assertThat(saga.isReleaseSeatLocksPending()).isFalse();
+        assertThat(saga.getState()).isEqualTo(SagaState.COMPENSATED);
+        verify(seatLockBackend, times(2)).releaseSeatsLockOrThrow(SHOW_ID, SEAT_IDS, 1L,
+                LockReleaseReason.PAYMENT_FAILED);
+        // The theater seats were released on the first attempt and are not released again
+        verify(theaterService, times(1)).releaseSeats(SHOW_ID, SEAT_IDS);
+    }
+
+    @Test
+    void sagaIsLeftForManualActionAfterTheLastAttempt() {
+        BookingSaga saga = compensatingSaga(1L);
+        saga.setReleaseSeatLocksPending(false);
+        saga.setAttempts(sagaProperties.getMaxAttempts() - 1);
+        doThrow(new RuntimeException("theater down")).when(theaterService).releaseSeats(SHOW_ID, SEAT_IDS);
+
+        worker.compensate(saga);
+
+        assertThat(saga.getState()).isEqualTo(SagaState.COMPENSATION_FAILED);
+        assertThat(saga.getNextAttemptAt()).isNull();
+        verify(seatLockBackend, never()).releaseSeatsLockOrThrow(any(), any(), any(), any());
+        verify(bookingSagaRepository).save(saga);
+    }
+
+    private static BookingSaga compensatingSaga(long bookingId) {
+        BookingSaga saga = new BookingSaga(bookingId, SHOW_ID, SEAT_IDS);
+        saga.setState(SagaState.COMPENSATING);
+        saga.setReleaseSeatLocksPending(true);
+        saga.setReleaseTheaterSeatsPending(true);
+        saga.setReleaseReason(LockReleaseReason.PAYMENT_FAILED);
+        saga.setNextAttemptAt(Instant.now());
+        return saga;
+    }
+}
@@ -0,0 +1,200 @@
+package com.bookticket.booking_service.service;
+
+import com.bookticket.booking_service.configuration.BookingCreateProperties;
+import com.bookticket.booking_service.configuration.PaymentEventProperties;
+import com.bookticket.booking_service.dto.CheckoutSessionResponse;
+import com.bookticket.booking_service.dto.CreateBookingRequest;
+import com.bookticket.booking_service.dto.CreateBookingResponse;
+import com.bookticket.booking_service.dto.ValidSeatResponse;
+import com.bookticket.booking_service.entity.Booking;
+import com.bookticket.booking_service.enums.LockReleaseReason;
+import com.bookticket.booking_service.repository.BookingRepository;
+import com.bookticket.booking_service.repository.BookingSeatRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.web.client.ResourceAccessException;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Covers createBooking with booking.create.parallel-stages enabled
+ */
+@ExtendWith(MockitoExtension.class)
+class BookingServiceTest {
+
+    private static final long USER_ID = 5L;
+    private static final long SHOW_ID = 7L;
+    private static final long BOOKING_ID = 100L;
+    private static final List<Long> SEAT_IDS = List.of(11L, 12L);
+    private static final CreateBookingRequest REQUEST = new CreateBookingRequest(SHOW_ID, SEAT_IDS);
+    private static final List<ValidSeatResponse> VALID_SEATS = List.of(
+            new ValidSeatResponse(11L, "A1", "REGULAR", 250.0),
+            new ValidSeatResponse(12L, "A2", "REGULAR", 250.0));
+    private static final CheckoutSessionResponse CHECKOUT = new CheckoutSessionResponse(
+            "cs_1", "https://pay/cs_1", BOOKING_ID, 500.0, "created", null, 1_900_000_000L);
+
+    @Mock
+    private BookingRepository bookingRepository;
+    @Mock
+    private BookingSeatRepository bookingSeatRepository;
+    @Mock
+    private SeatLockBackend seatLockBackend;
+    @Mock
+    private PaymentService paymentService;
+    @Mock
+    private PaymentStatusPoller paymentStatusPoller;
+    @Mock
+    private TheaterService theaterService;
+    @Mock
+    private BookingSagaService bookingSagaService;
+    @Mock
+    private BookingIdGenerator bookingIdGenerator;
+    @Mock
+    private BookingReadCache bookingReadCache;
+    @Mock
+    private SeatLeaseRegistry seatLeaseRegistry;
+    @Mock
+    private WaitingRoomService waitingRoomService;
+
+    private final ExecutorService stageExecutor = Executors.newFixedThreadPool(2);
+    private BookingCreateProperties createProperties;
+    private BookingService bookingService;
+
+    @BeforeEach
+    void setUp() {
+        createProperties = new BookingCreateProperties();
+        createProperties.setParallelStages(true);
+        bookingService = new BookingService(bookingRepository, bookingSeatRepository, seatLockBackend,
+                paymentService, paymentStatusPoller, theaterService, bookingSagaService, bookingIdGenerator,
+                bookingReadCache, seatLeaseRegistry, waitingRoomService, createProperties,
+                new PaymentEventProperties(), stageExecutor);
+
+        when(theaterService.verifySeats(REQUEST)).thenReturn(VALID_SEATS);
+        when(bookingIdGenerator.nextId()).thenReturn(BOOKING_ID);
+        when(bookingSagaService.start(any(Booking.class), eq(SEAT_IDS)))
+                .thenAnswer(invocation -> invocation.getArgument(0));
+    }
+
+    @AfterEach
+    void tearDown() {
+        stageExecutor.shutdownNow();
+    }
+
+    @Test
+    void theaterLockSeatInsertAndCheckoutRunAtTheSameTime() {
+        // Each stage only returns once all three have started, so sequential stages would time out here
+        CyclicBarrier allStagesStarted = new CyclicBarrier(3);
+        when(theaterService.lockSeats(SHOW_ID, SEAT_IDS)).thenAnswer(invocation -> {
+            allStagesStarted.await(5, TimeUnit.SECONDS);
+            return VALID_SEATS;
+        });
+        when(paymentService.createCheckoutSession(any())).thenAnswer(invocation -> {
+            allStagesStarted.await(5, TimeUnit.SECONDS);
+            return CHECKOUT;
+        });
+        when(bookingSeatRepository.saveAll(anyList())).thenAnswer(invocation -> {
+            allStagesStarted.await(5, TimeUnit.SECONDS);
+            return invocation.getArgument(0);
+        });
+
+        CreateBookingResponse response = bookingService.createBooking(USER_ID, REQUEST, null);
+
+        assertThat(response.bookingId()).isEqualTo(BOOKING_ID);
+        assertThat(response.paymentSessionId()).isEqualTo("cs_1");
+        assertThat(response.seats()).hasSize(2);
+        verify(seatLeaseRegistry).register(BOOKING_ID, SHOW_ID, SEAT_IDS, CHECKOUT.expiresAt());
+        verify(bookingSagaService).paymentPending(BOOKING_ID);
+        verify(bookingSagaService, never()).fail(any(), anyList(), anyString(), any(), anyBoolean(), anyBoolean());
+    }
+
+    @Test
+    void failedCheckoutCompensatesTheStagesThatSucceeded() {
+        when(theaterService.lockSeats(SHOW_ID, SEAT_IDS)).thenReturn(VALID_SEATS);
+        when(paymentService.createCheckoutSession(any())).thenThrow(new ResourceAccessException("payment down"));
+        when(bookingSeatRepository.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        assertThatThrownBy(() -> bookingService.createBooking(USER_ID, REQUEST, null))
+                .isInstanceOf(RuntimeException.class)
+                .hasMessageContaining("payment down");
+
+        // The theater lock succeeded, so the saga releases the theater seats along with the seat locks
+        verify(bookingSagaService).fail(any(Booking.class), eq(SEAT_IDS), eq("Failed to create payment session"),
+                eq(LockReleaseReason.CHECKOUT_FAILED), eq(true), eq(true));
+        verify(seatLeaseRegistry, never()).register(any(), any(), anyList(), any());
+        verify(bookingSagaService, never()).paymentPending(any());
+    }
+
+    @Test
+    void failedTheaterLockLeavesTheTheaterSeatsAlone() {
+        when(theaterService.lockSeats(SHOW_ID, SEAT_IDS)).thenThrow(new ResourceAccessException("theater down"));
+        when(paymentService.createCheckoutSession(any())).thenReturn(CHECKOUT);
+        when(bookingSeatRepository.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        assertThatThrownBy(() -> bookingService.createBooking(USER_ID, REQUEST, null))
+                .hasMessageContaining("theater down");
+
+        verify(bookingSagaService).fail(any(Booking.class), eq(SEAT_IDS), eq("theater down"),
+                eq(LockReleaseReason.ERROR), eq(true), eq(false));
+    }
+
+    @Test
+    void failedSeatInsertFailsTheBookingOnceEveryRemoteStageHasFinished() {
+        when(theaterService.lockSeats(SHOW_ID, SEAT_IDS)).thenReturn(VALID_SEATS);
+        when(paymentService.createCheckoutSession(any())).thenReturn(CHECKOUT);
+        when(bookingSeatRepository.saveAll(anyList())).thenThrow(new DataIntegrityViolationException("duplicate seat"));
+
+        assertThatThrownBy(() -> bookingService.createBooking(USER_ID, REQUEST, null))
+                .hasMessageContaining("duplicate seat");
+
+        verify(theaterService).lockSeats(SHOW_ID, SEAT_IDS);
+        verify(bookingSagaService).fail(any(Booking.class), eq(SEAT_IDS), eq("duplicate seat"),
+                eq(LockReleaseReason.ERROR), eq(true), eq(true));
+    }
+
+    @Test
+    void theaterLockThatLandsAfterTheTimeoutIsReleased() {
+        createProperties.setStageTimeout(Duration.ofMillis(100));
+        CountDownLatch theaterResponds = new CountDownLatch(1);
+        when(theaterService.lockSeats(SHOW_ID, SEAT_IDS)).thenAnswer(invocation -> {
+            theaterResponds.await(5, TimeUnit.SECONDS);
+            return VALID_SEATS;
+        });
+        when(paymentService.createCheckoutSession(any())).thenReturn(CHECKOUT);
+        when(bookingSeatRepository.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        assertThatThrownBy(() -> bookingService.createBooking(USER_ID, REQUEST, null))
+                .hasMessageContaining("stage timeout");
+
+        // The saga does not release theater seats that may not be locked yet
+        verify(bookingSagaService).fail(any(Booking.class), eq(SEAT_IDS), anyString(),
+                eq(LockReleaseReason.ERROR), eq(true), eq(false));
+        verify(theaterService, never()).releaseSeats(any(), anyList());
+
+        theaterResponds.countDown();
+
+        verify(theaterService, timeout(5000)).releaseSeats(SHOW_ID, SEAT_IDS);
+    }
+}
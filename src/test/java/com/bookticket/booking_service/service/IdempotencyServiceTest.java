@@ -0,0 +1,147 @@
+package com.bookticket.booking_service.service;
+
+import com.bookticket.booking_service.RedisTestServer;
+import com.bookticket.booking_service.configuration.IdempotencyProperties;
+import com.bookticket.booking_service.dto.CreateBookingRequest;
+import com.bookticket.booking_service.dto.CreateBookingResponse;
+import com.bookticket.booking_service.enums.BookingStatus;
+import com.bookticket.booking_service.exception.IdempotencyKeyException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class IdempotencyServiceTest {
+
+    private static final long USER_ID = 5L;
+    private static final CreateBookingRequest REQUEST = new CreateBookingRequest(7L, List.of(3L, 1L));
+
+    private final AtomicLong bookingsCreated = new AtomicLong();
+    private IdempotencyService idempotencyService;
+    private ExecutorService callers;
+
+    @BeforeEach
+    void setUp() {
+        idempotencyService = new IdempotencyService(RedisTestServer.flushedTemplate(), new IdempotencyProperties(),
+                new ObjectMapper());
+        callers = Executors.newFixedThreadPool(8);
+    }
+
+    @AfterEach
+    void tearDown() {
+        callers.shutdownNow();
+    }
+
+    @Test
+    void retryWithTheSameKeyReplaysTheFirstResponse() {
+        IdempotencyService.IdempotentResponse first =
+                idempotencyService.createBookingOnce(USER_ID, "key-1", REQUEST, this::createBooking);
+        // Same show and seats in another order
+        IdempotencyService.IdempotentResponse retry = idempotencyService.createBookingOnce(USER_ID, "key-1",
+                new CreateBookingRequest(7L, List.of(1L, 3L)), this::createBooking);
+
+        assertThat(first.replayed()).isFalse();
+        assertThat(retry.replayed()).isTrue();
+        assertThat(retry.response()).isEqualTo(first.response());
+        assertThat(bookingsCreated).hasValue(1);
+    }
+
+    @Test
+    void keysAreScopedPerUser() {
+        idempotencyService.createBookingOnce(USER_ID, "key-1", REQUEST, this::createBooking);
+
+        assertThat(idempotencyService.createBookingOnce(USER_ID + 1, "key-1", REQUEST, this::createBooking).replayed())
+                .isFalse();
+        assertThat(bookingsCreated).hasValue(2);
+    }
+
+    @Test
+    void keyReusedForAnotherRequestIsRejected() {
+        idempotencyService.createBookingOnce(USER_ID, "key-1", REQUEST, this::createBooking);
+
+        assertThatThrownBy(() -> idempotencyService.createBookingOnce(USER_ID, "key-1",
+                new CreateBookingRequest(7L, List.of(3L, 2L)), this::createBooking))
+                .isInstanceOfSatisfying(IdempotencyKeyException.class, e ->
+                        assertThat(e.getReason()).isEqualTo(IdempotencyKeyException.Reason.KEY_REUSED));
+        assertThat(bookingsCreated).hasValue(1);
+    }
+
+    @Test
+    void concurrentRequestsWithTheSameKeyCreateOneBooking() throws Exception {
+        CountDownLatch firstRunning = new CountDownLatch(1);
+        CountDownLatch releaseFirst = new CountDownLatch(1);
+        Future<IdempotencyService.IdempotentResponse> first = callers.submit(() ->
+                idempotencyService.createBookingOnce(USER_ID, "key-1", REQUEST, () -> {
+                    firstRunning.countDown();
+                    await(releaseFirst);
+                    return createBooking();
+                }));
+        assertThat(firstRunning.await(5, TimeUnit.SECONDS)).isTrue();
+
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<IdempotencyService.IdempotentResponse>> concurrent = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            concurrent.add(callers.submit(() -> {
+                start.await();
+                return idempotencyService.createBookingOnce(USER_ID, "key-1", REQUEST, this::createBooking);
+            }));
+        }
+        start.countDown();
+
+        for (Future<IdempotencyService.IdempotentResponse> request : concurrent) {
+            assertThatThrownBy(() -> request.get(5, TimeUnit.SECONDS))
+                    .isInstanceOf(ExecutionException.class)
+                    .cause()
+                    .isInstanceOfSatisfying(IdempotencyKeyException.class, e ->
+                            assertThat(e.getReason()).isEqualTo(IdempotencyKeyException.Reason.IN_PROGRESS));
+        }
+        releaseFirst.countDown();
+        CreateBookingResponse created = first.get(5, TimeUnit.SECONDS).response();
+
+        IdempotencyService.IdempotentResponse retry =
+                idempotencyService.createBookingOnce(USER_ID, "key-1", REQUEST, this::createBooking);
+        assertThat(retry.replayed()).isTrue();
+        assertThat(retry.response().bookingId()).isEqualTo(created.bookingId());
+        assertThat(bookingsCreated).hasValue(1);
+    }
+
+    @Test
+    void failedRequestReleasesTheKeyForARetry() {
+        assertThatThrownBy(() -> idempotencyService.createBookingOnce(USER_ID, "key-1", REQUEST, () -> {
+            throw new IllegalStateException("theater down");
+        })).hasMessage("theater down");
+
+        IdempotencyService.IdempotentResponse retry =
+                idempotencyService.createBookingOnce(USER_ID, "key-1", REQUEST, this::createBooking);
+
+        assertThat(retry.replayed()).isFalse();
+        assertThat(bookingsCreated).hasValue(1);
+    }
+
+    private CreateBookingResponse createBooking() {
+        long bookingId = 1_000 + bookingsCreated.incrementAndGet();
+        return new CreateBookingResponse(bookingId, USER_ID, REQUEST.showId(), 500.0, BookingStatus.PENDING,
+                List.of(), "cs_" + bookingId, "https://pay.example/" + bookingId, 1_700_000_000L);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
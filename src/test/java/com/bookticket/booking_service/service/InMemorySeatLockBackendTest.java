@@ -0,0 +1,186 @@
+package com.bookticket.booking_service.service;
+
+import com.bookticket.booking_service.configuration.RedisLockProperties;
+import com.bookticket.booking_service.configuration.SeatLockLeaseProperties;
+import com.bookticket.booking_service.enums.LockReleaseOutcome;
+import com.bookticket.booking_service.enums.LockReleaseReason;
+import com.bookticket.booking_service.exception.SeatLockException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class InMemorySeatLockBackendTest {
+
+    private static final long SHOW_ID = 7L;
+
+    private RedisLockProperties lockProperties;
+    private InMemorySeatLockBackend backend;
+
+    @BeforeEach
+    void setUp() {
+        lockProperties = new RedisLockProperties();
+        lockProperties.setKeyPrefix("lock:seat");
+        lockProperties.setBookingPrefix("booking");
+        lockProperties.setTtl(Duration.ofMinutes(5));
+        backend = newBackend();
+    }
+
+    @Test
+    void acquireLocksEverySeatOrNone() {
+        backend.acquireSeatsLock(SHOW_ID, List.of(1L, 2L), 100L);
+
+        assertThatThrownBy(() -> backend.acquireSeatsLock(SHOW_ID, List.of(3L, 2L, 4L), 200L))
+                .isInstanceOf(SeatLockException.class)
+                .hasMessageContaining("[2]");
+
+        // The free seats of the rejected request were not locked either
+        assertThat(backend.isSeatLocked(SHOW_ID, 3L)).isFalse();
+        assertThat(backend.isSeatLocked(SHOW_ID, 4L)).isFalse();
+        assertThat(backend.getSeatLockOwners(SHOW_ID, List.of(1L, 2L, 3L)))
+                .containsEntry(1L, "booking:100")
+                .containsEntry(2L, "booking:100")
+                .containsEntry(3L, null);
+    }
+
+    @Test
+    void sameSeatInAnotherShowIsIndependent() {
+        backend.acquireSeatsLock(SHOW_ID, List.of(1L), 100L);
+        backend.acquireSeatsLock(SHOW_ID + 1, List.of(1L), 200L);
+
+        assertThat(backend.getSeatLockOwner(SHOW_ID + 1, 1L)).isEqualTo("booking:200");
+        assertThat(backend.getLockedShowIds()).containsExactlyInAnyOrder(SHOW_ID, SHOW_ID + 1);
+    }
+
+    @Test
+    void releaseOnlyRemovesLocksOwnedByTheBooking() {
+        backend.acquireSeatsLock(SHOW_ID, List.of(1L, 2L), 100L);
+        backend.acquireSeatsLock(SHOW_ID, List.of(3L), 200L);
+
+        Map<Long, LockReleaseOutcome> outcomes = backend.releaseSeatsLock(
+                SHOW_ID, List.of(1L, 3L, 4L), 100L, LockReleaseReason.ERROR);
+
+        assertThat(outcomes)
+                .containsEntry(1L, LockReleaseOutcome.RELEASED)
+                .containsEntry(3L, LockReleaseOutcome.NOT_OWNER)
+                .containsEntry(4L, LockReleaseOutcome.NOT_LOCKED);
+        assertThat(backend.isSeatLocked(SHOW_ID, 1L)).isFalse();
+        assertThat(backend.isSeatLocked(SHOW_ID, 2L)).isTrue();
+        assertThat(backend.getSeatLockOwner(SHOW_ID, 3L)).isEqualTo("booking:200");
+    }
+
+    @Test
+    void expiredHoldsAreFreeAndPurged() throws InterruptedException {
+        lockProperties.setTtl(Duration.ofMillis(50));
+        backend.acquireSeatsLock(SHOW_ID, List.of(1L, 2L), 100L);
+        assertThat(backend.isSeatLocked(SHOW_ID, 1L)).isTrue();
+
+        Thread.sleep(100);
+
+        assertThat(backend.isSeatLocked(SHOW_ID, 1L)).isFalse();
+        assertThat(backend.getLockedSeats(SHOW_ID)).isEmpty();
+        assertThat(backend.getLockedShowIds()).isEmpty();
+        assertThat(backend.holdCount()).isEqualTo(2);
+
+        backend.purgeExpiredHolds();
+        assertThat(backend.holdCount()).isZero();
+
+        // An expired hold never blocks a new booking
+        lockProperties.setTtl(Duration.ofMinutes(5));
+        backend.acquireSeatsLock(SHOW_ID, List.of(1L), 200L);
+        assertThat(backend.getSeatLockOwner(SHOW_ID, 1L)).isEqualTo("booking:200");
+    }
+
+    @Test
+    void releasingAnExpiredHoldReportsNotLocked() throws InterruptedException {
+        lockProperties.setTtl(Duration.ofMillis(20));
+        backend.acquireSeatsLock(SHOW_ID, List.of(1L), 100L);
+        Thread.sleep(50);
+
+        assertThat(backend.releaseSeatsLock(SHOW_ID, List.of(1L), 100L, LockReleaseReason.EXPIRED))
+                .containsEntry(1L, LockReleaseOutcome.NOT_LOCKED);
+    }
+
+    @Test
+    void concurrentOverlappingAcquiresNeitherDeadlockNorDoubleBook() throws Exception {
+        int threads = 16;
+        int bookingsPerThread = 500;
+        int seats = 40;
+        // Owner of each seat as seen by the bookers; 0 while free
+        AtomicLongArray owners = new AtomicLongArray(seats);
+        AtomicInteger doubleBooked = new AtomicInteger();
+        AtomicInteger acquired = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                long firstBookingId = (long) (t + 1) * 1_000_000;
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    ThreadLocalRandom random = ThreadLocalRandom.current();
+                    for (int i = 0; i < bookingsPerThread; i++) {
+                        long bookingId = firstBookingId + i;
+                        // Overlapping seat sets in random order, so stripes are requested in every order
+                        List<Long> seatIds = new ArrayList<>();
+                        for (int s = 0; s < 4; s++) {
+                            long seatId = random.nextInt(seats);
+                            if (!seatIds.contains(seatId)) {
+                                seatIds.add(seatId);
+                            }
+                        }
+                        Collections.shuffle(seatIds, random);
+                        try {
+                            backend.acquireSeatsLock(SHOW_ID, seatIds, bookingId);
+                        } catch (SeatLockException e) {
+                            continue;
+                        }
+                        acquired.incrementAndGet();
+                        for (Long seatId : seatIds) {
+                            if (!owners.compareAndSet(seatId.intValue(), 0, bookingId)) {
+                                doubleBooked.incrementAndGet();
+                            }
+                        }
+                        for (Long seatId : seatIds) {
+                            owners.compareAndSet(seatId.intValue(), bookingId, 0);
+                        }
+                        backend.releaseSeatsLock(SHOW_ID, seatIds, bookingId, LockReleaseReason.CONFIRMED);
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                // A deadlock shows up as a timeout here
+                future.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(doubleBooked.get()).isZero();
+        assertThat(acquired.get()).isPositive();
+        assertThat(backend.getLockedSeats(SHOW_ID)).isEmpty();
+    }
+
+    private InMemorySeatLockBackend newBackend() {
+        SeatLockMetrics metrics = new SeatLockMetrics(new SimpleMeterRegistry(), new SeatContentionTracker());
+        return new InMemorySeatLockBackend(lockProperties, new SeatLockLeaseProperties(), metrics);
+    }
+}
@@ -0,0 +1,179 @@
+package com.bookticket.booking_service.service;
+
+import com.bookticket.booking_service.configuration.BookingCreateProperties;
+import com.bookticket.booking_service.configuration.PaymentEventProperties;
+import com.bookticket.booking_service.entity.Booking;
+import com.bookticket.booking_service.entity.BookingSeat;
+import com.bookticket.booking_service.enums.BookingStatus;
+import com.bookticket.booking_service.enums.LockReleaseReason;
+import com.bookticket.booking_service.repository.BookingRepository;
+import com.bookticket.booking_service.repository.BookingSeatRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class PaymentResultListenerTest {
+
+    private static final long BOOKING_ID = 4242L;
+    private static final long SHOW_ID = 7L;
+    private static final List<Long> SEAT_IDS = List.of(11L, 12L);
+
+    @Mock
+    private BookingRepository bookingRepository;
+    @Mock
+    private BookingSeatRepository bookingSeatRepository;
+    @Mock
+    private SeatLockBackend seatLockBackend;
+    @Mock
+    private PaymentService paymentService;
+    @Mock
+    private PaymentStatusPoller paymentStatusPoller;
+    @Mock
+    private TheaterService theaterService;
+    @Mock
+    private BookingSagaService bookingSagaService;
+    @Mock
+    private BookingIdGenerator bookingIdGenerator;
+    @Mock
+    private BookingReadCache bookingReadCache;
+    @Mock
+    private SeatLeaseRegistry seatLeaseRegistry;
+    @Mock
+    private WaitingRoomService waitingRoomService;
+
+    private PaymentResultListener listener;
+
+    @BeforeEach
+    void setUp() {
+        PaymentEventProperties paymentEventProperties = new PaymentEventProperties();
+        paymentEventProperties.setEnabled(true);
+        BookingService bookingService = new BookingService(bookingRepository, bookingSeatRepository,
+                seatLockBackend, paymentService, paymentStatusPoller, theaterService, bookingSagaService,
+                bookingIdGenerator, bookingReadCache, seatLeaseRegistry, waitingRoomService,
+                new BookingCreateProperties(), paymentEventProperties, Runnable::run);
+        listener = new PaymentResultListener(bookingService, new ObjectMapper());
+    }
+
+    @Test
+    void completedPaymentConfirmsPendingBooking() {
+        Booking booking = pendingBooking();
+        givenBooking(booking);
+        when(bookingSagaService.confirm(booking)).thenReturn(true);
+
+        listener.onPaymentResult(event("COMPLETED"));
+
+        verify(theaterService).bookSeats(SHOW_ID, SEAT_IDS);
+        verify(bookingSagaService).confirm(booking);
+        verify(seatLockBackend).releaseSeatsLock(SHOW_ID, SEAT_IDS, BOOKING_ID, LockReleaseReason.CONFIRMED);
+        verify(seatLeaseRegistry).remove(BOOKING_ID);
+    }
+
+    @Test
+    void failedPaymentFailsPendingBooking() {
+        Booking booking = pendingBooking();
+        givenBooking(booking);
+        when(bookingSagaService.fail(booking, SEAT_IDS, "Card declined", LockReleaseReason.PAYMENT_FAILED,
+                true, true)).thenReturn(true);
+
+        listener.onPaymentResult(event("FAILED"));
+
+        verify(bookingSagaService).fail(booking, SEAT_IDS, "Card declined", LockReleaseReason.PAYMENT_FAILED,
+                true, true);
+        verify(bookingSagaService, never()).confirm(any());
+        verifyNoInteractions(theaterService);
+    }
+
+    @Test
+    void redeliveredResultIsNoOp() {
+        Booking booking = pendingBooking();
+        givenBooking(booking);
+        doAnswer(invocation -> {
+            booking.setStatus(BookingStatus.CONFIRMED);
+            return true;
+        }).when(bookingSagaService).confirm(booking);
+
+        listener.onPaymentResult(event("COMPLETED"));
+        listener.onPaymentResult(event("COMPLETED"));
+
+        assertThat(booking.getStatus()).isEqualTo(BookingStatus.CONFIRMED);
+        verify(theaterService, times(1)).bookSeats(SHOW_ID, SEAT_IDS);
+        verify(bookingSagaService, times(1)).confirm(booking);
+    }
+
+    @Test
+    void resultForUnknownBookingIsSkipped() {
+        when(bookingRepository.findById(BOOKING_ID)).thenReturn(Optional.empty());
+
+        listener.onPaymentResult(event("COMPLETED"));
+
+        verifyNoInteractions(bookingSeatRepository, theaterService, bookingSagaService, seatLockBackend);
+    }
+
+    @Test
+    void theaterFailureIsRethrownAndLeavesBookingPending() {
+        Booking booking = pendingBooking();
+        givenBooking(booking);
+        when(theaterService.bookSeats(SHOW_ID, SEAT_IDS)).thenThrow(new RuntimeException("No Seats Booked"));
+
+        // Rethrown so the container redelivers the record
+        assertThatThrownBy(() -> listener.onPaymentResult(event("COMPLETED")))
+                .hasMessage("No Seats Booked");
+
+        assertThat(booking.getStatus()).isEqualTo(BookingStatus.PENDING);
+        verify(bookingSagaService, never()).confirm(any());
+        verify(bookingSagaService, never()).fail(any(), anyList(), anyString(), any(), anyBoolean(), anyBoolean());
+        verify(seatLockBackend, never()).releaseSeatsLock(eq(SHOW_ID), anyList(), eq(BOOKING_ID), any());
+    }
+
+    private void givenBooking(Booking booking) {
+        when(bookingRepository.findById(BOOKING_ID)).thenReturn(Optional.of(booking));
+        when(bookingSeatRepository.findByBookingId(BOOKING_ID)).thenReturn(SEAT_IDS.stream()
+                .map(seatId -> {
+                    BookingSeat seat = new BookingSeat();
+                    seat.setBooking(booking);
+                    seat.setSeatId(seatId);
+                    seat.setSeatNumber("A" + seatId);
+                    seat.setSeatType("REGULAR");
+                    seat.setPrice(250.0);
+                    return seat;
+                })
+                .toList());
+    }
+
+    private static Booking pendingBooking() {
+        Booking booking = new Booking();
+        booking.setId(BOOKING_ID);
+        booking.setUserId(1L);
+        booking.setShowId(SHOW_ID);
+        booking.setStatus(BookingStatus.PENDING);
+        booking.setTotalAmount(500.0);
+        return booking;
+    }
+
+    private static String event(String paymentStatus) {
+        String message = "FAILED".equals(paymentStatus) ? "\"Card declined\"" : "null";
+        return "{\"bookingId\":" + BOOKING_ID + ",\"sessionId\":\"cs_test_1\",\"paymentStatus\":\"" + paymentStatus
+                + "\",\"transactionId\":\"txn_1\",\"amount\":500.0,\"message\":" + message + "}";
+    }
+}
@@ -0,0 +1,72 @@
+package com.bookticket.booking_service.service;
+
+import com.bookticket.booking_service.RedisTestServer;
+import com.bookticket.booking_service.configuration.RedisLockProperties;
+import com.bookticket.booking_service.configuration.SeatLockLeaseProperties;
+import com.bookticket.booking_service.configuration.SeatLockNearCacheProperties;
+import com.bookticket.booking_service.enums.LockReleaseReason;
+import com.bookticket.booking_service.enums.SeatLockMode;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.springframework.data.redis.connection.ReactiveRedisConnectionFactory;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reads locks written by the blocking lock service, in both lock representations
+ */
+class ReactiveRedisLockServiceTest {
+
+    private static final long SHOW_ID = 3L;
+
+    private RedisLockService lockService;
+    private ReactiveRedisLockService reactiveLockService;
+
+    private void setUp(SeatLockMode mode) {
+        StringRedisTemplate redisTemplate = RedisTestServer.flushedTemplate();
+        RedisLockProperties lockProperties = new RedisLockProperties();
+        lockProperties.setKeyPrefix("lock:seat");
+        lockProperties.setBookingPrefix("booking");
+        lockProperties.setTtl(Duration.ofMinutes(5));
+        lockProperties.setMode(mode);
+        lockService = new RedisLockService(redisTemplate, lockProperties,
+                new SeatLockNearCache(redisTemplate, new SeatLockNearCacheProperties()),
+                new SeatLockLeaseProperties(),
+                new SeatLockMetrics(new SimpleMeterRegistry(), new SeatContentionTracker()));
+        reactiveLockService = new ReactiveRedisLockService(new ReactiveStringRedisTemplate(
+                (ReactiveRedisConnectionFactory) redisTemplate.getRequiredConnectionFactory()), lockProperties);
+    }
+
+    @ParameterizedTest
+    @EnumSource(SeatLockMode.class)
+    void ownersAreReportedForLockedSeatsOnlyInRequestOrder(SeatLockMode mode) {
+        setUp(mode);
+        lockService.acquireSeatsLock(SHOW_ID, List.of(4L, 2L), 100L);
+        lockService.acquireSeatsLock(SHOW_ID, List.of(7L), 200L);
+
+        StepVerifier.create(reactiveLockService.getSeatLockOwners(SHOW_ID, List.of(7L, 1L, 2L, 4L)))
+                .expectNext(Map.entry(7L, "booking:200"), Map.entry(2L, "booking:100"), Map.entry(4L, "booking:100"))
+                .verifyComplete();
+    }
+
+    @ParameterizedTest
+    @EnumSource(SeatLockMode.class)
+    void singleSeatLookupSeesReleases(SeatLockMode mode) {
+        setUp(mode);
+        lockService.acquireSeatsLock(SHOW_ID, List.of(1L, 2L), 100L);
+        lockService.releaseSeatsLock(SHOW_ID, List.of(1L), 100L, LockReleaseReason.CONFIRMED);
+
+        StepVerifier.create(reactiveLockService.getSeatLockOwner(SHOW_ID, 2L))
+                .expectNext("booking:100")
+                .verifyComplete();
+        StepVerifier.create(reactiveLockService.isSeatLocked(SHOW_ID, 1L))
+                .expectNext(false)
+                .verifyComplete();
+    }
+}
@@ -0,0 +1,248 @@
+package com.bookticket.booking_service.service;
+
+import com.bookticket.booking_service.RedisTestServer;
+import com.bookticket.booking_service.configuration.RedisLockProperties;
+import com.bookticket.booking_service.configuration.SeatLockLeaseProperties;
+import com.bookticket.booking_service.configuration.SeatLockNearCacheProperties;
+import com.bookticket.booking_service.enums.LockReleaseOutcome;
+import com.bookticket.booking_service.enums.LockReleaseReason;
+import com.bookticket.booking_service.enums.SeatLockMode;
+import com.bookticket.booking_service.exception.SeatLockException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.entry;
+
+/**
+ * Runs the seat lock Lua scripts against a real Redis, in both lock representations
+ */
+class RedisLockServiceTest {
+
+    private static final long SHOW_ID = 3L;
+
+    private StringRedisTemplate redisTemplate;
+    private RedisLockProperties lockProperties;
+    private RedisLockService lockService;
+
+    private void setUp(SeatLockMode mode, Duration ttl) {
+        redisTemplate = RedisTestServer.flushedTemplate();
+        lockProperties = new RedisLockProperties();
+        lockProperties.setKeyPrefix("lock:seat");
+        lockProperties.setBookingPrefix("booking");
+        lockProperties.setTtl(ttl);
+        lockProperties.setMode(mode);
+        lockService = new RedisLockService(redisTemplate, lockProperties,
+                new SeatLockNearCache(redisTemplate, new SeatLockNearCacheProperties()),
+                new SeatLockLeaseProperties(),
+                new SeatLockMetrics(new SimpleMeterRegistry(), new SeatContentionTracker()));
+    }
+
+    @ParameterizedTest
+    @EnumSource(SeatLockMode.class)
+    void acquireLocksEverySeatForTheBooking(SeatLockMode mode) {
+        setUp(mode, Duration.ofMinutes(5));
+
+        List<String> lockKeys = lockService.acquireSeatsLock(SHOW_ID, List.of(1L, 2L, 3L), 100L);
+
+        assertThat(lockKeys).containsExactly("lock:seat:3:1", "lock:seat:3:2", "lock:seat:3:3");
+        assertThat(lockService.getSeatLockOwners(SHOW_ID, List.of(1L, 2L, 3L, 4L))).containsExactly(
+                entry(1L, "booking:100"), entry(2L, "booking:100"), entry(3L, "booking:100"), entry(4L, null));
+    }
+
+    @ParameterizedTest
+    @EnumSource(SeatLockMode.class)
+    void acquireIsAllOrNothing(SeatLockMode mode) {
+        setUp(mode, Duration.ofMinutes(5));
+        lockService.acquireSeatsLock(SHOW_ID, List.of(2L, 4L), 100L);
+
+        assertThatThrownBy(() -> lockService.acquireSeatsLock(SHOW_ID, List.of(1L, 2L, 3L, 4L), 200L))
+                .isInstanceOf(SeatLockException.class)
+                .hasMessageContaining("[2, 4]");
+
+        // No partial locks: the free seats of the rejected request were not taken
+        assertThat(lockService.isSeatLocked(SHOW_ID, 1L)).isFalse();
+        assertThat(lockService.isSeatLocked(SHOW_ID, 3L)).isFalse();
+        assertThat(lockService.getSeatLockOwner(SHOW_ID, 2L)).isEqualTo("booking:100");
+    }
+
+    @ParameterizedTest
+    @EnumSource(SeatLockMode.class)
+    void scriptNotCachedOnTheServerIsSentWithEval(SeatLockMode mode) {
+        setUp(mode, Duration.ofMinutes(5));
+        // As after a Redis restart or failover: EVALSHA answers NOSCRIPT
+        redisTemplate.execute((RedisCallback<Void>) connection -> {
+            connection.scriptingCommands().scriptFlush();
+            return null;
+        });
+
+        lockService.acquireSeatsLock(SHOW_ID, List.of(1L, 2L), 100L);
+
+        assertThat(lockService.getSeatLockOwner(SHOW_ID, 2L)).isEqualTo("booking:100");
+        String sha = (mode == SeatLockMode.SHOW_HASH
+                ? SeatLockScripts.ACQUIRE_SHOW_SEATS_SCRIPT : SeatLockScripts.ACQUIRE_SEATS_SCRIPT).getSha1();
+        // EVAL caches the script, so the next call goes through EVALSHA again
+        assertThat(redisTemplate.execute((RedisCallback<List<Boolean>>) connection ->
+                connection.scriptingCommands().scriptExists(sha))).containsExactly(true);
+    }
+
+    @ParameterizedTest
+    @EnumSource(SeatLockMode.class)
+    void releaseOnlyDeletesLocksOwnedByTheBooking(SeatLockMode mode) {
+        setUp(mode, Duration.ofMinutes(5));
+        lockService.acquireSeatsLock(SHOW_ID, List.of(1L), 100L);
+        lockService.acquireSeatsLock(SHOW_ID, List.of(2L), 200L);
+
+        Map<Long, LockReleaseOutcome> outcomes = lockService.releaseSeatsLock(SHOW_ID, List.of(1L, 2L, 3L), 100L,
+                LockReleaseReason.PAYMENT_FAILED);
+
+        assertThat(outcomes).containsExactly(entry(1L, LockReleaseOutcome.RELEASED),
+                entry(2L, LockReleaseOutcome.NOT_OWNER), entry(3L, LockReleaseOutcome.NOT_LOCKED));
+        assertThat(lockService.isSeatLocked(SHOW_ID, 1L)).isFalse();
+        assertThat(lockService.getSeatLockOwner(SHOW_ID, 2L)).isEqualTo("booking:200");
+    }
+
+    @ParameterizedTest
+    @EnumSource(SeatLockMode.class)
+    void lateReleaseLeavesTheLockOfTheBookingThatTookTheSeatOver(SeatLockMode mode) throws InterruptedException {
+        setUp(mode, Duration.ofMillis(200));
+        lockService.acquireSeatsLock(SHOW_ID, List.of(1L, 2L), 100L);
+        Thread.sleep(400);
+        lockService.acquireSeatsLock(SHOW_ID, List.of(2L), 200L);
+
+        // Booking 100 gives up after its locks expired and seat 2 was locked again
+        Map<Long, LockReleaseOutcome> outcomes = lockService.releaseSeatsLock(SHOW_ID, List.of(1L, 2L), 100L,
+                LockReleaseReason.EXPIRED);
+
+        assertThat(outcomes).containsExactly(entry(1L, LockReleaseOutcome.NOT_LOCKED),
+                entry(2L, LockReleaseOutcome.NOT_OWNER));
+        assertThat(lockService.getSeatLockOwner(SHOW_ID, 2L)).isEqualTo("booking:200");
+    }
+
+    @ParameterizedTest
+    @EnumSource(SeatLockMode.class)
+    void lockedSeatsAndShowsListEveryHeldSeat(SeatLockMode mode) {
+        setUp(mode, Duration.ofMinutes(5));
+        lockService.acquireSeatsLock(SHOW_ID, List.of(1L, 2L), 100L);
+        lockService.acquireSeatsLock(SHOW_ID, List.of(5L), 200L);
+        lockService.acquireSeatsLock(SHOW_ID + 1, List.of(1L), 300L);
+        lockService.releaseSeatsLock(SHOW_ID, List.of(2L), 100L, LockReleaseReason.CONFIRMED);
+
+        // What the reconciler reads to find locks whose owner booking is terminal or missing
+        assertThat(lockService.getLockedShowIds()).containsExactlyInAnyOrder(SHOW_ID, SHOW_ID + 1);
+        assertThat(lockService.getLockedSeats(SHOW_ID)).containsOnly(
+                entry(1L, "booking:100"), entry(5L, "booking:200"));
+        assertThat(lockService.getLockedSeats(SHOW_ID + 1)).containsOnly(entry(1L, "booking:300"));
+    }
+
+    @Test
+    void showHashModeKeepsEveryLockOfTheShowInOneHash() {
+        setUp(SeatLockMode.SHOW_HASH, Duration.ofMinutes(5));
+        lockService.acquireSeatsLock(SHOW_ID, List.of(1L, 2L, 3L, 4L), 100L);
+
+        assertThat(redisTemplate.keys("lock:seat:*")).containsExactly("lock:seat:show:3");
+        Map<Object, Object> fields = redisTemplate.opsForHash().entries("lock:seat:show:3");
+        assertThat(fields).containsOnlyKeys("1", "2", "3", "4");
+        assertThat(fields.values()).allSatisfy(value -> assertThat((String) value).startsWith("booking:100|"));
+        assertThat(redisTemplate.getExpire("lock:seat:show:3")).isPositive();
+        assertThat(lockService.getLockedSeats(SHOW_ID)).containsOnly(entry(1L, "booking:100"),
+                entry(2L, "booking:100"), entry(3L, "booking:100"), entry(4L, "booking:100"));
+
+        lockService.releaseSeatsLock(SHOW_ID, List.of(1L, 2L, 3L, 4L), 100L, LockReleaseReason.PAYMENT_FAILED);
+
+        // The last release deletes the hash instead of leaving an empty key behind
+        assertThat(redisTemplate.hasKey("lock:seat:show:3")).isFalse();
+    }
+
+    @ParameterizedTest
+    @EnumSource(SeatLockMode.class)
+    void renewExtendsOwnedLocksAndReportsLostOnes(SeatLockMode mode) {
+        setUp(mode, Duration.ofSeconds(2));
+        lockService.acquireSeatsLock(SHOW_ID, List.of(1L, 2L), 100L);
+        lockService.acquireSeatsLock(SHOW_ID + 1, List.of(1L), 200L);
+        // Booking 300 believes it holds seat 2, which belongs to booking 100
+        List<SeatLeaseRegistry.SeatLease> leases = List.of(
+                lease(100L, SHOW_ID, 1L, 2L), lease(200L, SHOW_ID + 1, 1L), lease(300L, SHOW_ID, 2L, 5L));
+
+        assertThat(lockService.renewSeatLocks(leases, Duration.ofMinutes(5))).containsExactly(300L);
+
+        // Renewed seats outlive the original 2 second TTL
+        assertThat(lockTtlMillis(SHOW_ID, 1L)).isGreaterThan(Duration.ofMinutes(4).toMillis());
+        assertThat(lockTtlMillis(SHOW_ID + 1, 1L)).isGreaterThan(Duration.ofMinutes(4).toMillis());
+        assertThat(lockService.getSeatLockOwner(SHOW_ID, 2L)).isEqualTo("booking:100");
+        assertThat(lockService.isSeatLocked(SHOW_ID, 5L)).isFalse();
+    }
+
+    @ParameterizedTest
+    @EnumSource(SeatLockMode.class)
+    void expiredLockCanBeTakenByAnotherBooking(SeatLockMode mode) throws InterruptedException {
+        setUp(mode, Duration.ofMillis(200));
+        lockService.acquireSeatsLock(SHOW_ID, List.of(1L), 100L);
+        lockService.acquireSeatsLock(SHOW_ID, List.of(2L), 200L);
+        // In SHOW_HASH mode this keeps the show hash alive, so seat 1 only expires through its field lease
+        lockService.renewSeatLocks(List.of(lease(200L, SHOW_ID, 2L)), Duration.ofMinutes(5));
+        Thread.sleep(400);
+
+        assertThat(lockService.isSeatLocked(SHOW_ID, 1L)).isFalse();
+        assertThat(lockService.getLockedSeats(SHOW_ID)).containsOnlyKeys(2L);
+        lockService.acquireSeatsLock(SHOW_ID, List.of(1L), 300L);
+        assertThat(lockService.getSeatLockOwner(SHOW_ID, 1L)).isEqualTo("booking:300");
+    }
+
+    @Test
+    void releaseOrThrowFailsWhenRedisCannotBeReached() throws IOException {
+        int closedPort;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            closedPort = socket.getLocalPort();
+        }
+        LettuceConnectionFactory connectionFactory = new LettuceConnectionFactory("127.0.0.1", closedPort);
+        connectionFactory.afterPropertiesSet();
+        connectionFactory.start();
+        try {
+            StringRedisTemplate unreachable = new StringRedisTemplate(connectionFactory);
+            RedisLockProperties properties = new RedisLockProperties();
+            properties.setKeyPrefix("lock:seat");
+            properties.setBookingPrefix("booking");
+            RedisLockService service = new RedisLockService(unreachable, properties,
+                    new SeatLockNearCache(unreachable, new SeatLockNearCacheProperties()),
+                    new SeatLockLeaseProperties(),
+                    new SeatLockMetrics(new SimpleMeterRegistry(), new SeatContentionTracker()));
+
+            assertThatThrownBy(() -> service.releaseSeatsLockOrThrow(SHOW_ID, List.of(1L), 100L,
+                    LockReleaseReason.PAYMENT_FAILED)).isInstanceOf(RedisConnectionFailureException.class);
+            // The quiet variant used on the request path logs and returns no outcome
+            assertThat(service.releaseSeatsLock(SHOW_ID, List.of(1L), 100L, LockReleaseReason.PAYMENT_FAILED))
+                    .isEmpty();
+        } finally {
+            connectionFactory.destroy();
+        }
+    }
+
+    private long lockTtlMillis(long showId, long seatId) {
+        if (lockProperties.getMode() == SeatLockMode.KEY_PER_SEAT) {
+            return redisTemplate.getExpire(lockProperties.generateSeatLockKey(showId, seatId), TimeUnit.MILLISECONDS);
+        }
+        // Field value is owner|expiresAtMillis
+        String value = (String) redisTemplate.opsForHash().get(lockProperties.generateShowLockKey(showId), String.valueOf(seatId));
+        return Long.parseLong(value.substring(value.indexOf('|') + 1)) - System.currentTimeMillis();
+    }
+
+    private static SeatLeaseRegistry.SeatLease lease(long bookingId, long showId, Long... seatIds) {
+        return new SeatLeaseRegistry.SeatLease(bookingId, showId, List.of(seatIds), Instant.now().plusSeconds(60));
+    }
+}
@@ -0,0 +1,38 @@
+package com.bookticket.booking_service.service;
+
+import com.bookticket.booking_service.dto.SeatContentionEntry;
+import com.bookticket.booking_service.dto.SeatContentionReport;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SeatContentionTrackerTest {
+
+    private final SeatContentionTracker tracker = new SeatContentionTracker();
+
+    @Test
+    void showEntriesCarryAttemptsAndContentionRate() {
+        for (int i = 0; i < 6; i++) {
+            tracker.recordAttempt(1L);
+        }
+        tracker.recordConflict(1L, List.of(10L, 11L));
+        tracker.recordConflict(1L, List.of(10L));
+        tracker.recordConflict(2L, List.of(20L));
+
+        SeatContentionReport report = tracker.getTopContended(10);
+
+        assertThat(report.topShows()).containsExactly(
+                new SeatContentionEntry(1L, null, 3, 8L, 0.25),
+                new SeatContentionEntry(2L, null, 1, 1L, 1.0));
+        assertThat(report.topSeats()).first().isEqualTo(new SeatContentionEntry(1L, 10L, 2, null, null));
+    }
+
+    @Test
+    void showsWithoutConflictsAreNotListed() {
+        tracker.recordAttempt(3L);
+
+        assertThat(tracker.getTopContended(10).topShows()).isEmpty();
+    }
+}
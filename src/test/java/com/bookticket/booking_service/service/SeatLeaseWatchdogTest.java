@@ -0,0 +1,160 @@
+package com.bookticket.booking_service.service;
+
+import com.bookticket.booking_service.configuration.SeatLockLeaseProperties;
+import com.bookticket.booking_service.entity.Booking;
+import com.bookticket.booking_service.enums.BookingStatus;
+import com.bookticket.booking_service.repository.BookingRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.RedisConnectionFailureException;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class SeatLeaseWatchdogTest {
+
+    private static final long SHOW_ID = 7L;
+    private static final Duration LEASE_TTL = Duration.ofMinutes(2);
+
+    @Mock
+    private SeatLockBackend seatLockBackend;
+    @Mock
+    private BookingRepository bookingRepository;
+    @Mock
+    private BookingService bookingService;
+
+    private SeatLockLeaseProperties leaseProperties;
+    private SeatLeaseRegistry seatLeaseRegistry;
+    private SeatLeaseWatchdog watchdog;
+
+    @BeforeEach
+    void setUp() {
+        leaseProperties = new SeatLockLeaseProperties();
+        leaseProperties.setEnabled(true);
+        leaseProperties.setTtl(LEASE_TTL);
+        seatLeaseRegistry = new SeatLeaseRegistry(leaseProperties);
+        watchdog = new SeatLeaseWatchdog(seatLeaseRegistry, leaseProperties, seatLockBackend,
+                bookingRepository, bookingService);
+    }
+
+    @Test
+    void pendingBookingsAreRenewedInOneBatch() {
+        seatLeaseRegistry.register(100L, SHOW_ID, List.of(1L, 2L), null);
+        seatLeaseRegistry.register(200L, SHOW_ID, List.of(3L), null);
+        when(bookingRepository.findAllById(anyCollection())).thenReturn(
+                bookings(BookingStatus.PENDING, 100L, 200L));
+        when(seatLockBackend.renewSeatLocks(anyCollection(), any())).thenReturn(Set.of());
+
+        watchdog.renewLeases();
+
+        verify(seatLockBackend).renewSeatLocks(argThat(leases -> leases.size() == 2), eq(LEASE_TTL));
+        verifyNoInteractions(bookingService);
+        assertThat(seatLeaseRegistry.getActiveLeases()).hasSize(2);
+    }
+
+    @Test
+    void bookingPastItsPaymentSessionIsExpiredInsteadOfRenewed() {
+        long sessionEndedAt = Instant.now().minusSeconds(1).getEpochSecond();
+        seatLeaseRegistry.register(100L, SHOW_ID, List.of(1L), sessionEndedAt);
+        when(bookingRepository.findAllById(anyCollection())).thenReturn(bookings(BookingStatus.PENDING, 100L));
+        when(seatLockBackend.renewSeatLocks(anyCollection(), any())).thenReturn(Set.of());
+
+        watchdog.renewLeases();
+
+        verify(seatLockBackend).renewSeatLocks(List.of(), LEASE_TTL);
+        verify(bookingService).expirePendingBooking(100L, "Payment session expired");
+    }
+
+    @Test
+    void bookingThatLostItsLocksIsExpired() {
+        seatLeaseRegistry.register(100L, SHOW_ID, List.of(1L), null);
+        seatLeaseRegistry.register(200L, SHOW_ID, List.of(2L), null);
+        when(bookingRepository.findAllById(anyCollection())).thenReturn(
+                bookings(BookingStatus.PENDING, 100L, 200L));
+        when(seatLockBackend.renewSeatLocks(anyCollection(), any())).thenReturn(Set.of(200L));
+
+        watchdog.renewLeases();
+
+        verify(bookingService).expirePendingBooking(200L, "Seat lock lease lost");
+        verify(bookingService, never()).expirePendingBooking(eq(100L), anyString());
+    }
+
+    @Test
+    void leaseOfAFinishedBookingIsDroppedWithoutRenewal() {
+        seatLeaseRegistry.register(100L, SHOW_ID, List.of(1L), null);
+        when(bookingRepository.findAllById(anyCollection())).thenReturn(bookings(BookingStatus.CONFIRMED, 100L));
+        when(seatLockBackend.renewSeatLocks(anyCollection(), any())).thenReturn(Set.of());
+
+        watchdog.renewLeases();
+
+        verify(seatLockBackend).renewSeatLocks(List.of(), LEASE_TTL);
+        assertThat(seatLeaseRegistry.getActiveLeases()).isEmpty();
+        verifyNoInteractions(bookingService);
+    }
+
+    @Test
+    void failedRenewalKeepsTheLeasesForTheNextRun() {
+        seatLeaseRegistry.register(100L, SHOW_ID, List.of(1L), null);
+        when(bookingRepository.findAllById(anyCollection())).thenReturn(bookings(BookingStatus.PENDING, 100L));
+        when(seatLockBackend.renewSeatLocks(anyCollection(), any()))
+                .thenThrow(new RedisConnectionFailureException("Redis down"));
+
+        watchdog.renewLeases();
+
+        assertThat(seatLeaseRegistry.getActiveLeases()).extracting(SeatLeaseRegistry.SeatLease::bookingId)
+                .containsExactly(100L);
+        verifyNoInteractions(bookingService);
+    }
+
+    @Test
+    void leaseIsRenewedNoLongerThanTheMaxHold() {
+        leaseProperties.setMaxHold(Duration.ofMinutes(15));
+        Instant before = Instant.now();
+
+        seatLeaseRegistry.register(100L, SHOW_ID, List.of(1L), before.plus(Duration.ofHours(1)).getEpochSecond());
+
+        assertThat(seatLeaseRegistry.getActiveLeases().get(0).renewUntil())
+                .isBetween(before.plus(Duration.ofMinutes(15)), Instant.now().plus(Duration.ofMinutes(15)));
+    }
+
+    @Test
+    void disabledLeasesAreNeitherRegisteredNorRenewed() {
+        leaseProperties.setEnabled(false);
+        seatLeaseRegistry.register(100L, SHOW_ID, List.of(1L), null);
+
+        watchdog.renewLeases();
+
+        assertThat(seatLeaseRegistry.getActiveLeases()).isEmpty();
+        verifyNoInteractions(seatLockBackend, bookingRepository, bookingService);
+    }
+
+    private static List<Booking> bookings(BookingStatus status, Long... ids) {
+        return Arrays.stream(ids)
+                .map(id -> {
+                    Booking booking = new Booking();
+                    booking.setId(id);
+                    booking.setShowId(SHOW_ID);
+                    booking.setStatus(status);
+                    return booking;
+                })
+                .toList();
+    }
+}
@@ -0,0 +1,113 @@
+package com.bookticket.booking_service.service;
+
+import com.bookticket.booking_service.configuration.RedisLockProperties;
+import com.bookticket.booking_service.dto.SeatLockStatusResponse;
+import com.bookticket.booking_service.dto.ShowSeatLockStatusResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class SeatLockAdminServiceTest {
+
+    private static final long SHOW_ID = 7L;
+
+    @Mock
+    private SeatLockBackend seatLockBackend;
+    @Mock
+    private ReactiveRedisLockService reactiveLockService;
+    @Mock
+    private ObjectProvider<ReactiveRedisLockService> reactiveLockServiceProvider;
+
+    private RedisLockProperties lockProperties;
+
+    @BeforeEach
+    void setUp() {
+        lockProperties = new RedisLockProperties();
+        lockProperties.setBookingPrefix("booking");
+    }
+
+    @Test
+    void seatStatusesAreReadInOneBatchInRequestOrder() {
+        Map<Long, String> owners = new LinkedHashMap<>();
+        owners.put(3L, "booking:100");
+        owners.put(1L, null);
+        owners.put(2L, "booking:200");
+        when(seatLockBackend.getSeatLockOwners(SHOW_ID, List.of(3L, 1L, 2L))).thenReturn(owners);
+
+        StepVerifier.create(adminService(null).getSeatLockStatuses(SHOW_ID, List.of(3L, 1L, 2L)))
+                .assertNext(response -> {
+                    assertThat(response.lockedCount()).isEqualTo(2);
+                    assertThat(response.seats()).containsExactly(
+                            new SeatLockStatusResponse(3L, true, 100L),
+                            new SeatLockStatusResponse(1L, false, null),
+                            new SeatLockStatusResponse(2L, true, 200L));
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    void reactiveLookupReportsUnlockedSeatsToo() {
+        // The reactive service only emits locked seats, in any order
+        when(reactiveLockService.getSeatLockOwners(SHOW_ID, List.of(3L, 1L, 2L))).thenReturn(Flux.just(
+                Map.entry(2L, "booking:200"), Map.entry(3L, "booking:100")));
+
+        StepVerifier.create(adminService(reactiveLockService).getSeatLockStatuses(SHOW_ID, List.of(3L, 1L, 2L)))
+                .assertNext(response -> {
+                    assertThat(response.lockedCount()).isEqualTo(2);
+                    assertThat(response.seats()).containsExactly(
+                            new SeatLockStatusResponse(3L, true, 100L),
+                            new SeatLockStatusResponse(1L, false, null),
+                            new SeatLockStatusResponse(2L, true, 200L));
+                })
+                .verifyComplete();
+        verify(seatLockBackend, never()).getSeatLockOwners(any(), anyList());
+    }
+
+    @Test
+    void blockingLookupRunsOnlyOnSubscription() {
+        adminService(null).getSeatLockStatuses(SHOW_ID, List.of(1L));
+
+        verify(seatLockBackend, never()).getSeatLockOwners(any(), anyList());
+    }
+
+    @Test
+    void lockedSeatsListEveryLockOfTheShow() {
+        when(seatLockBackend.getLockedSeats(SHOW_ID)).thenReturn(Map.of(4L, "booking:100"));
+
+        ShowSeatLockStatusResponse response = adminService(null).getLockedSeats(SHOW_ID);
+
+        assertThat(response.showId()).isEqualTo(SHOW_ID);
+        assertThat(response.lockedCount()).isEqualTo(1);
+        assertThat(response.seats()).containsExactly(new SeatLockStatusResponse(4L, true, 100L));
+    }
+
+    @Test
+    void lockValueWithoutABookingIdIsReportedAsLockedWithoutOwner() {
+        when(seatLockBackend.getLockedSeats(SHOW_ID)).thenReturn(Map.of(4L, "manual-hold"));
+
+        assertThat(adminService(null).getLockedSeats(SHOW_ID).seats())
+                .containsExactly(new SeatLockStatusResponse(4L, true, null));
+    }
+
+    private SeatLockAdminService adminService(ReactiveRedisLockService reactive) {
+        when(reactiveLockServiceProvider.getIfAvailable()).thenReturn(reactive);
+        return new SeatLockAdminService(seatLockBackend, reactiveLockServiceProvider, lockProperties);
+    }
+}
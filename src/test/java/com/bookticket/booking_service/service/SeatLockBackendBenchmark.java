@@ -0,0 +1,144 @@
+package com.bookticket.booking_service.service;
+
+import com.bookticket.booking_service.configuration.RedisLockProperties;
+import com.bookticket.booking_service.configuration.SeatLockLeaseProperties;
+import com.bookticket.booking_service.configuration.SeatLockNearCacheProperties;
+import com.bookticket.booking_service.enums.LockReleaseReason;
+import com.bookticket.booking_service.exception.SeatLockException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Throughput and per-booking latency of each seat lock backend at 1, 8 and 64 concurrent bookers
+ * Each booking locks 4 adjacent seats in one of 20 shows of 2,000 seats, then releases them.
+ * A booking that hits a seat held by another one counts as done, like a rejected request.
+ * Skipped in normal builds. Run with:
+ *   mvn test -Dtest=SeatLockBackendBenchmark -Dbenchmark=true [-Dbenchmark.redis.host=localhost]
+ * The Redis backend is only measured when benchmark.redis.host is set.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 3)
+@Fork(1)
+public class SeatLockBackendBenchmark {
+
+    private static final int SHOWS = 20;
+    private static final int SEATS_PER_SHOW = 2_000;
+    private static final int SEATS_PER_BOOKING = 4;
+
+    @Param({"in-memory", "redis"})
+    public String backend;
+
+    private final AtomicLong bookingIds = new AtomicLong();
+    private SeatLockBackend seatLockBackend;
+    private LettuceConnectionFactory connectionFactory;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        RedisLockProperties lockProperties = new RedisLockProperties();
+        lockProperties.setKeyPrefix("benchmark:lock:seat");
+        lockProperties.setBookingPrefix("booking");
+        lockProperties.setTtl(Duration.ofMinutes(5));
+        SeatLockLeaseProperties leaseProperties = new SeatLockLeaseProperties();
+        SeatLockMetrics metrics = new SeatLockMetrics(new SimpleMeterRegistry(), new SeatContentionTracker());
+
+        if ("redis".equals(backend)) {
+            connectionFactory = new LettuceConnectionFactory(System.getProperty("benchmark.redis.host"),
+                    Integer.getInteger("benchmark.redis.port", 6379));
+            connectionFactory.afterPropertiesSet();
+            connectionFactory.start();
+            StringRedisTemplate redisTemplate = new StringRedisTemplate(connectionFactory);
+            SeatLockNearCache nearCache = new SeatLockNearCache(redisTemplate, new SeatLockNearCacheProperties());
+            seatLockBackend = new RedisLockService(redisTemplate, lockProperties, nearCache, leaseProperties, metrics);
+        } else {
+            seatLockBackend = new InMemorySeatLockBackend(lockProperties, leaseProperties, metrics);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        if (connectionFactory != null) {
+            connectionFactory.destroy();
+        }
+    }
+
+    @Benchmark
+    @Threads(1)
+    public boolean oneBooker() {
+        return lockAndRelease();
+    }
+
+    @Benchmark
+    @Threads(8)
+    public boolean eightBookers() {
+        return lockAndRelease();
+    }
+
+    @Benchmark
+    @Threads(64)
+    public boolean sixtyFourBookers() {
+        return lockAndRelease();
+    }
+
+    private boolean lockAndRelease() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long showId = random.nextInt(SHOWS);
+        long firstSeat = random.nextInt(SEATS_PER_SHOW - SEATS_PER_BOOKING);
+        List<Long> seatIds = new ArrayList<>(SEATS_PER_BOOKING);
+        for (int s = 0; s < SEATS_PER_BOOKING; s++) {
+            seatIds.add(firstSeat + s);
+        }
+        long bookingId = bookingIds.incrementAndGet();
+        try {
+            seatLockBackend.acquireSeatsLock(showId, seatIds, bookingId);
+        } catch (SeatLockException e) {
+            return false;
+        }
+        seatLockBackend.releaseSeatsLock(showId, seatIds, bookingId, LockReleaseReason.CONFIRMED);
+        return true;
+    }
+
+    @Test
+    @EnabledIfSystemProperty(named = "benchmark", matches = "true")
+    void runBenchmark() throws Exception {
+        String redisHost = System.getProperty("benchmark.redis.host");
+        ChainedOptionsBuilder options = new OptionsBuilder()
+                .include(SeatLockBackendBenchmark.class.getSimpleName());
+        if (redisHost != null) {
+            options.jvmArgsAppend("-Dbenchmark.redis.host=" + redisHost,
+                    "-Dbenchmark.redis.port=" + Integer.getInteger("benchmark.redis.port", 6379));
+        } else {
+            options.param("backend", "in-memory");
+        }
+        new Runner(options.build()).run();
+    }
+}
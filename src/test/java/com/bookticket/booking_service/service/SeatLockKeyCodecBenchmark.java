@@ -0,0 +1,83 @@
+package com.bookticket.booking_service.service;
+
+import com.bookticket.booking_service.configuration.RedisLockProperties;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Allocation and time per seat lock operation for the key encoding of a 4-seat acquire
+ * (4 seat keys, the booking lock value and the TTL argument), before and after SeatLockKeyCodec.
+ * "stringKeys" is the old path: String.format, then the UTF-8 encoding done by StringRedisSerializer.
+ * Compare gc.alloc.rate.norm (bytes per operation) in the output.
+ * Skipped in normal builds. Run with:
+ *   mvn test -Dtest=SeatLockKeyCodecBenchmark -Dbenchmark=true
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SeatLockKeyCodecBenchmark {
+
+    private static final long SHOW_ID = 1_204L;
+    private static final List<Long> SEAT_IDS = List.of(88_301L, 88_302L, 88_303L, 88_304L);
+    private static final long BOOKING_ID = 5_730_112L;
+    private static final long TTL_MILLIS = 600_000L;
+
+    private RedisLockProperties lockProperties;
+    private SeatLockKeyCodec keyCodec;
+
+    @Setup
+    public void setUp() {
+        lockProperties = new RedisLockProperties();
+        lockProperties.setKeyPrefix("lock:seat");
+        lockProperties.setBookingPrefix("booking");
+        keyCodec = new SeatLockKeyCodec(lockProperties);
+    }
+
+    @Benchmark
+    public void stringKeys(Blackhole blackhole) {
+        for (Long seatId : SEAT_IDS) {
+            blackhole.consume(lockProperties.generateSeatLockKey(SHOW_ID, seatId).getBytes(StandardCharsets.UTF_8));
+        }
+        blackhole.consume(lockProperties.generateBookingLockValue(BOOKING_ID).getBytes(StandardCharsets.UTF_8));
+        blackhole.consume(String.valueOf(TTL_MILLIS).getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Benchmark
+    public void codecKeys(Blackhole blackhole) {
+        for (Long seatId : SEAT_IDS) {
+            blackhole.consume(keyCodec.seatKey(SHOW_ID, seatId));
+        }
+        blackhole.consume(keyCodec.bookingValue(BOOKING_ID));
+        blackhole.consume(SeatLockKeyCodec.decimal(TTL_MILLIS));
+    }
+
+    @Test
+    @EnabledIfSystemProperty(named = "benchmark", matches = "true")
+    void runBenchmark() throws Exception {
+        new Runner(new OptionsBuilder()
+                .include(SeatLockKeyCodecBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+    }
+}
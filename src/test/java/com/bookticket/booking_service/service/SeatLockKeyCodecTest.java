@@ -0,0 +1,91 @@
+package com.bookticket.booking_service.service;
+
+import com.bookticket.booking_service.configuration.RedisLockProperties;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SeatLockKeyCodecTest {
+
+    // Every digit count, powers of ten and their neighbours, and the extremes
+    private static final List<Long> IDS = ids();
+
+    @ParameterizedTest
+    @ValueSource(strings = {"lock:seat", "bookticket:lock:seat", "verrou:siège"})
+    void seatKeysMatchTheStringKeysStoredInRedis(String keyPrefix) {
+        RedisLockProperties lockProperties = lockProperties(keyPrefix);
+        SeatLockKeyCodec keyCodec = new SeatLockKeyCodec(lockProperties);
+
+        for (Long showId : IDS) {
+            for (Long seatId : List.of(0L, 7L, 42L, 999L, 123_456L, Long.MAX_VALUE, -3L)) {
+                assertThat(keyCodec.seatKey(showId, seatId))
+                        .as("seat key %d:%d", showId, seatId)
+                        .isEqualTo(utf8(lockProperties.generateSeatLockKey(showId, seatId)));
+                assertThat(keyCodec.seatKey(seatId, showId))
+                        .as("seat key %d:%d", seatId, showId)
+                        .isEqualTo(utf8(lockProperties.generateSeatLockKey(seatId, showId)));
+            }
+            assertThat(keyCodec.showKey(showId))
+                    .as("show key %d", showId)
+                    .isEqualTo(utf8(lockProperties.generateShowLockKey(showId)));
+        }
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"booking", "réservation"})
+    void bookingValuesMatchTheStringValuesStoredInRedis(String bookingPrefix) {
+        RedisLockProperties lockProperties = lockProperties("lock:seat");
+        lockProperties.setBookingPrefix(bookingPrefix);
+        SeatLockKeyCodec keyCodec = new SeatLockKeyCodec(lockProperties);
+
+        for (Long bookingId : IDS) {
+            assertThat(keyCodec.bookingValue(bookingId))
+                    .as("booking value %d", bookingId)
+                    .isEqualTo(utf8(lockProperties.generateBookingLockValue(bookingId)));
+        }
+    }
+
+    @ParameterizedTest
+    @ValueSource(longs = {0, 9, 10, -1, -10, 300_000, Long.MAX_VALUE, Long.MIN_VALUE})
+    void decimalArgumentsMatchTheStringArguments(long value) {
+        assertThat(SeatLockKeyCodec.decimal(value)).isEqualTo(utf8(String.valueOf(value)));
+    }
+
+    @ParameterizedTest
+    @ValueSource(longs = {5, 1_204})
+    void seatKeyStringsFormatTheSameKeys(long showId) {
+        RedisLockProperties lockProperties = lockProperties("lock:seat");
+        SeatLockKeyCodec keyCodec = new SeatLockKeyCodec(lockProperties);
+        List<Long> seatIds = List.of(1L, 20L, 300L);
+
+        assertThat(keyCodec.seatKeyStrings(showId, seatIds)).containsExactly(
+                "lock:seat:" + showId + ":1", "lock:seat:" + showId + ":20", "lock:seat:" + showId + ":300");
+    }
+
+    private static List<Long> ids() {
+        List<Long> ids = new ArrayList<>();
+        LongStream.rangeClosed(-12, 120).forEach(ids::add);
+        for (long power = 10; power <= Long.MAX_VALUE / 10; power *= 10) {
+            ids.addAll(List.of(power - 1, power, power + 1, -power));
+        }
+        ids.addAll(List.of(Long.MAX_VALUE, Long.MIN_VALUE, Long.MIN_VALUE + 1, 1_000_000_007L));
+        return ids;
+    }
+
+    private static RedisLockProperties lockProperties(String keyPrefix) {
+        RedisLockProperties lockProperties = new RedisLockProperties();
+        lockProperties.setKeyPrefix(keyPrefix);
+        lockProperties.setBookingPrefix("booking");
+        return lockProperties;
+    }
+
+    private static byte[] utf8(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,170 @@
+package com.bookticket.booking_service.service;
+
+import com.bookticket.booking_service.RedisTestServer;
+import com.bookticket.booking_service.configuration.RedisLockProperties;
+import com.bookticket.booking_service.configuration.SeatLockLeaseProperties;
+import com.bookticket.booking_service.configuration.SeatLockNearCacheProperties;
+import com.bookticket.booking_service.enums.LockReleaseReason;
+import com.bookticket.booking_service.enums.SeatLockMode;
+import com.bookticket.booking_service.exception.SeatLockException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SeatLockNearCacheTest {
+
+    private static final long SHOW_ID = 3L;
+
+    private StringRedisTemplate redisTemplate;
+    private SeatLockNearCacheProperties properties;
+
+    @BeforeEach
+    void setUp() {
+        redisTemplate = RedisTestServer.flushedTemplate();
+        properties = new SeatLockNearCacheProperties();
+        properties.setEnabled(true);
+    }
+
+    @Test
+    void lockEventRejectsTheHeldSeatsBeforeAnyRedisCall() {
+        SeatLockNearCache nearCache = new SeatLockNearCache(redisTemplate, properties);
+        RedisLockService lockService = lockService(nearCache);
+
+        nearCache.onMessage(event("A|3|" + inMillis(60_000) + "|1,2"), null);
+
+        assertThat(nearCache.findHeldSeats(SHOW_ID, List.of(1L, 2L, 3L))).containsExactly(1L, 2L);
+        assertThatThrownBy(() -> lockService.rejectKnownHeldSeats(SHOW_ID, List.of(2L, 3L)))
+                .isInstanceOf(SeatLockException.class)
+                .hasMessageContaining("[2]");
+        assertThatCode(() -> lockService.rejectKnownHeldSeats(SHOW_ID, List.of(3L))).doesNotThrowAnyException();
+        // Only seats of the same show are held
+        assertThat(nearCache.findHeldSeats(4L, List.of(1L, 2L))).isEmpty();
+    }
+
+    @Test
+    void releaseEventFreesTheSeats() {
+        SeatLockNearCache nearCache = new SeatLockNearCache(redisTemplate, properties);
+        nearCache.onMessage(event("A|3|" + inMillis(60_000) + "|1,2"), null);
+
+        nearCache.onMessage(event("R|3|1"), null);
+
+        assertThat(nearCache.findHeldSeats(SHOW_ID, List.of(1L, 2L))).containsExactly(2L);
+    }
+
+    @Test
+    void heldSeatIsForgottenWhenItsLockExpires() throws InterruptedException {
+        SeatLockNearCache nearCache = new SeatLockNearCache(redisTemplate, properties);
+        nearCache.onMessage(event("A|3|" + inMillis(100) + "|1"), null);
+        nearCache.onMessage(event("A|3|" + inMillis(-1) + "|2"), null);
+
+        assertThat(nearCache.findHeldSeats(SHOW_ID, List.of(1L, 2L))).containsExactly(1L);
+        Thread.sleep(200);
+        assertThat(nearCache.findHeldSeats(SHOW_ID, List.of(1L, 2L))).isEmpty();
+    }
+
+    @Test
+    void heldSeatIsTrustedNoLongerThanTheMaxStaleness() throws InterruptedException {
+        properties.setMaxStaleness(Duration.ofMillis(100));
+        SeatLockNearCache nearCache = new SeatLockNearCache(redisTemplate, properties);
+
+        // A missed release event must not reject the seat for the whole lock TTL
+        nearCache.onMessage(event("A|3|" + inMillis(60_000) + "|1"), null);
+        Thread.sleep(200);
+
+        assertThat(nearCache.findHeldSeats(SHOW_ID, List.of(1L))).isEmpty();
+    }
+
+    @Test
+    void malformedEventIsIgnored() {
+        SeatLockNearCache nearCache = new SeatLockNearCache(redisTemplate, properties);
+
+        assertThatCode(() -> nearCache.onMessage(event("A|3|not-a-time|1"), null)).doesNotThrowAnyException();
+        assertThat(nearCache.findHeldSeats(SHOW_ID, List.of(1L))).isEmpty();
+    }
+
+    @Test
+    void disabledCacheAcceptsEverySeat() {
+        properties.setEnabled(false);
+        SeatLockNearCache nearCache = new SeatLockNearCache(redisTemplate, properties);
+        nearCache.onSeatsLocked(SHOW_ID, List.of(1L), inMillis(60_000));
+        nearCache.onMessage(event("A|3|" + inMillis(60_000) + "|1"), null);
+
+        assertThat(nearCache.findHeldSeats(SHOW_ID, List.of(1L))).isEmpty();
+        assertThatCode(() -> lockService(nearCache).rejectKnownHeldSeats(SHOW_ID, List.of(1L)))
+                .doesNotThrowAnyException();
+    }
+
+    @Test
+    void locksTakenOnOneInstanceReachTheOtherOverPubSub() {
+        SeatLockNearCache localCache = new SeatLockNearCache(redisTemplate, properties);
+        SeatLockNearCache remoteCache = new SeatLockNearCache(redisTemplate, properties);
+        RedisMessageListenerContainer container = subscribe(localCache, remoteCache);
+        try {
+            RedisLockService local = lockService(localCache);
+            RedisLockService remote = lockService(remoteCache);
+
+            local.acquireSeatsLock(SHOW_ID, List.of(1L, 2L), 100L);
+            awaitTrue(() -> remoteCache.findHeldSeats(SHOW_ID, List.of(1L, 2L)).size() == 2);
+            assertThatThrownBy(() -> remote.rejectKnownHeldSeats(SHOW_ID, List.of(2L, 3L)))
+                    .isInstanceOf(SeatLockException.class);
+
+            local.releaseSeatsLock(SHOW_ID, List.of(1L, 2L), 100L, LockReleaseReason.PAYMENT_FAILED);
+            awaitTrue(() -> remoteCache.findHeldSeats(SHOW_ID, List.of(1L, 2L)).isEmpty());
+            assertThatCode(() -> remote.rejectKnownHeldSeats(SHOW_ID, List.of(2L, 3L))).doesNotThrowAnyException();
+        } finally {
+            container.stop();
+        }
+    }
+
+    private RedisMessageListenerContainer subscribe(SeatLockNearCache... nearCaches) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(redisTemplate.getRequiredConnectionFactory());
+        for (SeatLockNearCache nearCache : nearCaches) {
+            container.addMessageListener(nearCache, new ChannelTopic(properties.getChannel()));
+        }
+        container.afterPropertiesSet();
+        // Returns once the subscription is active, so no event published after it is missed
+        container.start();
+        return container;
+    }
+
+    private RedisLockService lockService(SeatLockNearCache nearCache) {
+        RedisLockProperties lockProperties = new RedisLockProperties();
+        lockProperties.setKeyPrefix("lock:seat");
+        lockProperties.setBookingPrefix("booking");
+        lockProperties.setTtl(Duration.ofMinutes(5));
+        lockProperties.setMode(SeatLockMode.KEY_PER_SEAT);
+        return new RedisLockService(redisTemplate, lockProperties, nearCache, new SeatLockLeaseProperties(),
+                new SeatLockMetrics(new SimpleMeterRegistry(), new SeatContentionTracker()));
+    }
+
+    private DefaultMessage event(String body) {
+        return new DefaultMessage(properties.getChannel().getBytes(StandardCharsets.UTF_8),
+                body.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static long inMillis(long millis) {
+        return System.currentTimeMillis() + millis;
+    }
+
+    private static void awaitTrue(BooleanSupplier condition) {
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (!condition.getAsBoolean()) {
+            assertThat(System.currentTimeMillis()).as("condition met within 5s").isLessThan(deadline);
+            Thread.onSpinWait();
+        }
+    }
+}
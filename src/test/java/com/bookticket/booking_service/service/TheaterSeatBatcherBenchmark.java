@@ -0,0 +1,113 @@
+package com.bookticket.booking_service.service;
+
+import com.bookticket.booking_service.configuration.TheaterBatchingProperties;
+import com.bookticket.booking_service.dto.ValidSeatResponse;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.List;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.LongStream;
+
+/**
+ * Per-request latency of theater seat lock calls with batching off and on
+ * The theater service stand-in answers after 2 ms and serves at most 8 requests at a time (the
+ * connection pool to it). "quietShow" is one caller at a time on a show, "busyShow" 32 concurrent
+ * callers on the same show, each locking its own 2 seats.
+ * Compare the sample time percentiles in the output.
+ * Skipped in normal builds. Run with:
+ *   mvn test -Dtest=TheaterSeatBatcherBenchmark -Dbenchmark=true
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 3)
+@Fork(1)
+public class TheaterSeatBatcherBenchmark {
+
+    private static final long SHOW_ID = 1_204L;
+    private static final long THEATER_MILLIS = 2;
+    private static final int THEATER_CONNECTIONS = 8;
+
+    @Param({"false", "true"})
+    public boolean batching;
+
+    private final Semaphore theaterConnections = new Semaphore(THEATER_CONNECTIONS, true);
+    private TheaterSeatBatcher batcher;
+
+    @Setup
+    public void setUp() {
+        TheaterBatchingProperties properties = new TheaterBatchingProperties();
+        properties.setEnabled(batching);
+        batcher = new TheaterSeatBatcher("lock", true, this::theaterLock, properties, new SimpleMeterRegistry());
+    }
+
+    @State(Scope.Thread)
+    public static class CallerSeats {
+        private static final AtomicLong nextCaller = new AtomicLong();
+        private List<Long> seatIds;
+
+        @Setup
+        public void setUp() {
+            long caller = nextCaller.getAndIncrement();
+            seatIds = LongStream.of(caller * 2, caller * 2 + 1).boxed().toList();
+        }
+    }
+
+    @Benchmark
+    @Threads(1)
+    public List<ValidSeatResponse> quietShow(CallerSeats seats) {
+        return lockSeats(seats.seatIds);
+    }
+
+    @Benchmark
+    @Threads(32)
+    public List<ValidSeatResponse> busyShow(CallerSeats seats) {
+        return lockSeats(seats.seatIds);
+    }
+
+    // Same choice as TheaterService.lockSeats
+    private List<ValidSeatResponse> lockSeats(List<Long> seatIds) {
+        return batching ? batcher.execute(SHOW_ID, seatIds) : theaterLock(SHOW_ID, seatIds);
+    }
+
+    private List<ValidSeatResponse> theaterLock(Long showId, List<Long> seatIds) {
+        theaterConnections.acquireUninterruptibly();
+        try {
+            Thread.sleep(THEATER_MILLIS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            theaterConnections.release();
+        }
+        return seatIds.stream()
+                .map(seatId -> new ValidSeatResponse(seatId, "A" + seatId, "REGULAR", 250.0))
+                .toList();
+    }
+
+    @Test
+    @EnabledIfSystemProperty(named = "benchmark", matches = "true")
+    void runBenchmark() throws Exception {
+        new Runner(new OptionsBuilder()
+                .include(TheaterSeatBatcherBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,229 @@
+package com.bookticket.booking_service.service;
+
+import com.bookticket.booking_service.configuration.TheaterBatchingProperties;
+import com.bookticket.booking_service.dto.ValidSeatResponse;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiFunction;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TheaterSeatBatcherTest {
+
+    private static final long SHOW_ID = 7L;
+    // Seat whose request stays in progress until the test releases it
+    private static final long SLOW_SEAT_ID = 100L;
+
+    private final List<List<Long>> requests = new CopyOnWriteArrayList<>();
+    // User id bound to the thread of each request, "service" when none was
+    private final List<String> requestIdentities = new CopyOnWriteArrayList<>();
+    private final CountDownLatch slowRequestStarted = new CountDownLatch(1);
+    private final CountDownLatch slowRequestReleased = new CountDownLatch(1);
+    private TheaterBatchingProperties properties;
+    private SimpleMeterRegistry meterRegistry;
+    private ExecutorService callers;
+
+    @BeforeEach
+    void setUp() {
+        properties = new TheaterBatchingProperties();
+        properties.setEnabled(true);
+        properties.setMaxBatchSize(3);
+        properties.setLinger(Duration.ofMillis(500));
+        meterRegistry = new SimpleMeterRegistry();
+        callers = Executors.newFixedThreadPool(4);
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        slowRequestReleased.countDown();
+        RequestContextHolder.resetRequestAttributes();
+        callers.shutdownNow();
+        callers.awaitTermination(5, TimeUnit.SECONDS);
+    }
+
+    @Test
+    void callOnQuietShowIsSentWithoutLingering() {
+        TheaterSeatBatcher batcher = batcher(this::seatsFor);
+
+        long startNanos = System.nanoTime();
+        List<ValidSeatResponse> seats = batcher.execute(SHOW_ID, List.of(1L, 2L));
+
+        assertThat(Duration.ofNanos(System.nanoTime() - startNanos)).isLessThan(properties.getLinger());
+        assertThat(seats).extracting(ValidSeatResponse::seatId).containsExactly(1L, 2L);
+        assertThat(requests).containsExactly(List.of(1L, 2L));
+    }
+
+    @Test
+    void concurrentCallsAreMergedAndEachCallerGetsItsOwnSeats() throws Exception {
+        TheaterSeatBatcher batcher = batcher(this::seatsFor);
+        // A call in progress marks the show as busy, so the next batch waits for others to join
+        Future<List<ValidSeatResponse>> slowCall = keepShowBusy(batcher, "9");
+
+        List<List<ValidSeatResponse>> results = runTogether(batcher,
+                List.of(List.of(1L, 2L), List.of(3L), List.of(4L, 5L)));
+
+        assertThat(requests).hasSize(2);
+        assertThat(requests.get(1)).containsExactlyInAnyOrder(1L, 2L, 3L, 4L, 5L);
+        assertThat(results.get(0)).extracting(ValidSeatResponse::seatId).containsExactly(1L, 2L);
+        assertThat(results.get(1)).extracting(ValidSeatResponse::seatId).containsExactly(3L);
+        assertThat(results.get(2)).extracting(ValidSeatResponse::seatId).containsExactly(4L, 5L);
+        slowRequestReleased.countDown();
+        assertThat(slowCall.get(5, TimeUnit.SECONDS)).extracting(ValidSeatResponse::seatId).containsExactly(SLOW_SEAT_ID);
+    }
+
+    @Test
+    void mergedRequestIsSentWithServiceIdentityAndSingleRequestWithCallers() throws Exception {
+        TheaterSeatBatcher batcher = batcher(this::seatsFor);
+        keepShowBusy(batcher, "42");
+
+        runTogether(batcher, List.of(List.of(1L), List.of(2L), List.of(3L)));
+
+        assertThat(requestIdentities).containsExactly("42", "service");
+    }
+
+    @Test
+    void leaderRequestIsBoundAgainAfterTheMergedRequest() throws Exception {
+        TheaterSeatBatcher batcher = batcher(this::seatsFor);
+        keepShowBusy(batcher, "42");
+        properties.setMaxBatchSize(2);
+        // Joins while this thread lingers as the leader of the batch
+        Future<?> follower = callers.submit(() -> {
+            Thread.sleep(100);
+            return batcher.execute(SHOW_ID, List.of(2L));
+        });
+        bindUser("7");
+
+        batcher.execute(SHOW_ID, List.of(1L));
+        follower.get(5, TimeUnit.SECONDS);
+
+        assertThat(requestIdentities).containsExactly("42", "service");
+        ServletRequestAttributes attributes = (ServletRequestAttributes) RequestContextHolder.getRequestAttributes();
+        assertThat(attributes).isNotNull();
+        assertThat(attributes.getRequest().getHeader("X-User-Id")).isEqualTo("7");
+    }
+
+    @Test
+    void failedMergedRequestIsRepeatedAloneForEachCaller() throws Exception {
+        // The theater service rejects the merged request because of seat 3, and then only the call for seat 3
+        TheaterSeatBatcher batcher = batcher((showId, seatIds) -> {
+            List<ValidSeatResponse> seats = seatsFor(showId, seatIds);
+            if (seatIds.contains(3L)) {
+                throw new IllegalStateException("Seat 3 is not available");
+            }
+            return seats;
+        });
+        keepShowBusy(batcher, "9");
+
+        List<Future<List<ValidSeatResponse>>> futures = submitTogether(batcher,
+                List.of(List.of(1L), List.of(2L), List.of(3L)));
+
+        assertThat(futures.get(0).get(5, TimeUnit.SECONDS)).extracting(ValidSeatResponse::seatId).containsExactly(1L);
+        assertThat(futures.get(1).get(5, TimeUnit.SECONDS)).extracting(ValidSeatResponse::seatId).containsExactly(2L);
+        assertThat(futures.get(2)).failsWithin(5, TimeUnit.SECONDS).withThrowableThat()
+                .withMessageContaining("Seat 3 is not available");
+        // Slow call, the merged request, then one request per caller
+        assertThat(requests).hasSize(5);
+        assertThat(meterRegistry.get("booking.theater.batch.fallbacks").counter().count()).isEqualTo(3);
+    }
+
+    @Test
+    void callsSharingASeatAreNotMerged() throws Exception {
+        TheaterSeatBatcher batcher = batcher(this::seatsFor);
+        properties.setLinger(Duration.ofMillis(50));
+        keepShowBusy(batcher, "9");
+
+        runTogether(batcher, List.of(List.of(1L), List.of(1L), List.of(1L)));
+
+        assertThat(requests.subList(1, requests.size())).containsOnly(List.of(1L));
+        assertThat(requests).hasSize(4);
+    }
+
+    private TheaterSeatBatcher batcher(BiFunction<Long, List<Long>, List<ValidSeatResponse>> theaterCall) {
+        return new TheaterSeatBatcher("lock", true, theaterCall, properties, meterRegistry);
+    }
+
+    /**
+     * Start a call for the show that stays in progress until slowRequestReleased is counted down
+     */
+    private Future<List<ValidSeatResponse>> keepShowBusy(TheaterSeatBatcher batcher, String userId)
+            throws InterruptedException {
+        Future<List<ValidSeatResponse>> slowCall = callers.submit(() -> {
+            bindUser(userId);
+            try {
+                return batcher.execute(SHOW_ID, List.of(SLOW_SEAT_ID));
+            } finally {
+                RequestContextHolder.resetRequestAttributes();
+            }
+        });
+        assertThat(slowRequestStarted.await(5, TimeUnit.SECONDS)).isTrue();
+        return slowCall;
+    }
+
+    private List<ValidSeatResponse> seatsFor(Long showId, List<Long> seatIds) {
+        requests.add(List.copyOf(seatIds));
+        ServletRequestAttributes attributes = (ServletRequestAttributes) RequestContextHolder.getRequestAttributes();
+        requestIdentities.add(attributes != null ? attributes.getRequest().getHeader("X-User-Id") : "service");
+        if (seatIds.contains(SLOW_SEAT_ID)) {
+            slowRequestStarted.countDown();
+            try {
+                slowRequestReleased.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        return seatIds.stream()
+                .map(seatId -> new ValidSeatResponse(seatId, "A" + seatId, "REGULAR", 250.0))
+                .toList();
+    }
+
+    private List<List<ValidSeatResponse>> runTogether(TheaterSeatBatcher batcher, List<List<Long>> seatIdsPerCaller)
+            throws Exception {
+        List<List<ValidSeatResponse>> results = new ArrayList<>();
+        for (Future<List<ValidSeatResponse>> future : submitTogether(batcher, seatIdsPerCaller)) {
+            results.add(future.get(5, TimeUnit.SECONDS));
+        }
+        return results;
+    }
+
+    private List<Future<List<ValidSeatResponse>>> submitTogether(TheaterSeatBatcher batcher,
+                                                                 List<List<Long>> seatIdsPerCaller) {
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<List<ValidSeatResponse>>> futures = new ArrayList<>();
+        for (int i = 0; i < seatIdsPerCaller.size(); i++) {
+            List<Long> seatIds = seatIdsPerCaller.get(i);
+            String userId = String.valueOf(i + 1);
+            futures.add(callers.submit(() -> {
+                bindUser(userId);
+                try {
+                    start.await();
+                    return batcher.execute(SHOW_ID, seatIds);
+                } finally {
+                    RequestContextHolder.resetRequestAttributes();
+                }
+            }));
+        }
+        start.countDown();
+        return futures;
+    }
+
+    private static void bindUser(String userId) {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader("X-User-Id", userId);
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+    }
+}
@@ -0,0 +1,111 @@
+package com.bookticket.booking_service.service;
+
+import com.bookticket.booking_service.RedisTestServer;
+import com.bookticket.booking_service.configuration.WaitingRoomProperties;
+import com.bookticket.booking_service.dto.WaitingRoomTicketResponse;
+import com.bookticket.booking_service.enums.AdmissionStatus;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class WaitingRoomServiceTest {
+
+    private static final long SHOW_ID = 12L;
+    private static final long USER_ID = 34L;
+
+    private StringRedisTemplate redisTemplate;
+    private WaitingRoomProperties properties;
+    private WaitingRoomService waitingRoomService;
+
+    @BeforeEach
+    void setUp() {
+        redisTemplate = RedisTestServer.flushedTemplate();
+        properties = new WaitingRoomProperties();
+        properties.setEnabled(true);
+        properties.setAdmitRatePerSecond(0.01);
+        properties.setAdmissionTtl(Duration.ofMinutes(2));
+        waitingRoomService = new WaitingRoomService(redisTemplate, properties);
+    }
+
+    @Test
+    void admittedTicketGetsOneTokenWithItsExpiryAndTokenKey() throws Exception {
+        String ticketId = joinAndWaitForAdmission();
+
+        WaitingRoomTicketResponse first = waitingRoomService.getTicketStatus(ticketId, USER_ID);
+        WaitingRoomTicketResponse second = waitingRoomService.getTicketStatus(ticketId, USER_ID);
+
+        assertThat(first.status()).isEqualTo(AdmissionStatus.ADMITTED);
+        assertThat(second.admissionToken()).isEqualTo(first.admissionToken());
+        assertThat(second.admissionExpiresAt()).isEqualTo(first.admissionExpiresAt());
+        assertThat(redisTemplate.opsForHash().get(ticketKey(), "tokenExpiresAt"))
+                .isEqualTo(String.valueOf(first.admissionExpiresAt()));
+        String tokenKey = "waiting-room:token:" + first.admissionToken();
+        assertThat(redisTemplate.opsForValue().get(tokenKey)).isEqualTo(SHOW_ID + "|" + USER_ID);
+        assertThat(redisTemplate.getExpire(tokenKey, TimeUnit.SECONDS)).isBetween(100L, 120L);
+    }
+
+    @Test
+    void concurrentPollsAllSeeTheSameTokenAndOnlyOneTokenKeyIsWritten() throws Exception {
+        String ticketId = joinAndWaitForAdmission();
+        ExecutorService pollers = Executors.newFixedThreadPool(8);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<WaitingRoomTicketResponse>> polls = new ArrayList<>();
+        try {
+            for (int i = 0; i < 8; i++) {
+                Callable<WaitingRoomTicketResponse> poll = () -> {
+                    start.await();
+                    return waitingRoomService.getTicketStatus(ticketId, USER_ID);
+                };
+                polls.add(pollers.submit(poll));
+            }
+            start.countDown();
+            Set<String> tokens = new HashSet<>();
+            for (Future<WaitingRoomTicketResponse> poll : polls) {
+                tokens.add(poll.get(5, TimeUnit.SECONDS).admissionToken());
+            }
+
+            assertThat(tokens).hasSize(1);
+            assertThat(redisTemplate.keys("waiting-room:token:*")).hasSize(1);
+        } finally {
+            pollers.shutdownNow();
+        }
+    }
+
+    @Test
+    void waitingTicketHasNoToken() {
+        WaitingRoomTicketResponse ticket = waitingRoomService.join(SHOW_ID, USER_ID);
+
+        assertThat(ticket.status()).isEqualTo(AdmissionStatus.WAITING);
+        assertThat(ticket.admissionToken()).isNull();
+        assertThat(redisTemplate.opsForHash().hasKey(ticketKey(), "token")).isFalse();
+        assertThat(redisTemplate.keys("waiting-room:token:*")).isEmpty();
+    }
+
+    /**
+     * Join while nobody is admitted yet, then admit at a rate that lets the ticket in after a few milliseconds
+     */
+    private String joinAndWaitForAdmission() throws InterruptedException {
+        String ticketId = waitingRoomService.join(SHOW_ID, USER_ID).ticketId();
+        properties.setAdmitRatePerSecond(1_000);
+        Thread.sleep(20);
+        return ticketId;
+    }
+
+    private static String ticketKey() {
+        return "waiting-room:show:" + SHOW_ID + ":user:" + USER_ID;
+    }
+}